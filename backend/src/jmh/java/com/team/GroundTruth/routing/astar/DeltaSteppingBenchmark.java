@@ -0,0 +1,101 @@
+package com.team.GroundTruth.routing.astar;
+
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares one-to-all sequential Dijkstra with delta-stepping at several pool sizes and bucket
+ * widths on a jittered city-sized grid. Speedup is {@code sequentialDijkstra / deltaStepping} for
+ * the same source set; pool sizes above the machine's core count only measure scheduling overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DeltaSteppingBenchmark {
+
+	private static final double SPACING_DEGREES = 0.0009;
+
+	@Param({"300"})
+	public int gridSize;
+
+	@Param({"1", "8", "16", "32"})
+	public int threads;
+
+	@Param({"30", "60", "120"})
+	public double deltaSeconds;
+
+	private RoutingGraph graph;
+	private int[] everyNode;
+	private int[] sources;
+	private int nextSource;
+	private ForkJoinPool pool;
+	private DeltaSteppingSearch search;
+	private final AStarRouter router = new AStarRouter();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(37L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < gridSize; row++) {
+			for (int col = 0; col < gridSize; col++) {
+				builder.addNode(row * gridSize + col,
+						47.5 + row * SPACING_DEGREES + random.nextDouble() * 2e-4,
+						-122.4 + col * SPACING_DEGREES + random.nextDouble() * 2e-4);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < gridSize; row++) {
+			for (int col = 0; col < gridSize; col++) {
+				long node = (long) row * gridSize + col;
+				if (col + 1 < gridSize) {
+					builder.addEdge(edgeId++, node, node + 1, 70.0, 50.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + 1, node, 70.0, 50.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+				}
+				if (row + 1 < gridSize) {
+					builder.addEdge(edgeId++, node, node + gridSize, 100.0, 70.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + gridSize, node, 100.0, 70.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+				}
+			}
+		}
+		graph = builder.build();
+		everyNode = IntStream.range(0, graph.nodeCount()).toArray();
+		sources = new int[16];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(graph.nodeCount());
+		}
+		pool = new ForkJoinPool(threads);
+		search = new DeltaSteppingSearch(pool, deltaSeconds);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Object sequentialDijkstra() {
+		int source = sources[nextSource++ & (sources.length - 1)];
+		return router.oneToMany(graph, source, everyNode, graph.baseCosts(), EdgeFlags.NONE);
+	}
+
+	@Benchmark
+	public Object deltaStepping() {
+		int source = sources[nextSource++ & (sources.length - 1)];
+		return search.oneToAll(graph, source, graph.baseCosts(), EdgeFlags.NONE);
+	}
+}
@@ -0,0 +1,113 @@
+package com.team.GroundTruth.routing.astar;
+
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import com.team.GroundTruth.routing.graph.GeoDistance;
+import com.team.GroundTruth.routing.graph.PlanarCoordinates;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the haversine heuristic with the planar lower bound, per evaluation and inside a full
+ * resident A* search on a jittered city-sized grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeuristicBenchmark {
+
+	private static final double SPACING_DEGREES = 0.0009;
+
+	@Param({"300"})
+	public int gridSize;
+
+	private RoutingGraph graph;
+	private PlanarCoordinates planar;
+	private double[] lats;
+	private double[] lons;
+	private int goalNode;
+	private double goalX;
+	private double goalY;
+	private int[] starts;
+	private int nextStart;
+	private final AStarRouter router = new AStarRouter();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(35L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < gridSize; row++) {
+			for (int col = 0; col < gridSize; col++) {
+				builder.addNode(row * gridSize + col,
+						47.5 + row * SPACING_DEGREES + random.nextDouble() * 2e-4,
+						-122.4 + col * SPACING_DEGREES + random.nextDouble() * 2e-4);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < gridSize; row++) {
+			for (int col = 0; col < gridSize; col++) {
+				long node = (long) row * gridSize + col;
+				if (col + 1 < gridSize) {
+					builder.addEdge(edgeId++, node, node + 1, 70.0, 50.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + 1, node, 70.0, 50.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+				}
+				if (row + 1 < gridSize) {
+					builder.addEdge(edgeId++, node, node + gridSize, 100.0, 70.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + gridSize, node, 100.0, 70.0 + random.nextDouble() * 20.0, EdgeFlags.NONE);
+				}
+			}
+		}
+		graph = builder.build();
+		planar = graph.planar();
+		lats = new double[graph.nodeCount()];
+		lons = new double[graph.nodeCount()];
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			lats[node] = graph.lat(node);
+			lons[node] = graph.lon(node);
+		}
+		goalNode = graph.indexOfNode((long) (gridSize - 1) * gridSize + gridSize / 2);
+		goalX = planar.x(goalNode);
+		goalY = planar.y(goalNode);
+		starts = new int[64];
+		for (int i = 0; i < starts.length; i++) {
+			starts[i] = random.nextInt(graph.nodeCount());
+		}
+	}
+
+	@Benchmark
+	public double haversineAllNodes() {
+		double goalLat = lats[goalNode];
+		double goalLon = lons[goalNode];
+		double sum = 0.0;
+		for (int node = 0; node < lats.length; node++) {
+			sum += GeoDistance.haversineMeters(lats[node], lons[node], goalLat, goalLon);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double planarAllNodes() {
+		double sum = 0.0;
+		for (int node = 0, count = planar.nodeCount(); node < count; node++) {
+			sum += planar.lowerBoundMeters(node, goalX, goalY);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Object residentRoute() {
+		int start = starts[nextStart++ & (starts.length - 1)];
+		return router.route(graph, start, goalNode, graph.baseCosts(), EdgeFlags.NONE);
+	}
+}
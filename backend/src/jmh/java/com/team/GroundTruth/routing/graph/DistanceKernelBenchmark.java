@@ -0,0 +1,102 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the batch distance kernels with the scalar {@link GeoDistance#haversineMeters} for
+ * one-to-many distance workloads such as snapping and matrix rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistanceKernelBenchmark {
+
+	private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+	@Param({"4096", "262144"})
+	public int points;
+
+	private double[] latDegrees;
+	private double[] lonDegrees;
+	private double[] latRadians;
+	private double[] lonRadians;
+	private MemorySegment xs;
+	private MemorySegment ys;
+	private double[] haversineOut;
+	private float[] planarOut;
+	private double[] projectedX;
+	private double[] projectedY;
+	private final ScalarDistanceKernel scalar = new ScalarDistanceKernel();
+	private final VectorDistanceKernel vector = new VectorDistanceKernel();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(36L);
+		latDegrees = new double[points];
+		lonDegrees = new double[points];
+		latRadians = new double[points];
+		lonRadians = new double[points];
+		float[] x = new float[points];
+		float[] y = new float[points];
+		for (int i = 0; i < points; i++) {
+			latDegrees[i] = 47.4 + random.nextDouble() * 0.4;
+			lonDegrees[i] = -122.6 + random.nextDouble() * 0.5;
+			latRadians[i] = Math.toRadians(latDegrees[i]);
+			lonRadians[i] = Math.toRadians(lonDegrees[i]);
+			x[i] = (float) ((random.nextDouble() - 0.5) * 40_000.0);
+			y[i] = (float) ((random.nextDouble() - 0.5) * 40_000.0);
+		}
+		Arena arena = Arena.ofAuto();
+		xs = OffHeapArrays.copyOf(arena, x);
+		ys = OffHeapArrays.copyOf(arena, y);
+		haversineOut = new double[points];
+		planarOut = new float[points];
+		projectedX = new double[points];
+		projectedY = new double[points];
+	}
+
+	@Benchmark
+	public double[] haversineScalar() {
+		for (int i = 0; i < points; i++) {
+			haversineOut[i] = GeoDistance.haversineMeters(47.6, -122.33, latDegrees[i], lonDegrees[i]);
+		}
+		return haversineOut;
+	}
+
+	@Benchmark
+	public float[] planarScalar() {
+		scalar.planarDistances(xs, ys, 0, points, 120.0f, -340.0f, planarOut);
+		return planarOut;
+	}
+
+	@Benchmark
+	public float[] planarVector() {
+		vector.planarDistances(xs, ys, 0, points, 120.0f, -340.0f, planarOut);
+		return planarOut;
+	}
+
+	@Benchmark
+	public double[] projectScalar() {
+		scalar.project(latRadians, lonRadians, 0, points, -2.1350, 0.7373, 0.6755, EARTH_RADIUS_METERS,
+				projectedX, projectedY);
+		return projectedX;
+	}
+
+	@Benchmark
+	public double[] projectVector() {
+		vector.project(latRadians, lonRadians, 0, points, -2.1350, 0.7373, 0.6755, EARTH_RADIUS_METERS,
+				projectedX, projectedY);
+		return projectedX;
+	}
+}
@@ -1,63 +1,93 @@
 package com.team.GroundTruth.controller;
 
+import com.team.GroundTruth.domain.dto.routing.CoordinateDto;
+import com.team.GroundTruth.domain.dto.routing.GraphComponentsResponseDto;
 import com.team.GroundTruth.domain.dto.routing.HazardMarkerDto;
+import com.team.GroundTruth.domain.dto.routing.MarkerClusterDto;
+import com.team.GroundTruth.domain.dto.routing.MultiStopRouteRequestDto;
+import com.team.GroundTruth.domain.dto.routing.MultiStopRouteResponseDto;
 import com.team.GroundTruth.domain.dto.routing.RiskMarkerDto;
 import com.team.GroundTruth.domain.dto.routing.RouteMarkersDto;
 import com.team.GroundTruth.domain.dto.routing.RouteTimeRequestDto;
 import com.team.GroundTruth.domain.dto.routing.RouteTimeResponseDto;
 import com.team.GroundTruth.domain.dto.routing.RouteResponseDto;
-import com.team.GroundTruth.domain.entity.Hazard.Hazard;
-import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.repository.HazardLocation;
 import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.encoding.RouteMediaTypes;
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.markers.MarkerClusterService;
+import com.team.GroundTruth.routing.markers.RiskMarkerIndex;
+import com.team.GroundTruth.routing.model.ComponentStats;
+import com.team.GroundTruth.routing.model.MultiStopRouteResult;
 import com.team.GroundTruth.routing.model.RouteResult;
 import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.RoutingProfile;
 import com.team.GroundTruth.routing.model.TravelMode;
-import com.team.GroundTruth.routing.repo.EdgeRepository;
-import com.team.GroundTruth.routing.repo.WalkSafeModifierRepository;
 import com.team.GroundTruth.routing.service.RoutingService;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
+import com.team.GroundTruth.routing.tiles.TileAddress;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * REST controller that exposes routing travel-time estimates.
+ * <p>
+ * Single routes are negotiated by the {@code Accept} header: GeoJSON by default,
+ * {@value RouteMediaTypes#COMPACT_JSON_VALUE} or {@value RouteMediaTypes#PROTOBUF_VALUE}.
+ * </p>
+ * <p>
+ * {@code radiusMeters} bounds the search on the resident graph only. It is ignored when the
+ * server routes over graph tiles or shards ({@code routing.graph.tiles.enabled},
+ * {@code routing.shards.enabled}), which always search the whole graph.
+ * </p>
  */
 @RestController
 @RequestMapping(path = "/routing", produces = MediaType.APPLICATION_JSON_VALUE)
 public class RoutingController {
 
 	private final RoutingService routingService;
-	private final EdgeRepository edgeRepository;
+	private final EdgeGeometryStore edgeGeometryStore;
 	private final HazardRepository hazardRepository;
-	private final WalkSafeModifierRepository walkSafeModifierRepository;
+	private final RiskMarkerIndex riskMarkerIndex;
+	private final MarkerTileService markerTileService;
+	private final MarkerClusterService markerClusterService;
 
 	/**
 	 * Creates a routing controller.
 	 *
 	 * @param routingService routing service
-	 * @param edgeRepository edge repository for geometry lookups
+	 * @param edgeGeometryStore packed edge shapes for route geometry
 	 * @param hazardRepository hazard repository for marker lookups
-	 * @param walkSafeModifierRepository modifier repository for risk markers
+	 * @param riskMarkerIndex spatial index of walk safety modifiers for risk markers
+	 * @param markerTileService vector tile service for map markers
+	 * @param markerClusterService zoom level clustering of map markers
 	 */
 	public RoutingController(
 			RoutingService routingService,
-			EdgeRepository edgeRepository,
+			EdgeGeometryStore edgeGeometryStore,
 			HazardRepository hazardRepository,
-			WalkSafeModifierRepository walkSafeModifierRepository
+			RiskMarkerIndex riskMarkerIndex,
+			MarkerTileService markerTileService,
+			MarkerClusterService markerClusterService
 	) {
 		this.routingService = Objects.requireNonNull(routingService, "routingService");
-		this.edgeRepository = Objects.requireNonNull(edgeRepository, "edgeRepository");
+		this.edgeGeometryStore = Objects.requireNonNull(edgeGeometryStore, "edgeGeometryStore");
 		this.hazardRepository = Objects.requireNonNull(hazardRepository, "hazardRepository");
-		this.walkSafeModifierRepository = Objects.requireNonNull(walkSafeModifierRepository, "walkSafeModifierRepository");
+		this.riskMarkerIndex = Objects.requireNonNull(riskMarkerIndex, "riskMarkerIndex");
+		this.markerTileService = Objects.requireNonNull(markerTileService, "markerTileService");
+		this.markerClusterService = Objects.requireNonNull(markerClusterService, "markerClusterService");
 	}
 
 	/**
@@ -98,7 +128,8 @@ public class RoutingController {
 	/**
 	 * Returns a basic walking route (fastest, base costs only).
 	 */
-	@GetMapping(path = "/route")
+	@GetMapping(path = "/route", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto route(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -124,23 +155,28 @@ public class RoutingController {
 	/**
 	 * Returns a route using a specific route type for cost calculation.
 	 * Route types: fastest, walk_safe, walk_accessible, walk_safe_accessible, drive_fastest, drive_safe
+	 * Profiles: default, wheelchair, avoid_service, pedestrian_only
 	 *
 	 * @param startLat start latitude
 	 * @param startLon start longitude
 	 * @param endLat end latitude
 	 * @param endLon end longitude
 	 * @param routeType route type for cost strategy
-	 * @param radiusMeters search radius in meters
+	 * @param radiusMeters search radius in meters; not allowed with a profile
+	 * @param profile optional routing profile restricting traversable edges; profile routes search
+	 *                the whole graph, so a request with both is rejected with 400 Bad Request
 	 * @return route response
 	 */
-	@GetMapping(path = "/route/type")
+	@GetMapping(path = "/route/type", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeByType(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
 			@RequestParam double endLat,
 			@RequestParam double endLon,
 			@RequestParam String routeType,
-			@RequestParam(required = false) Double radiusMeters
+			@RequestParam(required = false) Double radiusMeters,
+			@RequestParam(required = false) String profile
 	) {
 		RouteType type = RouteType.fromValue(routeType);
 		if (type == null) {
@@ -148,6 +184,24 @@ public class RoutingController {
 					". Valid types: fastest, walk_safe, walk_accessible, walk_safe_accessible, drive_fastest, drive_safe");
 		}
 
+		if (profile != null) {
+			if (radiusMeters != null) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+						"radiusMeters cannot be combined with a routing profile; profile routes search the whole graph");
+			}
+			RoutingProfile routingProfile = RoutingProfile.fromValue(profile);
+			if (routingProfile == null) {
+				throw new IllegalArgumentException("Unknown routing profile: " + profile +
+						". Valid profiles: default, wheelchair, avoid_service, pedestrian_only");
+			}
+			return buildRouteResponse(routingService.route(
+					new com.team.GroundTruth.routing.model.Location(startLat, startLon),
+					new com.team.GroundTruth.routing.model.Location(endLat, endLon),
+					type,
+					routingProfile
+			));
+		}
+
 		double effectiveRadius = radiusMeters == null ? 0.0 : radiusMeters;
 		RouteResult result = routingService.route(
 				new com.team.GroundTruth.routing.model.Location(startLat, startLon),
@@ -159,10 +213,64 @@ public class RoutingController {
 		return buildRouteResponse(result);
 	}
 
+	/**
+	 * Returns a route through several stops, optionally reordering the intermediate stops.
+	 * All legs share one set of snapped nodes and one cost snapshot.
+	 *
+	 * @param request stops, route type, profile and ordering flag
+	 * @return multi-stop route response
+	 */
+	@PostMapping(path = "/route/multi", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public MultiStopRouteResponseDto routeMultiStop(@RequestBody MultiStopRouteRequestDto request) {
+		Objects.requireNonNull(request, "request");
+		Objects.requireNonNull(request.stops(), "stops");
+
+		RouteType type = request.routeType() == null ? RouteType.FASTEST : RouteType.fromValue(request.routeType());
+		if (type == null) {
+			throw new IllegalArgumentException("Unknown route type: " + request.routeType() +
+					". Valid types: fastest, walk_safe, walk_accessible, walk_safe_accessible, drive_fastest, drive_safe");
+		}
+		RoutingProfile profile = request.profile() == null
+				? RoutingProfile.DEFAULT
+				: RoutingProfile.fromValue(request.profile());
+		if (profile == null) {
+			throw new IllegalArgumentException("Unknown routing profile: " + request.profile() +
+					". Valid profiles: default, wheelchair, avoid_service, pedestrian_only");
+		}
+
+		MultiStopRouteResult result = routingService.routeMultiStop(
+				request.stops().stream().map(RouteTimeRequestDto.LocationDto::toLocation).toList(),
+				type,
+				profile,
+				Boolean.TRUE.equals(request.optimizeOrder())
+		);
+
+		List<MultiStopRouteResponseDto.LegDto> legs = new ArrayList<>();
+		for (int i = 0; i < result.legs().size(); i++) {
+			RouteResult leg = result.legs().get(i);
+			legs.add(new MultiStopRouteResponseDto.LegDto(
+					result.stopOrder().get(i),
+					result.stopOrder().get(i + 1),
+					leg.distanceMeters(),
+					leg.durationSeconds(),
+					leg.pathEdgeIds()
+			));
+		}
+
+		return new MultiStopRouteResponseDto(
+				result.stopOrder(),
+				result.route().distanceMeters(),
+				result.route().durationSeconds(),
+				legs,
+				buildGeoJson(result.route())
+		);
+	}
+
 	/**
 	 * Returns a safe walking route optimized for safety (avoids high-crime, poorly-lit areas).
 	 */
-	@GetMapping(path = "/route/walk/safe")
+	@GetMapping(path = "/route/walk/safe", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeWalkSafe(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -182,7 +290,8 @@ public class RoutingController {
 	/**
 	 * Returns an accessible walking route (avoids cracks, blocked sidewalks).
 	 */
-	@GetMapping(path = "/route/walk/accessible")
+	@GetMapping(path = "/route/walk/accessible", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeWalkAccessible(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -202,7 +311,8 @@ public class RoutingController {
 	/**
 	 * Returns a walking route optimized for both safety and accessibility.
 	 */
-	@GetMapping(path = "/route/walk/safe-accessible")
+	@GetMapping(path = "/route/walk/safe-accessible", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeWalkSafeAccessible(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -222,7 +332,8 @@ public class RoutingController {
 	/**
 	 * Returns a driving route (fastest, base costs only).
 	 */
-	@GetMapping(path = "/route/drive")
+	@GetMapping(path = "/route/drive", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeDrive(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -242,7 +353,8 @@ public class RoutingController {
 	/**
 	 * Returns a safe driving route (avoids potholes, ice hazards).
 	 */
-	@GetMapping(path = "/route/drive/safe")
+	@GetMapping(path = "/route/drive/safe", produces = {
+			MediaType.APPLICATION_JSON_VALUE, RouteMediaTypes.COMPACT_JSON_VALUE, RouteMediaTypes.PROTOBUF_VALUE})
 	public RouteResponseDto routeDriveSafe(
 			@RequestParam double startLat,
 			@RequestParam double startLon,
@@ -259,17 +371,51 @@ public class RoutingController {
 		return buildRouteResponse(result);
 	}
 
+	/**
+	 * Returns strongly connected component statistics of the resident graph, listing the largest
+	 * components with a sample node each so disconnected islands can be located on a map.
+	 *
+	 * @param mode travel mode, default walk
+	 * @param limit maximum number of components to list, default 20
+	 * @return component statistics
+	 */
+	@GetMapping(path = "/graph/components")
+	public GraphComponentsResponseDto getGraphComponents(
+			@RequestParam(required = false) TravelMode mode,
+			@RequestParam(required = false, defaultValue = "20") int limit
+	) {
+		ComponentStats stats = routingService.componentStats(mode == null ? TravelMode.WALK : mode, limit);
+		return new GraphComponentsResponseDto(
+				stats.mode().dbValue(),
+				stats.nodeCount(),
+				stats.componentCount(),
+				stats.largestComponentNodes(),
+				stats.largestComponentShare(),
+				stats.singletonComponents(),
+				stats.components().stream()
+						.map(component -> new GraphComponentsResponseDto.ComponentDto(
+								component.id(),
+								component.nodeCount(),
+								component.sampleNodeId(),
+								new CoordinateDto(component.sampleLat(), component.sampleLon())
+						))
+						.toList()
+		);
+	}
+
 	// ==================== MARKER ENDPOINTS ====================
 
 	/**
 	 * Returns hazard markers for walk accessible routes.
 	 * Shows cracks, blocked sidewalks above the severity threshold.
+	 * With a zoom level, nearby markers are merged into clusters.
 	 *
 	 * @param minLat minimum latitude of bounding box
 	 * @param maxLat maximum latitude of bounding box
 	 * @param minLon minimum longitude of bounding box
 	 * @param maxLon maximum longitude of bounding box
 	 * @param minSeverity minimum severity threshold (0-100), default 0
+	 * @param zoom map zoom level to cluster markers for, optional
 	 * @return hazard markers for map display
 	 */
 	@GetMapping(path = "/markers/hazards")
@@ -278,18 +424,22 @@ public class RoutingController {
 			@RequestParam float maxLat,
 			@RequestParam float minLon,
 			@RequestParam float maxLon,
-			@RequestParam(required = false, defaultValue = "0") double minSeverity
+			@RequestParam(required = false, defaultValue = "0") double minSeverity,
+			@RequestParam(required = false) Integer zoom
 	) {
-		List<Hazard> hazards = hazardRepository.findAccessibilityHazardsInBounds(
+		if (zoom != null) {
+			return markerClusterService.hazards(minLat, maxLat, minLon, maxLon, minSeverity, true, zoom);
+		}
+		List<HazardLocation> hazards = hazardRepository.findAccessibilityHazardsInBounds(
 				minLat, maxLat, minLon, maxLon, minSeverity
 		);
 
 		List<HazardMarkerDto> markers = hazards.stream()
-				.filter(h -> h.getReport().getLatitude() != null && h.getReport().getLongitude() != null)
+				.filter(h -> h.getLatitude() != null && h.getLongitude() != null)
 				.map(h -> new HazardMarkerDto(
 						h.getId(),
-						h.getReport().getLatitude().doubleValue(),
-						h.getReport().getLongitude().doubleValue(),
+						h.getLatitude().doubleValue(),
+						h.getLongitude().doubleValue(),
 						h.getLabel(),
 						h.getConfidence() != null ? h.getConfidence() : 50.0,
 						HazardMarkerDto.iconTypeFor(h.getLabel())
@@ -301,12 +451,14 @@ public class RoutingController {
 
 	/**
 	 * Returns all hazard markers (including potholes, ice) for drive routes.
+	 * With a zoom level, nearby markers are merged into clusters.
 	 *
 	 * @param minLat minimum latitude of bounding box
 	 * @param maxLat maximum latitude of bounding box
 	 * @param minLon minimum longitude of bounding box
 	 * @param maxLon maximum longitude of bounding box
 	 * @param minSeverity minimum severity threshold (0-100), default 0
+	 * @param zoom map zoom level to cluster markers for, optional
 	 * @return all hazard markers for map display
 	 */
 	@GetMapping(path = "/markers/hazards/all")
@@ -315,18 +467,22 @@ public class RoutingController {
 			@RequestParam float maxLat,
 			@RequestParam float minLon,
 			@RequestParam float maxLon,
-			@RequestParam(required = false, defaultValue = "0") double minSeverity
+			@RequestParam(required = false, defaultValue = "0") double minSeverity,
+			@RequestParam(required = false) Integer zoom
 	) {
-		List<Hazard> hazards = hazardRepository.findHazardsInBounds(
+		if (zoom != null) {
+			return markerClusterService.hazards(minLat, maxLat, minLon, maxLon, minSeverity, false, zoom);
+		}
+		List<HazardLocation> hazards = hazardRepository.findHazardsInBounds(
 				minLat, maxLat, minLon, maxLon, minSeverity
 		);
 
 		List<HazardMarkerDto> markers = hazards.stream()
-				.filter(h -> h.getReport().getLatitude() != null && h.getReport().getLongitude() != null)
+				.filter(h -> h.getLatitude() != null && h.getLongitude() != null)
 				.map(h -> new HazardMarkerDto(
 						h.getId(),
-						h.getReport().getLatitude().doubleValue(),
-						h.getReport().getLongitude().doubleValue(),
+						h.getLatitude().doubleValue(),
+						h.getLongitude().doubleValue(),
 						h.getLabel(),
 						h.getConfidence() != null ? h.getConfidence() : 50.0,
 						HazardMarkerDto.iconTypeFor(h.getLabel())
@@ -339,80 +495,51 @@ public class RoutingController {
 	/**
 	 * Returns risk markers for walk safe routes.
 	 * Shows areas with low lighting, high crime, or low population density.
+	 * Markers are answered from the in-memory modifier index; without a bounding box the whole
+	 * index is returned. With a zoom level, nearby markers are merged into clusters.
 	 *
+	 * @param minLat minimum latitude of bounding box
+	 * @param maxLat maximum latitude of bounding box
+	 * @param minLon minimum longitude of bounding box
+	 * @param maxLon maximum longitude of bounding box
 	 * @param maxStreetlight max streetlight value (areas below are marked), default 0.4
 	 * @param minCrime min crime value (areas above are marked), default 0.5
 	 * @param maxDensity max density value (areas below are marked), default 0.3
+	 * @param zoom map zoom level to cluster markers for, optional
 	 * @return risk markers for map display
 	 */
 	@GetMapping(path = "/markers/risks")
 	public RouteMarkersDto getRiskMarkers(
+			@RequestParam(required = false) Float minLat,
+			@RequestParam(required = false) Float maxLat,
+			@RequestParam(required = false) Float minLon,
+			@RequestParam(required = false) Float maxLon,
 			@RequestParam(required = false, defaultValue = "0.4") double maxStreetlight,
 			@RequestParam(required = false, defaultValue = "0.5") double minCrime,
-			@RequestParam(required = false, defaultValue = "0.3") double maxDensity
+			@RequestParam(required = false, defaultValue = "0.3") double maxDensity,
+			@RequestParam(required = false) Integer zoom
 	) {
-		List<WalkSafeModifierEntity> riskyModifiers = walkSafeModifierRepository.findRiskyAreas(
-				maxStreetlight, minCrime, maxDensity
-		);
-
-		if (riskyModifiers.isEmpty()) {
-			return RouteMarkersDto.risksOnly(List.of());
-		}
-
-		// Get edge centroids for the risky edges
-		long[] edgeIds = riskyModifiers.stream()
-				.mapToLong(WalkSafeModifierEntity::getEdgeId)
-				.toArray();
-		Map<Long, double[]> centroidsByEdgeId = new HashMap<>();
-		for (Object[] row : edgeRepository.findEdgeCentroidsByIds(edgeIds)) {
-			Long edgeId = ((Number) row[0]).longValue();
-			double lat = ((Number) row[1]).doubleValue();
-			double lon = ((Number) row[2]).doubleValue();
-			centroidsByEdgeId.put(edgeId, new double[]{lat, lon});
+		double south = minLat != null ? minLat : -90.0;
+		double north = maxLat != null ? maxLat : 90.0;
+		double west = minLon != null ? minLon : -180.0;
+		double east = maxLon != null ? maxLon : 180.0;
+		if (zoom != null) {
+			return markerClusterService.risks(south, north, west, east, maxStreetlight, minCrime, maxDensity, zoom);
 		}
-
-		List<RiskMarkerDto> markers = new ArrayList<>();
-		for (WalkSafeModifierEntity modifier : riskyModifiers) {
-			double[] centroid = centroidsByEdgeId.get(modifier.getEdgeId());
-			if (centroid == null) {
-				continue;
-			}
-
-			// Add markers for each risk type that exceeds threshold
-			if (modifier.getStreetlight() != null && modifier.getStreetlight() <= maxStreetlight) {
-				markers.add(new RiskMarkerDto(
-						centroid[0], centroid[1],
-						"low_lighting",
-						modifier.getStreetlight(),
-						RiskMarkerDto.severityFor("low_lighting", modifier.getStreetlight()),
-						RiskMarkerDto.iconTypeFor("low_lighting")
-				));
-			}
-			if (modifier.getCrimeInArea() != null && modifier.getCrimeInArea() >= minCrime) {
-				markers.add(new RiskMarkerDto(
-						centroid[0], centroid[1],
-						"high_crime",
-						modifier.getCrimeInArea(),
-						RiskMarkerDto.severityFor("high_crime", modifier.getCrimeInArea()),
-						RiskMarkerDto.iconTypeFor("high_crime")
-				));
-			}
-			if (modifier.getPopDensity() != null && modifier.getPopDensity() <= maxDensity) {
-				markers.add(new RiskMarkerDto(
-						centroid[0], centroid[1],
-						"low_density",
-						modifier.getPopDensity(),
-						RiskMarkerDto.severityFor("low_density", modifier.getPopDensity()),
-						RiskMarkerDto.iconTypeFor("low_density")
-				));
-			}
-		}
-
-		return RouteMarkersDto.risksOnly(markers);
+		return RouteMarkersDto.risksOnly(riskMarkerIndex.riskMarkers(
+				south,
+				north,
+				west,
+				east,
+				maxStreetlight,
+				minCrime,
+				maxDensity
+		));
 	}
 
 	/**
 	 * Returns combined markers for walk safe + accessible routes.
+	 * With a zoom level, nearby markers of each layer are merged into clusters.
 	 */
 	@GetMapping(path = "/markers/all")
 	public RouteMarkersDto getAllMarkers(
@@ -423,12 +550,31 @@ public class RoutingController {
 			@RequestParam(required = false, defaultValue = "0") double minSeverity,
 			@RequestParam(required = false, defaultValue = "0.4") double maxStreetlight,
 			@RequestParam(required = false, defaultValue = "0.5") double minCrime,
-			@RequestParam(required = false, defaultValue = "0.3") double maxDensity
+			@RequestParam(required = false, defaultValue = "0.3") double maxDensity,
+			@RequestParam(required = false) Integer zoom
 	) {
-		RouteMarkersDto hazards = getHazardMarkers(minLat, maxLat, minLon, maxLon, minSeverity);
-		RouteMarkersDto risks = getRiskMarkers(maxStreetlight, minCrime, maxDensity);
+		RouteMarkersDto hazards = getHazardMarkers(minLat, maxLat, minLon, maxLon, minSeverity, zoom);
+		RouteMarkersDto risks = getRiskMarkers(minLat, maxLat, minLon, maxLon, maxStreetlight, minCrime, maxDensity,
+				zoom);
+
+		List<MarkerClusterDto> clusters = new ArrayList<>(hazards.clusters());
+		clusters.addAll(risks.clusters());
+		return new RouteMarkersDto(hazards.hazardMarkers(), risks.riskMarkers(), clusters);
+	}
 
-		return new RouteMarkersDto(hazards.hazardMarkers(), risks.riskMarkers());
+	/**
+	 * Returns hazard and risk markers of a map tile as a Mapbox Vector Tile.
+	 * The tile has a "hazards" point layer and a "risks" line layer; tiles below the configured
+	 * minimum zoom are empty.
+	 *
+	 * @param z zoom level
+	 * @param x tile column
+	 * @param y tile row
+	 * @return encoded vector tile
+	 */
+	@GetMapping(path = "/tiles/{z}/{x}/{y}.mvt", produces = MarkerTileService.MEDIA_TYPE_VALUE)
+	public byte[] getMarkerTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+		return markerTileService.tile(new TileAddress(z, x, y));
 	}
 
 	// ==================== HELPER METHODS ====================
@@ -438,51 +584,21 @@ public class RoutingController {
 		return new RouteResponseDto(
 				result.distanceMeters(),
 				result.durationSeconds(),
-				result.pathNodeIds(),
-				result.pathEdgeIds(),
+				result.pathNodeIds().stream().mapToLong(Long::longValue).toArray(),
+				result.pathEdgeIds().stream().mapToLong(Long::longValue).toArray(),
 				geoJson
 		);
 	}
 
 	private RouteResponseDto.GeoJsonFeature buildGeoJson(RouteResult result) {
-		if (edgeRepository == null || result.pathEdgeIds().isEmpty()) {
-			return new RouteResponseDto.GeoJsonFeature(
-					"Feature",
-					Map.of(),
-					new RouteResponseDto.GeoJsonGeometry("LineString", List.of())
-			);
-		}
-
-		Map<Long, org.locationtech.jts.geom.LineString> byId = new HashMap<>();
-		edgeRepository.findAllById(result.pathEdgeIds()).forEach(edge -> {
-			if (edge.getGeom() != null) {
-				byId.put(edge.getId(), edge.getGeom());
-			}
-		});
-
-		List<List<Double>> coordinates = new ArrayList<>();
-		for (Long edgeId : result.pathEdgeIds()) {
-			org.locationtech.jts.geom.LineString line = byId.get(edgeId);
-			if (line == null) {
-				continue;
-			}
-			org.locationtech.jts.geom.Coordinate[] coords = line.getCoordinates();
-			for (int i = 0; i < coords.length; i++) {
-				org.locationtech.jts.geom.Coordinate coord = coords[i];
-				if (!coordinates.isEmpty()) {
-					List<Double> last = coordinates.get(coordinates.size() - 1);
-					if (Double.compare(last.get(0), coord.x) == 0 && Double.compare(last.get(1), coord.y) == 0) {
-						continue;
-					}
-				}
-				coordinates.add(List.of(coord.x, coord.y));
-			}
-		}
+		double[] lonLat = result.pathEdgeIds().isEmpty()
+				? new double[0]
+				: edgeGeometryStore.lineString(result.pathEdgeIds());
 
 		return new RouteResponseDto.GeoJsonFeature(
 				"Feature",
 				Map.of(),
-				new RouteResponseDto.GeoJsonGeometry("LineString", coordinates)
+				new RouteResponseDto.GeoJsonGeometry("LineString", lonLat)
 		);
 	}
 }
@@ -2,12 +2,19 @@ package com.team.GroundTruth.controller;
 
 import com.team.GroundTruth.domain.dto.walksafe.InitializeResponseDto;
 import com.team.GroundTruth.domain.dto.walksafe.LocationRequestDto;
+import com.team.GroundTruth.domain.dto.walksafe.ModifierBatchEntryDto;
 import com.team.GroundTruth.domain.dto.walksafe.ModifierUpdateRequestDto;
 import com.team.GroundTruth.domain.dto.walksafe.ModifierUpdateResponseDto;
+import com.team.GroundTruth.routing.geodata.EdgeGeoData;
+import com.team.GroundTruth.routing.geodata.FileGeoDataProvider;
+import com.team.GroundTruth.routing.geodata.GeoDataFileImporter;
+import com.team.GroundTruth.routing.geodata.GeoDataHarvester;
 import com.team.GroundTruth.routing.geodata.GeoDataProvider;
-import com.team.GroundTruth.routing.geodata.GeoDataProviderImpl;
 import com.team.GroundTruth.routing.repo.EdgeRepository;
+import com.team.GroundTruth.routing.service.WalkSafeEdgeModifiers;
+import com.team.GroundTruth.routing.service.WalkSafeModifierUpdate;
 import com.team.GroundTruth.routing.service.WalkSafeService;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -27,19 +34,26 @@ public class WalkSafeController {
 
 	private static final Logger LOG = LoggerFactory.getLogger(WalkSafeController.class);
 	private static final double DEFAULT_BULK_RADIUS = 100.0;
+	private static final int BULK_BATCH_SIZE = 500;
 
 	private final WalkSafeService walkSafeService;
-	private final GeoDataProviderImpl geoDataProvider;
+	private final GeoDataProvider geoDataProvider;
 	private final EdgeRepository edgeRepository;
+	private final GeoDataHarvester geoDataHarvester;
+	private final GeoDataFileImporter geoDataFileImporter;
 
 	public WalkSafeController(
 			WalkSafeService walkSafeService,
-			GeoDataProviderImpl geoDataProvider,
-			EdgeRepository edgeRepository
+			GeoDataProvider geoDataProvider,
+			EdgeRepository edgeRepository,
+			GeoDataHarvester geoDataHarvester,
+			GeoDataFileImporter geoDataFileImporter
 	) {
 		this.walkSafeService = Objects.requireNonNull(walkSafeService, "walkSafeService");
 		this.geoDataProvider = Objects.requireNonNull(geoDataProvider, "geoDataProvider");
 		this.edgeRepository = Objects.requireNonNull(edgeRepository, "edgeRepository");
+		this.geoDataHarvester = Objects.requireNonNull(geoDataHarvester, "geoDataHarvester");
+		this.geoDataFileImporter = Objects.requireNonNull(geoDataFileImporter, "geoDataFileImporter");
 	}
 
 	/**
@@ -108,6 +122,28 @@ public class WalkSafeController {
 		return new ModifierUpdateResponseDto(count);
 	}
 
+	/**
+	 * Updates any of the three modifiers at many locations in one batch.
+	 *
+	 * @param entries the locations and values, applied in order
+	 * @return number of distinct edges updated
+	 */
+	@PostMapping(path = "/modifier/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ModifierUpdateResponseDto updateModifiers(@RequestBody List<ModifierBatchEntryDto> entries) {
+		Objects.requireNonNull(entries, "entries");
+		List<WalkSafeModifierUpdate> updates = entries.stream()
+				.map(entry -> new WalkSafeModifierUpdate(
+						entry.lon(),
+						entry.lat(),
+						entry.radiusMetersOrDefault(),
+						entry.popDensity(),
+						entry.streetlight(),
+						entry.crimeInArea()
+				))
+				.toList();
+		return new ModifierUpdateResponseDto(walkSafeService.updateModifiers(updates));
+	}
+
 	/**
 	 * Computes and updates population density from NYC DOT Pedestrian Counts API.
 	 *
@@ -194,54 +230,76 @@ public class WalkSafeController {
 		double streetlight = geoDataProvider.getStreetlightCoverage(lat, lon, radius);
 		double crime = geoDataProvider.getCrimeLevel(lat, lon, radius);
 
-		walkSafeService.updatePopDensity(lon, lat, radius, popDensity);
-		walkSafeService.updateStreetlight(lon, lat, radius, streetlight);
-		int count = walkSafeService.updateCrimeInArea(lon, lat, radius, crime);
+		int count = walkSafeService.updateModifiers(List.of(
+				new WalkSafeModifierUpdate(lon, lat, radius, popDensity, streetlight, crime)));
 
 		return new ModifierUpdateResponseDto(count);
 	}
 
 	/**
-	 * Bulk initializes all walk edges by fetching geodata from external APIs.
-	 * This is a long-running operation with rate limiting delays.
+	 * Bulk initializes all walk edges by harvesting geodata from external APIs.
+	 * The graph extent is harvested tile by tile with bounding box queries, so a long-running
+	 * operation makes a few rate-limited requests per tile rather than three per edge. Harvested
+	 * values are written to their edges by id in batches of {@value #BULK_BATCH_SIZE} edges. A
+	 * failed batch aborts the initialization; the batches written before it are kept. With
+	 * {@code geodata.files.enabled=true} the local files are read instead, as by
+	 * {@link #initializeAllFromFiles()}.
 	 *
 	 * @return number of edges processed
 	 */
 	@PostMapping(path = "/compute/initialize-all")
 	public InitializeResponseDto initializeAllFromGeodata() {
+		if (geoDataProvider instanceof FileGeoDataProvider) {
+			return initializeAllFromFiles();
+		}
 		List<Object[]> centroids = edgeRepository.findWalkEdgeCentroids();
 		LOG.info("Starting bulk initialization for {} walk edges", centroids.size());
 
-		int processed = 0;
-		for (Object[] centroid : centroids) {
-			Long edgeId = ((Number) centroid[0]).longValue();
-			double lat = ((Number) centroid[1]).doubleValue();
-			double lon = ((Number) centroid[2]).doubleValue();
+		int processed = geoDataHarvester.harvest(centroids, DEFAULT_BULK_RADIUS, this::writeEdgeGeoData);
 
-			try {
-				double popDensity = geoDataProvider.getPopDensity(lat, lon, DEFAULT_BULK_RADIUS);
-				geoDataProvider.delayForRateLimit();
+		walkSafeService.initializeEdgeCosts();
+		LOG.info("Bulk initialization complete. Processed {} edges", processed);
+		return new InitializeResponseDto(processed);
+	}
 
-				double streetlight = geoDataProvider.getStreetlightCoverage(lat, lon, DEFAULT_BULK_RADIUS);
+	/**
+	 * Bulk initializes all walk edges from local geodata files, without network access.
+	 * Modifiers are kernel density estimates over the configured {@code geodata.files.*} datasets.
+	 * Each estimate is written to its own edge by id in batches of {@value #BULK_BATCH_SIZE} edges,
+	 * so an edge keeps the values estimated at its centroid. A failed batch aborts the import.
+	 *
+	 * @return number of edges processed
+	 */
+	@PostMapping(path = "/compute/import-files")
+	public InitializeResponseDto initializeAllFromFiles() {
+		List<Object[]> centroids = edgeRepository.findWalkEdgeCentroids();
+		LOG.info("Starting file import for {} walk edges", centroids.size());
 
-				double crime = geoDataProvider.getCrimeLevel(lat, lon, DEFAULT_BULK_RADIUS);
-				geoDataProvider.delayForRateLimit();
+		List<EdgeGeoData> values = geoDataFileImporter.estimate(centroids, DEFAULT_BULK_RADIUS);
+		writeEdgeGeoData(values);
 
-				walkSafeService.updatePopDensity(lon, lat, DEFAULT_BULK_RADIUS, popDensity);
-				walkSafeService.updateStreetlight(lon, lat, DEFAULT_BULK_RADIUS, streetlight);
-				walkSafeService.updateCrimeInArea(lon, lat, DEFAULT_BULK_RADIUS, crime);
+		walkSafeService.initializeEdgeCosts();
+		LOG.info("File import complete. Processed {} edges", values.size());
+		return new InitializeResponseDto(values.size());
+	}
 
-				processed++;
-				if (processed % 100 == 0) {
-					LOG.info("Processed {} / {} edges", processed, centroids.size());
-				}
-			} catch (Exception e) {
-				LOG.warn("Failed to process edge {}: {}", edgeId, e.getMessage());
+	private void writeEdgeGeoData(List<EdgeGeoData> edges) {
+		List<WalkSafeEdgeModifiers> batch = new ArrayList<>(BULK_BATCH_SIZE);
+		for (EdgeGeoData edge : edges) {
+			batch.add(new WalkSafeEdgeModifiers(edge.edgeId(), edge.lat(), edge.lon(),
+					edge.popDensity(), edge.streetlight(), edge.crimeLevel()));
+			if (batch.size() == BULK_BATCH_SIZE) {
+				writeBulkBatch(batch);
 			}
 		}
+		writeBulkBatch(batch);
+	}
 
-		walkSafeService.initializeEdgeCosts();
-		LOG.info("Bulk initialization complete. Processed {} edges", processed);
-		return new InitializeResponseDto(processed);
+	private void writeBulkBatch(List<WalkSafeEdgeModifiers> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		walkSafeService.updateEdgeModifiers(List.copyOf(batch));
+		batch.clear();
 	}
-}
\ No newline at end of file
+}
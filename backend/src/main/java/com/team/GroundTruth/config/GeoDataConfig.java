@@ -23,6 +23,24 @@ public class GeoDataConfig {
 	@Value("${geodata.request-delay-ms:1000}")
 	private long requestDelayMs;
 
+	@Value("${geodata.harvest.tile-size-degrees:0.02}")
+	private double harvestTileSizeDegrees;
+
+	@Value("${geodata.harvest.page-size:5000}")
+	private int harvestPageSize;
+
+	@Value("${geodata.files.pedestrian:}")
+	private String pedestrianFile;
+
+	@Value("${geodata.files.pedestrian-weight-field:vol}")
+	private String pedestrianWeightField;
+
+	@Value("${geodata.files.streetlamp:}")
+	private String streetlampFile;
+
+	@Value("${geodata.files.crime:}")
+	private String crimeFile;
+
 	@Bean
 	public WebClient webClient() {
 		return WebClient.builder()
@@ -45,4 +63,28 @@ public class GeoDataConfig {
 	public long getRequestDelayMs() {
 		return requestDelayMs;
 	}
-}
\ No newline at end of file
+
+	public double getHarvestTileSizeDegrees() {
+		return harvestTileSizeDegrees;
+	}
+
+	public int getHarvestPageSize() {
+		return harvestPageSize;
+	}
+
+	public String getPedestrianFile() {
+		return pedestrianFile;
+	}
+
+	public String getPedestrianWeightField() {
+		return pedestrianWeightField;
+	}
+
+	public String getStreetlampFile() {
+		return streetlampFile;
+	}
+
+	public String getCrimeFile() {
+		return crimeFile;
+	}
+}
@@ -0,0 +1,40 @@
+package com.team.GroundTruth.domain.dto.routing;
+
+import java.util.List;
+
+/**
+ * Response body describing the strongly connected components of a routing graph.
+ *
+ * @param mode travel mode of the graph
+ * @param nodeCount number of routable nodes
+ * @param componentCount number of strongly connected components
+ * @param largestComponentNodes node count of the largest component
+ * @param largestComponentShare share of nodes in the largest component, 0 to 1
+ * @param singletonComponents number of single-node components
+ * @param components largest components in descending size
+ */
+public record GraphComponentsResponseDto(
+		String mode,
+		int nodeCount,
+		int componentCount,
+		int largestComponentNodes,
+		double largestComponentShare,
+		int singletonComponents,
+		List<ComponentDto> components
+) {
+	/**
+	 * Summary of a single component.
+	 *
+	 * @param id component id, 0 for the largest component
+	 * @param nodeCount number of nodes in the component
+	 * @param sampleNodeId database id of a node in the component
+	 * @param sample coordinate of the sample node
+	 */
+	public record ComponentDto(
+			int id,
+			int nodeCount,
+			long sampleNodeId,
+			CoordinateDto sample
+	) {
+	}
+}
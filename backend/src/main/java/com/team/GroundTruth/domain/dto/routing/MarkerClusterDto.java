@@ -0,0 +1,19 @@
+package com.team.GroundTruth.domain.dto.routing;
+
+/**
+ * DTO representing a cluster of nearby markers at a map zoom level.
+ *
+ * @param layer marker layer the cluster belongs to ("hazards" or "risks")
+ * @param latitude latitude of the cluster centre
+ * @param longitude longitude of the cluster centre
+ * @param count number of markers in the cluster
+ * @param maxSeverity highest severity score (0-100) of the markers in the cluster
+ */
+public record MarkerClusterDto(
+		String layer,
+		double latitude,
+		double longitude,
+		int count,
+		double maxSeverity
+) {
+}
@@ -0,0 +1,19 @@
+package com.team.GroundTruth.domain.dto.routing;
+
+import java.util.List;
+
+/**
+ * Request body for multi-stop routing.
+ *
+ * @param stops ordered stops; the first is the origin and the last the destination
+ * @param routeType route type for cost strategy, defaults to fastest
+ * @param profile routing profile restricting traversable edges, defaults to default
+ * @param optimizeOrder true to reorder the intermediate stops for the shortest total duration
+ */
+public record MultiStopRouteRequestDto(
+		List<RouteTimeRequestDto.LocationDto> stops,
+		String routeType,
+		String profile,
+		Boolean optimizeOrder
+) {
+}
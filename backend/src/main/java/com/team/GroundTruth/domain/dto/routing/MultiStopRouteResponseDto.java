@@ -0,0 +1,38 @@
+package com.team.GroundTruth.domain.dto.routing;
+
+import java.util.List;
+
+/**
+ * Response body for multi-stop routing.
+ *
+ * @param stopOrder indices into the requested stop list in visiting order
+ * @param distanceMeters total distance in meters
+ * @param durationSeconds total duration in seconds
+ * @param legs per-leg summaries in visiting order
+ * @param routeGeojson GeoJSON feature representing the whole route
+ */
+public record MultiStopRouteResponseDto(
+		List<Integer> stopOrder,
+		double distanceMeters,
+		double durationSeconds,
+		List<LegDto> legs,
+		RouteResponseDto.GeoJsonFeature routeGeojson
+) {
+	/**
+	 * Summary of a single leg between two stops.
+	 *
+	 * @param fromStop index of the leg's origin in the requested stop list
+	 * @param toStop index of the leg's destination in the requested stop list
+	 * @param distanceMeters leg distance in meters
+	 * @param durationSeconds leg duration in seconds
+	 * @param pathEdgeIds ordered edge ids of the leg
+	 */
+	public record LegDto(
+			int fromStop,
+			int toStop,
+			double distanceMeters,
+			double durationSeconds,
+			List<Long> pathEdgeIds
+	) {
+	}
+}
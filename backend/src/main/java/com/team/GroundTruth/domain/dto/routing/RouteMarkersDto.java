@@ -5,14 +5,25 @@ import java.util.List;
 /**
  * DTO containing map markers for route visualization.
  * Returns hazard and risk markers based on route type.
+ * When markers are clustered for a zoom level, markers standing alone stay in the marker lists
+ * and groups of nearby markers are returned as clusters.
  *
  * @param hazardMarkers accessibility hazard markers (cracks, blocked sidewalks)
  * @param riskMarkers safety risk markers (low lighting, crime, isolated areas)
+ * @param clusters clusters of hazard and risk markers, empty unless a zoom level was requested
  */
 public record RouteMarkersDto(
 		List<HazardMarkerDto> hazardMarkers,
-		List<RiskMarkerDto> riskMarkers
+		List<RiskMarkerDto> riskMarkers,
+		List<MarkerClusterDto> clusters
 ) {
+	/**
+	 * Creates a response without clusters.
+	 */
+	public RouteMarkersDto(List<HazardMarkerDto> hazardMarkers, List<RiskMarkerDto> riskMarkers) {
+		this(hazardMarkers, riskMarkers, List.of());
+	}
+
 	/**
 	 * Creates a response with only hazard markers.
 	 */
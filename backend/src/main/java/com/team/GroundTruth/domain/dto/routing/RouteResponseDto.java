@@ -1,10 +1,15 @@
 package com.team.GroundTruth.domain.dto.routing;
 
-import java.util.List;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
 
 /**
  * Response body containing full route details and GeoJSON geometry.
+ * <p>
+ * Written as plain JSON by default; clients asking for a compact encoding get the same fields
+ * through the converters in {@code com.team.GroundTruth.routing.encoding}.
+ * </p>
  *
  * @param distanceMeters total distance in meters
  * @param durationSeconds total duration in seconds
@@ -15,8 +20,8 @@ import java.util.Map;
 public record RouteResponseDto(
 		double distanceMeters,
 		double durationSeconds,
-		List<Long> pathNodeIds,
-		List<Long> pathEdgeIds,
+		long[] pathNodeIds,
+		long[] pathEdgeIds,
 		GeoJsonFeature routeGeojson
 ) {
 	/**
@@ -31,10 +36,28 @@ public record RouteResponseDto(
 
 	/**
 	 * GeoJSON geometry payload.
+	 * <p>
+	 * Coordinates are kept as one flat array, as the edge geometry store returns them, so the
+	 * route encoders can stream them without building an array per point.
+	 * </p>
 	 *
 	 * @param type geometry type
-	 * @param coordinates coordinate list in [lon, lat] order
+	 * @param lonLat interleaved longitude, latitude pairs
 	 */
-	public record GeoJsonGeometry(String type, List<List<Double>> coordinates) {
+	public record GeoJsonGeometry(String type, @JsonIgnore double[] lonLat) {
+
+		/**
+		 * Returns the coordinates as GeoJSON pairs, as written by plain JSON mapping.
+		 *
+		 * @return coordinate pairs in [lon, lat] order
+		 */
+		@JsonProperty("coordinates")
+		public double[][] coordinates() {
+			double[][] coordinates = new double[lonLat.length / 2][];
+			for (int point = 0; point < coordinates.length; point++) {
+				coordinates[point] = new double[]{lonLat[2 * point], lonLat[2 * point + 1]};
+			}
+			return coordinates;
+		}
 	}
 }
@@ -0,0 +1,27 @@
+package com.team.GroundTruth.domain.dto.walksafe;
+
+/**
+ * One entry of a batch walk safety modifier update. Omitted values leave that modifier unchanged.
+ *
+ * @param lat latitude in decimal degrees
+ * @param lon longitude in decimal degrees
+ * @param radiusMeters search radius in meters
+ * @param popDensity population density value, or {@code null}
+ * @param streetlight streetlight coverage value, or {@code null}
+ * @param crimeInArea crime level value, or {@code null}
+ */
+public record ModifierBatchEntryDto(
+		double lat,
+		double lon,
+		Double radiusMeters,
+		Double popDensity,
+		Double streetlight,
+		Double crimeInArea
+) {
+
+	private static final double DEFAULT_RADIUS_METERS = 50.0;
+
+	public double radiusMetersOrDefault() {
+		return radiusMeters != null ? radiusMeters : DEFAULT_RADIUS_METERS;
+	}
+}
@@ -0,0 +1,45 @@
+package com.team.GroundTruth.repository;
+
+import java.util.UUID;
+
+/**
+ * Lightweight view of a located hazard for marker queries, read without loading the report
+ * entity and its image.
+ */
+public interface HazardLocation {
+
+	/**
+	 * Returns the hazard id.
+	 *
+	 * @return hazard UUID
+	 */
+	UUID getId();
+
+	/**
+	 * Returns the hazard label.
+	 *
+	 * @return label (e.g., "Cracks", "Blocked Sidewalk")
+	 */
+	String getLabel();
+
+	/**
+	 * Returns the severity score.
+	 *
+	 * @return confidence (0-100), or {@code null} if not scored
+	 */
+	Double getConfidence();
+
+	/**
+	 * Returns the latitude of the hazard's report.
+	 *
+	 * @return latitude
+	 */
+	Float getLatitude();
+
+	/**
+	 * Returns the longitude of the hazard's report.
+	 *
+	 * @return longitude
+	 */
+	Float getLongitude();
+}
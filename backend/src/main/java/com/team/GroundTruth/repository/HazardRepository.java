@@ -44,6 +44,7 @@ public interface HazardRepository extends JpaRepository<Hazard, UUID> {
 
 	/**
 	 * Finds accessibility hazards within a bounding box with severity above threshold.
+	 * The box is matched against the GiST-indexed report location.
 	 *
 	 * @param minLat minimum latitude
 	 * @param maxLat maximum latitude
@@ -52,17 +53,16 @@ public interface HazardRepository extends JpaRepository<Hazard, UUID> {
 	 * @param minSeverity minimum severity threshold (0-100)
 	 * @return hazards within bounds above threshold
 	 */
-	@Query("""
-			SELECT h FROM Hazard h
-			JOIN FETCH h.report r
-			WHERE LOWER(h.label) IN ('cracks', 'blocked sidewalk')
-			AND r.latitude IS NOT NULL
-			AND r.longitude IS NOT NULL
-			AND r.latitude BETWEEN :minLat AND :maxLat
-			AND r.longitude BETWEEN :minLon AND :maxLon
-			AND (h.confidence IS NULL OR h.confidence >= :minSeverity)
-			""")
-	List<Hazard> findAccessibilityHazardsInBounds(
+	@Query(value = """
+			SELECT h.id AS id, h.label AS label, h.confidence AS confidence,
+			       r.latitude AS latitude, r.longitude AS longitude
+			FROM hazards h
+			JOIN hazard_reports r ON r.id = h.report_id
+			WHERE r.location && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+			  AND LOWER(h.label) IN ('cracks', 'blocked sidewalk')
+			  AND (h.confidence IS NULL OR h.confidence >= :minSeverity)
+			""", nativeQuery = true)
+	List<HazardLocation> findAccessibilityHazardsInBounds(
 			@Param("minLat") float minLat,
 			@Param("maxLat") float maxLat,
 			@Param("minLon") float minLon,
@@ -72,6 +72,7 @@ public interface HazardRepository extends JpaRepository<Hazard, UUID> {
 
 	/**
 	 * Finds all hazards within a bounding box with severity above threshold.
+	 * The box is matched against the GiST-indexed report location.
 	 *
 	 * @param minLat minimum latitude
 	 * @param maxLat maximum latitude
@@ -80,16 +81,15 @@ public interface HazardRepository extends JpaRepository<Hazard, UUID> {
 	 * @param minSeverity minimum severity threshold (0-100)
 	 * @return all hazards within bounds above threshold
 	 */
-	@Query("""
-			SELECT h FROM Hazard h
-			JOIN FETCH h.report r
-			WHERE r.latitude IS NOT NULL
-			AND r.longitude IS NOT NULL
-			AND r.latitude BETWEEN :minLat AND :maxLat
-			AND r.longitude BETWEEN :minLon AND :maxLon
-			AND (h.confidence IS NULL OR h.confidence >= :minSeverity)
-			""")
-	List<Hazard> findHazardsInBounds(
+	@Query(value = """
+			SELECT h.id AS id, h.label AS label, h.confidence AS confidence,
+			       r.latitude AS latitude, r.longitude AS longitude
+			FROM hazards h
+			JOIN hazard_reports r ON r.id = h.report_id
+			WHERE r.location && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+			  AND (h.confidence IS NULL OR h.confidence >= :minSeverity)
+			""", nativeQuery = true)
+	List<HazardLocation> findHazardsInBounds(
 			@Param("minLat") float minLat,
 			@Param("maxLat") float maxLat,
 			@Param("minLon") float minLon,
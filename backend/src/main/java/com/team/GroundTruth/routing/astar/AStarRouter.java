@@ -2,8 +2,17 @@ package com.team.GroundTruth.routing.astar;
 
 import com.team.GroundTruth.routing.exception.NoRouteFoundException;
 import com.team.GroundTruth.routing.exception.RoutingException;
+import com.team.GroundTruth.routing.graph.CompressedGraph;
+import com.team.GroundTruth.routing.graph.EdgeCostColumns;
+import com.team.GroundTruth.routing.graph.GeoDistance;
+import com.team.GroundTruth.routing.graph.GraphTile;
+import com.team.GroundTruth.routing.graph.PlanarCoordinates;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.TiledGraphStore;
 import com.team.GroundTruth.routing.model.RouteResult;
+import java.lang.foreign.MemorySegment;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -19,7 +28,6 @@ import org.springframework.stereotype.Component;
 @Component
 public class AStarRouter {
 
-	private static final double EARTH_RADIUS_METERS = 6_371_000.0;
 	private static final double STALE_EPSILON = 1e-9;
 	private static final double DEFAULT_V_MAX_METERS_PER_SECOND = 2.0;
 
@@ -115,12 +123,473 @@ public class AStarRouter {
 		throw new NoRouteFoundException("No route found between nodes " + startNodeId + " and " + goalNodeId + ".");
 	}
 
+	/**
+	 * Routes between two nodes of a resident graph using A*.
+	 *
+	 * @param graph resident CSR graph
+	 * @param startNode start node index
+	 * @param goalNode goal node index
+	 * @param edgeCosts effective traversal cost in seconds per edge index, as {@code double}s or {@code float}s
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return route result reported in database node and edge ids
+	 * @throws NoRouteFoundException if no permitted path exists
+	 */
+	public RouteResult route(RoutingGraph graph, int startNode, int goalNode, MemorySegment edgeCosts, long blockedMask) {
+		return route(graph, startNode, goalNode, edgeCosts, blockedMask, DEFAULT_V_MAX_METERS_PER_SECOND);
+	}
+
+	/**
+	 * Routes between two nodes of a resident graph using A* with a custom heuristic speed bound.
+	 *
+	 * @param graph resident CSR graph
+	 * @param startNode start node index
+	 * @param goalNode goal node index
+	 * @param edgeCosts effective traversal cost in seconds per edge index, as {@code double}s or {@code float}s
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @param vMaxMetersPerSecond maximum speed in meters per second used in the heuristic
+	 * @return route result reported in database node and edge ids
+	 * @throws NoRouteFoundException if no permitted path exists
+	 * @implNote The heuristic is the planar lower bound of {@link RoutingGraph#planar()} over vMax,
+	 * which needs one {@code sqrt} per pushed node instead of a haversine evaluation.
+	 */
+	public RouteResult route(
+			RoutingGraph graph,
+			int startNode,
+			int goalNode,
+			MemorySegment edgeCosts,
+			long blockedMask,
+			double vMaxMetersPerSecond
+	) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(edgeCosts, "edgeCosts");
+		if (!EdgeCostColumns.matches(edgeCosts, graph.edgeCount())) {
+			throw new RoutingException("Edge cost array does not match graph edge count.");
+		}
+		boolean singleCosts = EdgeCostColumns.isSingle(edgeCosts, graph.edgeCount());
+
+		if (startNode == goalNode) {
+			return new RouteResult(List.of(graph.nodeId(startNode)), List.of(), 0.0, 0.0);
+		}
+
+		double[] gScore = new double[graph.nodeCount()];
+		int[] cameFromNode = new int[graph.nodeCount()];
+		int[] cameFromEdge = new int[graph.nodeCount()];
+		Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+		Arrays.fill(cameFromEdge, -1);
+
+		PriorityQueue<QueueEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(QueueEntry::fScore));
+		gScore[startNode] = 0.0;
+		PlanarCoordinates planar = graph.planar();
+		double goalX = planar.x(goalNode);
+		double goalY = planar.y(goalNode);
+		openSet.add(new QueueEntry(startNode,
+				heuristicSeconds(planar, startNode, goalX, goalY, vMaxMetersPerSecond), 0.0));
+
+		while (!openSet.isEmpty()) {
+			QueueEntry current = openSet.poll();
+			int node = (int) current.nodeId;
+			if (current.gScore > gScore[node] + STALE_EPSILON) {
+				continue;
+			}
+
+			if (node == goalNode) {
+				return buildResult(graph, startNode, goalNode, cameFromNode, cameFromEdge, gScore[node]);
+			}
+
+			for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+				if ((graph.edgeFlags(edge) & blockedMask) != 0L) {
+					continue;
+				}
+				int target = graph.edgeTarget(edge);
+				double tentative = current.gScore + EdgeCostColumns.get(edgeCosts, singleCosts, edge);
+				if (tentative + STALE_EPSILON < gScore[target]) {
+					gScore[target] = tentative;
+					cameFromNode[target] = node;
+					cameFromEdge[target] = edge;
+					double fScore = tentative + heuristicSeconds(planar, target, goalX, goalY, vMaxMetersPerSecond);
+					openSet.add(new QueueEntry(target, fScore, tentative));
+				}
+			}
+		}
+
+		throw new NoRouteFoundException("No route found between nodes " + graph.nodeId(startNode)
+				+ " and " + graph.nodeId(goalNode) + ".");
+	}
+
+	/**
+	 * Routes between two nodes of the original graph over a chain-compressed topology using A*.
+	 * Endpoints inside a chain split it: the search starts from the chain ends reachable from the
+	 * start node and finishes through the chain starts that lead to the goal node.
+	 *
+	 * @param graph compressed graph
+	 * @param startNode start node index in the original graph
+	 * @param goalNode goal node index in the original graph
+	 * @param edgeCosts effective traversal cost per original edge index, as {@code double}s or {@code float}s
+	 * @param chainCosts the same costs aggregated per topology edge, see {@link CompressedGraph#chainCosts}
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return route result reported in database node and edge ids of the original graph
+	 * @throws NoRouteFoundException if no permitted path exists
+	 */
+	public RouteResult route(
+			CompressedGraph graph,
+			int startNode,
+			int goalNode,
+			MemorySegment edgeCosts,
+			MemorySegment chainCosts,
+			long blockedMask
+	) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(edgeCosts, "edgeCosts");
+		Objects.requireNonNull(chainCosts, "chainCosts");
+		RoutingGraph original = graph.original();
+		RoutingGraph topology = graph.topology();
+		if (!EdgeCostColumns.matches(edgeCosts, original.edgeCount())
+				|| !EdgeCostColumns.matches(chainCosts, topology.edgeCount())) {
+			throw new RoutingException("Edge cost array does not match graph edge count.");
+		}
+		boolean singleCosts = EdgeCostColumns.isSingle(edgeCosts, original.edgeCount());
+		boolean singleChainCosts = EdgeCostColumns.isSingle(chainCosts, topology.edgeCount());
+
+		if (startNode == goalNode) {
+			return new RouteResult(List.of(original.nodeId(startNode)), List.of(), 0.0, 0.0);
+		}
+
+		int nodeCount = topology.nodeCount();
+		double[] gScore = new double[nodeCount];
+		int[] cameFromNode = new int[nodeCount];
+		int[] cameFromEdge = new int[nodeCount];
+		int[] seedChain = new int[nodeCount];
+		Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+		Arrays.fill(cameFromEdge, -1);
+		Arrays.fill(seedChain, -1);
+		PlanarCoordinates planar = topology.planar();
+		double goalX = planar.projectX(original.lat(goalNode), original.lon(goalNode));
+		double goalY = planar.projectY(original.lat(goalNode), original.lon(goalNode));
+		PriorityQueue<QueueEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(QueueEntry::fScore));
+
+		int startJunction = graph.junction(startNode);
+		if (startJunction >= 0) {
+			gScore[startJunction] = 0.0;
+			openSet.add(new QueueEntry(startJunction, 0.0, 0.0));
+		}
+
+		// Goal inside a chain: reaching the chain's source settles the rest of the chain.
+		int goalJunction = graph.junction(goalNode);
+		int[] goalChainSource = new int[]{-1, -1};
+		int[] goalChainMember = new int[2];
+		double[] goalChainTail = new double[2];
+		double bestCost = Double.POSITIVE_INFINITY;
+		int bestNode = -1;
+		int bestGoalSlot = -1;
+		int directFrom = -1;
+		int directTo = -1;
+		for (int slot = 0; slot < 2 && goalJunction < 0; slot++) {
+			int chain = graph.chainThrough(goalNode, slot);
+			if (chain < 0 || isChainBlocked(graph, chain, blockedMask)) {
+				continue;
+			}
+			goalChainSource[slot] = graph.chainSource(chain);
+			goalChainMember[slot] = graph.memberInto(goalNode, slot);
+			goalChainTail[slot] = memberCostSum(graph, edgeCosts, singleCosts, graph.firstMember(chain), goalChainMember[slot] + 1);
+		}
+
+		// Start inside a chain: seed the chain ends reachable from it.
+		for (int slot = 0; slot < 2 && startJunction < 0; slot++) {
+			int chain = graph.chainThrough(startNode, slot);
+			if (chain < 0 || isChainBlocked(graph, chain, blockedMask)) {
+				continue;
+			}
+			int fromMember = graph.memberInto(startNode, slot) + 1;
+			for (int goalSlot = 0; goalSlot < 2; goalSlot++) {
+				if (goalChainSource[goalSlot] >= 0 && graph.chainThrough(goalNode, goalSlot) == chain
+						&& goalChainMember[goalSlot] >= fromMember) {
+					double direct = memberCostSum(graph, edgeCosts, singleCosts, fromMember, goalChainMember[goalSlot] + 1);
+					if (direct < bestCost) {
+						bestCost = direct;
+						directFrom = fromMember;
+						directTo = goalChainMember[goalSlot] + 1;
+					}
+				}
+			}
+			int end = graph.chainTarget(chain);
+			double seed = memberCostSum(graph, edgeCosts, singleCosts, fromMember, graph.endMember(chain));
+			if (seed < gScore[end]) {
+				gScore[end] = seed;
+				seedChain[end] = chain;
+				openSet.add(new QueueEntry(end, seed + heuristicSeconds(planar, end, goalX, goalY,
+						DEFAULT_V_MAX_METERS_PER_SECOND), seed));
+			}
+		}
+
+		while (!openSet.isEmpty()) {
+			QueueEntry current = openSet.poll();
+			int node = (int) current.nodeId;
+			if (current.gScore > gScore[node] + STALE_EPSILON) {
+				continue;
+			}
+			if (current.fScore >= bestCost) {
+				break;
+			}
+			if (node == goalJunction) {
+				bestCost = current.gScore;
+				bestNode = node;
+				bestGoalSlot = -1;
+				directFrom = -1;
+				break;
+			}
+			for (int slot = 0; slot < 2; slot++) {
+				if (goalChainSource[slot] == node && current.gScore + goalChainTail[slot] < bestCost) {
+					bestCost = current.gScore + goalChainTail[slot];
+					bestNode = node;
+					bestGoalSlot = slot;
+					directFrom = -1;
+				}
+			}
+
+			for (int edge = topology.firstEdge(node), end = topology.endEdge(node); edge < end; edge++) {
+				if ((topology.edgeFlags(edge) & blockedMask) != 0L) {
+					continue;
+				}
+				int target = topology.edgeTarget(edge);
+				double tentative = current.gScore + EdgeCostColumns.get(chainCosts, singleChainCosts, edge);
+				if (tentative + STALE_EPSILON < gScore[target]) {
+					gScore[target] = tentative;
+					cameFromNode[target] = node;
+					cameFromEdge[target] = edge;
+					double fScore = tentative + heuristicSeconds(planar, target, goalX, goalY,
+							DEFAULT_V_MAX_METERS_PER_SECOND);
+					openSet.add(new QueueEntry(target, fScore, tentative));
+				}
+			}
+		}
+
+		if (bestCost == Double.POSITIVE_INFINITY) {
+			throw new NoRouteFoundException("No route found between nodes " + original.nodeId(startNode)
+					+ " and " + original.nodeId(goalNode) + ".");
+		}
+
+		List<Integer> edges = new ArrayList<>();
+		if (directFrom >= 0) {
+			addMembers(graph, edges, directFrom, directTo);
+		} else {
+			List<Integer> chains = new ArrayList<>();
+			int current = bestNode;
+			while (cameFromEdge[current] >= 0) {
+				chains.add(graph.chainOf(cameFromEdge[current]));
+				current = cameFromNode[current];
+			}
+			if (current != startJunction) {
+				// The search started from this chain end; prepend the part of the chain after the start.
+				int chain = seedChain[current];
+				int slot = graph.chainThrough(startNode, 0) == chain ? 0 : 1;
+				addMembers(graph, edges, graph.memberInto(startNode, slot) + 1, graph.endMember(chain));
+			}
+			Collections.reverse(chains);
+			for (int chain : chains) {
+				addMembers(graph, edges, graph.firstMember(chain), graph.endMember(chain));
+			}
+			if (bestGoalSlot >= 0) {
+				int chain = graph.chainThrough(goalNode, bestGoalSlot);
+				addMembers(graph, edges, graph.firstMember(chain), goalChainMember[bestGoalSlot] + 1);
+			}
+		}
+
+		List<Long> nodePath = new ArrayList<>(edges.size() + 1);
+		List<Long> edgePath = new ArrayList<>(edges.size());
+		double distanceMeters = 0.0;
+		nodePath.add(original.nodeId(startNode));
+		for (int edge : edges) {
+			edgePath.add(original.edgeId(edge));
+			nodePath.add(original.nodeId(original.edgeTarget(edge)));
+			distanceMeters += original.edgeLength(edge);
+		}
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, bestCost);
+	}
+
+	/**
+	 * Routes between two nodes of a tiled graph using A*, loading tiles as the search reaches them.
+	 *
+	 * @param session tile session providing tiles and the costs of its route type
+	 * @param start start node
+	 * @param goal goal node
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return route result reported in database node and edge ids
+	 * @throws NoRouteFoundException if no permitted path exists or the search outgrows the tile budget
+	 */
+	public RouteResult route(
+			TiledGraphStore.Session session,
+			TiledGraphStore.TileNode start,
+			TiledGraphStore.TileNode goal,
+			long blockedMask
+	) {
+		Objects.requireNonNull(session, "session");
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(goal, "goal");
+		if (start.nodeId() == goal.nodeId()) {
+			return new RouteResult(List.of(start.nodeId()), List.of(), 0.0, 0.0);
+		}
+
+		double goalLat = goal.tile().lat(goal.node());
+		double goalLon = goal.tile().lon(goal.node());
+		Map<Long, TileSearch> searches = new HashMap<>();
+		TileSearch startSearch = new TileSearch(start.tile(), session.costs(start.tile()));
+		searches.put(start.tile().tile(), startSearch);
+		startSearch.gScore[start.node()] = 0.0;
+		PriorityQueue<TiledQueueEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(TiledQueueEntry::fScore));
+		openSet.add(new TiledQueueEntry(startSearch, start.node(), 0.0, 0.0));
+
+		while (!openSet.isEmpty()) {
+			TiledQueueEntry current = openSet.poll();
+			TileSearch search = current.search();
+			int node = current.node();
+			if (current.gScore() > search.gScore[node] + STALE_EPSILON) {
+				continue;
+			}
+			if (search.tile.nodeId(node) == goal.nodeId()) {
+				return buildResult(search, node, current.gScore());
+			}
+
+			GraphTile tile = search.tile;
+			for (int edge = tile.firstEdge(node), end = tile.endEdge(node); edge < end; edge++) {
+				if ((tile.edgeFlags(edge) & blockedMask) != 0L) {
+					continue;
+				}
+				long targetTileCode = tile.edgeTargetTile(edge);
+				TileSearch targetSearch = searches.get(targetTileCode);
+				if (targetSearch == null) {
+					GraphTile targetTile = session.tile(targetTileCode);
+					if (targetTile == null) {
+						throw new NoRouteFoundException("No route found between nodes " + start.nodeId() + " and "
+								+ goal.nodeId() + " within the tile memory budget.");
+					}
+					targetSearch = new TileSearch(targetTile, session.costs(targetTile));
+					searches.put(targetTileCode, targetSearch);
+				}
+				int target = targetSearch.tile.indexOfNode(tile.edgeTargetId(edge));
+				if (target < 0) {
+					continue;
+				}
+				double tentative = current.gScore() + search.costs[edge];
+				if (tentative + STALE_EPSILON < targetSearch.gScore[target]) {
+					targetSearch.gScore[target] = tentative;
+					targetSearch.cameFrom[target] = search;
+					targetSearch.cameFromNode[target] = node;
+					targetSearch.cameFromEdge[target] = edge;
+					double fScore = tentative + GeoDistance.haversineMeters(targetSearch.tile.lat(target), targetSearch.tile.lon(target),
+							goalLat, goalLon) / DEFAULT_V_MAX_METERS_PER_SECOND;
+					openSet.add(new TiledQueueEntry(targetSearch, target, fScore, tentative));
+				}
+			}
+		}
+
+		throw new NoRouteFoundException("No route found between nodes " + start.nodeId() + " and "
+				+ goal.nodeId() + ".");
+	}
+
+	/**
+	 * Runs a one-to-many Dijkstra search from a source node of a resident graph.
+	 * The search stops as soon as every target is settled, so the returned tree holds exact
+	 * costs and paths to all targets.
+	 *
+	 * @param graph resident CSR graph
+	 * @param source source node index
+	 * @param targets target node indices
+	 * @param edgeCosts effective traversal cost in seconds per edge index, as {@code double}s or {@code float}s
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return shortest path tree rooted at the source; unreachable targets have infinite cost
+	 */
+	public ShortestPathTree oneToMany(
+			RoutingGraph graph,
+			int source,
+			int[] targets,
+			MemorySegment edgeCosts,
+			long blockedMask
+	) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(targets, "targets");
+		Objects.requireNonNull(edgeCosts, "edgeCosts");
+		if (!EdgeCostColumns.matches(edgeCosts, graph.edgeCount())) {
+			throw new RoutingException("Edge cost array does not match graph edge count.");
+		}
+		boolean singleCosts = EdgeCostColumns.isSingle(edgeCosts, graph.edgeCount());
+
+		double[] gScore = new double[graph.nodeCount()];
+		int[] cameFromNode = new int[graph.nodeCount()];
+		int[] cameFromEdge = new int[graph.nodeCount()];
+		boolean[] isTarget = new boolean[graph.nodeCount()];
+		Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+		Arrays.fill(cameFromEdge, -1);
+
+		int remaining = 0;
+		for (int target : targets) {
+			if (!isTarget[target]) {
+				isTarget[target] = true;
+				remaining++;
+			}
+		}
+
+		PriorityQueue<QueueEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(QueueEntry::fScore));
+		gScore[source] = 0.0;
+		openSet.add(new QueueEntry(source, 0.0, 0.0));
+
+		while (!openSet.isEmpty() && remaining > 0) {
+			QueueEntry current = openSet.poll();
+			int node = (int) current.nodeId;
+			if (current.gScore > gScore[node] + STALE_EPSILON) {
+				continue;
+			}
+			if (isTarget[node]) {
+				isTarget[node] = false;
+				remaining--;
+			}
+
+			for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+				if ((graph.edgeFlags(edge) & blockedMask) != 0L) {
+					continue;
+				}
+				int target = graph.edgeTarget(edge);
+				double tentative = current.gScore + EdgeCostColumns.get(edgeCosts, singleCosts, edge);
+				if (tentative + STALE_EPSILON < gScore[target]) {
+					gScore[target] = tentative;
+					cameFromNode[target] = node;
+					cameFromEdge[target] = edge;
+					openSet.add(new QueueEntry(target, tentative, tentative));
+				}
+			}
+		}
+
+		return new ShortestPathTree(graph, source, gScore, cameFromNode, cameFromEdge);
+	}
+
 	private void ensureCoordPresent(Map<Long, NodeCoord> nodeCoords, long nodeId) {
 		if (!nodeCoords.containsKey(nodeId)) {
 			throw new RoutingException("Missing coordinates for node " + nodeId + ".");
 		}
 	}
 
+	private RouteResult buildResult(TileSearch goalSearch, int goalNode, double durationSeconds) {
+		List<Long> nodePath = new ArrayList<>();
+		List<Long> edgePath = new ArrayList<>();
+		double distanceMeters = 0.0;
+
+		TileSearch search = goalSearch;
+		int node = goalNode;
+		nodePath.add(search.tile.nodeId(node));
+		while (search.cameFromEdge[node] >= 0) {
+			TileSearch previous = search.cameFrom[node];
+			int edge = search.cameFromEdge[node];
+			node = search.cameFromNode[node];
+			search = previous;
+			edgePath.add(search.tile.edgeId(edge));
+			distanceMeters += search.tile.edgeLength(edge);
+			nodePath.add(search.tile.nodeId(node));
+		}
+
+		Collections.reverse(nodePath);
+		Collections.reverse(edgePath);
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, durationSeconds);
+	}
+
 	private RouteResult buildResult(
 			long startNodeId,
 			long goalNodeId,
@@ -160,6 +629,74 @@ public class AStarRouter {
 		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, durationSeconds);
 	}
 
+	private RouteResult buildResult(
+			RoutingGraph graph,
+			int startNode,
+			int goalNode,
+			int[] cameFromNode,
+			int[] cameFromEdge,
+			double durationSeconds
+	) {
+		List<Long> nodePath = new ArrayList<>();
+		List<Long> edgePath = new ArrayList<>();
+		double distanceMeters = 0.0;
+
+		int current = goalNode;
+		nodePath.add(graph.nodeId(current));
+		while (current != startNode) {
+			int edge = cameFromEdge[current];
+			if (edge < 0) {
+				throw new NoRouteFoundException("No route found between nodes " + graph.nodeId(startNode)
+						+ " and " + graph.nodeId(goalNode) + ".");
+			}
+			edgePath.add(graph.edgeId(edge));
+			distanceMeters += graph.edgeLength(edge);
+			current = cameFromNode[current];
+			nodePath.add(graph.nodeId(current));
+		}
+
+		Collections.reverse(nodePath);
+		Collections.reverse(edgePath);
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, durationSeconds);
+	}
+
+	private static boolean isChainBlocked(CompressedGraph graph, int chain, long blockedMask) {
+		return (graph.original().edgeFlags(graph.memberEdge(graph.firstMember(chain))) & blockedMask) != 0L;
+	}
+
+	private static double memberCostSum(
+			CompressedGraph graph,
+			MemorySegment edgeCosts,
+			boolean singleCosts,
+			int fromMember,
+			int toMember
+	) {
+		double cost = 0.0;
+		for (int member = fromMember; member < toMember; member++) {
+			cost += EdgeCostColumns.get(edgeCosts, singleCosts, graph.memberEdge(member));
+		}
+		return cost;
+	}
+
+	private static void addMembers(CompressedGraph graph, List<Integer> edges, int fromMember, int toMember) {
+		for (int member = fromMember; member < toMember; member++) {
+			edges.add(graph.memberEdge(member));
+		}
+	}
+
+	private static double heuristicSeconds(
+			PlanarCoordinates planar,
+			int node,
+			double goalX,
+			double goalY,
+			double vMaxMetersPerSecond
+	) {
+		if (vMaxMetersPerSecond <= 0.0 || Double.isInfinite(vMaxMetersPerSecond)) {
+			return 0.0;
+		}
+		return planar.lowerBoundMeters(node, goalX, goalY) / vMaxMetersPerSecond;
+	}
+
 	private double heuristicSeconds(
 			long nodeId,
 			long goalNodeId,
@@ -178,19 +715,37 @@ public class AStarRouter {
 		return meters / vMaxMetersPerSecond;
 	}
 
-	private double haversineMeters(NodeCoord a, NodeCoord b) {
-		double lat1 = Math.toRadians(a.lat());
-		double lat2 = Math.toRadians(b.lat());
-		double dLat = lat2 - lat1;
-		double dLon = Math.toRadians(b.lon() - a.lon());
-
-		double sinLat = Math.sin(dLat / 2.0);
-		double sinLon = Math.sin(dLon / 2.0);
-		double h = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLon * sinLon;
-		double c = 2.0 * Math.atan2(Math.sqrt(h), Math.sqrt(1.0 - h));
-		return EARTH_RADIUS_METERS * c;
+	private static double haversineMeters(NodeCoord a, NodeCoord b) {
+		return GeoDistance.haversineMeters(a.lat(), a.lon(), b.lat(), b.lon());
 	}
 
 	private record QueueEntry(long nodeId, double fScore, double gScore) {
 	}
+
+	private record TiledQueueEntry(TileSearch search, int node, double fScore, double gScore) {
+	}
+
+	/**
+	 * Search state of the nodes of one tile; predecessors may lie in other tiles.
+	 */
+	private static final class TileSearch {
+
+		private final GraphTile tile;
+		private final double[] costs;
+		private final double[] gScore;
+		private final TileSearch[] cameFrom;
+		private final int[] cameFromNode;
+		private final int[] cameFromEdge;
+
+		private TileSearch(GraphTile tile, double[] costs) {
+			this.tile = tile;
+			this.costs = costs;
+			this.gScore = new double[tile.nodeCount()];
+			this.cameFrom = new TileSearch[tile.nodeCount()];
+			this.cameFromNode = new int[tile.nodeCount()];
+			this.cameFromEdge = new int[tile.nodeCount()];
+			Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+			Arrays.fill(cameFromEdge, -1);
+		}
+	}
 }
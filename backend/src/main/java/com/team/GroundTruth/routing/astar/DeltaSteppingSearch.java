@@ -0,0 +1,366 @@
+package com.team.GroundTruth.routing.astar;
+
+import com.team.GroundTruth.routing.exception.RoutingException;
+import com.team.GroundTruth.routing.graph.EdgeCostColumns;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths over the resident graph using delta-stepping.
+ * <p>
+ * Tentative costs are grouped into buckets of width {@code delta} seconds. The lowest non-empty
+ * bucket is settled in phases: every phase relaxes the light edges ({@code cost <= delta}) of its
+ * frontier in parallel on a {@link ForkJoinPool}, and nodes that improve without leaving the
+ * bucket form the next frontier. Once the bucket is empty the heavy edges of every node settled in
+ * it are relaxed in one further parallel pass. A node left in a bucket after its cost dropped into
+ * a lower one is skipped when that bucket comes up, as it was settled from the lower bucket already.
+ * Costs are lowered with a compare-and-set on their
+ * bit pattern, which orders like the value for non-negative doubles.
+ * </p>
+ * <p>
+ * A small {@code delta} approaches Dijkstra (little re-relaxation, many phases); a large one
+ * approaches Bellman-Ford (few phases, more wasted work). Predecessors are recovered after the
+ * costs converge by walking the tight edges ({@code cost(u) + c == cost(v)}) from the source,
+ * so the returned tree is always consistent with the reported costs.
+ * </p>
+ */
+public class DeltaSteppingSearch implements AutoCloseable {
+
+	private static final long UNREACHED = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+	private static final int NODES_PER_TASK = 256;
+
+	private final ForkJoinPool pool;
+	private final boolean ownsPool;
+	private final double defaultDeltaSeconds;
+
+	/**
+	 * Creates a search on its own pool.
+	 *
+	 * @param parallelism worker threads, or 0 to share the common pool
+	 * @param defaultDeltaSeconds bucket width used when a caller does not pass one
+	 */
+	public DeltaSteppingSearch(int parallelism, double defaultDeltaSeconds) {
+		this(parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool(), parallelism > 0,
+				defaultDeltaSeconds);
+	}
+
+	/**
+	 * Creates a search on a caller-managed pool.
+	 *
+	 * @param pool pool running the relaxation tasks
+	 * @param defaultDeltaSeconds bucket width used when a caller does not pass one
+	 */
+	public DeltaSteppingSearch(ForkJoinPool pool, double defaultDeltaSeconds) {
+		this(pool, false, defaultDeltaSeconds);
+	}
+
+	private DeltaSteppingSearch(ForkJoinPool pool, boolean ownsPool, double defaultDeltaSeconds) {
+		this.pool = Objects.requireNonNull(pool, "pool");
+		this.ownsPool = ownsPool;
+		this.defaultDeltaSeconds = requirePositive(defaultDeltaSeconds);
+	}
+
+	/**
+	 * Computes costs from a source to every node using the configured bucket width.
+	 *
+	 * @param graph resident graph
+	 * @param source source node index
+	 * @param edgeCosts per-edge traversal cost in seconds, non-negative
+	 * @param blockedMask edges with any of these flags set are skipped
+	 * @return shortest path tree covering every reachable node
+	 */
+	public ShortestPathTree oneToAll(RoutingGraph graph, int source, MemorySegment edgeCosts, long blockedMask) {
+		return oneToAll(graph, source, edgeCosts, blockedMask, defaultDeltaSeconds);
+	}
+
+	/**
+	 * Computes costs from a source to every node.
+	 *
+	 * @param graph resident graph
+	 * @param source source node index
+	 * @param edgeCosts per-edge traversal cost in seconds, non-negative
+	 * @param blockedMask edges with any of these flags set are skipped
+	 * @param deltaSeconds bucket width in seconds
+	 * @return shortest path tree covering every reachable node
+	 */
+	public ShortestPathTree oneToAll(
+			RoutingGraph graph,
+			int source,
+			MemorySegment edgeCosts,
+			long blockedMask,
+			double deltaSeconds
+	) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(edgeCosts, "edgeCosts");
+		if (!EdgeCostColumns.matches(edgeCosts, graph.edgeCount())) {
+			throw new RoutingException("Edge cost array does not match graph edge count.");
+		}
+		Objects.checkIndex(source, graph.nodeCount());
+		Search search = new Search(graph, edgeCosts, EdgeCostColumns.isSingle(edgeCosts, graph.edgeCount()),
+				blockedMask, requirePositive(deltaSeconds));
+		search.run(source);
+		return search.tree(source);
+	}
+
+	/**
+	 * Returns the number of worker threads available to a search.
+	 *
+	 * @return pool parallelism
+	 */
+	public int parallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this search created it.
+	 */
+	@Override
+	public void close() {
+		if (ownsPool) {
+			pool.shutdown();
+		}
+	}
+
+	private static double requirePositive(double deltaSeconds) {
+		if (!(deltaSeconds > 0.0) || Double.isInfinite(deltaSeconds)) {
+			throw new IllegalArgumentException("Bucket width must be a positive finite number of seconds.");
+		}
+		return deltaSeconds;
+	}
+
+	/**
+	 * State of one search.
+	 */
+	private final class Search {
+
+		private final RoutingGraph graph;
+		private final MemorySegment edgeCosts;
+		private final boolean singleCosts;
+		private final long blockedMask;
+		private final double delta;
+		private final AtomicLongArray costs;
+		private final TreeMap<Long, NodeBuffer> buckets = new TreeMap<>();
+		private final int[] frontierMark;
+		private final long[] settledMark;
+		private int frontierGeneration;
+
+		private Search(RoutingGraph graph, MemorySegment edgeCosts, boolean singleCosts, long blockedMask, double delta) {
+			this.graph = graph;
+			this.edgeCosts = edgeCosts;
+			this.singleCosts = singleCosts;
+			this.blockedMask = blockedMask;
+			this.delta = delta;
+			this.costs = new AtomicLongArray(graph.nodeCount());
+			this.frontierMark = new int[graph.nodeCount()];
+			this.settledMark = new long[graph.nodeCount()];
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				costs.setPlain(node, UNREACHED);
+			}
+			Arrays.fill(settledMark, -1L);
+		}
+
+		private void run(int source) {
+			costs.set(source, Double.doubleToRawLongBits(0.0));
+			bucket(0L).add(source);
+			while (!buckets.isEmpty()) {
+				Map.Entry<Long, NodeBuffer> entry = buckets.pollFirstEntry();
+				long index = entry.getKey();
+				NodeBuffer settled = new NodeBuffer();
+				NodeBuffer frontier = frontier(entry.getValue(), index);
+				while (frontier.size > 0) {
+					for (int i = 0; i < frontier.size; i++) {
+						int node = frontier.nodes[i];
+						if (settledMark[node] != index) {
+							settledMark[node] = index;
+							settled.add(node);
+						}
+					}
+					frontier = frontier(relax(frontier, true), index);
+				}
+				distribute(relax(settled, false));
+			}
+		}
+
+		/**
+		 * Keeps the nodes whose current cost still falls into the bucket, once each. Nodes that moved
+		 * to a later bucket are queued there; stale entries of nodes whose cost dropped below the
+		 * bucket are dropped, as the lower bucket they were queued in is already drained.
+		 */
+		private NodeBuffer frontier(NodeBuffer[] updated, long index) {
+			NodeBuffer frontier = new NodeBuffer();
+			int generation = ++frontierGeneration;
+			for (NodeBuffer buffer : updated) {
+				for (int i = 0; i < buffer.size; i++) {
+					int node = buffer.nodes[i];
+					long bucket = bucketOf(node);
+					if (bucket < index) {
+						continue;
+					}
+					if (bucket > index) {
+						bucket(bucket).add(node);
+					} else if (frontierMark[node] != generation) {
+						frontierMark[node] = generation;
+						frontier.add(node);
+					}
+				}
+			}
+			return frontier;
+		}
+
+		private NodeBuffer frontier(NodeBuffer candidates, long index) {
+			return frontier(new NodeBuffer[] {candidates}, index);
+		}
+
+		private void distribute(NodeBuffer[] updated) {
+			for (NodeBuffer buffer : updated) {
+				for (int i = 0; i < buffer.size; i++) {
+					int node = buffer.nodes[i];
+					bucket(bucketOf(node)).add(node);
+				}
+			}
+		}
+
+		private NodeBuffer[] relax(NodeBuffer nodes, boolean light) {
+			int tasks = (nodes.size + NODES_PER_TASK - 1) / NODES_PER_TASK;
+			if (tasks <= 1) {
+				// Small frontiers are cheaper to relax inline than to hand to the pool.
+				NodeBuffer updated = new NodeBuffer();
+				relaxRange(nodes.nodes, 0, nodes.size, light, updated);
+				return new NodeBuffer[] {updated};
+			}
+			NodeBuffer[] updated = new NodeBuffer[tasks];
+			pool.invoke(new RelaxTask(nodes, light, updated, 0, tasks));
+			return updated;
+		}
+
+		private void relaxRange(int[] nodes, int from, int to, boolean light, NodeBuffer updated) {
+			for (int i = from; i < to; i++) {
+				int node = nodes[i];
+				double cost = Double.longBitsToDouble(costs.get(node));
+				for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+					double edgeCost = EdgeCostColumns.get(edgeCosts, singleCosts, edge);
+					if ((edgeCost <= delta) != light || (graph.edgeFlags(edge) & blockedMask) != 0L) {
+						continue;
+					}
+					int target = graph.edgeTarget(edge);
+					if (lower(target, cost + edgeCost)) {
+						updated.add(target);
+					}
+				}
+			}
+		}
+
+		private boolean lower(int node, double cost) {
+			long bits = Double.doubleToRawLongBits(cost);
+			long current = costs.get(node);
+			while (bits < current) {
+				long witness = costs.compareAndExchange(node, current, bits);
+				if (witness == current) {
+					return true;
+				}
+				current = witness;
+			}
+			return false;
+		}
+
+		private long bucketOf(int node) {
+			return (long) (Double.longBitsToDouble(costs.get(node)) / delta);
+		}
+
+		private NodeBuffer bucket(long index) {
+			return buckets.computeIfAbsent(index, ignored -> new NodeBuffer());
+		}
+
+		/**
+		 * Builds predecessors by a breadth-first walk over tight edges from the source.
+		 */
+		private ShortestPathTree tree(int source) {
+			int nodeCount = graph.nodeCount();
+			double[] result = new double[nodeCount];
+			for (int node = 0; node < nodeCount; node++) {
+				result[node] = Double.longBitsToDouble(costs.getPlain(node));
+			}
+			int[] parentNode = new int[nodeCount];
+			int[] parentEdge = new int[nodeCount];
+			Arrays.fill(parentEdge, -1);
+			boolean[] visited = new boolean[nodeCount];
+			int[] queue = new int[nodeCount];
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = source;
+			visited[source] = true;
+			while (head < tail) {
+				int node = queue[head++];
+				for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+					int target = graph.edgeTarget(edge);
+					if (visited[target] || (graph.edgeFlags(edge) & blockedMask) != 0L
+							|| result[node] + EdgeCostColumns.get(edgeCosts, singleCosts, edge) != result[target]) {
+						continue;
+					}
+					visited[target] = true;
+					parentNode[target] = node;
+					parentEdge[target] = edge;
+					queue[tail++] = target;
+				}
+			}
+			return new ShortestPathTree(graph, source, result, parentNode, parentEdge);
+		}
+
+		/**
+		 * Relaxes slices of a node list, each slice collecting the nodes it improved.
+		 */
+		private final class RelaxTask extends RecursiveAction {
+
+			private final NodeBuffer nodes;
+			private final boolean light;
+			private final NodeBuffer[] updated;
+			private final int fromTask;
+			private final int toTask;
+
+			private RelaxTask(NodeBuffer nodes, boolean light, NodeBuffer[] updated, int fromTask, int toTask) {
+				this.nodes = nodes;
+				this.light = light;
+				this.updated = updated;
+				this.fromTask = fromTask;
+				this.toTask = toTask;
+			}
+
+			@Override
+			protected void compute() {
+				if (toTask - fromTask > 1) {
+					int middle = (fromTask + toTask) >>> 1;
+					invokeAll(new RelaxTask(nodes, light, updated, fromTask, middle),
+							new RelaxTask(nodes, light, updated, middle, toTask));
+					return;
+				}
+				NodeBuffer buffer = new NodeBuffer();
+				int from = fromTask * NODES_PER_TASK;
+				relaxRange(nodes.nodes, from, Math.min(nodes.size, from + NODES_PER_TASK), light, buffer);
+				updated[fromTask] = buffer;
+			}
+		}
+	}
+
+	/**
+	 * Growable list of node indices.
+	 */
+	private static final class NodeBuffer {
+
+		private int[] nodes = new int[16];
+		private int size;
+
+		private void add(int node) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, size * 2);
+			}
+			nodes[size++] = node;
+		}
+	}
+}
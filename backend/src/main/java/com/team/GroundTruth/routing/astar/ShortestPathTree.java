@@ -0,0 +1,93 @@
+package com.team.GroundTruth.routing.astar;
+
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.model.RouteResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a one-to-many search: settled costs and predecessor edges rooted at a source node.
+ * <p>
+ * Paths to any settled node can be extracted repeatedly without searching again, which lets
+ * multi-stop planning reuse one search per origin for every leg that starts there.
+ * </p>
+ */
+public final class ShortestPathTree {
+
+	private final RoutingGraph graph;
+	private final int source;
+	private final double[] costs;
+	private final int[] parentNode;
+	private final int[] parentEdge;
+
+	ShortestPathTree(RoutingGraph graph, int source, double[] costs, int[] parentNode, int[] parentEdge) {
+		this.graph = Objects.requireNonNull(graph, "graph");
+		this.source = source;
+		this.costs = costs;
+		this.parentNode = parentNode;
+		this.parentEdge = parentEdge;
+	}
+
+	/**
+	 * Returns the source node index of this tree.
+	 *
+	 * @return source node index
+	 */
+	public int source() {
+		return source;
+	}
+
+	/**
+	 * Returns the travel cost from the source to a node.
+	 *
+	 * @param node node index
+	 * @return cost in seconds, or {@link Double#POSITIVE_INFINITY} if unreached
+	 */
+	public double cost(int node) {
+		return costs[node];
+	}
+
+	/**
+	 * Returns true if the node was reached by the search.
+	 *
+	 * @param node node index
+	 * @return true if reachable
+	 */
+	public boolean reached(int node) {
+		return costs[node] != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Extracts the path from the source to a node.
+	 *
+	 * @param target target node index
+	 * @return route result reported in database ids
+	 * @throws NoRouteFoundException if the target was not reached
+	 */
+	public RouteResult pathTo(int target) {
+		if (!reached(target)) {
+			throw new NoRouteFoundException("No route found between nodes " + graph.nodeId(source)
+					+ " and " + graph.nodeId(target) + ".");
+		}
+		List<Long> nodePath = new ArrayList<>();
+		List<Long> edgePath = new ArrayList<>();
+		double distanceMeters = 0.0;
+
+		int current = target;
+		nodePath.add(graph.nodeId(current));
+		while (current != source) {
+			int edge = parentEdge[current];
+			edgePath.add(graph.edgeId(edge));
+			distanceMeters += graph.edgeLength(edge);
+			current = parentNode[current];
+			nodePath.add(graph.nodeId(current));
+		}
+
+		Collections.reverse(nodePath);
+		Collections.reverse(edgePath);
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, costs[target]);
+	}
+}
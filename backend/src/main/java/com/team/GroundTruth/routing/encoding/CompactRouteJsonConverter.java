@@ -0,0 +1,74 @@
+package com.team.GroundTruth.routing.encoding;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.team.GroundTruth.domain.dto.routing.RouteResponseDto;
+import java.io.IOException;
+import java.util.Base64;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes routes as {@value RouteMediaTypes#COMPACT_JSON_VALUE}.
+ * <p>
+ * Keeps the field names of the GeoJSON response, but the geometry becomes a precision-6
+ * {@link PolylineEncoder encoded polyline} and the id arrays become URL-safe base64 strings of
+ * {@link DeltaVarintEncoder delta varints}. The body is streamed with a {@link JsonGenerator}, so
+ * no boxed ids or coordinate lists are built:
+ * </p>
+ * <pre>
+ * {"distanceMeters":812.4,"durationSeconds":584.9,"pathNodeIds":"gI4B...","pathEdgeIds":"kD...",
+ *  "polyline":"_ixzyA~bcmhF...","polylinePrecision":6}
+ * </pre>
+ */
+@Component
+public class CompactRouteJsonConverter extends AbstractHttpMessageConverter<RouteResponseDto> {
+
+	private static final JsonFactory JSON = JsonFactory.builder()
+			.disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+			.build();
+	private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+	/**
+	 * Creates the converter.
+	 */
+	public CompactRouteJsonConverter() {
+		super(RouteMediaTypes.COMPACT_JSON);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return RouteResponseDto.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected RouteResponseDto readInternal(Class<? extends RouteResponseDto> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Compact routes are a response format only.", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(RouteResponseDto route, HttpOutputMessage outputMessage) throws IOException {
+		try (JsonGenerator generator = JSON.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeNumberField("distanceMeters", route.distanceMeters());
+			generator.writeNumberField("durationSeconds", route.durationSeconds());
+			generator.writeStringField("pathNodeIds", BASE64.encodeToString(DeltaVarintEncoder.encode(route.pathNodeIds(), 1)));
+			generator.writeStringField("pathEdgeIds", BASE64.encodeToString(DeltaVarintEncoder.encode(route.pathEdgeIds(), 1)));
+			generator.writeStringField("polyline",
+					PolylineEncoder.encode(route.routeGeojson().geometry().lonLat(), PolylineEncoder.PRECISION));
+			generator.writeNumberField("polylinePrecision", PolylineEncoder.PRECISION);
+			generator.writeEndObject();
+		}
+	}
+}
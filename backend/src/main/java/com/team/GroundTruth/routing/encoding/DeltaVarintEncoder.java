@@ -0,0 +1,80 @@
+package com.team.GroundTruth.routing.encoding;
+
+import java.util.Arrays;
+
+/**
+ * Delta, zigzag and varint coding of integer sequences.
+ * <p>
+ * Every value is replaced by its difference to the value {@code stride} positions earlier, so
+ * interleaved columns (such as latitude and longitude) are differenced separately. Differences are
+ * zigzag-mapped to unsigned and written as little-endian base-128 varints, the layout of a packed
+ * {@code repeated sint64} Protocol Buffers field. Ids along a route are mostly close to each
+ * other, so most of them shrink to one to three bytes.
+ * </p>
+ */
+public final class DeltaVarintEncoder {
+
+	private static final int MAX_VARINT_BYTES = 10;
+
+	private DeltaVarintEncoder() {
+	}
+
+	/**
+	 * Encodes a sequence.
+	 *
+	 * @param values values to encode
+	 * @param stride distance between values that are differenced
+	 * @return encoded bytes
+	 */
+	public static byte[] encode(long[] values, int stride) {
+		if (stride < 1) {
+			throw new IllegalArgumentException("Stride must be positive.");
+		}
+		byte[] out = new byte[values.length * MAX_VARINT_BYTES];
+		int length = 0;
+		for (int i = 0; i < values.length; i++) {
+			long delta = values[i] - (i >= stride ? values[i - stride] : 0L);
+			long value = (delta << 1) ^ (delta >> 63);
+			while ((value & ~0x7fL) != 0) {
+				out[length++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			out[length++] = (byte) value;
+		}
+		return Arrays.copyOf(out, length);
+	}
+
+	/**
+	 * Decodes a sequence.
+	 *
+	 * @param bytes encoded bytes
+	 * @param stride distance between values that were differenced
+	 * @return decoded values
+	 * @throws IllegalArgumentException if the bytes end inside a varint
+	 */
+	public static long[] decode(byte[] bytes, int stride) {
+		if (stride < 1) {
+			throw new IllegalArgumentException("Stride must be positive.");
+		}
+		long[] values = new long[bytes.length];
+		int count = 0;
+		int position = 0;
+		while (position < bytes.length) {
+			long value = 0;
+			int shift = 0;
+			byte current;
+			do {
+				if (position >= bytes.length) {
+					throw new IllegalArgumentException("Truncated varint.");
+				}
+				current = bytes[position++];
+				value |= (long) (current & 0x7f) << shift;
+				shift += 7;
+			} while (current < 0);
+			long delta = (value >>> 1) ^ -(value & 1);
+			values[count] = delta + (count >= stride ? values[count - stride] : 0L);
+			count++;
+		}
+		return Arrays.copyOf(values, count);
+	}
+}
@@ -0,0 +1,94 @@
+package com.team.GroundTruth.routing.encoding;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.team.GroundTruth.domain.dto.routing.RouteResponseDto;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes routes as plain JSON with a GeoJSON {@code LineString}, the default route encoding.
+ * <p>
+ * The body has the shape of {@link RouteResponseDto} as a JSON mapper would write it. It is
+ * streamed with a {@link JsonGenerator}, and the coordinate pairs are written straight from the
+ * geometry's flat coordinate array, so no array per point is built.
+ * </p>
+ */
+@Component
+public class GeoJsonRouteConverter extends AbstractHttpMessageConverter<RouteResponseDto> {
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder()
+			.disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+			.build();
+
+	/**
+	 * Creates the converter.
+	 */
+	public GeoJsonRouteConverter() {
+		super(MediaType.APPLICATION_JSON);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return RouteResponseDto.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected RouteResponseDto readInternal(Class<? extends RouteResponseDto> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("GeoJSON routes are a response format only.", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(RouteResponseDto route, HttpOutputMessage outputMessage) throws IOException {
+		try (JsonGenerator generator = MAPPER.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeNumberField("distanceMeters", route.distanceMeters());
+			generator.writeNumberField("durationSeconds", route.durationSeconds());
+			writeIds(generator, "pathNodeIds", route.pathNodeIds());
+			writeIds(generator, "pathEdgeIds", route.pathEdgeIds());
+			RouteResponseDto.GeoJsonFeature feature = route.routeGeojson();
+			if (feature == null) {
+				generator.writeNullField("routeGeojson");
+			} else {
+				generator.writeObjectFieldStart("routeGeojson");
+				generator.writeStringField("type", feature.type());
+				generator.writeFieldName("properties");
+				generator.writeObject(feature.properties() == null ? Map.of() : feature.properties());
+				generator.writeObjectFieldStart("geometry");
+				generator.writeStringField("type", feature.geometry().type());
+				generator.writeArrayFieldStart("coordinates");
+				double[] lonLat = feature.geometry().lonLat();
+				for (int i = 0; i + 1 < lonLat.length; i += 2) {
+					generator.writeArray(lonLat, i, 2);
+				}
+				generator.writeEndArray();
+				generator.writeEndObject();
+				generator.writeEndObject();
+			}
+			generator.writeEndObject();
+		}
+	}
+
+	private static void writeIds(JsonGenerator generator, String field, long[] ids) throws IOException {
+		generator.writeFieldName(field);
+		if (ids == null) {
+			generator.writeNull();
+		} else {
+			generator.writeArray(ids, 0, ids.length);
+		}
+	}
+}
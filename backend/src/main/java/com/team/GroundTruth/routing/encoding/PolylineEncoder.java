@@ -0,0 +1,112 @@
+package com.team.GroundTruth.routing.encoding;
+
+import java.util.Arrays;
+
+/**
+ * Google encoded polyline algorithm format.
+ * <p>
+ * Each point is written as latitude then longitude, scaled by {@code 10^precision}, rounded and
+ * delta-encoded against the previous point. Each delta is zigzag-shifted and emitted in 5-bit
+ * chunks offset into printable ASCII. Precision 5 is the classic Google format; precision 6 is
+ * what OSRM and Valhalla emit and keeps sidewalk-scale detail (about 0.1 m).
+ * </p>
+ */
+public final class PolylineEncoder {
+
+	/**
+	 * Precision used for route responses.
+	 */
+	public static final int PRECISION = 6;
+
+	private PolylineEncoder() {
+	}
+
+	/**
+	 * Encodes a line.
+	 *
+	 * @param coordinates coordinate pairs in GeoJSON {@code [lon, lat]} order
+	 * @param precision number of decimal places kept
+	 * @return encoded polyline
+	 */
+	public static String encode(double[][] coordinates, int precision) {
+		double[] lonLat = new double[coordinates.length * 2];
+		for (int point = 0; point < coordinates.length; point++) {
+			lonLat[2 * point] = coordinates[point][0];
+			lonLat[2 * point + 1] = coordinates[point][1];
+		}
+		return encode(lonLat, precision);
+	}
+
+	/**
+	 * Encodes a line given as one flat array.
+	 *
+	 * @param lonLat interleaved longitude, latitude pairs
+	 * @param precision number of decimal places kept
+	 * @return encoded polyline
+	 */
+	public static String encode(double[] lonLat, int precision) {
+		double scale = Math.pow(10, precision);
+		StringBuilder out = new StringBuilder(lonLat.length * 4);
+		long previousLat = 0;
+		long previousLon = 0;
+		for (int i = 0; i + 1 < lonLat.length; i += 2) {
+			long lat = Math.round(lonLat[i + 1] * scale);
+			long lon = Math.round(lonLat[i] * scale);
+			appendValue(out, lat - previousLat);
+			appendValue(out, lon - previousLon);
+			previousLat = lat;
+			previousLon = lon;
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Decodes a line.
+	 *
+	 * @param polyline encoded polyline
+	 * @param precision number of decimal places the polyline was encoded with
+	 * @return coordinate pairs in GeoJSON {@code [lon, lat]} order
+	 * @throws IllegalArgumentException if the polyline is truncated or contains invalid characters
+	 */
+	public static double[][] decode(String polyline, int precision) {
+		double scale = Math.pow(10, precision);
+		double[][] coordinates = new double[polyline.length() / 2][];
+		int count = 0;
+		int[] position = {0};
+		long lat = 0;
+		long lon = 0;
+		while (position[0] < polyline.length()) {
+			lat += readValue(polyline, position);
+			lon += readValue(polyline, position);
+			coordinates[count++] = new double[]{lon / scale, lat / scale};
+		}
+		return Arrays.copyOf(coordinates, count);
+	}
+
+	private static void appendValue(StringBuilder out, long delta) {
+		long value = delta < 0 ? ~(delta << 1) : delta << 1;
+		while (value >= 0x20) {
+			out.append((char) ((0x20 | (value & 0x1f)) + 63));
+			value >>>= 5;
+		}
+		out.append((char) (value + 63));
+	}
+
+	private static long readValue(String polyline, int[] position) {
+		long value = 0;
+		int shift = 0;
+		int chunk;
+		do {
+			if (position[0] >= polyline.length()) {
+				throw new IllegalArgumentException("Truncated polyline.");
+			}
+			chunk = polyline.charAt(position[0]++) - 63;
+			if (chunk < 0 || chunk > 0x3f) {
+				throw new IllegalArgumentException("Invalid polyline character at " + (position[0] - 1) + ".");
+			}
+			value |= (long) (chunk & 0x1f) << shift;
+			shift += 5;
+		} while (chunk >= 0x20);
+		return (value & 1) != 0 ? ~(value >>> 1) : value >>> 1;
+	}
+}
@@ -0,0 +1,25 @@
+package com.team.GroundTruth.routing.encoding;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types of the compact route encodings, selected through the {@code Accept} header.
+ */
+public final class RouteMediaTypes {
+
+	/**
+	 * JSON with an encoded polyline and delta-varint id arrays.
+	 */
+	public static final String COMPACT_JSON_VALUE = "application/vnd.groundtruth.route+json";
+
+	/**
+	 * Protocol Buffers encoding of a route.
+	 */
+	public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+	public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+	public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+	private RouteMediaTypes() {
+	}
+}
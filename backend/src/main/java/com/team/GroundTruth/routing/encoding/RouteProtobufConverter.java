@@ -0,0 +1,106 @@
+package com.team.GroundTruth.routing.encoding;
+
+import com.team.GroundTruth.domain.dto.routing.RouteResponseDto;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes routes as {@value RouteMediaTypes#PROTOBUF_VALUE}.
+ * <p>
+ * The body is the Protocol Buffers wire encoding of the following message, written directly to
+ * the response stream:
+ * </p>
+ * <pre>
+ * message Route {
+ *   double distance_meters = 1;
+ *   double duration_seconds = 2;
+ *   repeated sint64 path_node_ids = 3;    // packed, each value a delta to the previous id
+ *   repeated sint64 path_edge_ids = 4;    // packed, each value a delta to the previous id
+ *   repeated sint64 coordinates_e6 = 5;   // packed lat, lon pairs in micro-degrees, each value
+ *                                         // a delta to the same axis of the previous point
+ * }
+ * </pre>
+ * <p>
+ * Clients decode the message with any protobuf runtime and then take prefix sums.
+ * </p>
+ */
+@Component
+public class RouteProtobufConverter extends AbstractHttpMessageConverter<RouteResponseDto> {
+
+	private static final int WIRE_FIXED64 = 1;
+	private static final int WIRE_LENGTH_DELIMITED = 2;
+	private static final double COORDINATE_SCALE = 1e6;
+
+	/**
+	 * Creates the converter.
+	 */
+	public RouteProtobufConverter() {
+		super(RouteMediaTypes.PROTOBUF);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return RouteResponseDto.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected RouteResponseDto readInternal(Class<? extends RouteResponseDto> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Protobuf routes are a response format only.", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(RouteResponseDto route, HttpOutputMessage outputMessage) throws IOException {
+		double[] lonLat = route.routeGeojson().geometry().lonLat();
+		long[] scaled = new long[lonLat.length & ~1];
+		for (int i = 0; i < scaled.length; i += 2) {
+			scaled[i] = Math.round(lonLat[i + 1] * COORDINATE_SCALE);
+			scaled[i + 1] = Math.round(lonLat[i] * COORDINATE_SCALE);
+		}
+
+		OutputStream out = outputMessage.getBody();
+		writeDouble(out, 1, route.distanceMeters());
+		writeDouble(out, 2, route.durationSeconds());
+		writeBytes(out, 3, DeltaVarintEncoder.encode(route.pathNodeIds(), 1));
+		writeBytes(out, 4, DeltaVarintEncoder.encode(route.pathEdgeIds(), 1));
+		writeBytes(out, 5, DeltaVarintEncoder.encode(scaled, 2));
+	}
+
+	private static void writeDouble(OutputStream out, int field, double value) throws IOException {
+		writeVarint(out, (long) field << 3 | WIRE_FIXED64);
+		long bits = Double.doubleToRawLongBits(value);
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+			out.write((int) (bits >>> shift));
+		}
+	}
+
+	/**
+	 * Writes a length-delimited field; empty fields are omitted as protobuf does for defaults.
+	 */
+	private static void writeBytes(OutputStream out, int field, byte[] bytes) throws IOException {
+		if (bytes.length == 0) {
+			return;
+		}
+		writeVarint(out, (long) field << 3 | WIRE_LENGTH_DELIMITED);
+		writeVarint(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeVarint(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.team.GroundTruth.config.GeoDataConfig;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +19,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class CrimeFetcher {
 
 	private static final Logger LOG = LoggerFactory.getLogger(CrimeFetcher.class);
-	private static final double DEFAULT_VALUE = 0.5;
+	static final double DEFAULT_VALUE = 0.5;
 	private static final int MAX_CRIMES_PER_AREA = 100;
 	private static final int MONTHS_LOOKBACK = 6;
 
@@ -39,8 +41,7 @@ public class CrimeFetcher {
 	 */
 	public double fetch(double lat, double lon, double radiusMeters) {
 		try {
-			LocalDate sixMonthsAgo = LocalDate.now().minusMonths(MONTHS_LOOKBACK);
-			String dateFilter = sixMonthsAgo.format(DateTimeFormatter.ISO_LOCAL_DATE);
+			String dateFilter = lookbackDate();
 
 			String query = String.format(
 					"$where=within_circle(lat_lon, %f, %f, %f) AND cmplnt_fr_dt >= '%s'&$limit=1000",
@@ -59,7 +60,7 @@ public class CrimeFetcher {
 			}
 
 			int count = response.size();
-			double normalized = Math.min(1.0, (double) count / MAX_CRIMES_PER_AREA);
+			double normalized = normalize(count);
 
 			LOG.debug("Crime incidents at ({}, {}): {} -> normalized: {}", lat, lon, count, normalized);
 			return normalized;
@@ -69,4 +70,46 @@ public class CrimeFetcher {
 			return DEFAULT_VALUE;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Fetches the location of every recent crime complaint within a bounding box, page by page.
+	 *
+	 * @param minLat southern border
+	 * @param minLon western border
+	 * @param maxLat northern border
+	 * @param maxLon eastern border
+	 * @return located complaints, each of weight 1
+	 * @throws org.springframework.web.reactive.function.client.WebClientException if a request fails
+	 */
+	public List<GeoPoint> fetchInBounds(double minLat, double minLon, double maxLat, double maxLon) {
+		String query = String.format(
+				"$select=latitude,longitude&$where=within_box(lat_lon, %f, %f, %f, %f) AND cmplnt_fr_dt >= '%s'",
+				maxLat, minLon, minLat, maxLon, lookbackDate()
+		);
+		List<GeoPoint> complaints = new ArrayList<>();
+		int pages = SocrataPages.forEach(webClient, config.getCrimeEndpoint(), query, config.getHarvestPageSize(),
+				record -> {
+					double lat = record.path("latitude").asDouble(Double.NaN);
+					double lon = record.path("longitude").asDouble(Double.NaN);
+					if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+						complaints.add(new GeoPoint(lat, lon, 1.0));
+					}
+				});
+		LOG.debug("Fetched {} crime complaints in {} pages", complaints.size(), pages);
+		return complaints;
+	}
+
+	/**
+	 * Normalizes the number of crime complaints around a location.
+	 *
+	 * @param count complaints found, or their estimated count
+	 * @return normalized value (0-1)
+	 */
+	static double normalize(double count) {
+		return Math.min(1.0, count / MAX_CRIMES_PER_AREA);
+	}
+
+	private static String lookbackDate() {
+		return LocalDate.now().minusMonths(MONTHS_LOOKBACK).format(DateTimeFormatter.ISO_LOCAL_DATE);
+	}
+}
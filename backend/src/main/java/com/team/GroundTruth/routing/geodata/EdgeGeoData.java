@@ -0,0 +1,21 @@
+package com.team.GroundTruth.routing.geodata;
+
+/**
+ * Normalized geodata values of a walk edge, aggregated around its centroid.
+ *
+ * @param edgeId database edge id
+ * @param lat centroid latitude
+ * @param lon centroid longitude
+ * @param popDensity normalized pedestrian volume (0-1)
+ * @param streetlight normalized streetlight coverage (0-1)
+ * @param crimeLevel normalized crime level (0-1)
+ */
+public record EdgeGeoData(
+		long edgeId,
+		double lat,
+		double lon,
+		double popDensity,
+		double streetlight,
+		double crimeLevel
+) {
+}
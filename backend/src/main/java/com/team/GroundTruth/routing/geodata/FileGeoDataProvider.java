@@ -0,0 +1,41 @@
+package com.team.GroundTruth.routing.geodata;
+
+import java.util.Objects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of GeoDataProvider that reads local dataset files instead of external APIs.
+ * The search radius is used as the kernel bandwidth of {@link GeoDataFileImporter}.
+ * <p>
+ * Active with {@code geodata.files.enabled=true}, where it takes precedence over
+ * {@link GeoDataProviderImpl} so no walk safety endpoint needs network access.
+ * </p>
+ */
+@Service
+@Primary
+@ConditionalOnProperty(value = "geodata.files.enabled", havingValue = "true")
+public class FileGeoDataProvider implements GeoDataProvider {
+
+	private final GeoDataFileImporter importer;
+
+	public FileGeoDataProvider(GeoDataFileImporter importer) {
+		this.importer = Objects.requireNonNull(importer, "importer");
+	}
+
+	@Override
+	public double getPopDensity(double lat, double lon, double radiusMeters) {
+		return importer.popDensity(lat, lon, radiusMeters);
+	}
+
+	@Override
+	public double getStreetlightCoverage(double lat, double lon, double radiusMeters) {
+		return importer.streetlight(lat, lon, radiusMeters);
+	}
+
+	@Override
+	public double getCrimeLevel(double lat, double lon, double radiusMeters) {
+		return importer.crimeLevel(lat, lon, radiusMeters);
+	}
+}
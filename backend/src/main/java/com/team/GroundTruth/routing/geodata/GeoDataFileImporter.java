@@ -0,0 +1,177 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.config.GeoDataConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes walk safety geodata from local dataset files, without network access.
+ * <p>
+ * The pedestrian count, streetlamp and crime complaint files configured under
+ * {@code geodata.files.*} are read once, on first use, into {@link GeoPointIndex}es; see
+ * {@link GeoDataFileReader} for the accepted formats. Crime files are used as given, so they
+ * should already be limited to the period of interest. Values are kernel density estimates
+ * around a location, normalized like the per-location fetchers normalize their counts; edges are
+ * estimated in parallel. A dataset without a configured file yields the fetcher's default value.
+ * </p>
+ */
+@Component
+public class GeoDataFileImporter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GeoDataFileImporter.class);
+	private static final double CELL_SIZE_DEGREES = 0.001;
+
+	private final GeoDataConfig config;
+	private volatile Datasets datasets;
+
+	public GeoDataFileImporter(GeoDataConfig config) {
+		this.config = Objects.requireNonNull(config, "config");
+	}
+
+	/**
+	 * Estimates the geodata of edges from the dataset files, in parallel.
+	 *
+	 * @param centroids edge id, latitude and longitude arrays, as returned by
+	 *                  {@code EdgeRepository#findWalkEdgeCentroids}
+	 * @param bandwidthMeters kernel bandwidth, the radius an edge's values are drawn from
+	 * @return values of every edge, in centroid order
+	 */
+	public List<EdgeGeoData> estimate(List<Object[]> centroids, double bandwidthMeters) {
+		Objects.requireNonNull(centroids, "centroids");
+		if (!(bandwidthMeters > 0.0)) {
+			throw new IllegalArgumentException("Bandwidth must be positive.");
+		}
+		Datasets loaded = datasets();
+		long startedAt = System.nanoTime();
+		EdgeGeoData[] values = new EdgeGeoData[centroids.size()];
+		IntStream.range(0, values.length).parallel().forEach(i -> {
+			Object[] centroid = centroids.get(i);
+			double lat = ((Number) centroid[1]).doubleValue();
+			double lon = ((Number) centroid[2]).doubleValue();
+			values[i] = new EdgeGeoData(((Number) centroid[0]).longValue(), lat, lon,
+					loaded.popDensity(lat, lon, bandwidthMeters),
+					loaded.streetlight(lat, lon, bandwidthMeters),
+					loaded.crimeLevel(lat, lon, bandwidthMeters));
+		});
+		LOG.info("Estimated geodata for {} edges from files in {} ms", values.length,
+				(System.nanoTime() - startedAt) / 1_000_000);
+		return Arrays.asList(values);
+	}
+
+	/**
+	 * Estimates the pedestrian density around a location.
+	 *
+	 * @param lat latitude
+	 * @param lon longitude
+	 * @param bandwidthMeters kernel bandwidth
+	 * @return normalized value (0-1)
+	 */
+	public double popDensity(double lat, double lon, double bandwidthMeters) {
+		return datasets().popDensity(lat, lon, bandwidthMeters);
+	}
+
+	/**
+	 * Estimates the streetlight coverage around a location.
+	 *
+	 * @param lat latitude
+	 * @param lon longitude
+	 * @param bandwidthMeters kernel bandwidth
+	 * @return normalized value (0-1)
+	 */
+	public double streetlight(double lat, double lon, double bandwidthMeters) {
+		return datasets().streetlight(lat, lon, bandwidthMeters);
+	}
+
+	/**
+	 * Estimates the crime level around a location.
+	 *
+	 * @param lat latitude
+	 * @param lon longitude
+	 * @param bandwidthMeters kernel bandwidth
+	 * @return normalized value (0-1)
+	 */
+	public double crimeLevel(double lat, double lon, double bandwidthMeters) {
+		return datasets().crimeLevel(lat, lon, bandwidthMeters);
+	}
+
+	/**
+	 * Drops the loaded datasets, so changed files are read again on next use.
+	 */
+	public void invalidate() {
+		datasets = null;
+	}
+
+	private Datasets datasets() {
+		Datasets current = datasets;
+		if (current == null) {
+			synchronized (this) {
+				current = datasets;
+				if (current == null) {
+					current = new Datasets(
+							load("pedestrian counts", config.getPedestrianFile(), config.getPedestrianWeightField()),
+							load("streetlamps", config.getStreetlampFile(), null),
+							load("crime complaints", config.getCrimeFile(), null));
+					datasets = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static GeoPointIndex load(String dataset, String file, String weightField) {
+		if (file == null || file.isBlank()) {
+			LOG.warn("No file configured for {}; using default values", dataset);
+			return null;
+		}
+		Path path = Path.of(file);
+		if (!Files.isRegularFile(path)) {
+			throw new IllegalStateException("Geodata file for " + dataset + " not found: " + path);
+		}
+		try {
+			long startedAt = System.nanoTime();
+			GeoPointIndex index = new GeoPointIndex(GeoDataFileReader.read(path, weightField), CELL_SIZE_DEGREES);
+			LOG.info("Loaded {} {} from {} in {} ms", index.size(), dataset, path,
+					(System.nanoTime() - startedAt) / 1_000_000);
+			return index;
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to read " + path, ex);
+		}
+	}
+
+	/**
+	 * Loaded datasets; {@code null} where no file is configured.
+	 */
+	private record Datasets(GeoPointIndex pedestrians, GeoPointIndex lamps, GeoPointIndex crimes) {
+
+		double popDensity(double lat, double lon, double bandwidthMeters) {
+			if (pedestrians == null) {
+				return PedestrianCountFetcher.DEFAULT_VALUE;
+			}
+			return PedestrianCountFetcher.normalize(pedestrians.count(lat, lon, bandwidthMeters),
+					pedestrians.density(lat, lon, bandwidthMeters, true));
+		}
+
+		double streetlight(double lat, double lon, double bandwidthMeters) {
+			if (lamps == null) {
+				return StreetlampFetcher.DEFAULT_VALUE;
+			}
+			return StreetlampFetcher.normalize(lamps.density(lat, lon, bandwidthMeters, false), bandwidthMeters);
+		}
+
+		double crimeLevel(double lat, double lon, double bandwidthMeters) {
+			if (crimes == null) {
+				return CrimeFetcher.DEFAULT_VALUE;
+			}
+			return CrimeFetcher.normalize(crimes.density(lat, lon, bandwidthMeters, false));
+		}
+	}
+}
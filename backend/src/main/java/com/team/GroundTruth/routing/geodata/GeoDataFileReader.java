@@ -0,0 +1,207 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads located geodata records from local files into {@link GeoPoint}s.
+ * <p>
+ * Files ending in {@code .csv} are read line by line; a record is located by {@code latitude} and
+ * {@code longitude} (or {@code lat}/{@code lon}) columns, or by a WKT point in a {@code the_geom}
+ * or {@code geometry} column. Quoted fields may contain commas but not line breaks. Any other file
+ * is streamed as JSON: a GeoJSON feature collection, an Overpass {@code elements} response, or an
+ * array of records as a Socrata export returns them. Records without a location are skipped.
+ * </p>
+ */
+final class GeoDataFileReader {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Pattern WKT_POSITION = Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\s+(-?\\d+(?:\\.\\d+)?)");
+
+	private GeoDataFileReader() {
+	}
+
+	/**
+	 * Reads every located record of a file.
+	 *
+	 * @param path CSV or JSON file
+	 * @param weightField field holding a record's weight, or {@code null} to weigh every record 1
+	 * @return located records
+	 * @throws IOException if the file cannot be read or parsed
+	 */
+	static List<GeoPoint> read(Path path, String weightField) throws IOException {
+		List<GeoPoint> points = new ArrayList<>();
+		if (path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+			readCsv(path, weightField, points::add);
+		} else {
+			readJson(path, weightField, points::add);
+		}
+		return points;
+	}
+
+	private static void readCsv(Path path, String weightField, Consumer<GeoPoint> sink) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String header = reader.readLine();
+			if (header == null) {
+				return;
+			}
+			List<String> columns = splitCsvLine(header.replace("\uFEFF", ""));
+			int latColumn = column(columns, "latitude", "lat");
+			int lonColumn = column(columns, "longitude", "lon", "lng");
+			int geometryColumn = column(columns, "the_geom", "geometry", "wkt");
+			int weightColumn = weightField == null ? -1 : column(columns, weightField);
+			if ((latColumn < 0 || lonColumn < 0) && geometryColumn < 0) {
+				throw new IOException("No latitude/longitude or geometry column in " + path);
+			}
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				List<String> fields = splitCsvLine(line);
+				double lat = Double.NaN;
+				double lon = Double.NaN;
+				if (latColumn >= 0 && lonColumn >= 0) {
+					lat = parse(field(fields, latColumn));
+					lon = parse(field(fields, lonColumn));
+				}
+				if ((Double.isNaN(lat) || Double.isNaN(lon)) && geometryColumn >= 0) {
+					Matcher position = WKT_POSITION.matcher(field(fields, geometryColumn));
+					if (position.find()) {
+						lon = Double.parseDouble(position.group(1));
+						lat = Double.parseDouble(position.group(2));
+					}
+				}
+				double weight = weightColumn < 0 ? 1.0 : parse(field(fields, weightColumn));
+				if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+					sink.accept(new GeoPoint(lat, lon, Double.isNaN(weight) ? 0.0 : weight));
+				}
+			}
+		}
+	}
+
+	private static void readJson(Path path, String weightField, Consumer<GeoPoint> sink) throws IOException {
+		try (InputStream in = Files.newInputStream(path); JsonParser parser = MAPPER.getFactory().createParser(in)) {
+			JsonToken root = parser.nextToken();
+			if (root == JsonToken.START_ARRAY) {
+				readRecords(parser, weightField, sink);
+			} else if (root == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.currentName();
+					JsonToken value = parser.nextToken();
+					if (value == JsonToken.START_ARRAY && ("features".equals(field) || "elements".equals(field))) {
+						readRecords(parser, weightField, sink);
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				throw new IOException("Expected a JSON array or object in " + path);
+			}
+		}
+	}
+
+	private static void readRecords(JsonParser parser, String weightField, Consumer<GeoPoint> sink) throws IOException {
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+			GeoPoint point = point(parser.readValueAsTree(), weightField);
+			if (point != null) {
+				sink.accept(point);
+			}
+		}
+	}
+
+	/**
+	 * Locates a JSON record: a GeoJSON feature, an Overpass node or a Socrata row.
+	 */
+	private static GeoPoint point(JsonNode record, String weightField) {
+		double lat;
+		double lon;
+		JsonNode geometry = record.has("geometry") ? record.get("geometry") : record.path("the_geom");
+		JsonNode position = PedestrianCountFetcher.firstPosition(geometry.path("coordinates"));
+		if (position != null) {
+			lon = position.get(0).asDouble(Double.NaN);
+			lat = position.get(1).asDouble(Double.NaN);
+		} else {
+			lat = (record.has("lat") ? record.get("lat") : record.path("latitude")).asDouble(Double.NaN);
+			lon = (record.has("lon") ? record.get("lon") : record.path("longitude")).asDouble(Double.NaN);
+		}
+		if (Double.isNaN(lat) || Double.isNaN(lon)) {
+			return null;
+		}
+		JsonNode properties = record.has("properties") ? record.get("properties") : record;
+		double weight = weightField == null ? 1.0 : properties.path(weightField).asDouble(0.0);
+		return new GeoPoint(lat, lon, weight);
+	}
+
+	private static int column(List<String> columns, String... names) {
+		for (String name : names) {
+			for (int i = 0; i < columns.size(); i++) {
+				if (columns.get(i).trim().equalsIgnoreCase(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static String field(List<String> fields, int column) {
+		return column < fields.size() ? fields.get(column) : "";
+	}
+
+	private static double parse(String value) {
+		if (value.isBlank()) {
+			return Double.NaN;
+		}
+		try {
+			return Double.parseDouble(value.trim().replace(",", ""));
+		} catch (NumberFormatException ex) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Splits one CSV line into fields, honoring double-quoted fields and doubled quotes in them.
+	 */
+	static List<String> splitCsvLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,144 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.config.GeoDataConfig;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Harvests walk safety geodata for many edges with a handful of API calls per tile.
+ * <p>
+ * Edge centroids are grouped into square tiles of {@code geodata.harvest.tile-size-degrees}; tiles
+ * without edges are skipped. For each tile, the pedestrian counts, streetlamps and crime
+ * complaints inside the tile grown by the aggregation radius are fetched once with bounding box
+ * queries, and every edge's values are aggregated locally in a {@link GeoPointIndex} with the
+ * normalization the per-location fetchers use. A dataset whose tile request fails falls back to
+ * the fetcher's default value for the edges of that tile, as a failed per-location request does.
+ * </p>
+ */
+@Component
+public class GeoDataHarvester {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GeoDataHarvester.class);
+	private static final double MIN_CELL_SIZE_DEGREES = 1e-4;
+
+	private final PedestrianCountFetcher pedestrianFetcher;
+	private final StreetlampFetcher streetlampFetcher;
+	private final CrimeFetcher crimeFetcher;
+	private final GeoDataConfig config;
+
+	public GeoDataHarvester(
+			PedestrianCountFetcher pedestrianFetcher,
+			StreetlampFetcher streetlampFetcher,
+			CrimeFetcher crimeFetcher,
+			GeoDataConfig config
+	) {
+		this.pedestrianFetcher = Objects.requireNonNull(pedestrianFetcher, "pedestrianFetcher");
+		this.streetlampFetcher = Objects.requireNonNull(streetlampFetcher, "streetlampFetcher");
+		this.crimeFetcher = Objects.requireNonNull(crimeFetcher, "crimeFetcher");
+		this.config = Objects.requireNonNull(config, "config");
+	}
+
+	/**
+	 * Harvests the geodata of edges tile by tile.
+	 *
+	 * @param centroids edge id, latitude and longitude arrays, as returned by
+	 *                  {@code EdgeRepository#findWalkEdgeCentroids}
+	 * @param radiusMeters radius the values of an edge are aggregated over
+	 * @param sink receives the values of each tile's edges once the tile is harvested
+	 * @return number of edges harvested
+	 */
+	public int harvest(List<Object[]> centroids, double radiusMeters, Consumer<List<EdgeGeoData>> sink) {
+		Objects.requireNonNull(centroids, "centroids");
+		Objects.requireNonNull(sink, "sink");
+		if (!(radiusMeters > 0.0)) {
+			throw new IllegalArgumentException("Radius must be positive.");
+		}
+		TileGrid tiles = new TileGrid(config.getHarvestTileSizeDegrees());
+		Map<Long, List<Object[]>> byTile = new TreeMap<>();
+		for (Object[] centroid : centroids) {
+			double lat = ((Number) centroid[1]).doubleValue();
+			double lon = ((Number) centroid[2]).doubleValue();
+			byTile.computeIfAbsent(tiles.tileOf(lat, lon), tile -> new ArrayList<>()).add(centroid);
+		}
+		LOG.info("Harvesting geodata for {} edges in {} tiles", centroids.size(), byTile.size());
+
+		int harvested = 0;
+		int tileCount = 0;
+		for (Map.Entry<Long, List<Object[]>> tile : byTile.entrySet()) {
+			List<EdgeGeoData> values = harvestTile(tiles, tile.getKey(), tile.getValue(), radiusMeters);
+			sink.accept(values);
+			harvested += values.size();
+			tileCount++;
+			LOG.info("Harvested tile {} / {} ({} / {} edges)", tileCount, byTile.size(), harvested, centroids.size());
+		}
+		return harvested;
+	}
+
+	private List<EdgeGeoData> harvestTile(TileGrid tiles, long tile, List<Object[]> centroids, double radiusMeters) {
+		double bufferLat = radiusMeters / GeoPointIndex.METERS_PER_DEGREE;
+		double minLat = tiles.minLat(tile) - bufferLat;
+		double maxLat = tiles.minLat(tile) + tiles.sizeDegrees() + bufferLat;
+		double widestLat = Math.min(89.0, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+		double bufferLon = bufferLat / Math.cos(Math.toRadians(widestLat));
+		double minLon = tiles.minLon(tile) - bufferLon;
+		double maxLon = tiles.minLon(tile) + tiles.sizeDegrees() + bufferLon;
+		double cellSize = Math.max(bufferLat, MIN_CELL_SIZE_DEGREES);
+
+		GeoPointIndex pedestrians = index("pedestrian counts", tile, cellSize,
+				() -> pedestrianFetcher.fetchInBounds(minLat, minLon, maxLat, maxLon));
+		GeoPointIndex lamps = index("streetlamps", tile, cellSize,
+				() -> streetlampFetcher.fetchInBounds(minLat, minLon, maxLat, maxLon));
+		GeoPointIndex crimes = index("crime complaints", tile, cellSize,
+				() -> crimeFetcher.fetchInBounds(minLat, minLon, maxLat, maxLon));
+
+		List<EdgeGeoData> values = new ArrayList<>(centroids.size());
+		for (Object[] centroid : centroids) {
+			long edgeId = ((Number) centroid[0]).longValue();
+			double lat = ((Number) centroid[1]).doubleValue();
+			double lon = ((Number) centroid[2]).doubleValue();
+			double popDensity = pedestrians == null
+					? PedestrianCountFetcher.DEFAULT_VALUE
+					: PedestrianCountFetcher.normalize(pedestrians.count(lat, lon, radiusMeters),
+							pedestrians.sum(lat, lon, radiusMeters));
+			double streetlight = lamps == null
+					? StreetlampFetcher.DEFAULT_VALUE
+					: StreetlampFetcher.normalize(lamps.count(lat, lon, radiusMeters), radiusMeters);
+			double crime = crimes == null
+					? CrimeFetcher.DEFAULT_VALUE
+					: CrimeFetcher.normalize(crimes.count(lat, lon, radiusMeters));
+			values.add(new EdgeGeoData(edgeId, lat, lon, popDensity, streetlight, crime));
+		}
+		return values;
+	}
+
+	private GeoPointIndex index(String dataset, long tile, double cellSizeDegrees, Supplier<List<GeoPoint>> fetch) {
+		try {
+			GeoPointIndex index = new GeoPointIndex(fetch.get(), cellSizeDegrees);
+			LOG.debug("Harvested {} {} for tile {}", index.size(), dataset, tile);
+			return index;
+		} catch (Exception e) {
+			LOG.warn("Failed to harvest {} for tile {}: {}", dataset, tile, e.getMessage());
+			return null;
+		} finally {
+			delayForRateLimit();
+		}
+	}
+
+	private void delayForRateLimit() {
+		try {
+			Thread.sleep(config.getRequestDelayMs());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOG.warn("Rate limit delay interrupted");
+		}
+	}
+}
@@ -1,7 +1,8 @@
 package com.team.GroundTruth.routing.geodata;
 
 /**
- * Interface for fetching geodata from external APIs to compute walk safety modifiers.
+ * Interface for fetching geodata to compute walk safety modifiers, from external APIs or, with
+ * {@code geodata.files.enabled=true}, from local dataset files.
  */
 public interface GeoDataProvider {
 
@@ -0,0 +1,11 @@
+package com.team.GroundTruth.routing.geodata;
+
+/**
+ * A located geodata record, such as a pedestrian count station, streetlamp or crime complaint.
+ *
+ * @param lat latitude in decimal degrees
+ * @param lon longitude in decimal degrees
+ * @param weight value the record contributes, e.g. a pedestrian volume; 1 for plain occurrences
+ */
+public record GeoPoint(double lat, double lon, double weight) {
+}
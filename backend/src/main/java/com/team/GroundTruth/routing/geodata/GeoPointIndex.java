@@ -0,0 +1,138 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.routing.graph.GeoDistance;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable grid of {@link GeoPoint}s answering radius aggregates locally.
+ * <p>
+ * Points are bucketed in a {@link TileGrid} and sorted by cell code, so a radius query scans the
+ * contiguous cells of each grid row its bounding box covers and keeps the points within haversine
+ * distance, matching the circle queries the geodata APIs answer for a single location. Kernel
+ * density estimates weigh the same points by their distance instead of cutting them off.
+ * </p>
+ */
+final class GeoPointIndex {
+
+	/** Shortest length of a degree of latitude, so a radius never spans more degrees than this. */
+	static final double METERS_PER_DEGREE = 110_574.0;
+
+	private final TileGrid grid;
+	private final long[] cells;
+	private final double[] lats;
+	private final double[] lons;
+	private final double[] weights;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param points indexed points
+	 * @param cellSizeDegrees grid cell edge length, best close to the query radius
+	 */
+	GeoPointIndex(List<GeoPoint> points, double cellSizeDegrees) {
+		this.grid = new TileGrid(cellSizeDegrees);
+		int count = points.size();
+		long[] cellOf = new long[count];
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			cellOf[i] = grid.tileOf(points.get(i).lat(), points.get(i).lon());
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(cellOf[a], cellOf[b]));
+
+		cells = new long[count];
+		lats = new double[count];
+		lons = new double[count];
+		weights = new double[count];
+		for (int i = 0; i < count; i++) {
+			GeoPoint point = points.get(order[i]);
+			cells[i] = cellOf[order[i]];
+			lats[i] = point.lat();
+			lons[i] = point.lon();
+			weights[i] = point.weight();
+		}
+	}
+
+	/**
+	 * Returns the number of indexed points.
+	 *
+	 * @return point count
+	 */
+	int size() {
+		return cells.length;
+	}
+
+	/**
+	 * Counts the points within a radius.
+	 *
+	 * @param lat latitude of the center
+	 * @param lon longitude of the center
+	 * @param radiusMeters radius
+	 * @return number of points at most {@code radiusMeters} from the center
+	 */
+	int count(double lat, double lon, double radiusMeters) {
+		return (int) aggregate(lat, lon, radiusMeters, false, false);
+	}
+
+	/**
+	 * Sums the weights of the points within a radius.
+	 *
+	 * @param lat latitude of the center
+	 * @param lon longitude of the center
+	 * @param radiusMeters radius
+	 * @return total weight of the points at most {@code radiusMeters} from the center
+	 */
+	double sum(double lat, double lon, double radiusMeters) {
+		return aggregate(lat, lon, radiusMeters, true, false);
+	}
+
+	/**
+	 * Estimates the kernel density of the points around a location, scaled as an expected count.
+	 * A point at distance {@code d} contributes {@code 2 (1 - (d/h)^2)} times its weight, an
+	 * Epanechnikov kernel scaled to integrate to the disk area. On evenly spread points the
+	 * estimate therefore equals the count within {@code h}, but it changes smoothly as points
+	 * approach or recede.
+	 *
+	 * @param lat latitude of the center
+	 * @param lon longitude of the center
+	 * @param bandwidthMeters kernel bandwidth {@code h}
+	 * @param weighted whether points contribute their weight instead of 1
+	 * @return estimated count or total weight within the bandwidth
+	 */
+	double density(double lat, double lon, double bandwidthMeters, boolean weighted) {
+		return aggregate(lat, lon, bandwidthMeters, weighted, true);
+	}
+
+	private double aggregate(double lat, double lon, double radiusMeters, boolean weighted, boolean smoothed) {
+		double dLat = radiusMeters / METERS_PER_DEGREE;
+		double dLon = Math.min(180.0, dLat / Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + dLat))));
+		long southWest = grid.tileOf(lat - dLat, lon - dLon);
+		long northEast = grid.tileOf(lat + dLat, lon + dLon);
+		double total = 0.0;
+		for (int row = grid.row(southWest); row <= grid.row(northEast); row++) {
+			long last = grid.tile(row, grid.column(northEast));
+			int index = firstAtOrAfter(grid.tile(row, grid.column(southWest)));
+			for (; index < cells.length && cells[index] <= last; index++) {
+				double distance = GeoDistance.haversineMeters(lat, lon, lats[index], lons[index]);
+				if (distance <= radiusMeters) {
+					double scaled = distance / radiusMeters;
+					total += (weighted ? weights[index] : 1.0) * (smoothed ? 2.0 * (1.0 - scaled * scaled) : 1.0);
+				}
+			}
+		}
+		return total;
+	}
+
+	private int firstAtOrAfter(long cell) {
+		int index = Arrays.binarySearch(cells, cell);
+		if (index < 0) {
+			return -index - 1;
+		}
+		while (index > 0 && cells[index - 1] == cell) {
+			index--;
+		}
+		return index;
+	}
+}
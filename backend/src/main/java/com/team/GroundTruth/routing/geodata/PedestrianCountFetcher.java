@@ -2,6 +2,8 @@ package com.team.GroundTruth.routing.geodata;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.team.GroundTruth.config.GeoDataConfig;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,7 @@ public class PedestrianCountFetcher {
 
 	private static final Logger LOG = LoggerFactory.getLogger(PedestrianCountFetcher.class);
 	private static final double MAX_PEDESTRIAN_VOLUME = 10000.0;
-	private static final double DEFAULT_VALUE = 0.5;
+	static final double DEFAULT_VALUE = 0.5;
 
 	private final WebClient webClient;
 	private final GeoDataConfig config;
@@ -54,13 +56,10 @@ public class PedestrianCountFetcher {
 
 			double totalVolume = 0.0;
 			for (JsonNode record : response) {
-				JsonNode volumeNode = record.get("vol");
-				if (volumeNode != null && volumeNode.isNumber()) {
-					totalVolume += volumeNode.asDouble();
-				}
+				totalVolume += volume(record);
 			}
 
-			double normalized = Math.min(1.0, totalVolume / MAX_PEDESTRIAN_VOLUME);
+			double normalized = normalize(response.size(), totalVolume);
 			LOG.debug("Pedestrian volume at ({}, {}): {} -> normalized: {}", lat, lon, totalVolume, normalized);
 			return normalized;
 
@@ -69,4 +68,60 @@ public class PedestrianCountFetcher {
 			return DEFAULT_VALUE;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Fetches every pedestrian count station within a bounding box, page by page.
+	 *
+	 * @param minLat southern border
+	 * @param minLon western border
+	 * @param maxLat northern border
+	 * @param maxLon eastern border
+	 * @return located stations weighted by their volume
+	 * @throws org.springframework.web.reactive.function.client.WebClientException if a request fails
+	 */
+	public List<GeoPoint> fetchInBounds(double minLat, double minLon, double maxLat, double maxLon) {
+		String query = String.format(
+				"$where=within_box(the_geom, %f, %f, %f, %f)",
+				maxLat, minLon, minLat, maxLon
+		);
+		List<GeoPoint> stations = new ArrayList<>();
+		int pages = SocrataPages.forEach(webClient, config.getPedestrianEndpoint(), query, config.getHarvestPageSize(),
+				record -> {
+					JsonNode coordinates = firstPosition(record.path("the_geom").path("coordinates"));
+					if (coordinates != null) {
+						stations.add(new GeoPoint(coordinates.get(1).asDouble(), coordinates.get(0).asDouble(), volume(record)));
+					}
+				});
+		LOG.debug("Fetched {} pedestrian count stations in {} pages", stations.size(), pages);
+		return stations;
+	}
+
+	/**
+	 * Normalizes the pedestrian volume counted around a location.
+	 *
+	 * @param stations number of count stations found
+	 * @param totalVolume summed volume of those stations
+	 * @return normalized value (0-1), {@link #DEFAULT_VALUE} without stations
+	 */
+	static double normalize(int stations, double totalVolume) {
+		if (stations == 0) {
+			return DEFAULT_VALUE;
+		}
+		return Math.min(1.0, totalVolume / MAX_PEDESTRIAN_VOLUME);
+	}
+
+	private static double volume(JsonNode record) {
+		JsonNode volumeNode = record.get("vol");
+		return volumeNode != null && volumeNode.isNumber() ? volumeNode.asDouble() : 0.0;
+	}
+
+	/**
+	 * Returns the first {@code [lon, lat]} position of GeoJSON point or multi point coordinates.
+	 */
+	static JsonNode firstPosition(JsonNode coordinates) {
+		while (coordinates.isArray() && !coordinates.isEmpty() && coordinates.get(0).isArray()) {
+			coordinates = coordinates.get(0);
+		}
+		return coordinates.isArray() && coordinates.size() >= 2 ? coordinates : null;
+	}
+}
@@ -0,0 +1,47 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.function.Consumer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Reads every record of a Socrata SODA query, page by page.
+ */
+final class SocrataPages {
+
+	private SocrataPages() {
+	}
+
+	/**
+	 * Passes every record matching a query to an action. Pages are ordered by row id so they
+	 * neither overlap nor skip records; a short page ends the scan.
+	 *
+	 * @param webClient client issuing the requests
+	 * @param endpoint dataset endpoint
+	 * @param query query parameters without paging
+	 * @param pageSize records requested per page
+	 * @param action receives each record
+	 * @return number of pages requested
+	 */
+	static int forEach(WebClient webClient, String endpoint, String query, int pageSize, Consumer<JsonNode> action) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be positive.");
+		}
+		int pages = 0;
+		for (long offset = 0; ; offset += pageSize) {
+			JsonNode page = webClient.get()
+					.uri(endpoint + "?" + query + "&$order=:id&$limit=" + pageSize + "&$offset=" + offset)
+					.retrieve()
+					.bodyToMono(JsonNode.class)
+					.block();
+			pages++;
+			if (page == null || !page.isArray()) {
+				return pages;
+			}
+			page.forEach(action);
+			if (page.size() < pageSize) {
+				return pages;
+			}
+		}
+	}
+}
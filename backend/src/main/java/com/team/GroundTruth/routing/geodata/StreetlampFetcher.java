@@ -2,6 +2,8 @@ package com.team.GroundTruth.routing.geodata;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.team.GroundTruth.config.GeoDataConfig;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class StreetlampFetcher {
 
 	private static final Logger LOG = LoggerFactory.getLogger(StreetlampFetcher.class);
-	private static final double DEFAULT_VALUE = 0.5;
+	static final double DEFAULT_VALUE = 0.5;
 	private static final double LAMPS_PER_1000M2_MAX = 5.0;
 
 	private final WebClient webClient;
@@ -73,10 +75,7 @@ public class StreetlampFetcher {
 				}
 			}
 
-			// Normalize: lamps per 1000 square meters
-			double areaSqM = Math.PI * radiusMeters * radiusMeters;
-			double lampsPerArea = (count / areaSqM) * 1000.0;
-			double normalized = Math.min(1.0, lampsPerArea / LAMPS_PER_1000M2_MAX);
+			double normalized = normalize(count, radiusMeters);
 
 			LOG.debug("Streetlamps at ({}, {}): {} -> normalized: {}", lat, lon, count, normalized);
 			return normalized;
@@ -86,4 +85,54 @@ public class StreetlampFetcher {
 			return DEFAULT_VALUE;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Fetches the location of every streetlamp within a bounding box.
+	 *
+	 * @param minLat southern border
+	 * @param minLon western border
+	 * @param maxLat northern border
+	 * @param maxLon eastern border
+	 * @return located streetlamps, each of weight 1
+	 * @throws org.springframework.web.reactive.function.client.WebClientException if the request fails
+	 */
+	public List<GeoPoint> fetchInBounds(double minLat, double minLon, double maxLat, double maxLon) {
+		String overpassQuery = String.format(
+				"[out:json][timeout:180];node[\"highway\"=\"street_lamp\"](%f,%f,%f,%f);out skel qt;",
+				minLat, minLon, maxLat, maxLon
+		);
+
+		JsonNode response = webClient.post()
+				.uri(config.getOverpassEndpoint())
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.bodyValue("data=" + overpassQuery)
+				.retrieve()
+				.bodyToMono(JsonNode.class)
+				.block();
+
+		List<GeoPoint> lamps = new ArrayList<>();
+		JsonNode elements = response == null ? null : response.get("elements");
+		if (elements != null && elements.isArray()) {
+			for (JsonNode element : elements) {
+				if (element.hasNonNull("lat") && element.hasNonNull("lon")) {
+					lamps.add(new GeoPoint(element.get("lat").asDouble(), element.get("lon").asDouble(), 1.0));
+				}
+			}
+		}
+		LOG.debug("Fetched {} streetlamps", lamps.size());
+		return lamps;
+	}
+
+	/**
+	 * Normalizes the number of streetlamps around a location by lamps per 1000 square meters.
+	 *
+	 * @param count streetlamps found, or their estimated count
+	 * @param radiusMeters radius they were counted in
+	 * @return normalized value (0-1)
+	 */
+	static double normalize(double count, double radiusMeters) {
+		double areaSqM = Math.PI * radiusMeters * radiusMeters;
+		double lampsPerArea = (count / areaSqM) * 1000.0;
+		return Math.min(1.0, lampsPerArea / LAMPS_PER_1000M2_MAX);
+	}
+}
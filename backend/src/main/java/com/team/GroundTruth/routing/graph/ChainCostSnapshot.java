@@ -0,0 +1,13 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Costs of an {@link EdgeCostSnapshot} aggregated over the chains of a {@link CompressedGraph}.
+ *
+ * @param graph compressed graph whose topology the costs are aligned with
+ * @param source per-edge snapshot the chain costs were summed from
+ * @param costs effective cost in seconds per topology edge index, in the width of the source snapshot
+ */
+public record ChainCostSnapshot(CompressedGraph graph, EdgeCostSnapshot source, MemorySegment costs) {
+}
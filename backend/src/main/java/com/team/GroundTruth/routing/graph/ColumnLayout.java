@@ -0,0 +1,76 @@
+package com.team.GroundTruth.routing.graph;
+
+/**
+ * Element widths of the {@link RoutingGraph} columns.
+ *
+ * @param precision numeric precision of coordinates, lengths, costs and flags
+ * @param narrowNodeIds true if node ids are stored as unsigned 32-bit offsets from {@code nodeIdBase}
+ * @param nodeIdBase smallest node id when ids are narrow, otherwise 0
+ * @param narrowEdgeIds true if edge ids are stored as unsigned 32-bit offsets from {@code edgeIdBase}
+ * @param edgeIdBase smallest edge id when ids are narrow, otherwise 0
+ */
+record ColumnLayout(
+		GraphPrecision precision,
+		boolean narrowNodeIds,
+		long nodeIdBase,
+		boolean narrowEdgeIds,
+		long edgeIdBase
+) {
+
+	private static final long UNSIGNED_INT_RANGE = 0xFFFF_FFFFL;
+
+	/**
+	 * Chooses the layout for a precision and the sorted ids of a graph.
+	 */
+	static ColumnLayout of(GraphPrecision precision, long[] sortedNodeIds, long[] sortedEdgeIds) {
+		boolean narrowNodes = precision.isCompact() && fitsUnsignedInt(sortedNodeIds);
+		boolean narrowEdges = precision.isCompact() && fitsUnsignedInt(sortedEdgeIds);
+		return new ColumnLayout(
+				precision,
+				narrowNodes,
+				narrowNodes && sortedNodeIds.length > 0 ? sortedNodeIds[0] : 0L,
+				narrowEdges,
+				narrowEdges && sortedEdgeIds.length > 0 ? sortedEdgeIds[0] : 0L
+		);
+	}
+
+	private static boolean fitsUnsignedInt(long[] sortedIds) {
+		if (sortedIds.length == 0) {
+			return true;
+		}
+		// A span that overflows wraps to a negative value.
+		long span = sortedIds[sortedIds.length - 1] - sortedIds[0];
+		return span >= 0L && span <= UNSIGNED_INT_RANGE;
+	}
+
+	int nodeIdBytes() {
+		return narrowNodeIds ? Integer.BYTES : Long.BYTES;
+	}
+
+	int edgeIdBytes() {
+		return narrowEdgeIds ? Integer.BYTES : Long.BYTES;
+	}
+
+	/**
+	 * Section sizes in bytes, in the order of {@link RoutingGraph#columns()}.
+	 */
+	long[] sectionBytes(int nodeCount, int edgeCount) {
+		long nodes = nodeCount;
+		long edges = edgeCount;
+		return new long[]{
+				nodeIdBytes() * nodes,                   // node ids
+				Integer.BYTES * (nodes + 1),             // edge offsets
+				Integer.BYTES * edges,                   // edge targets
+				edgeIdBytes() * edges,                   // edge ids
+				precision.coordinateBytes() * nodes,     // latitudes
+				precision.coordinateBytes() * nodes,     // longitudes
+				precision.lengthBytes() * edges,         // lengths
+				precision.costBytes() * edges,           // base costs
+				precision.flagBytes() * edges,           // flags
+				nodeIdBytes() * nodes,                   // sorted node ids
+				Integer.BYTES * nodes,                   // node index by sorted id
+				edgeIdBytes() * edges,                   // sorted edge ids
+				Integer.BYTES * edges                    // edge index by sorted id
+		};
+	}
+}
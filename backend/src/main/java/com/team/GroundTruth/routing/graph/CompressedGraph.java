@@ -0,0 +1,395 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Routing topology in which chains of degree-2 nodes are merged into single edges.
+ * <p>
+ * A node is <em>interior</em> when traffic can only pass straight through it: one edge in and
+ * one edge out (one-way street), or edges to and from the same two neighbours (two-way street),
+ * with identical {@link EdgeFlags} on both sides so profiles block a chain as a whole. Every other
+ * node is a <em>junction</em>. Each maximal path between junctions becomes one chain; the
+ * {@link #topology()} graph contains only junctions and one edge per chain, with aggregated
+ * length and base cost.
+ * </p>
+ * <p>
+ * Chains keep the ordered list of original edges they replace. Route results are expanded back to
+ * original node and edge ids, chain costs are re-aggregated from each cost snapshot so hazards on
+ * a single member still count exactly, and routes that start or end inside a chain split it at
+ * that node.
+ * </p>
+ */
+public final class CompressedGraph {
+
+	private static final int SLOTS_PER_NODE = 2;
+
+	private final RoutingGraph original;
+	private final RoutingGraph topology;
+	private final int chainCount;
+	private final MemorySegment memberOffsets;
+	private final MemorySegment memberEdges;
+	private final MemorySegment chainSources;
+	private final MemorySegment chainTargets;
+	private final MemorySegment slotChains;
+	private final MemorySegment slotMembers;
+
+	private CompressedGraph(
+			RoutingGraph original,
+			RoutingGraph topology,
+			int chainCount,
+			MemorySegment memberOffsets,
+			MemorySegment memberEdges,
+			MemorySegment chainSources,
+			MemorySegment chainTargets,
+			MemorySegment slotChains,
+			MemorySegment slotMembers
+	) {
+		this.original = original;
+		this.topology = topology;
+		this.chainCount = chainCount;
+		this.memberOffsets = memberOffsets;
+		this.memberEdges = memberEdges;
+		this.chainSources = chainSources;
+		this.chainTargets = chainTargets;
+		this.slotChains = slotChains;
+		this.slotMembers = slotMembers;
+	}
+
+	/**
+	 * Compresses the degree-2 chains of a graph.
+	 *
+	 * @param graph original graph
+	 * @return compressed graph
+	 */
+	public static CompressedGraph of(RoutingGraph graph) {
+		Objects.requireNonNull(graph, "graph");
+		int nodeCount = graph.nodeCount();
+
+		// Up to two incoming edges per node are enough to recognise pass-through nodes.
+		int[] inDegree = new int[nodeCount];
+		int[] inEdgeA = new int[nodeCount];
+		int[] inEdgeB = new int[nodeCount];
+		int[] inSourceA = new int[nodeCount];
+		int[] inSourceB = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int target = graph.edgeTarget(edge);
+				int degree = inDegree[target]++;
+				if (degree == 0) {
+					inEdgeA[target] = edge;
+					inSourceA[target] = node;
+				} else if (degree == 1) {
+					inEdgeB[target] = edge;
+					inSourceB[target] = node;
+				}
+			}
+		}
+
+		boolean[] interior = new boolean[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			interior[node] = isPassThrough(graph, node, inDegree[node], inEdgeA[node], inSourceA[node],
+					inEdgeB[node], inSourceB[node]);
+		}
+
+		ChainBuffer chains = new ChainBuffer(graph.edgeCount(), nodeCount);
+		for (int node = 0; node < nodeCount; node++) {
+			if (!interior[node]) {
+				chains.addChainsFrom(graph, node, interior);
+			}
+		}
+		// Rings made only of pass-through nodes have no junction; promote one node per ring.
+		for (int node = 0; node < nodeCount; node++) {
+			if (interior[node] && !chains.visited(node)) {
+				interior[node] = false;
+				chains.addChainsFrom(graph, node, interior);
+			}
+		}
+
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(graph.mode()).precision(graph.precision());
+		for (int node = 0; node < nodeCount; node++) {
+			if (!interior[node]) {
+				builder.addNode(graph.nodeId(node), graph.lat(node), graph.lon(node));
+			}
+		}
+		for (int chain = 0; chain < chains.count; chain++) {
+			double length = 0.0;
+			double cost = 0.0;
+			for (int member = chains.offsets[chain]; member < chains.offsets[chain + 1]; member++) {
+				length += graph.edgeLength(chains.edges[member]);
+				cost += graph.edgeBaseCost(chains.edges[member]);
+			}
+			builder.addEdge(chain, graph.nodeId(chains.from[chain]), graph.nodeId(chains.to[chain]), length, cost,
+					graph.edgeFlags(chains.edges[chains.offsets[chain]]));
+		}
+		RoutingGraph topology = builder.build();
+
+		int[] sources = new int[chains.count];
+		int[] targets = new int[chains.count];
+		for (int node = 0; node < topology.nodeCount(); node++) {
+			for (int edge = topology.firstEdge(node); edge < topology.endEdge(node); edge++) {
+				int chain = (int) topology.edgeId(edge);
+				sources[chain] = node;
+				targets[chain] = topology.edgeTarget(edge);
+			}
+		}
+
+		Arena arena = Arena.ofAuto();
+		return new CompressedGraph(
+				graph,
+				topology,
+				chains.count,
+				OffHeapArrays.copyOf(arena, Arrays.copyOf(chains.offsets, chains.count + 1)),
+				OffHeapArrays.copyOf(arena, Arrays.copyOf(chains.edges, chains.memberCount)),
+				OffHeapArrays.copyOf(arena, sources),
+				OffHeapArrays.copyOf(arena, targets),
+				OffHeapArrays.copyOf(arena, chains.slotChains),
+				OffHeapArrays.copyOf(arena, chains.slotMembers)
+		);
+	}
+
+	private static boolean isPassThrough(
+			RoutingGraph graph,
+			int node,
+			int inDegree,
+			int inEdgeA,
+			int inSourceA,
+			int inEdgeB,
+			int inSourceB
+	) {
+		int first = graph.firstEdge(node);
+		int outDegree = graph.endEdge(node) - first;
+		if (inDegree == 1 && outDegree == 1) {
+			int next = graph.edgeTarget(first);
+			return inSourceA != node && next != node && inSourceA != next
+					&& graph.edgeFlags(inEdgeA) == graph.edgeFlags(first);
+		}
+		if (inDegree == 2 && outDegree == 2) {
+			if (inSourceA == inSourceB || inSourceA == node || inSourceB == node) {
+				return false;
+			}
+			int outA = graph.edgeTarget(first) == inSourceB ? first : first + 1;
+			int outB = outA == first ? first + 1 : first;
+			// Entering from A must leave towards B and vice versa, with unchanged flags.
+			return graph.edgeTarget(outA) == inSourceB
+					&& graph.edgeTarget(outB) == inSourceA
+					&& graph.edgeFlags(inEdgeA) == graph.edgeFlags(outA)
+					&& graph.edgeFlags(inEdgeB) == graph.edgeFlags(outB);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the uncompressed graph.
+	 *
+	 * @return original graph
+	 */
+	public RoutingGraph original() {
+		return original;
+	}
+
+	/**
+	 * Returns the compressed topology. Its nodes are the junctions of the original graph, keeping
+	 * their database ids; its edge ids are chain ids.
+	 *
+	 * @return compressed graph
+	 */
+	public RoutingGraph topology() {
+		return topology;
+	}
+
+	/**
+	 * Returns the number of chains, equal to the topology's edge count.
+	 *
+	 * @return chain count
+	 */
+	public int chainCount() {
+		return chainCount;
+	}
+
+	/**
+	 * Returns the chain represented by a topology edge.
+	 *
+	 * @param edge topology edge index
+	 * @return chain id
+	 */
+	public int chainOf(int edge) {
+		return (int) topology.edgeId(edge);
+	}
+
+	/**
+	 * Returns the topology node a chain starts at.
+	 *
+	 * @param chain chain id
+	 * @return topology node index
+	 */
+	public int chainSource(int chain) {
+		return chainSources.getAtIndex(ValueLayout.JAVA_INT, chain);
+	}
+
+	/**
+	 * Returns the topology node a chain ends at.
+	 *
+	 * @param chain chain id
+	 * @return topology node index
+	 */
+	public int chainTarget(int chain) {
+		return chainTargets.getAtIndex(ValueLayout.JAVA_INT, chain);
+	}
+
+	/**
+	 * Returns the position of a chain's first member edge.
+	 *
+	 * @param chain chain id
+	 * @return first member position
+	 */
+	public int firstMember(int chain) {
+		return memberOffsets.getAtIndex(ValueLayout.JAVA_INT, chain);
+	}
+
+	/**
+	 * Returns the position after a chain's last member edge.
+	 *
+	 * @param chain chain id
+	 * @return end member position (exclusive)
+	 */
+	public int endMember(int chain) {
+		return memberOffsets.getAtIndex(ValueLayout.JAVA_INT, chain + 1L);
+	}
+
+	/**
+	 * Returns the original edge at a member position.
+	 *
+	 * @param member member position
+	 * @return original edge index
+	 */
+	public int memberEdge(int member) {
+		return memberEdges.getAtIndex(ValueLayout.JAVA_INT, member);
+	}
+
+	/**
+	 * Returns the topology node of an original node.
+	 *
+	 * @param node original node index
+	 * @return topology node index, or -1 if the node is interior to a chain
+	 */
+	public int junction(int node) {
+		return topology.indexOfNode(original.nodeId(node));
+	}
+
+	/**
+	 * Returns a chain passing through an interior node. A node lies on at most two chains, one
+	 * per direction of travel.
+	 *
+	 * @param node original node index
+	 * @param slot 0 or 1
+	 * @return chain id, or -1 if the slot is empty
+	 */
+	public int chainThrough(int node, int slot) {
+		return slotChains.getAtIndex(ValueLayout.JAVA_INT, (long) node * SLOTS_PER_NODE + slot);
+	}
+
+	/**
+	 * Returns the member position of the edge that enters an interior node on the chain in a slot.
+	 *
+	 * @param node original node index
+	 * @param slot 0 or 1
+	 * @return member position whose edge targets the node
+	 */
+	public int memberInto(int node, int slot) {
+		return slotMembers.getAtIndex(ValueLayout.JAVA_INT, (long) node * SLOTS_PER_NODE + slot);
+	}
+
+	/**
+	 * Aggregates per-edge costs of the original graph into per-edge costs of the topology.
+	 *
+	 * @param edgeCosts cost per original edge index, as {@code double}s or {@code float}s
+	 * @return cost per topology edge index, as native values of the same width
+	 */
+	public MemorySegment chainCosts(MemorySegment edgeCosts) {
+		Objects.requireNonNull(edgeCosts, "edgeCosts");
+		if (!EdgeCostColumns.matches(edgeCosts, original.edgeCount())) {
+			throw new IllegalArgumentException("Edge cost array does not match graph edge count.");
+		}
+		boolean single = EdgeCostColumns.isSingle(edgeCosts, original.edgeCount());
+		double[] costs = new double[topology.edgeCount()];
+		for (int edge = 0; edge < costs.length; edge++) {
+			int chain = chainOf(edge);
+			double cost = 0.0;
+			for (int member = firstMember(chain), end = endMember(chain); member < end; member++) {
+				cost += EdgeCostColumns.get(edgeCosts, single, memberEdge(member));
+			}
+			costs[edge] = cost;
+		}
+		return EdgeCostColumns.copyOf(costs, single);
+	}
+
+	/**
+	 * Returns the off-heap footprint of the chain tables and topology.
+	 *
+	 * @return bytes held in native memory
+	 */
+	public long offHeapBytes() {
+		return topology.offHeapBytes() + memberOffsets.byteSize() + memberEdges.byteSize()
+				+ chainSources.byteSize() + chainTargets.byteSize()
+				+ slotChains.byteSize() + slotMembers.byteSize();
+	}
+
+	/**
+	 * Collects chains while walking the original graph.
+	 */
+	private static final class ChainBuffer {
+
+		private int count;
+		private int[] from = new int[1024];
+		private int[] to = new int[1024];
+		private int[] offsets = new int[1025];
+		private int memberCount;
+		private final int[] edges;
+		private final int[] slotChains;
+		private final int[] slotMembers;
+
+		private ChainBuffer(int edgeCount, int nodeCount) {
+			this.edges = new int[edgeCount];
+			this.slotChains = new int[nodeCount * SLOTS_PER_NODE];
+			this.slotMembers = new int[nodeCount * SLOTS_PER_NODE];
+			Arrays.fill(slotChains, -1);
+		}
+
+		private boolean visited(int node) {
+			return slotChains[node * SLOTS_PER_NODE] >= 0;
+		}
+
+		private void addChainsFrom(RoutingGraph graph, int junction, boolean[] interior) {
+			for (int edge = graph.firstEdge(junction); edge < graph.endEdge(junction); edge++) {
+				if (count + 1 >= offsets.length) {
+					from = Arrays.copyOf(from, count * 2);
+					to = Arrays.copyOf(to, count * 2);
+					offsets = Arrays.copyOf(offsets, count * 2 + 1);
+				}
+				int previous = junction;
+				int current = graph.edgeTarget(edge);
+				edges[memberCount++] = edge;
+				while (interior[current]) {
+					int slot = slotChains[current * SLOTS_PER_NODE] < 0 ? 0 : 1;
+					slotChains[current * SLOTS_PER_NODE + slot] = count;
+					slotMembers[current * SLOTS_PER_NODE + slot] = memberCount - 1;
+					int next = graph.firstEdge(current);
+					if (graph.edgeTarget(next) == previous && graph.endEdge(current) - next == 2) {
+						next++;
+					}
+					edges[memberCount++] = next;
+					previous = current;
+					current = graph.edgeTarget(next);
+				}
+				from[count] = junction;
+				to[count] = current;
+				count++;
+				offsets[count] = memberCount;
+			}
+		}
+	}
+}
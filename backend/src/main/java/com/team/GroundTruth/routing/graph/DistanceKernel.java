@@ -0,0 +1,76 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Batch distance and projection kernels over packed coordinate columns.
+ * <p>
+ * {@link #best()} returns a SIMD implementation based on {@code jdk.incubator.vector} when the JVM
+ * was started with {@code --add-modules jdk.incubator.vector}, and a scalar implementation
+ * otherwise. Both produce the same results up to floating-point rounding.
+ * </p>
+ */
+interface DistanceKernel {
+
+	/**
+	 * Computes planar distances from one point to a run of points.
+	 *
+	 * @param xs eastings as native {@code float}s
+	 * @param ys northings as native {@code float}s
+	 * @param from index of the first point
+	 * @param count number of points
+	 * @param x easting of the query point
+	 * @param y northing of the query point
+	 * @param out receives the distances in meters at {@code [0, count)}
+	 */
+	void planarDistances(MemorySegment xs, MemorySegment ys, int from, int count, float x, float y, float[] out);
+
+	/**
+	 * Projects coordinates orthographically onto the tangent plane at a center point.
+	 *
+	 * @param lats latitudes in radians
+	 * @param lons longitudes in radians
+	 * @param from index of the first point
+	 * @param to index after the last point
+	 * @param centerLon center longitude in radians
+	 * @param sinCenterLat sine of the center latitude
+	 * @param cosCenterLat cosine of the center latitude
+	 * @param radius sphere radius in meters
+	 * @param xs receives the eastings at the indices of their points
+	 * @param ys receives the northings at the indices of their points
+	 */
+	void project(
+			double[] lats,
+			double[] lons,
+			int from,
+			int to,
+			double centerLon,
+			double sinCenterLat,
+			double cosCenterLat,
+			double radius,
+			double[] xs,
+			double[] ys
+	);
+
+	/**
+	 * Returns the fastest kernel available in this JVM.
+	 *
+	 * @return distance kernel
+	 */
+	static DistanceKernel best() {
+		return Holder.BEST;
+	}
+
+	/**
+	 * Lazily chooses the kernel; the vector kernel class is only loaded when its module is present.
+	 */
+	final class Holder {
+
+		private static final DistanceKernel BEST = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+				? new VectorDistanceKernel()
+				: new ScalarDistanceKernel();
+
+		private Holder() {
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Reads and writes per-edge value columns stored either as {@code double}s or, for compact
+ * {@link GraphPrecision}s, as {@code float}s.
+ * <p>
+ * The element width is implied by the segment size, so callers check a column once with
+ * {@link #matches} and {@link #isSingle} and then read it with {@link #get} in their inner loop.
+ * </p>
+ */
+public final class EdgeCostColumns {
+
+	private EdgeCostColumns() {
+	}
+
+	/**
+	 * Returns whether a column holds exactly one {@code float} or {@code double} per edge.
+	 *
+	 * @param column per-edge values
+	 * @param edgeCount number of edges
+	 * @return true if the column size matches the edge count
+	 */
+	public static boolean matches(MemorySegment column, int edgeCount) {
+		long size = column.byteSize();
+		return size == Float.BYTES * (long) edgeCount || size == Double.BYTES * (long) edgeCount;
+	}
+
+	/**
+	 * Returns whether a column stores single-precision values.
+	 *
+	 * @param column per-edge values
+	 * @param edgeCount number of edges
+	 * @return true for {@code float}s, false for {@code double}s
+	 */
+	public static boolean isSingle(MemorySegment column, int edgeCount) {
+		return edgeCount > 0 && column.byteSize() == Float.BYTES * (long) edgeCount;
+	}
+
+	/**
+	 * Reads the value of one edge.
+	 *
+	 * @param column per-edge values
+	 * @param single true if the column stores {@code float}s
+	 * @param edge edge index
+	 * @return value
+	 */
+	public static double get(MemorySegment column, boolean single, int edge) {
+		return single
+				? column.getAtIndex(ValueLayout.JAVA_FLOAT, edge)
+				: column.getAtIndex(ValueLayout.JAVA_DOUBLE, edge);
+	}
+
+	/**
+	 * Copies values into a new off-heap column of the given width.
+	 */
+	static MemorySegment copyOf(double[] values, boolean single) {
+		Arena arena = Arena.ofAuto();
+		if (!single) {
+			return OffHeapArrays.copyOf(arena, values);
+		}
+		float[] narrowed = new float[values.length];
+		for (int i = 0; i < values.length; i++) {
+			narrowed[i] = (float) values[i];
+		}
+		return OffHeapArrays.copyOf(arena, narrowed);
+	}
+
+	/**
+	 * Copies values into a new off-heap column with the cost width of a precision.
+	 */
+	static MemorySegment copyOf(double[] values, GraphPrecision precision) {
+		return copyOf(values, precision.costBytes() == Float.BYTES);
+	}
+
+	/**
+	 * Copies a column back to the heap as {@code double}s.
+	 */
+	static double[] toArray(MemorySegment column, int edgeCount) {
+		if (!isSingle(column, edgeCount)) {
+			return column.toArray(ValueLayout.JAVA_DOUBLE);
+		}
+		double[] values = new double[edgeCount];
+		for (int i = 0; i < edgeCount; i++) {
+			values[i] = column.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+		}
+		return values;
+	}
+}
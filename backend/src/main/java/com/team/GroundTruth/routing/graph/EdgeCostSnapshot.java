@@ -0,0 +1,27 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import java.lang.foreign.MemorySegment;
+import java.time.Instant;
+
+/**
+ * Effective traversal costs for every edge of a resident graph under one {@link RouteType}.
+ * <p>
+ * Costs already include pre-computed safety/accessibility tables and active overlays, and are
+ * indexed by the graph's edge index. Snapshots are immutable and can be shared between requests:
+ * the costs are held as a read-only view, so a reader cannot change them for everyone else. They
+ * live off-heap next to the graph they belong to.
+ * </p>
+ *
+ * @param graph graph the costs are aligned with
+ * @param routeType route type the costs were computed for
+ * @param costs effective cost in seconds per edge index, as native {@code double}s or, for compact
+ * {@link GraphPrecision}s, {@code float}s
+ * @param loadedAt time the snapshot was loaded
+ */
+public record EdgeCostSnapshot(RoutingGraph graph, RouteType routeType, MemorySegment costs, Instant loadedAt) {
+
+	public EdgeCostSnapshot {
+		costs = costs.asReadOnly();
+	}
+}
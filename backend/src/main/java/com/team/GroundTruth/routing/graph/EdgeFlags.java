@@ -0,0 +1,202 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Packed per-edge classification bits used by the resident routing graph.
+ * <p>
+ * The low 32 bits encode the OSM {@code highway} class taken from {@code edges.attrs}; the high
+ * 32 bits encode well-known values from the {@code edges.tags} array. Routing profiles test an
+ * edge with a single {@code (flags & blockedMask) == 0} during relaxation.
+ * </p>
+ */
+public final class EdgeFlags {
+
+	/** No classification bits set. */
+	public static final long NONE = 0L;
+
+	/** {@code highway=footway}. */
+	public static final long HIGHWAY_FOOTWAY = 1L;
+	/** {@code highway=pedestrian}. */
+	public static final long HIGHWAY_PEDESTRIAN = 1L << 1;
+	/** {@code highway=path}. */
+	public static final long HIGHWAY_PATH = 1L << 2;
+	/** {@code highway=living_street}. */
+	public static final long HIGHWAY_LIVING_STREET = 1L << 3;
+	/** {@code highway=residential}. */
+	public static final long HIGHWAY_RESIDENTIAL = 1L << 4;
+	/** {@code highway=service}. */
+	public static final long HIGHWAY_SERVICE = 1L << 5;
+	/** {@code highway=track}. */
+	public static final long HIGHWAY_TRACK = 1L << 6;
+	/** {@code highway=unclassified}. */
+	public static final long HIGHWAY_UNCLASSIFIED = 1L << 7;
+	/** {@code highway=tertiary} and {@code tertiary_link}. */
+	public static final long HIGHWAY_TERTIARY = 1L << 8;
+	/** {@code highway=secondary} and {@code secondary_link}. */
+	public static final long HIGHWAY_SECONDARY = 1L << 9;
+	/** {@code highway=primary} and {@code primary_link}. */
+	public static final long HIGHWAY_PRIMARY = 1L << 10;
+	/** {@code highway=trunk} and {@code trunk_link}. */
+	public static final long HIGHWAY_TRUNK = 1L << 11;
+	/** {@code highway=motorway} and {@code motorway_link}. */
+	public static final long HIGHWAY_MOTORWAY = 1L << 12;
+	/** {@code highway=cycleway}. */
+	public static final long HIGHWAY_CYCLEWAY = 1L << 13;
+	/** {@code highway=steps}. */
+	public static final long HIGHWAY_STEPS = 1L << 14;
+	/** {@code highway=corridor}. */
+	public static final long HIGHWAY_CORRIDOR = 1L << 15;
+	/** {@code highway=road}. */
+	public static final long HIGHWAY_ROAD = 1L << 16;
+	/** Any {@code highway} value not listed above. */
+	public static final long HIGHWAY_OTHER = 1L << 30;
+	/** Set together with the base class for {@code *_link} ramps. */
+	public static final long HIGHWAY_LINK = 1L << 31;
+
+	/** Mask covering every highway class bit (excluding {@link #HIGHWAY_LINK}). */
+	public static final long HIGHWAY_CLASS_MASK = 0x7FFF_FFFFL;
+
+	/** Tag {@code steps}: the edge contains stairs even if its highway class does not. */
+	public static final long TAG_STEPS = 1L << 32;
+	/** Tag {@code wheelchair_no}: explicitly not wheelchair accessible. */
+	public static final long TAG_WHEELCHAIR_NO = 1L << 33;
+	/** Tag {@code unpaved}: loose or unpaved surface. */
+	public static final long TAG_UNPAVED = 1L << 34;
+	/** Tag {@code unlit}: no street lighting. */
+	public static final long TAG_UNLIT = 1L << 35;
+	/** Tag {@code crossing}: street crossing segment. */
+	public static final long TAG_CROSSING = 1L << 36;
+	/** Tag {@code tunnel}. */
+	public static final long TAG_TUNNEL = 1L << 37;
+	/** Tag {@code bridge}. */
+	public static final long TAG_BRIDGE = 1L << 38;
+	/** Tag {@code elevator}. */
+	public static final long TAG_ELEVATOR = 1L << 39;
+	/** Tag {@code ramp}. */
+	public static final long TAG_RAMP = 1L << 40;
+	/** Tag {@code private}: restricted access. */
+	public static final long TAG_PRIVATE = 1L << 41;
+
+	private static final long COMPACT_REPRESENTABLE = 0x1_FFFFL | HIGHWAY_OTHER | HIGHWAY_LINK | 0x3FF_0000_0000L;
+
+	private static final Map<String, Long> HIGHWAY_BITS = Map.ofEntries(
+			Map.entry("footway", HIGHWAY_FOOTWAY),
+			Map.entry("pedestrian", HIGHWAY_PEDESTRIAN),
+			Map.entry("path", HIGHWAY_PATH),
+			Map.entry("living_street", HIGHWAY_LIVING_STREET),
+			Map.entry("residential", HIGHWAY_RESIDENTIAL),
+			Map.entry("service", HIGHWAY_SERVICE),
+			Map.entry("track", HIGHWAY_TRACK),
+			Map.entry("unclassified", HIGHWAY_UNCLASSIFIED),
+			Map.entry("tertiary", HIGHWAY_TERTIARY),
+			Map.entry("secondary", HIGHWAY_SECONDARY),
+			Map.entry("primary", HIGHWAY_PRIMARY),
+			Map.entry("trunk", HIGHWAY_TRUNK),
+			Map.entry("motorway", HIGHWAY_MOTORWAY),
+			Map.entry("cycleway", HIGHWAY_CYCLEWAY),
+			Map.entry("steps", HIGHWAY_STEPS),
+			Map.entry("corridor", HIGHWAY_CORRIDOR),
+			Map.entry("road", HIGHWAY_ROAD)
+	);
+
+	private static final Map<String, Long> TAG_BITS = Map.ofEntries(
+			Map.entry("steps", TAG_STEPS),
+			Map.entry("wheelchair_no", TAG_WHEELCHAIR_NO),
+			Map.entry("wheelchair=no", TAG_WHEELCHAIR_NO),
+			Map.entry("unpaved", TAG_UNPAVED),
+			Map.entry("unlit", TAG_UNLIT),
+			Map.entry("lit=no", TAG_UNLIT),
+			Map.entry("crossing", TAG_CROSSING),
+			Map.entry("tunnel", TAG_TUNNEL),
+			Map.entry("bridge", TAG_BRIDGE),
+			Map.entry("elevator", TAG_ELEVATOR),
+			Map.entry("ramp", TAG_RAMP),
+			Map.entry("private", TAG_PRIVATE),
+			Map.entry("access=private", TAG_PRIVATE)
+	);
+
+	private EdgeFlags() {
+	}
+
+	/**
+	 * Computes the packed flags for an edge from its highway class and tag array.
+	 *
+	 * @param highway value of {@code attrs->>'highway'}, may be null
+	 * @param tags values of the {@code tags} column, may be null
+	 * @return packed flag bits
+	 */
+	public static long of(String highway, String[] tags) {
+		long flags = highwayBits(highway);
+		if (tags != null) {
+			for (String tag : tags) {
+				flags |= tagBits(tag);
+			}
+		}
+		return flags;
+	}
+
+	/**
+	 * Returns the highway class bits for an OSM {@code highway} value.
+	 *
+	 * @param highway highway value, may be null
+	 * @return class bits, or {@link #NONE} when the value is missing
+	 */
+	public static long highwayBits(String highway) {
+		if (highway == null || highway.isBlank()) {
+			return NONE;
+		}
+		String normalized = highway.trim().toLowerCase(Locale.ROOT);
+		long link = NONE;
+		if (normalized.endsWith("_link")) {
+			normalized = normalized.substring(0, normalized.length() - "_link".length());
+			link = HIGHWAY_LINK;
+		}
+		Long bits = HIGHWAY_BITS.get(normalized);
+		return (bits != null ? bits : HIGHWAY_OTHER) | link;
+	}
+
+	/**
+	 * Returns the bit for a single well-known tag, or {@link #NONE} for unknown tags.
+	 *
+	 * @param tag tag value, may be null
+	 * @return tag bit
+	 */
+	public static long tagBits(String tag) {
+		if (tag == null || tag.isBlank()) {
+			return NONE;
+		}
+		Long bits = TAG_BITS.get(tag.trim().toLowerCase(Locale.ROOT));
+		return bits != null ? bits : NONE;
+	}
+
+	/**
+	 * Packs flags into 32 bits for compact graph storage: highway bits 0-16 keep their position,
+	 * bits 30-31 move to 17-18 and tag bits 32-41 move to 19-28.
+	 *
+	 * @param flags packed flag bits
+	 * @return 32-bit form
+	 * @throws IllegalArgumentException if a bit outside the defined flags is set
+	 */
+	static int toCompact(long flags) {
+		if ((flags & ~COMPACT_REPRESENTABLE) != 0L) {
+			throw new IllegalArgumentException("Edge flags 0x" + Long.toHexString(flags) + " do not fit in 32 bits.");
+		}
+		return (int) (flags & 0x1_FFFFL)
+				| (int) ((flags >>> 30) & 0x3L) << 17
+				| (int) ((flags >>> 32) & 0x3FFL) << 19;
+	}
+
+	/**
+	 * Restores flags packed by {@link #toCompact(long)}.
+	 *
+	 * @param compact 32-bit form
+	 * @return packed flag bits
+	 */
+	static long fromCompact(int compact) {
+		return (compact & 0x1_FFFFL)
+				| ((long) ((compact >>> 17) & 0x3)) << 30
+				| ((long) ((compact >>> 19) & 0x3FF)) << 32;
+	}
+}
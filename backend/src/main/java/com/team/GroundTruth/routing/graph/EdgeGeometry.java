@@ -0,0 +1,193 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed shape points of every edge, for assembling route geometry without touching the database.
+ * <p>
+ * Coordinates are stored once per distinct shape as interleaved {@code lon, lat} doubles. Edges
+ * are sorted by database id and point at their shape, with reverse edges (and edges of other travel
+ * modes running along the same segment) sharing the shape of the edge they duplicate; a shape
+ * referenced as {@code ~shape} is traversed backwards. Consecutive duplicate points are dropped
+ * when shapes are built, so route assembly only has to dedupe the joints between edges.
+ * </p>
+ */
+public final class EdgeGeometry {
+
+	private static final int ARRAY_HEADER_BYTES = 16;
+
+	private final long[] edgeIds;
+	private final int[] edgeShapes;
+	private final int[] shapeOffsets;
+	private final double[] coordinates;
+
+	EdgeGeometry(long[] edgeIds, int[] edgeShapes, int[] shapeOffsets, double[] coordinates) {
+		this.edgeIds = edgeIds;
+		this.edgeShapes = edgeShapes;
+		this.shapeOffsets = shapeOffsets;
+		this.coordinates = coordinates;
+	}
+
+	/**
+	 * Returns the number of edges with a shape.
+	 *
+	 * @return edge count
+	 */
+	public int edgeCount() {
+		return edgeIds.length;
+	}
+
+	/**
+	 * Returns the number of distinct shapes.
+	 *
+	 * @return shape count
+	 */
+	public int shapeCount() {
+		return shapeOffsets.length - 1;
+	}
+
+	/**
+	 * Returns whether an edge has a shape.
+	 *
+	 * @param edgeId database edge id
+	 * @return true if the edge is stored
+	 */
+	public boolean contains(long edgeId) {
+		return Arrays.binarySearch(edgeIds, edgeId) >= 0;
+	}
+
+	/**
+	 * Returns the shape points of one edge in edge direction.
+	 *
+	 * @param edgeId database edge id
+	 * @return interleaved {@code lon, lat} coordinates, or an empty array if the edge is unknown
+	 */
+	public double[] shape(long edgeId) {
+		return lineString(List.of(edgeId), null);
+	}
+
+	/**
+	 * Assembles the line string of a path.
+	 *
+	 * @param edgeIds ordered edge ids of the path; unknown edges are skipped
+	 * @return interleaved {@code lon, lat} coordinates without consecutive duplicates
+	 */
+	public double[] lineString(List<Long> edgeIds) {
+		return lineString(edgeIds, null);
+	}
+
+	/**
+	 * Assembles the line string of a path, looking up edges missing here in a second geometry.
+	 *
+	 * @param edgeIds ordered edge ids of the path; edges unknown to both geometries are skipped
+	 * @param fallback geometry consulted for edges missing here, or {@code null}
+	 * @return interleaved {@code lon, lat} coordinates without consecutive duplicates
+	 */
+	public double[] lineString(List<Long> edgeIds, EdgeGeometry fallback) {
+		int capacity = 0;
+		for (Long edgeId : edgeIds) {
+			capacity += pointCount(edgeId, fallback);
+		}
+		double[] out = new double[capacity * 2];
+		int length = 0;
+		for (Long edgeId : edgeIds) {
+			int index = Arrays.binarySearch(this.edgeIds, edgeId);
+			if (index >= 0) {
+				length = append(out, length, index, true);
+			} else if (fallback != null && (index = Arrays.binarySearch(fallback.edgeIds, edgeId)) >= 0) {
+				length = fallback.append(out, length, index, true);
+			}
+		}
+		return length == out.length ? out : Arrays.copyOf(out, length);
+	}
+
+	/**
+	 * Copies the shapes of several edges, each in edge direction, into one array. Unlike
+	 * {@link #lineString(List, EdgeGeometry)} the shapes are kept apart, so no joints are merged.
+	 *
+	 * @param edgeIds database edge ids
+	 * @param fallback geometry consulted for edges missing here, or {@code null}
+	 * @param offsets receives the first point of edge {@code i} at {@code i} and the end of the last
+	 *                shape at {@code edgeIds.length}; edges unknown to both geometries get no points
+	 * @return interleaved {@code lon, lat} coordinates of all shapes
+	 */
+	public double[] shapes(long[] edgeIds, EdgeGeometry fallback, int[] offsets) {
+		if (offsets.length != edgeIds.length + 1) {
+			throw new IllegalArgumentException("offsets must hold " + (edgeIds.length + 1) + " entries.");
+		}
+		int capacity = 0;
+		for (long edgeId : edgeIds) {
+			capacity += pointCount(edgeId, fallback);
+		}
+		double[] out = new double[capacity * 2];
+		int length = 0;
+		for (int i = 0; i < edgeIds.length; i++) {
+			offsets[i] = length / 2;
+			int index = Arrays.binarySearch(this.edgeIds, edgeIds[i]);
+			if (index >= 0) {
+				length = append(out, length, index, false);
+			} else if (fallback != null && (index = Arrays.binarySearch(fallback.edgeIds, edgeIds[i])) >= 0) {
+				length = fallback.append(out, length, index, false);
+			}
+		}
+		offsets[edgeIds.length] = length / 2;
+		return out;
+	}
+
+	/**
+	 * Returns the estimated heap footprint of the geometry.
+	 *
+	 * @return size in bytes
+	 */
+	public long estimatedBytes() {
+		return 4L * ARRAY_HEADER_BYTES
+				+ (long) Long.BYTES * edgeIds.length
+				+ (long) Integer.BYTES * (edgeShapes.length + shapeOffsets.length)
+				+ (long) Double.BYTES * coordinates.length;
+	}
+
+	private int pointCount(long edgeId, EdgeGeometry fallback) {
+		int index = Arrays.binarySearch(edgeIds, edgeId);
+		if (index >= 0) {
+			int shape = shapeOf(index);
+			return shapeOffsets[shape + 1] - shapeOffsets[shape];
+		}
+		return fallback != null ? fallback.pointCount(edgeId, null) : 0;
+	}
+
+	private int shapeOf(int index) {
+		int shape = edgeShapes[index];
+		return shape >= 0 ? shape : ~shape;
+	}
+
+	/**
+	 * Appends the shape of an edge. When joining, its first point is dropped if it repeats the last
+	 * one written.
+	 */
+	private int append(double[] out, int length, int index, boolean join) {
+		int shape = shapeOf(index);
+		int from = shapeOffsets[shape];
+		int to = shapeOffsets[shape + 1];
+		if (edgeShapes[index] >= 0) {
+			if (join && length > 0 && from < to && sameAsLast(out, length, coordinates[2 * from], coordinates[2 * from + 1])) {
+				from++;
+			}
+			System.arraycopy(coordinates, 2 * from, out, length, 2 * (to - from));
+			return length + 2 * (to - from);
+		}
+		int point = to - 1;
+		if (join && length > 0 && from < to && sameAsLast(out, length, coordinates[2 * point], coordinates[2 * point + 1])) {
+			point--;
+		}
+		for (; point >= from; point--) {
+			out[length++] = coordinates[2 * point];
+			out[length++] = coordinates[2 * point + 1];
+		}
+		return length;
+	}
+
+	private static boolean sameAsLast(double[] out, int length, double lon, double lat) {
+		return Double.compare(out[length - 2], lon) == 0 && Double.compare(out[length - 1], lat) == 0;
+	}
+}
@@ -0,0 +1,139 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accumulates edge shapes and builds an {@link EdgeGeometry}.
+ * <p>
+ * An edge whose points equal, in the same or opposite order, the shape of an earlier edge between
+ * the same two nodes reuses that shape instead of storing its points again. This folds the reverse
+ * edge of every two-way segment and the edges other travel modes have along it into one shape.
+ * </p>
+ */
+public final class EdgeGeometryBuilder {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private int edgeCount;
+	private long[] edgeIds = new long[INITIAL_CAPACITY];
+	private int[] edgeShapes = new int[INITIAL_CAPACITY];
+
+	private int shapeCount;
+	private int[] shapeOffsets = new int[INITIAL_CAPACITY + 1];
+	private int pointCount;
+	private double[] coordinates = new double[INITIAL_CAPACITY * 2];
+
+	private final Map<NodePair, Integer> shapesByNodes = new HashMap<>();
+
+	/**
+	 * Adds the shape of an edge.
+	 *
+	 * @param edgeId database edge id
+	 * @param sourceId database id of the source node
+	 * @param targetId database id of the target node
+	 * @param lonLat interleaved {@code lon, lat} shape points in edge direction
+	 * @return this builder
+	 */
+	public EdgeGeometryBuilder addEdge(long edgeId, long sourceId, long targetId, double[] lonLat) {
+		if (lonLat.length % 2 != 0) {
+			throw new IllegalArgumentException("Shape of edge " + edgeId + " has an odd coordinate count.");
+		}
+		double[] points = withoutRepeats(lonLat);
+		int shape;
+		Integer forward = shapesByNodes.get(new NodePair(sourceId, targetId));
+		Integer backward = shapesByNodes.get(new NodePair(targetId, sourceId));
+		if (forward != null && matches(forward, points, false)) {
+			shape = forward;
+		} else if (backward != null && matches(backward, points, true)) {
+			shape = ~backward;
+		} else {
+			shape = addShape(points);
+			shapesByNodes.put(new NodePair(sourceId, targetId), shape);
+		}
+
+		if (edgeCount == edgeIds.length) {
+			edgeIds = Arrays.copyOf(edgeIds, edgeCount * 2);
+			edgeShapes = Arrays.copyOf(edgeShapes, edgeCount * 2);
+		}
+		edgeIds[edgeCount] = edgeId;
+		edgeShapes[edgeCount] = shape;
+		edgeCount++;
+		return this;
+	}
+
+	/**
+	 * Builds the geometry. If an edge id was added twice, its last shape is kept.
+	 *
+	 * @return edge geometry
+	 */
+	public EdgeGeometry build() {
+		long[] sortedIds = Arrays.copyOf(edgeIds, edgeCount);
+		Arrays.sort(sortedIds);
+		int unique = 0;
+		for (int edge = 0; edge < edgeCount; edge++) {
+			if (unique == 0 || sortedIds[unique - 1] != sortedIds[edge]) {
+				sortedIds[unique++] = sortedIds[edge];
+			}
+		}
+		sortedIds = Arrays.copyOf(sortedIds, unique);
+		int[] sortedShapes = new int[unique];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			sortedShapes[Arrays.binarySearch(sortedIds, edgeIds[edge])] = edgeShapes[edge];
+		}
+		return new EdgeGeometry(sortedIds, sortedShapes,
+				Arrays.copyOf(shapeOffsets, shapeCount + 1), Arrays.copyOf(coordinates, pointCount * 2));
+	}
+
+	private int addShape(double[] points) {
+		if (shapeCount + 1 == shapeOffsets.length) {
+			shapeOffsets = Arrays.copyOf(shapeOffsets, shapeOffsets.length * 2);
+		}
+		int required = pointCount * 2 + points.length;
+		if (required > coordinates.length) {
+			coordinates = Arrays.copyOf(coordinates, Math.max(required, coordinates.length * 2));
+		}
+		System.arraycopy(points, 0, coordinates, pointCount * 2, points.length);
+		pointCount += points.length / 2;
+		shapeCount++;
+		shapeOffsets[shapeCount] = pointCount;
+		return shapeCount - 1;
+	}
+
+	private boolean matches(int shape, double[] points, boolean reversed) {
+		int from = shapeOffsets[shape];
+		int count = shapeOffsets[shape + 1] - from;
+		if (count * 2 != points.length) {
+			return false;
+		}
+		for (int point = 0; point < count; point++) {
+			int stored = 2 * (from + (reversed ? count - 1 - point : point));
+			if (Double.compare(coordinates[stored], points[2 * point]) != 0
+					|| Double.compare(coordinates[stored + 1], points[2 * point + 1]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static double[] withoutRepeats(double[] lonLat) {
+		double[] points = new double[lonLat.length];
+		int length = 0;
+		for (int i = 0; i < lonLat.length; i += 2) {
+			if (length > 0 && Double.compare(points[length - 2], lonLat[i]) == 0
+					&& Double.compare(points[length - 1], lonLat[i + 1]) == 0) {
+				continue;
+			}
+			points[length++] = lonLat[i];
+			points[length++] = lonLat[i + 1];
+		}
+		return length == points.length ? points : Arrays.copyOf(points, length);
+	}
+
+	/**
+	 * Directed pair of edge endpoints.
+	 */
+	private record NodePair(long sourceId, long targetId) {
+	}
+}
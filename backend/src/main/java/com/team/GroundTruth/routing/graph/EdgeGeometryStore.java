@@ -0,0 +1,168 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds the {@link EdgeGeometry} of all edges so route geometry is assembled from memory.
+ * <p>
+ * Shapes are streamed once, on the first request, as little-endian WKB with a JDBC cursor and
+ * decoded straight into the packed store; no JPA entities or JTS geometries are materialized. The
+ * store is dropped after a graph import. Edges written since the store was loaded are looked up
+ * in the database on demand, so a stale store costs an extra query rather than missing geometry.
+ * </p>
+ */
+@Component
+public class EdgeGeometryStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EdgeGeometryStore.class);
+	private static final int FETCH_SIZE = 10_000;
+	private static final int WKB_LINE_STRING = 2;
+
+	private static final String SHAPES_SQL = """
+			SELECT id, source, target, ST_AsBinary(geom, 'NDR') AS wkb
+			FROM edges
+			""";
+
+	private static final String EDGE_SHAPES_SQL = SHAPES_SQL + """
+			WHERE id = ANY(?)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private volatile EdgeGeometry geometry;
+
+	/**
+	 * Creates the store.
+	 *
+	 * @param dataSource data source for the routing tables
+	 * @param transactionManager transaction manager keeping the loading cursor open
+	 */
+	public EdgeGeometryStore(DataSource dataSource, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(dataSource, "dataSource"));
+		this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+		this.transactionTemplate = new TransactionTemplate(Objects.requireNonNull(transactionManager, "transactionManager"));
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * Returns the geometry of all edges, loading it on first use.
+	 *
+	 * @return edge geometry
+	 */
+	public EdgeGeometry geometry() {
+		EdgeGeometry current = geometry;
+		if (current == null) {
+			synchronized (this) {
+				current = geometry;
+				if (current == null) {
+					current = load();
+					geometry = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Assembles the line string of a path.
+	 *
+	 * @param edgeIds ordered edge ids of the path
+	 * @return interleaved {@code lon, lat} coordinates without consecutive duplicates
+	 */
+	public double[] lineString(List<Long> edgeIds) {
+		Objects.requireNonNull(edgeIds, "edgeIds");
+		EdgeGeometry current = geometry();
+		List<Long> missing = new ArrayList<>();
+		for (Long edgeId : edgeIds) {
+			if (!current.contains(edgeId)) {
+				missing.add(edgeId);
+			}
+		}
+		if (missing.isEmpty()) {
+			return current.lineString(edgeIds);
+		}
+		LOG.debug("Loading {} edge shapes missing from the geometry store", missing.size());
+		return current.lineString(edgeIds, loadEdges(missing));
+	}
+
+	/**
+	 * Copies the shapes of several edges, each in edge direction, into one array, e.g. for all
+	 * edges drawn on a map tile.
+	 *
+	 * @param edgeIds database edge ids
+	 * @param offsets receives the first point of edge {@code i} at {@code i} and the end of the last
+	 *                shape at {@code edgeIds.length}
+	 * @return interleaved {@code lon, lat} coordinates of all shapes
+	 */
+	public double[] shapes(long[] edgeIds, int[] offsets) {
+		Objects.requireNonNull(edgeIds, "edgeIds");
+		Objects.requireNonNull(offsets, "offsets");
+		EdgeGeometry current = geometry();
+		List<Long> missing = new ArrayList<>();
+		for (long edgeId : edgeIds) {
+			if (!current.contains(edgeId)) {
+				missing.add(edgeId);
+			}
+		}
+		if (missing.isEmpty()) {
+			return current.shapes(edgeIds, null, offsets);
+		}
+		LOG.debug("Loading {} edge shapes missing from the geometry store", missing.size());
+		return current.shapes(edgeIds, loadEdges(missing), offsets);
+	}
+
+	/**
+	 * Drops the loaded geometry, e.g. after a new graph was imported.
+	 */
+	public void invalidate() {
+		geometry = null;
+	}
+
+	private EdgeGeometry load() {
+		long startedAt = System.nanoTime();
+		EdgeGeometryBuilder builder = new EdgeGeometryBuilder();
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SHAPES_SQL, rs -> {
+			builder.addEdge(rs.getLong(1), rs.getLong(2), rs.getLong(3), decodeLineString(rs.getBytes(4)));
+		}));
+		EdgeGeometry loaded = builder.build();
+		LOG.info("Loaded edge geometry: {} edges, {} shapes in {} ms ({} MiB heap)", loaded.edgeCount(),
+				loaded.shapeCount(), (System.nanoTime() - startedAt) / 1_000_000, loaded.estimatedBytes() >> 20);
+		return loaded;
+	}
+
+	private EdgeGeometry loadEdges(List<Long> edgeIds) {
+		EdgeGeometryBuilder builder = new EdgeGeometryBuilder();
+		long[] ids = edgeIds.stream().mapToLong(Long::longValue).toArray();
+		jdbcTemplate.query(EDGE_SHAPES_SQL, rs -> {
+			builder.addEdge(rs.getLong(1), rs.getLong(2), rs.getLong(3), decodeLineString(rs.getBytes(4)));
+		}, (Object) ids);
+		return builder.build();
+	}
+
+	/**
+	 * Decodes a little-endian WKB line string into interleaved {@code lon, lat} coordinates.
+	 *
+	 * @param wkb well-known binary as returned by {@code ST_AsBinary(geom, 'NDR')}
+	 * @return interleaved coordinates
+	 */
+	static double[] decodeLineString(byte[] wkb) {
+		ByteBuffer buffer = ByteBuffer.wrap(wkb).order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.get() != 1 || buffer.getInt() != WKB_LINE_STRING) {
+			throw new IllegalArgumentException("Edge geometry is not a little-endian 2D line string.");
+		}
+		double[] lonLat = new double[buffer.getInt() * 2];
+		buffer.asDoubleBuffer().get(lonLat);
+		return lonLat;
+	}
+}
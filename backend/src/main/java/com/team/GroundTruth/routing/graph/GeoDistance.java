@@ -0,0 +1,38 @@
+package com.team.GroundTruth.routing.graph;
+
+/**
+ * Great-circle distances on a spherical earth, shared by the router's heuristic and the geodata
+ * point indexes.
+ */
+public final class GeoDistance {
+
+	/**
+	 * Mean earth radius in meters.
+	 */
+	public static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+	private GeoDistance() {
+	}
+
+	/**
+	 * Returns the great-circle distance between two points.
+	 *
+	 * @param latA latitude of the first point in decimal degrees
+	 * @param lonA longitude of the first point in decimal degrees
+	 * @param latB latitude of the second point in decimal degrees
+	 * @param lonB longitude of the second point in decimal degrees
+	 * @return distance in meters
+	 */
+	public static double haversineMeters(double latA, double lonA, double latB, double lonB) {
+		double lat1 = Math.toRadians(latA);
+		double lat2 = Math.toRadians(latB);
+		double dLat = lat2 - lat1;
+		double dLon = Math.toRadians(lonB - lonA);
+
+		double sinLat = Math.sin(dLat / 2.0);
+		double sinLon = Math.sin(dLon / 2.0);
+		double h = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLon * sinLon;
+		double c = 2.0 * Math.atan2(Math.sqrt(h), Math.sqrt(1.0 - h));
+		return EARTH_RADIUS_METERS * c;
+	}
+}
@@ -0,0 +1,284 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.ComponentStats;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Strongly and weakly connected components of a {@link RoutingGraph}.
+ * <p>
+ * Strongly connected components are numbered by descending size, so component {@code 0} is the
+ * largest one; snapping prefers it, as every node in it reaches every other. They say nothing about
+ * whether a route exists between two components, since a one-way edge can lead from one to the
+ * other. Weakly connected components, which ignore edge direction, do: two nodes in different weak
+ * components can never be connected by a route, which lets the router reject such pairs without
+ * searching.
+ * </p>
+ */
+public final class GraphComponents {
+
+	/**
+	 * Component id of the largest component.
+	 */
+	public static final int LARGEST = 0;
+
+	private final RoutingGraph graph;
+	private final MemorySegment componentOf;
+	private final MemorySegment weakComponentOf;
+	private final int[] sizes;
+	private final int[] representatives;
+
+	private GraphComponents(
+			RoutingGraph graph,
+			MemorySegment componentOf,
+			MemorySegment weakComponentOf,
+			int[] sizes,
+			int[] representatives
+	) {
+		this.graph = graph;
+		this.componentOf = componentOf;
+		this.weakComponentOf = weakComponentOf;
+		this.sizes = sizes;
+		this.representatives = representatives;
+	}
+
+	/**
+	 * Computes the strongly connected components of a graph with an iterative Tarjan search, and
+	 * its weakly connected components with a union-find over the edges.
+	 *
+	 * @param graph routing graph
+	 * @return component index
+	 */
+	public static GraphComponents of(RoutingGraph graph) {
+		Objects.requireNonNull(graph, "graph");
+		int nodeCount = graph.nodeCount();
+		int[] index = new int[nodeCount];
+		int[] low = new int[nodeCount];
+		int[] component = new int[nodeCount];
+		int[] nextEdge = new int[nodeCount];
+		boolean[] onStack = new boolean[nodeCount];
+		int[] stack = new int[nodeCount];
+		int[] callStack = new int[nodeCount];
+		Arrays.fill(index, -1);
+
+		int counter = 0;
+		int stackSize = 0;
+		int componentCount = 0;
+		int[] rawSizes = new int[16];
+		for (int root = 0; root < nodeCount; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			int depth = 0;
+			callStack[depth++] = root;
+			index[root] = low[root] = counter++;
+			nextEdge[root] = graph.firstEdge(root);
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (depth > 0) {
+				int node = callStack[depth - 1];
+				if (nextEdge[node] < graph.endEdge(node)) {
+					int target = graph.edgeTarget(nextEdge[node]++);
+					if (index[target] < 0) {
+						index[target] = low[target] = counter++;
+						nextEdge[target] = graph.firstEdge(target);
+						stack[stackSize++] = target;
+						onStack[target] = true;
+						callStack[depth++] = target;
+					} else if (onStack[target]) {
+						low[node] = Math.min(low[node], index[target]);
+					}
+					continue;
+				}
+
+				depth--;
+				if (low[node] == index[node]) {
+					if (componentCount == rawSizes.length) {
+						rawSizes = Arrays.copyOf(rawSizes, componentCount * 2);
+					}
+					int member;
+					do {
+						member = stack[--stackSize];
+						onStack[member] = false;
+						component[member] = componentCount;
+						rawSizes[componentCount]++;
+					} while (member != node);
+					componentCount++;
+				}
+				if (depth > 0) {
+					int parent = callStack[depth - 1];
+					low[parent] = Math.min(low[parent], low[node]);
+				}
+			}
+		}
+
+		// Renumber by descending size; ties keep discovery order.
+		long[] bySize = new long[componentCount];
+		for (int c = 0; c < componentCount; c++) {
+			bySize[c] = ((long) (Integer.MAX_VALUE - rawSizes[c]) << 32) | c;
+		}
+		Arrays.sort(bySize);
+		int[] rank = new int[componentCount];
+		int[] sizes = new int[componentCount];
+		for (int r = 0; r < componentCount; r++) {
+			int c = (int) bySize[r];
+			rank[c] = r;
+			sizes[r] = rawSizes[c];
+		}
+		int[] representatives = new int[componentCount];
+		Arrays.fill(representatives, -1);
+		for (int node = 0; node < nodeCount; node++) {
+			int c = rank[component[node]];
+			component[node] = c;
+			if (representatives[c] < 0) {
+				representatives[c] = node;
+			}
+		}
+		Arena arena = Arena.ofAuto();
+		return new GraphComponents(graph, OffHeapArrays.copyOf(arena, component),
+				OffHeapArrays.copyOf(arena, weakComponents(graph)), sizes, representatives);
+	}
+
+	/**
+	 * Labels every node with the smallest node index of its weakly connected component.
+	 */
+	private static int[] weakComponents(RoutingGraph graph) {
+		int nodeCount = graph.nodeCount();
+		int[] parent = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			parent[node] = node;
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+				int a = root(parent, node);
+				int b = root(parent, graph.edgeTarget(edge));
+				if (a != b) {
+					// Hanging the larger root under the smaller keeps the smallest index as the label.
+					parent[Math.max(a, b)] = Math.min(a, b);
+				}
+			}
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			parent[node] = root(parent, node);
+		}
+		return parent;
+	}
+
+	private static int root(int[] parent, int node) {
+		int root = node;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[node] != root) {
+			int next = parent[node];
+			parent[node] = root;
+			node = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Returns the graph these components were computed for.
+	 *
+	 * @return routing graph
+	 */
+	public RoutingGraph graph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of components.
+	 *
+	 * @return component count
+	 */
+	public int componentCount() {
+		return sizes.length;
+	}
+
+	/**
+	 * Returns the component of a node.
+	 *
+	 * @param node dense node index
+	 * @return component id, {@link #LARGEST} for the largest component
+	 */
+	public int component(int node) {
+		return componentOf.getAtIndex(ValueLayout.JAVA_INT, node);
+	}
+
+	/**
+	 * Returns the number of nodes in a component.
+	 *
+	 * @param component component id
+	 * @return node count
+	 */
+	public int size(int component) {
+		return sizes[component];
+	}
+
+	/**
+	 * Returns whether a node belongs to the largest component.
+	 *
+	 * @param node dense node index
+	 * @return true if the node is in the largest component
+	 */
+	public boolean isInLargest(int node) {
+		return component(node) == LARGEST;
+	}
+
+	/**
+	 * Returns whether a route between two nodes can exist. This is a necessary condition only: in a
+	 * directed graph, weakly connected nodes may still be unreachable from one another, which the
+	 * search itself then finds out.
+	 *
+	 * @param from dense index of the origin
+	 * @param to dense index of the destination
+	 * @return true if both nodes are in the same weakly connected component
+	 */
+	public boolean connected(int from, int to) {
+		return weakComponentOf.getAtIndex(ValueLayout.JAVA_INT, from)
+				== weakComponentOf.getAtIndex(ValueLayout.JAVA_INT, to);
+	}
+
+	/**
+	 * Summarizes the component structure, listing the largest components with a sample node each.
+	 *
+	 * @param limit maximum number of components to list
+	 * @return component statistics
+	 */
+	public ComponentStats stats(int limit) {
+		int nodeCount = graph.nodeCount();
+		int singletons = 0;
+		for (int size : sizes) {
+			if (size == 1) {
+				singletons++;
+			}
+		}
+		List<ComponentStats.Component> components = new ArrayList<>();
+		for (int c = 0; c < Math.min(Math.max(0, limit), sizes.length); c++) {
+			int sample = representatives[c];
+			components.add(new ComponentStats.Component(
+					c,
+					sizes[c],
+					graph.nodeId(sample),
+					graph.lat(sample),
+					graph.lon(sample)
+			));
+		}
+		int largest = sizes.length == 0 ? 0 : sizes[LARGEST];
+		return new ComponentStats(
+				graph.mode(),
+				nodeCount,
+				sizes.length,
+				largest,
+				nodeCount == 0 ? 0.0 : (double) largest / nodeCount,
+				singletons,
+				List.copyOf(components)
+		);
+	}
+}
@@ -0,0 +1,305 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary file format for resident routing graphs.
+ * <p>
+ * Layout (little-endian, every section padded to 8 bytes):
+ * </p>
+ * <ol>
+ *     <li>64-byte header: magic {@code SSGR}, format version, graph version, node count,
+ *     edge count, the travel mode's database value, the {@link GraphPrecision} and, for compact
+ *     precisions, the bases of 32-bit node and edge id offsets</li>
+ *     <li>CSR topology: node ids, edge offsets, edge targets, edge ids</li>
+ *     <li>node latitudes and longitudes</li>
+ *     <li>edge lengths and base costs</li>
+ *     <li>packed {@link EdgeFlags}</li>
+ *     <li>node and edge id lookup indices (sorted ids and their dense indices)</li>
+ *     <li>CRC32 of everything above, stored as a {@code long}</li>
+ * </ol>
+ * <p>
+ * Sections mirror the in-memory columns of {@link RoutingGraph}, including their element widths,
+ * so a file is mapped with {@link FileChannel#map} and sliced without copying or parsing.
+ * </p>
+ */
+public final class GraphFile {
+
+	/**
+	 * Current format version; files with any other version are rejected.
+	 */
+	public static final int FORMAT_VERSION = 3;
+
+	private static final int MAGIC = 0x52475353; // "SSGR" read little-endian
+	private static final int HEADER_BYTES = 64;
+	private static final int MODE_BYTES = 16;
+	private static final int PRECISION_OFFSET = 24 + MODE_BYTES;
+	private static final int CHECKSUM_BYTES = Long.BYTES;
+	private static final int CHECKSUM_CHUNK_BYTES = 1 << 30;
+	private static final int NARROW_NODE_IDS = 1;
+	private static final int NARROW_EDGE_IDS = 2;
+
+	private GraphFile() {
+	}
+
+	/**
+	 * Header of a graph file.
+	 *
+	 * @param formatVersion file format version
+	 * @param mode travel mode of the graph
+	 * @param graphVersion topology version the file was exported from
+	 * @param nodeCount number of nodes
+	 * @param edgeCount number of directed edges
+	 * @param precision storage precision of the columns
+	 */
+	public record Header(
+			int formatVersion,
+			TravelMode mode,
+			long graphVersion,
+			int nodeCount,
+			int edgeCount,
+			GraphPrecision precision
+	) {
+	}
+
+	/**
+	 * Returns the conventional file name for a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @return file name, e.g. {@code walk.graph}
+	 */
+	public static String fileName(TravelMode mode) {
+		return mode.dbValue() + ".graph";
+	}
+
+	/**
+	 * Writes a graph to a file. The file is written next to the target and moved into place
+	 * atomically, so a running instance never maps a half-written file.
+	 *
+	 * @param graph graph to write
+	 * @param graphVersion topology version to record in the header
+	 * @param path target path
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(RoutingGraph graph, long graphVersion, Path path) throws IOException {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(path, "path");
+		requireLittleEndian();
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		CRC32 crc = new CRC32();
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer header = encodeHeader(new Header(FORMAT_VERSION, graph.mode(), graphVersion,
+					graph.nodeCount(), graph.edgeCount(), graph.precision()), graph.layout());
+			writeFully(channel, header, crc);
+
+			List<MemorySegment> columns = graph.columns();
+			long[] sizes = graph.layout().sectionBytes(graph.nodeCount(), graph.edgeCount());
+			for (int i = 0; i < sizes.length; i++) {
+				MemorySegment column = columns.get(i);
+				if (column.byteSize() != sizes[i]) {
+					throw new IOException("Graph column " + i + " has unexpected size " + column.byteSize() + ".");
+				}
+				for (long offset = 0; offset < sizes[i]; offset += CHECKSUM_CHUNK_BYTES) {
+					long length = Math.min(CHECKSUM_CHUNK_BYTES, sizes[i] - offset);
+					writeFully(channel, column.asSlice(offset, length).asByteBuffer(), crc);
+				}
+				int padding = (int) (padded(sizes[i]) - sizes[i]);
+				if (padding > 0) {
+					writeFully(channel, ByteBuffer.allocate(padding), crc);
+				}
+			}
+
+			ByteBuffer trailer = ByteBuffer.allocate(CHECKSUM_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			trailer.putLong(crc.getValue()).flip();
+			writeFully(channel, trailer, null);
+			channel.force(true);
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads only the header of a graph file.
+	 *
+	 * @param path graph file
+	 * @return header
+	 * @throws IOException if the file cannot be read or is not a graph file
+	 */
+	public static Header readHeader(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					throw new IOException("Graph file " + path + " is truncated.");
+				}
+			}
+			return decodeHeader(buffer.flip());
+		}
+	}
+
+	/**
+	 * Memory-maps a graph file and verifies its size and checksum.
+	 * The mapping is released once the returned graph becomes unreachable.
+	 *
+	 * @param path graph file
+	 * @return graph backed by the mapped file
+	 * @throws IOException if the file cannot be mapped or fails validation
+	 */
+	public static RoutingGraph map(Path path) throws IOException {
+		requireLittleEndian();
+		MemorySegment file;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			file = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), Arena.ofAuto());
+		}
+		if (file.byteSize() < HEADER_BYTES + CHECKSUM_BYTES) {
+			throw new IOException("Graph file " + path + " is truncated.");
+		}
+		ByteBuffer headerBytes = file.asSlice(0L, HEADER_BYTES).asByteBuffer();
+		Header header = decodeHeader(headerBytes);
+		ColumnLayout layout = decodeLayout(headerBytes, header.precision());
+
+		long[] sizes = layout.sectionBytes(header.nodeCount(), header.edgeCount());
+		long bodyBytes = HEADER_BYTES;
+		for (long size : sizes) {
+			bodyBytes += padded(size);
+		}
+		if (file.byteSize() != bodyBytes + CHECKSUM_BYTES) {
+			throw new IOException("Graph file " + path + " has size " + file.byteSize()
+					+ " but the header implies " + (bodyBytes + CHECKSUM_BYTES) + ".");
+		}
+
+		CRC32 crc = new CRC32();
+		for (long offset = 0; offset < bodyBytes; offset += CHECKSUM_CHUNK_BYTES) {
+			crc.update(file.asSlice(offset, Math.min(CHECKSUM_CHUNK_BYTES, bodyBytes - offset)).asByteBuffer());
+		}
+		long stored = file.asSlice(bodyBytes, CHECKSUM_BYTES).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN).getLong();
+		if (stored != crc.getValue()) {
+			throw new IOException("Graph file " + path + " failed checksum verification.");
+		}
+
+		MemorySegment[] sections = new MemorySegment[sizes.length];
+		long offset = HEADER_BYTES;
+		for (int i = 0; i < sizes.length; i++) {
+			sections[i] = file.asSlice(offset, sizes[i]);
+			offset += padded(sizes[i]);
+		}
+		return new RoutingGraph(
+				header.mode(),
+				header.nodeCount(),
+				header.edgeCount(),
+				layout,
+				sections[0],
+				sections[1],
+				sections[2],
+				sections[3],
+				sections[4],
+				sections[5],
+				sections[6],
+				sections[7],
+				sections[8],
+				sections[9],
+				sections[10],
+				sections[11],
+				sections[12]
+		);
+	}
+
+	private static long padded(long size) {
+		return (size + 7L) & ~7L;
+	}
+
+	private static ByteBuffer encodeHeader(Header header, ColumnLayout layout) {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(header.formatVersion());
+		buffer.putLong(header.graphVersion());
+		buffer.putInt(header.nodeCount());
+		buffer.putInt(header.edgeCount());
+		byte[] mode = header.mode().dbValue().getBytes(StandardCharsets.US_ASCII);
+		buffer.put(mode, 0, Math.min(mode.length, MODE_BYTES));
+		buffer.position(PRECISION_OFFSET);
+		buffer.putInt(header.precision().ordinal());
+		buffer.putInt((layout.narrowNodeIds() ? NARROW_NODE_IDS : 0) | (layout.narrowEdgeIds() ? NARROW_EDGE_IDS : 0));
+		buffer.putLong(layout.nodeIdBase());
+		buffer.putLong(layout.edgeIdBase());
+		return buffer.clear();
+	}
+
+	private static Header decodeHeader(ByteBuffer buffer) throws IOException {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("Not a routing graph file.");
+		}
+		int formatVersion = buffer.getInt();
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IOException("Unsupported graph file format version " + formatVersion + ".");
+		}
+		long graphVersion = buffer.getLong();
+		int nodeCount = buffer.getInt();
+		int edgeCount = buffer.getInt();
+		byte[] modeBytes = new byte[MODE_BYTES];
+		buffer.get(modeBytes);
+		int length = 0;
+		while (length < MODE_BYTES && modeBytes[length] != 0) {
+			length++;
+		}
+		String modeValue = new String(modeBytes, 0, length, StandardCharsets.US_ASCII);
+		TravelMode mode = null;
+		for (TravelMode candidate : TravelMode.values()) {
+			if (candidate.dbValue().equals(modeValue)) {
+				mode = candidate;
+			}
+		}
+		if (mode == null) {
+			throw new IOException("Unknown travel mode in graph file: " + modeValue);
+		}
+		int precisionOrdinal = buffer.getInt();
+		if (precisionOrdinal < 0 || precisionOrdinal >= GraphPrecision.values().length) {
+			throw new IOException("Unknown precision in graph file: " + precisionOrdinal);
+		}
+		GraphPrecision precision = GraphPrecision.values()[precisionOrdinal];
+		return new Header(formatVersion, mode, graphVersion, nodeCount, edgeCount, precision);
+	}
+
+	private static ColumnLayout decodeLayout(ByteBuffer header, GraphPrecision precision) {
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		int idFlags = header.getInt(PRECISION_OFFSET + Integer.BYTES);
+		return new ColumnLayout(
+				precision,
+				(idFlags & NARROW_NODE_IDS) != 0,
+				header.getLong(PRECISION_OFFSET + 2 * Integer.BYTES),
+				(idFlags & NARROW_EDGE_IDS) != 0,
+				header.getLong(PRECISION_OFFSET + 2 * Integer.BYTES + Long.BYTES)
+		);
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+		if (crc != null) {
+			crc.update(buffer.duplicate());
+		}
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static void requireLittleEndian() throws IOException {
+		if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+			throw new IOException("Routing graph files require a little-endian platform.");
+		}
+	}
+}
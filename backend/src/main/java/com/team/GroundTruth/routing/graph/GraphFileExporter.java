@@ -0,0 +1,60 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the routing graphs from {@code nodes}/{@code edges} into {@link GraphFile}s.
+ * <p>
+ * Enabled with {@code routing.graph.export.enabled=true}; files are written to
+ * {@code routing.graph.file-dir}, one per travel mode, stamped with the mode's current
+ * {@code routing_graph_version}. Run it once after every graph rebuild, e.g. with
+ * {@code --routing.graph.export.enabled=true --spring.main.web-application-type=none}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(value = "routing.graph.export.enabled", havingValue = "true")
+public class GraphFileExporter implements ApplicationRunner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GraphFileExporter.class);
+
+	private final ResidentGraphLoader loader;
+
+	public GraphFileExporter(ResidentGraphLoader loader) {
+		this.loader = loader;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		for (TravelMode mode : TravelMode.values()) {
+			Path path = loader.graphFile(mode);
+			if (path == null) {
+				throw new IllegalStateException("routing.graph.file-dir must be set to export graph files.");
+			}
+			OptionalLong version = loader.graphVersion(mode);
+			if (version.isEmpty()) {
+				LOG.warn("No routing_graph_version row for mode {}; skipping graph file export.", mode);
+				continue;
+			}
+			try {
+				Files.createDirectories(path.getParent());
+				RoutingGraph graph = loader.loadGraphFromDatabase(mode);
+				GraphFile.write(graph, version.getAsLong(), path);
+				LOG.info("Exported {} graph version {} to {} ({} bytes).",
+						mode, version.getAsLong(), path, Files.size(path));
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Failed to export " + mode + " graph to " + path, ex);
+			}
+		}
+	}
+}
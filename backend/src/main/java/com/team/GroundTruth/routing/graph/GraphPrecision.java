@@ -0,0 +1,140 @@
+package com.team.GroundTruth.routing.graph;
+
+/**
+ * Numeric storage precision of a {@link RoutingGraph} and its cost snapshots.
+ * <p>
+ * Compact precisions store coordinates as fixed-point {@code int}s at 1e-7 degrees (about 1 cm),
+ * lengths and costs as {@code float}s, flags as {@code int}s and node/edge ids as 32-bit offsets
+ * when the id range allows it. {@link #COMPACT_QUANTIZED} additionally stores lengths in 16 bits:
+ * a 12-bit mantissa in centimeters with a 4-bit per-edge binary exponent, which keeps lengths
+ * below 40.95 m exact to the centimeter and longer ones within 1/4096 (0.025%).
+ * </p>
+ */
+public enum GraphPrecision {
+	/**
+	 * Double-precision coordinates, lengths and costs; 64-bit ids and flags.
+	 */
+	DOUBLE("double", 8, 8, 8, 8),
+
+	/**
+	 * Fixed-point coordinates, single-precision lengths and costs.
+	 */
+	COMPACT("compact", 4, 4, 4, 4),
+
+	/**
+	 * Like {@link #COMPACT} with 16-bit quantized lengths.
+	 */
+	COMPACT_QUANTIZED("compact_quantized", 4, 2, 4, 4);
+
+	/**
+	 * Fixed-point coordinate unit in degrees.
+	 */
+	static final double COORDINATE_UNIT = 1e-7;
+
+	private static final int MANTISSA_BITS = 12;
+	private static final int MANTISSA_LIMIT = 1 << MANTISSA_BITS;
+	private static final int MAX_EXPONENT = 15;
+
+	private final String value;
+	private final int coordinateBytes;
+	private final int lengthBytes;
+	private final int costBytes;
+	private final int flagBytes;
+
+	GraphPrecision(String value, int coordinateBytes, int lengthBytes, int costBytes, int flagBytes) {
+		this.value = value;
+		this.coordinateBytes = coordinateBytes;
+		this.lengthBytes = lengthBytes;
+		this.costBytes = costBytes;
+		this.flagBytes = flagBytes;
+	}
+
+	/**
+	 * Returns the string value for configuration.
+	 *
+	 * @return string value
+	 */
+	public String value() {
+		return value;
+	}
+
+	/**
+	 * Parses a string into a precision.
+	 *
+	 * @param value string value
+	 * @return precision or null if unknown
+	 */
+	public static GraphPrecision fromValue(String value) {
+		if (value == null) {
+			return null;
+		}
+		for (GraphPrecision precision : values()) {
+			if (precision.value.equalsIgnoreCase(value)) {
+				return precision;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether ids may be stored as 32-bit offsets.
+	 *
+	 * @return true for compact precisions
+	 */
+	public boolean isCompact() {
+		return this != DOUBLE;
+	}
+
+	int coordinateBytes() {
+		return coordinateBytes;
+	}
+
+	int lengthBytes() {
+		return lengthBytes;
+	}
+
+	/**
+	 * Returns the size of a single cost value, used for base costs and cost snapshots.
+	 *
+	 * @return 8 for {@code double} costs, 4 for {@code float} costs
+	 */
+	public int costBytes() {
+		return costBytes;
+	}
+
+	int flagBytes() {
+		return flagBytes;
+	}
+
+	/**
+	 * Quantizes a length to 16 bits: {@code mantissa << exponent} centimeters.
+	 *
+	 * @param meters length in meters
+	 * @return quantized length
+	 */
+	static short quantizeLength(double meters) {
+		double centimeters = Math.max(0.0, meters * 100.0);
+		int exponent = Math.max(0, Math.getExponent(centimeters) - (MANTISSA_BITS - 1));
+		long mantissa = Math.round(centimeters / (1L << Math.min(exponent, MAX_EXPONENT + 1)));
+		if (mantissa >= MANTISSA_LIMIT) {
+			mantissa >>= 1;
+			exponent++;
+		}
+		if (exponent > MAX_EXPONENT) {
+			exponent = MAX_EXPONENT;
+			mantissa = MANTISSA_LIMIT - 1;
+		}
+		return (short) (exponent << MANTISSA_BITS | mantissa);
+	}
+
+	/**
+	 * Restores a length quantized by {@link #quantizeLength(double)}.
+	 *
+	 * @param quantized quantized length
+	 * @return length in meters
+	 */
+	static double dequantizeLength(short quantized) {
+		int bits = quantized & 0xFFFF;
+		return ((long) (bits & (MANTISSA_LIMIT - 1)) << (bits >>> MANTISSA_BITS)) * 0.01;
+	}
+}
@@ -0,0 +1,262 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One tile of a {@link TiledGraphStore}: the nodes inside a {@link TileGrid} cell and their
+ * outgoing edges in CSR form.
+ * <p>
+ * Nodes are sorted by database id and addressed by local index. Edges may leave the tile; each
+ * edge records the database id and tile of its target, which is how searches stitch neighbouring
+ * tiles together. Every node of the tile is an endpoint of at least one edge of the travel mode.
+ * </p>
+ */
+public final class GraphTile {
+
+	private static final int ARRAY_HEADER_BYTES = 16;
+
+	private final TravelMode mode;
+	private final long tile;
+	private final long[] nodeIds;
+	private final double[] lats;
+	private final double[] lons;
+	private final int[] firstEdge;
+	private final long[] edgeIds;
+	private final long[] edgeTargetIds;
+	private final long[] edgeTargetTiles;
+	private final double[] edgeLengths;
+	private final double[] baseCosts;
+	private final long[] edgeFlags;
+	private final Map<RouteType, TileCosts> costs = new ConcurrentHashMap<>();
+
+	GraphTile(
+			TravelMode mode,
+			long tile,
+			long[] nodeIds,
+			double[] lats,
+			double[] lons,
+			int[] firstEdge,
+			long[] edgeIds,
+			long[] edgeTargetIds,
+			long[] edgeTargetTiles,
+			double[] edgeLengths,
+			double[] baseCosts,
+			long[] edgeFlags
+	) {
+		this.mode = Objects.requireNonNull(mode, "mode");
+		this.tile = tile;
+		this.nodeIds = nodeIds;
+		this.lats = lats;
+		this.lons = lons;
+		this.firstEdge = firstEdge;
+		this.edgeIds = edgeIds;
+		this.edgeTargetIds = edgeTargetIds;
+		this.edgeTargetTiles = edgeTargetTiles;
+		this.edgeLengths = edgeLengths;
+		this.baseCosts = baseCosts;
+		this.edgeFlags = edgeFlags;
+	}
+
+	/**
+	 * Returns the travel mode of the tile's edges.
+	 *
+	 * @return travel mode
+	 */
+	public TravelMode mode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the tile code.
+	 *
+	 * @return tile code in the store's {@link TileGrid}
+	 */
+	public long tile() {
+		return tile;
+	}
+
+	/**
+	 * Returns the number of nodes in the tile.
+	 *
+	 * @return node count
+	 */
+	public int nodeCount() {
+		return nodeIds.length;
+	}
+
+	/**
+	 * Returns the number of edges leaving nodes of the tile.
+	 *
+	 * @return edge count
+	 */
+	public int edgeCount() {
+		return edgeIds.length;
+	}
+
+	/**
+	 * Resolves a database node id to its local index.
+	 *
+	 * @param nodeId database node id
+	 * @return local node index, or -1 if the node is not in this tile
+	 */
+	public int indexOfNode(long nodeId) {
+		int index = Arrays.binarySearch(nodeIds, nodeId);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Returns the database id of a node.
+	 *
+	 * @param node local node index
+	 * @return database node id
+	 */
+	public long nodeId(int node) {
+		return nodeIds[node];
+	}
+
+	/**
+	 * Returns the latitude of a node.
+	 *
+	 * @param node local node index
+	 * @return latitude in decimal degrees
+	 */
+	public double lat(int node) {
+		return lats[node];
+	}
+
+	/**
+	 * Returns the longitude of a node.
+	 *
+	 * @param node local node index
+	 * @return longitude in decimal degrees
+	 */
+	public double lon(int node) {
+		return lons[node];
+	}
+
+	/**
+	 * Returns the first outgoing edge of a node.
+	 *
+	 * @param node local node index
+	 * @return first local edge index
+	 */
+	public int firstEdge(int node) {
+		return firstEdge[node];
+	}
+
+	/**
+	 * Returns the end (exclusive) of a node's outgoing edges.
+	 *
+	 * @param node local node index
+	 * @return end local edge index
+	 */
+	public int endEdge(int node) {
+		return firstEdge[node + 1];
+	}
+
+	/**
+	 * Returns the database id of an edge.
+	 *
+	 * @param edge local edge index
+	 * @return database edge id
+	 */
+	public long edgeId(int edge) {
+		return edgeIds[edge];
+	}
+
+	/**
+	 * Returns the database id of an edge's target node.
+	 *
+	 * @param edge local edge index
+	 * @return database node id
+	 */
+	public long edgeTargetId(int edge) {
+		return edgeTargetIds[edge];
+	}
+
+	/**
+	 * Returns the tile holding an edge's target node.
+	 *
+	 * @param edge local edge index
+	 * @return tile code
+	 */
+	public long edgeTargetTile(int edge) {
+		return edgeTargetTiles[edge];
+	}
+
+	/**
+	 * Returns the length of an edge.
+	 *
+	 * @param edge local edge index
+	 * @return length in meters
+	 */
+	public double edgeLength(int edge) {
+		return edgeLengths[edge];
+	}
+
+	/**
+	 * Returns the base traversal cost of an edge.
+	 *
+	 * @param edge local edge index
+	 * @return cost in seconds
+	 */
+	public double edgeBaseCost(int edge) {
+		return baseCosts[edge];
+	}
+
+	/**
+	 * Returns the packed {@link EdgeFlags} of an edge.
+	 *
+	 * @param edge local edge index
+	 * @return edge flags
+	 */
+	public long edgeFlags(int edge) {
+		return edgeFlags[edge];
+	}
+
+	/**
+	 * Returns a copy of the base costs, indexed by local edge index.
+	 *
+	 * @return base costs in seconds
+	 */
+	public double[] copyBaseCosts() {
+		return baseCosts.clone();
+	}
+
+	/**
+	 * Returns the approximate heap footprint of the tile, including cached costs.
+	 *
+	 * @return size in bytes
+	 */
+	public long estimatedBytes() {
+		long bytes = 10L * ARRAY_HEADER_BYTES + 24L * nodeIds.length + 4L * firstEdge.length
+				+ 48L * edgeIds.length;
+		for (TileCosts cached : costs.values()) {
+			bytes += ARRAY_HEADER_BYTES + 8L * cached.costs().length;
+		}
+		return bytes;
+	}
+
+	TileCosts cachedCosts(RouteType routeType) {
+		return costs.get(routeType);
+	}
+
+	void cacheCosts(RouteType routeType, TileCosts tileCosts) {
+		costs.put(routeType, tileCosts);
+	}
+
+	/**
+	 * Effective costs of a tile for one route type.
+	 *
+	 * @param costs cost per local edge index in seconds
+	 * @param loadedAt time the costs were read
+	 */
+	record TileCosts(double[] costs, Instant loadedAt) {
+	}
+}
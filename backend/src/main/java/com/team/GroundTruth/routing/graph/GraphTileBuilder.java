@@ -0,0 +1,175 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Accumulates the nodes and outgoing edges of one tile and builds a {@link GraphTile}.
+ * <p>
+ * Nodes may be added more than once, e.g. once per incident edge row; duplicates are dropped.
+ * Edges whose source node was not added are skipped.
+ * </p>
+ */
+public final class GraphTileBuilder {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final TravelMode mode;
+	private final long tile;
+
+	private int nodeCount;
+	private long[] nodeIds = new long[INITIAL_CAPACITY];
+	private double[] nodeLats = new double[INITIAL_CAPACITY];
+	private double[] nodeLons = new double[INITIAL_CAPACITY];
+
+	private int edgeCount;
+	private long[] edgeIds = new long[INITIAL_CAPACITY];
+	private long[] edgeSources = new long[INITIAL_CAPACITY];
+	private long[] edgeTargets = new long[INITIAL_CAPACITY];
+	private long[] edgeTargetTiles = new long[INITIAL_CAPACITY];
+	private double[] edgeLengths = new double[INITIAL_CAPACITY];
+	private double[] edgeCosts = new double[INITIAL_CAPACITY];
+	private long[] edgeFlags = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Creates a builder for one tile.
+	 *
+	 * @param mode travel mode of the edges
+	 * @param tile tile code
+	 */
+	public GraphTileBuilder(TravelMode mode, long tile) {
+		this.mode = Objects.requireNonNull(mode, "mode");
+		this.tile = tile;
+	}
+
+	/**
+	 * Adds a node lying inside the tile.
+	 *
+	 * @param nodeId database node id
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return this builder
+	 */
+	public GraphTileBuilder addNode(long nodeId, double lat, double lon) {
+		if (nodeCount == nodeIds.length) {
+			int capacity = nodeCount * 2;
+			nodeIds = Arrays.copyOf(nodeIds, capacity);
+			nodeLats = Arrays.copyOf(nodeLats, capacity);
+			nodeLons = Arrays.copyOf(nodeLons, capacity);
+		}
+		nodeIds[nodeCount] = nodeId;
+		nodeLats[nodeCount] = lat;
+		nodeLons[nodeCount] = lon;
+		nodeCount++;
+		return this;
+	}
+
+	/**
+	 * Adds an edge leaving a node of the tile.
+	 *
+	 * @param edgeId database edge id
+	 * @param sourceId database id of the source node, which lies inside the tile
+	 * @param targetId database id of the target node
+	 * @param targetTile tile holding the target node
+	 * @param lengthMeters edge length in meters
+	 * @param costSeconds base traversal cost in seconds
+	 * @param flags packed {@link EdgeFlags}
+	 * @return this builder
+	 */
+	public GraphTileBuilder addEdge(
+			long edgeId,
+			long sourceId,
+			long targetId,
+			long targetTile,
+			double lengthMeters,
+			double costSeconds,
+			long flags
+	) {
+		if (edgeCount == edgeIds.length) {
+			int capacity = edgeCount * 2;
+			edgeIds = Arrays.copyOf(edgeIds, capacity);
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+			edgeTargetTiles = Arrays.copyOf(edgeTargetTiles, capacity);
+			edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+			edgeCosts = Arrays.copyOf(edgeCosts, capacity);
+			edgeFlags = Arrays.copyOf(edgeFlags, capacity);
+		}
+		edgeIds[edgeCount] = edgeId;
+		edgeSources[edgeCount] = sourceId;
+		edgeTargets[edgeCount] = targetId;
+		edgeTargetTiles[edgeCount] = targetTile;
+		edgeLengths[edgeCount] = lengthMeters;
+		edgeCosts[edgeCount] = costSeconds;
+		edgeFlags[edgeCount] = flags;
+		edgeCount++;
+		return this;
+	}
+
+	/**
+	 * Builds the tile.
+	 *
+	 * @return graph tile
+	 */
+	public GraphTile build() {
+		Integer[] byId = new Integer[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			byId[i] = i;
+		}
+		Arrays.sort(byId, (a, b) -> Long.compare(nodeIds[a], nodeIds[b]));
+		int unique = 0;
+		long[] ids = new long[nodeCount];
+		double[] lats = new double[nodeCount];
+		double[] lons = new double[nodeCount];
+		for (Integer index : byId) {
+			if (unique > 0 && ids[unique - 1] == nodeIds[index]) {
+				continue;
+			}
+			ids[unique] = nodeIds[index];
+			lats[unique] = nodeLats[index];
+			lons[unique] = nodeLons[index];
+			unique++;
+		}
+		ids = Arrays.copyOf(ids, unique);
+		lats = Arrays.copyOf(lats, unique);
+		lons = Arrays.copyOf(lons, unique);
+
+		int[] sources = new int[edgeCount];
+		int[] firstEdge = new int[unique + 1];
+		int kept = 0;
+		for (int edge = 0; edge < edgeCount; edge++) {
+			int source = Arrays.binarySearch(ids, edgeSources[edge]);
+			sources[edge] = source;
+			if (source >= 0) {
+				firstEdge[source + 1]++;
+				kept++;
+			}
+		}
+		for (int node = 0; node < unique; node++) {
+			firstEdge[node + 1] += firstEdge[node];
+		}
+
+		int[] cursor = Arrays.copyOf(firstEdge, unique);
+		long[] outIds = new long[kept];
+		long[] outTargets = new long[kept];
+		long[] outTargetTiles = new long[kept];
+		double[] outLengths = new double[kept];
+		double[] outCosts = new double[kept];
+		long[] outFlags = new long[kept];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			if (sources[edge] < 0) {
+				continue;
+			}
+			int slot = cursor[sources[edge]]++;
+			outIds[slot] = edgeIds[edge];
+			outTargets[slot] = edgeTargets[edge];
+			outTargetTiles[slot] = edgeTargetTiles[edge];
+			outLengths[slot] = edgeLengths[edge];
+			outCosts[slot] = edgeCosts[edge];
+			outFlags[slot] = edgeFlags[edge];
+		}
+		return new GraphTile(mode, tile, ids, lats, lons, firstEdge, outIds, outTargets, outTargetTiles,
+				outLengths, outCosts, outFlags);
+	}
+}
@@ -0,0 +1,31 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+
+/**
+ * Loads single tiles of the routing graph for a {@link TiledGraphStore}.
+ */
+public interface GraphTileSource {
+
+	/**
+	 * Loads the nodes of a tile and the edges leaving them.
+	 *
+	 * @param mode travel mode
+	 * @param grid tile grid
+	 * @param tile tile code
+	 * @return tile, possibly empty
+	 */
+	GraphTile loadTile(TravelMode mode, TileGrid grid, long tile);
+
+	/**
+	 * Loads the effective edge costs of a tile for a route type.
+	 *
+	 * @param tile loaded tile
+	 * @param routeType route type determining the cost tables
+	 * @return cost per local edge index in seconds
+	 */
+	default double[] loadCosts(GraphTile tile, RouteType routeType) {
+		return tile.copyBaseCosts();
+	}
+}
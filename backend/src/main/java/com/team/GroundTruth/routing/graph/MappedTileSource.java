@@ -0,0 +1,113 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cuts tiles out of a {@link RoutingGraph}, typically one memory-mapped from a {@link GraphFile}.
+ * <p>
+ * A mapped graph only occupies page cache for the parts that are read, so tiles can be served
+ * without a database round trip while the heap only holds the tiles in use and one index entry per
+ * node. The index is built on the first request. Costs come from a delegate source, because graph
+ * files only carry base costs.
+ * </p>
+ */
+public final class MappedTileSource implements GraphTileSource {
+
+	private final RoutingGraph graph;
+	private final GraphTileSource costSource;
+	private volatile TileIndex index;
+
+	/**
+	 * Creates a source over a graph.
+	 *
+	 * @param graph graph to cut tiles from
+	 * @param costSource source of route type costs, or {@code null} to use base costs
+	 */
+	public MappedTileSource(RoutingGraph graph, GraphTileSource costSource) {
+		this.graph = Objects.requireNonNull(graph, "graph");
+		this.costSource = costSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GraphTile loadTile(TravelMode mode, TileGrid grid, long tile) {
+		if (mode != graph.mode()) {
+			throw new IllegalArgumentException("Graph of mode " + graph.mode() + " cannot serve " + mode + " tiles.");
+		}
+		GraphTileBuilder builder = new GraphTileBuilder(mode, tile);
+		for (int node : index(grid).nodes(tile)) {
+			builder.addNode(graph.nodeId(node), graph.lat(node), graph.lon(node));
+			for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+				int target = graph.edgeTarget(edge);
+				builder.addEdge(graph.edgeId(edge), graph.nodeId(node), graph.nodeId(target),
+						grid.tileOf(graph.lat(target), graph.lon(target)), graph.edgeLength(edge),
+						graph.edgeBaseCost(edge), graph.edgeFlags(edge));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double[] loadCosts(GraphTile tile, RouteType routeType) {
+		return costSource != null ? costSource.loadCosts(tile, routeType) : tile.copyBaseCosts();
+	}
+
+	private TileIndex index(TileGrid grid) {
+		TileIndex current = index;
+		if (current == null || !current.grid().equals(grid)) {
+			current = TileIndex.of(graph, grid);
+			index = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Node indices of the graph grouped by tile; nodes without any incident edge are left out.
+	 */
+	private record TileIndex(TileGrid grid, Map<Long, int[]> nodesByTile) {
+
+		private static final int[] NONE = new int[0];
+
+		private static TileIndex of(RoutingGraph graph, TileGrid grid) {
+			boolean[] incident = new boolean[graph.nodeCount()];
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				if (graph.endEdge(node) > graph.firstEdge(node)) {
+					incident[node] = true;
+				}
+				for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+					incident[graph.edgeTarget(edge)] = true;
+				}
+			}
+			Map<Long, int[]> counts = new HashMap<>();
+			long[] tiles = new long[graph.nodeCount()];
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				if (incident[node]) {
+					tiles[node] = grid.tileOf(graph.lat(node), graph.lon(node));
+					counts.computeIfAbsent(tiles[node], key -> new int[1])[0]++;
+				}
+			}
+			Map<Long, int[]> nodesByTile = new HashMap<>(counts.size() * 2);
+			counts.forEach((tile, count) -> nodesByTile.put(tile, new int[count[0]]));
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				if (incident[node]) {
+					int[] fill = counts.get(tiles[node]);
+					nodesByTile.get(tiles[node])[--fill[0]] = node;
+				}
+			}
+			return new TileIndex(grid, nodesByTile);
+		}
+
+		private int[] nodes(long tile) {
+			return nodesByTile.getOrDefault(tile, NONE);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Order in which {@link RoutingGraphBuilder} numbers the nodes of a graph.
+ * <p>
+ * Node indices decide where node columns and adjacency lists live in memory. Numbering nodes
+ * along a Hilbert curve keeps geographically close nodes, and therefore the nodes a search
+ * expands one after another, close together in memory.
+ * </p>
+ */
+public enum NodeOrder {
+	/**
+	 * Ascending database node id.
+	 */
+	DATABASE_ID("database_id"),
+
+	/**
+	 * Position along a Hilbert curve over the bounding box of the graph.
+	 */
+	HILBERT("hilbert");
+
+	private static final int HILBERT_BITS = 15;
+	private static final int HILBERT_CELLS = 1 << HILBERT_BITS;
+
+	private final String value;
+
+	NodeOrder(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Returns the string value for configuration.
+	 *
+	 * @return string value
+	 */
+	public String value() {
+		return value;
+	}
+
+	/**
+	 * Parses a string into a node order.
+	 *
+	 * @param value string value
+	 * @return node order or null if unknown
+	 */
+	public static NodeOrder fromValue(String value) {
+		if (value == null) {
+			return null;
+		}
+		for (NodeOrder order : values()) {
+			if (order.value.equalsIgnoreCase(value)) {
+				return order;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the position of every node in this order.
+	 *
+	 * @param lats node latitudes, indexed by ascending database id
+	 * @param lons node longitudes, indexed by ascending database id
+	 * @param count number of nodes
+	 * @return new index of every node
+	 */
+	int[] rank(double[] lats, double[] lons, int count) {
+		int[] rank = new int[count];
+		if (this == DATABASE_ID || count == 0) {
+			for (int i = 0; i < count; i++) {
+				rank[i] = i;
+			}
+			return rank;
+		}
+
+		double minLat = Double.POSITIVE_INFINITY;
+		double maxLat = Double.NEGATIVE_INFINITY;
+		double minLon = Double.POSITIVE_INFINITY;
+		double maxLon = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			minLat = Math.min(minLat, lats[i]);
+			maxLat = Math.max(maxLat, lats[i]);
+			minLon = Math.min(minLon, lons[i]);
+			maxLon = Math.max(maxLon, lons[i]);
+		}
+		double latScale = (HILBERT_CELLS - 1) / Math.max(maxLat - minLat, 1e-12);
+		double lonScale = (HILBERT_CELLS - 1) / Math.max(maxLon - minLon, 1e-12);
+
+		// Pack the Hilbert key in the high bits and the original index in the low 32 bits, so one
+		// primitive sort yields the permutation and ties keep database id order. The key has at
+		// most 30 bits, which keeps the packed value positive.
+		long[] keys = new long[count];
+		for (int i = 0; i < count; i++) {
+			int x = (int) ((lons[i] - minLon) * lonScale);
+			int y = (int) ((lats[i] - minLat) * latScale);
+			keys[i] = (hilbertIndex(x, y) << 32) | i;
+		}
+		Arrays.sort(keys);
+		for (int position = 0; position < count; position++) {
+			rank[(int) keys[position]] = position;
+		}
+		return rank;
+	}
+
+	/**
+	 * Maps a cell of the {@code 2^15 x 2^15} grid to its distance along the Hilbert curve.
+	 *
+	 * @param x column, {@code 0 <= x < 2^15}
+	 * @param y row, {@code 0 <= y < 2^15}
+	 * @return Hilbert distance, {@code 0 <= d < 2^30}
+	 */
+	static long hilbertIndex(int x, int y) {
+		long d = 0;
+		for (int s = HILBERT_CELLS / 2; s > 0; s /= 2) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			if (ry == 0) {
+				if (rx == 1) {
+					x = HILBERT_CELLS - 1 - x;
+					y = HILBERT_CELLS - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+}
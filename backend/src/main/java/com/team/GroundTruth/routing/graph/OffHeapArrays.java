@@ -0,0 +1,96 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Copies primitive arrays into native memory segments.
+ */
+final class OffHeapArrays {
+
+	private OffHeapArrays() {
+	}
+
+	static MemorySegment copyOf(Arena arena, int[] values) {
+		MemorySegment segment = arena.allocate(ValueLayout.JAVA_INT.byteSize() * values.length,
+				ValueLayout.JAVA_INT.byteAlignment());
+		MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_INT, 0L, values.length);
+		return segment;
+	}
+
+	static MemorySegment copyOf(Arena arena, long[] values) {
+		MemorySegment segment = arena.allocate(ValueLayout.JAVA_LONG.byteSize() * values.length,
+				ValueLayout.JAVA_LONG.byteAlignment());
+		MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_LONG, 0L, values.length);
+		return segment;
+	}
+
+	static MemorySegment copyOf(Arena arena, short[] values) {
+		MemorySegment segment = arena.allocate(ValueLayout.JAVA_SHORT.byteSize() * values.length,
+				ValueLayout.JAVA_SHORT.byteAlignment());
+		MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_SHORT, 0L, values.length);
+		return segment;
+	}
+
+	static MemorySegment copyOf(Arena arena, float[] values) {
+		MemorySegment segment = arena.allocate(ValueLayout.JAVA_FLOAT.byteSize() * values.length,
+				ValueLayout.JAVA_FLOAT.byteAlignment());
+		MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_FLOAT, 0L, values.length);
+		return segment;
+	}
+
+	static MemorySegment copyOf(Arena arena, double[] values) {
+		MemorySegment segment = arena.allocate(ValueLayout.JAVA_DOUBLE.byteSize() * values.length,
+				ValueLayout.JAVA_DOUBLE.byteAlignment());
+		MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_DOUBLE, 0L, values.length);
+		return segment;
+	}
+
+	/**
+	 * Binary search over a sorted segment of {@code long}s.
+	 *
+	 * @return element index, or {@code -(insertion point) - 1} if absent
+	 */
+	static int binarySearch(MemorySegment sorted, int count, long key) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long value = sorted.getAtIndex(ValueLayout.JAVA_LONG, mid);
+			if (value < key) {
+				low = mid + 1;
+			} else if (value > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Binary search over a sorted segment of unsigned {@code int}s.
+	 *
+	 * @return element index, or a negative value if absent or out of the unsigned {@code int} range
+	 */
+	static int binarySearchUnsigned(MemorySegment sorted, int count, long key) {
+		if (key < 0L || key > 0xFFFF_FFFFL) {
+			return -1;
+		}
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long value = Integer.toUnsignedLong(sorted.getAtIndex(ValueLayout.JAVA_INT, mid));
+			if (value < key) {
+				low = mid + 1;
+			} else if (value > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+}
@@ -0,0 +1,242 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the planar coordinates of a graph's nodes for nearest-node queries.
+ * <p>
+ * Nodes are sorted by cell, row by row, and their coordinates are copied in that order. A run of
+ * adjacent cells in one row is then one contiguous range that {@link DistanceKernel#planarDistances}
+ * scans in a single call. Cells hold about {@value #NODES_PER_CELL} nodes on average. A query scans
+ * square rings of cells around the query point. It stops once its k-th best distance is no larger
+ * than the distance to the nearest cell it has not scanned yet.
+ * </p>
+ */
+final class PlanarNodeIndex {
+
+	private static final int NODES_PER_CELL = 4;
+	private static final int CHUNK = 4096;
+	private static final double MIN_CELL_METERS = 1.0;
+
+	private final int nodeCount;
+	private final double minX;
+	private final double minY;
+	private final double cellSize;
+	private final int columns;
+	private final int rows;
+	private final int[] cellStart;
+	private final MemorySegment nodes;
+	private final MemorySegment xs;
+	private final MemorySegment ys;
+
+	private PlanarNodeIndex(
+			int nodeCount,
+			double minX,
+			double minY,
+			double cellSize,
+			int columns,
+			int rows,
+			int[] cellStart,
+			MemorySegment nodes,
+			MemorySegment xs,
+			MemorySegment ys
+	) {
+		this.nodeCount = nodeCount;
+		this.minX = minX;
+		this.minY = minY;
+		this.cellSize = cellSize;
+		this.columns = columns;
+		this.rows = rows;
+		this.cellStart = cellStart;
+		this.nodes = nodes;
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+	/**
+	 * Buckets projected nodes into grid cells.
+	 *
+	 * @param planar projected node coordinates
+	 * @return grid index
+	 */
+	static PlanarNodeIndex of(PlanarCoordinates planar) {
+		int nodeCount = planar.nodeCount();
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int node = 0; node < nodeCount; node++) {
+			minX = Math.min(minX, planar.x(node));
+			minY = Math.min(minY, planar.y(node));
+			maxX = Math.max(maxX, planar.x(node));
+			maxY = Math.max(maxY, planar.y(node));
+		}
+		if (nodeCount == 0) {
+			minX = minY = maxX = maxY = 0.0;
+		}
+		double width = Math.max(maxX - minX, MIN_CELL_METERS);
+		double height = Math.max(maxY - minY, MIN_CELL_METERS);
+		double cellSize = Math.max(MIN_CELL_METERS,
+				Math.sqrt(width * height * NODES_PER_CELL / Math.max(1, nodeCount)));
+		// Elongated extents get more cells than nodes; widen the cells until the grid stays small.
+		while (cellCount(width, height, cellSize) > (long) NODES_PER_CELL * nodeCount + 16L) {
+			cellSize *= 2.0;
+		}
+		int columns = (int) (width / cellSize) + 1;
+		int rows = (int) (height / cellSize) + 1;
+
+		int[] cellOf = new int[nodeCount];
+		int[] cellStart = new int[columns * rows + 1];
+		for (int node = 0; node < nodeCount; node++) {
+			int column = clamp((int) ((planar.x(node) - minX) / cellSize), columns);
+			int row = clamp((int) ((planar.y(node) - minY) / cellSize), rows);
+			cellOf[node] = row * columns + column;
+			cellStart[cellOf[node] + 1]++;
+		}
+		for (int cell = 0; cell < columns * rows; cell++) {
+			cellStart[cell + 1] += cellStart[cell];
+		}
+		int[] next = Arrays.copyOf(cellStart, columns * rows);
+		int[] sortedNodes = new int[nodeCount];
+		float[] sortedXs = new float[nodeCount];
+		float[] sortedYs = new float[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			int slot = next[cellOf[node]]++;
+			sortedNodes[slot] = node;
+			sortedXs[slot] = (float) planar.x(node);
+			sortedYs[slot] = (float) planar.y(node);
+		}
+		Arena arena = Arena.ofAuto();
+		return new PlanarNodeIndex(nodeCount, minX, minY, cellSize, columns, rows, cellStart,
+				OffHeapArrays.copyOf(arena, sortedNodes), OffHeapArrays.copyOf(arena, sortedXs),
+				OffHeapArrays.copyOf(arena, sortedYs));
+	}
+
+	/**
+	 * Finds the nodes closest to a projected point. Equally distant nodes are ordered by index.
+	 *
+	 * @param x easting of the point
+	 * @param y northing of the point
+	 * @param limit maximum number of nodes to return
+	 * @return node indices ordered by ascending distance
+	 */
+	int[] nearestNodes(float x, float y, int limit) {
+		if (limit <= 0 || nodeCount == 0) {
+			return new int[0];
+		}
+		Nearest nearest = new Nearest(Math.min(limit, nodeCount));
+		int centerColumn = clamp((int) Math.floor((x - minX) / cellSize), columns);
+		int centerRow = clamp((int) Math.floor((y - minY) / cellSize), rows);
+		for (int ring = 0; ; ring++) {
+			int firstColumn = centerColumn - ring;
+			int lastColumn = centerColumn + ring;
+			for (int row = Math.max(0, centerRow - ring); row <= Math.min(rows - 1, centerRow + ring); row++) {
+				if (row == centerRow - ring || row == centerRow + ring) {
+					scanCells(row, Math.max(0, firstColumn), Math.min(columns - 1, lastColumn), x, y, nearest);
+				} else {
+					if (firstColumn >= 0) {
+						scanCells(row, firstColumn, firstColumn, x, y, nearest);
+					}
+					if (lastColumn < columns) {
+						scanCells(row, lastColumn, lastColumn, x, y, nearest);
+					}
+				}
+			}
+			if (firstColumn <= 0 && lastColumn >= columns - 1 && centerRow - ring <= 0 && centerRow + ring >= rows - 1) {
+				break;
+			}
+			// Every cell not scanned yet lies outside the square of rings scanned so far.
+			double reach = Math.min(
+					Math.min(x - (minX + firstColumn * cellSize), minX + (lastColumn + 1) * cellSize - x),
+					Math.min(y - (minY + (centerRow - ring) * cellSize), minY + (centerRow + ring + 1) * cellSize - y));
+			if (nearest.worst() <= reach) {
+				break;
+			}
+		}
+		return nearest.nodes();
+	}
+
+	/**
+	 * Returns the native memory held by the index.
+	 *
+	 * @return off-heap size in bytes
+	 */
+	long offHeapBytes() {
+		return nodes.byteSize() + xs.byteSize() + ys.byteSize();
+	}
+
+	private void scanCells(int row, int firstColumn, int lastColumn, float x, float y, Nearest nearest) {
+		int from = cellStart[row * columns + firstColumn];
+		int to = cellStart[row * columns + lastColumn + 1];
+		DistanceKernel kernel = DistanceKernel.best();
+		for (int start = from; start < to; start += CHUNK) {
+			int count = Math.min(CHUNK, to - start);
+			float[] distances = nearest.buffer(count);
+			kernel.planarDistances(xs, ys, start, count, x, y, distances);
+			for (int i = 0; i < count; i++) {
+				nearest.offer(nodes.getAtIndex(ValueLayout.JAVA_INT, start + i), distances[i]);
+			}
+		}
+	}
+
+	private static long cellCount(double width, double height, double cellSize) {
+		return ((long) (width / cellSize) + 1L) * ((long) (height / cellSize) + 1L);
+	}
+
+	private static int clamp(int cell, int cells) {
+		return Math.max(0, Math.min(cells - 1, cell));
+	}
+
+	/**
+	 * The best nodes found so far, sorted by distance and then node index.
+	 */
+	private static final class Nearest {
+
+		private final int[] best;
+		private final float[] bestDistances;
+		private float[] buffer = new float[0];
+
+		private Nearest(int size) {
+			this.best = new int[size];
+			this.bestDistances = new float[size];
+			Arrays.fill(best, Integer.MAX_VALUE);
+			Arrays.fill(bestDistances, Float.POSITIVE_INFINITY);
+		}
+
+		private float[] buffer(int count) {
+			if (buffer.length < count) {
+				buffer = new float[Math.max(count, 64)];
+			}
+			return buffer;
+		}
+
+		private void offer(int node, float distance) {
+			int slot = best.length - 1;
+			if (!precedes(node, distance, slot)) {
+				return;
+			}
+			while (slot > 0 && precedes(node, distance, slot - 1)) {
+				bestDistances[slot] = bestDistances[slot - 1];
+				best[slot] = best[slot - 1];
+				slot--;
+			}
+			bestDistances[slot] = distance;
+			best[slot] = node;
+		}
+
+		private boolean precedes(int node, float distance, int slot) {
+			return distance < bestDistances[slot] || (distance == bestDistances[slot] && node < best[slot]);
+		}
+
+		private float worst() {
+			return bestDistances[best.length - 1];
+		}
+
+		private int[] nodes() {
+			return best;
+		}
+	}
+}
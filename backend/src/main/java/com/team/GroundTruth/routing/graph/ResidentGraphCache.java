@@ -0,0 +1,222 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the resident routing graphs and their cost snapshots.
+ * <p>
+ * Graphs are loaded lazily on first use per travel mode, except that graphs with an exported
+ * {@link GraphFile} are mapped as soon as the application is ready. Cost snapshots are refreshed once they
+ * are older than {@code routing.graph.cost-snapshot-ttl-seconds} so new hazards and overlays show
+ * up without reloading the topology. A reload that finds the same costs keeps the snapshot it
+ * checked, so a snapshot instance stands for one cost version and whatever is derived from it stays
+ * valid until the costs actually change. The {@link GraphComponents} and, unless
+ * {@code routing.graph.compress-chains} is off, the {@link CompressedGraph} of a graph are computed
+ * once per loaded graph; chain costs follow the cost snapshots they are summed from.
+ * </p>
+ */
+@Component
+public class ResidentGraphCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResidentGraphCache.class);
+
+	private final ResidentGraphLoader loader;
+	private final Duration costSnapshotTtl;
+	private final Map<TravelMode, RoutingGraph> graphs = new ConcurrentHashMap<>();
+	private final Map<RouteType, CostEntry> snapshots = new ConcurrentHashMap<>();
+	private final Map<TravelMode, GraphComponents> components = new ConcurrentHashMap<>();
+	private final boolean compressChains;
+	private final Map<TravelMode, CompressedGraph> compressedGraphs = new ConcurrentHashMap<>();
+	private final Map<RouteType, ChainCostSnapshot> chainCosts = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the cache.
+	 *
+	 * @param loader graph and cost loader
+	 * @param costSnapshotTtlSeconds maximum age of a cost snapshot in seconds
+	 * @param compressChains whether single-route searches run on the chain-compressed topology
+	 */
+	public ResidentGraphCache(
+			ResidentGraphLoader loader,
+			@Value("${routing.graph.cost-snapshot-ttl-seconds:30}") long costSnapshotTtlSeconds,
+			@Value("${routing.graph.compress-chains:true}") boolean compressChains
+	) {
+		this.loader = Objects.requireNonNull(loader, "loader");
+		this.costSnapshotTtl = Duration.ofSeconds(Math.max(0L, costSnapshotTtlSeconds));
+		this.compressChains = compressChains;
+	}
+
+	/**
+	 * Returns the resident graph for a travel mode, loading it on first use.
+	 *
+	 * @param mode travel mode
+	 * @return resident graph
+	 */
+	public RoutingGraph graph(TravelMode mode) {
+		Objects.requireNonNull(mode, "mode");
+		return graphs.computeIfAbsent(mode, loader::loadGraph);
+	}
+
+	/**
+	 * Returns the strongly and weakly connected components of the resident graph for a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @return components aligned with {@link #graph(TravelMode)}
+	 */
+	public GraphComponents components(TravelMode mode) {
+		RoutingGraph graph = graph(mode);
+		return components.compute(mode, (key, current) -> current != null && current.graph() == graph
+				? current
+				: computeComponents(graph));
+	}
+
+	/**
+	 * Returns the chain-compressed form of the resident graph for a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @return compressed graph whose original is {@link #graph(TravelMode)}
+	 */
+	public CompressedGraph compressed(TravelMode mode) {
+		RoutingGraph graph = graph(mode);
+		return compressedGraphs.compute(mode, (key, current) -> current != null && current.original() == graph
+				? current
+				: compress(graph));
+	}
+
+	/**
+	 * Returns the chain costs matching a cost snapshot.
+	 *
+	 * @param snapshot per-edge cost snapshot
+	 * @return chain costs, or {@code null} if chain compression is disabled
+	 */
+	public ChainCostSnapshot chainCosts(EdgeCostSnapshot snapshot) {
+		Objects.requireNonNull(snapshot, "snapshot");
+		if (!compressChains) {
+			return null;
+		}
+		CompressedGraph compressed = compressed(snapshot.graph().mode());
+		if (compressed.original() != snapshot.graph()) {
+			// The graph was reloaded after the snapshot was taken.
+			compressed = compress(snapshot.graph());
+		}
+		CompressedGraph graph = compressed;
+		return chainCosts.compute(snapshot.routeType(), (type, current) ->
+				current != null && current.source() == snapshot && current.graph() == graph
+						? current
+						: new ChainCostSnapshot(graph, snapshot, graph.chainCosts(snapshot.costs())));
+	}
+
+	/**
+	 * Maps the graphs that have an exported graph file so the first request does not pay for it.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void preloadGraphFiles() {
+		for (TravelMode mode : TravelMode.values()) {
+			Path path = loader.graphFile(mode);
+			if (path != null && Files.isRegularFile(path)) {
+				graph(mode);
+			}
+		}
+	}
+
+	/**
+	 * Returns a cost snapshot for a route type, reloading it when stale.
+	 * <p>
+	 * The reload runs outside the snapshot map, so a slow cost query never holds a map lock that
+	 * requests for other route types contend on. Concurrent reloads of the same route type may both
+	 * query; the first one to be installed wins.
+	 * </p>
+	 *
+	 * @param routeType route type
+	 * @return cost snapshot aligned with {@link #graph(TravelMode)} of the route type's mode
+	 */
+	public EdgeCostSnapshot costs(RouteType routeType) {
+		Objects.requireNonNull(routeType, "routeType");
+		RoutingGraph graph = graph(routeType.travelMode());
+		CostEntry current = snapshots.get(routeType);
+		if (isFresh(current, graph)) {
+			return current.snapshot();
+		}
+		EdgeCostSnapshot loaded = loader.loadCosts(graph, routeType);
+		CostEntry next = current != null && sameCosts(current.snapshot(), loaded)
+				? new CostEntry(current.snapshot(), loaded.loadedAt())
+				: new CostEntry(loaded, loaded.loadedAt());
+		boolean installed = current == null
+				? snapshots.putIfAbsent(routeType, next) == null
+				: snapshots.replace(routeType, current, next);
+		if (installed) {
+			return next.snapshot();
+		}
+		CostEntry winner = snapshots.get(routeType);
+		return isFresh(winner, graph) ? winner.snapshot() : next.snapshot();
+	}
+
+	/**
+	 * Drops the graph of a travel mode and its snapshots; the next request reloads them.
+	 *
+	 * @param mode travel mode
+	 */
+	public void invalidate(TravelMode mode) {
+		graphs.remove(mode);
+		components.remove(mode);
+		compressedGraphs.remove(mode);
+		chainCosts.keySet().removeIf(type -> type.travelMode() == mode);
+		snapshots.keySet().removeIf(type -> type.travelMode() == mode);
+	}
+
+	/**
+	 * Drops all cost snapshots so the next request sees freshly written costs.
+	 */
+	public void invalidateCosts() {
+		snapshots.clear();
+		chainCosts.clear();
+	}
+
+	private static GraphComponents computeComponents(RoutingGraph graph) {
+		long startedAt = System.nanoTime();
+		GraphComponents result = GraphComponents.of(graph);
+		LOG.info("Found {} strongly connected components in the {} graph in {} ms; the largest holds {} of {} nodes",
+				result.componentCount(), graph.mode(), (System.nanoTime() - startedAt) / 1_000_000L,
+				result.componentCount() == 0 ? 0 : result.size(GraphComponents.LARGEST), graph.nodeCount());
+		return result;
+	}
+
+	private static CompressedGraph compress(RoutingGraph graph) {
+		long startedAt = System.nanoTime();
+		CompressedGraph result = CompressedGraph.of(graph);
+		LOG.info("Compressed {} graph chains in {} ms: {} -> {} nodes, {} -> {} edges",
+				graph.mode(), (System.nanoTime() - startedAt) / 1_000_000L,
+				graph.nodeCount(), result.topology().nodeCount(), graph.edgeCount(), result.topology().edgeCount());
+		return result;
+	}
+
+	private boolean isFresh(CostEntry entry, RoutingGraph graph) {
+		return entry != null
+				&& entry.snapshot().graph() == graph
+				&& entry.checkedAt().plus(costSnapshotTtl).isAfter(Instant.now());
+	}
+
+	private static boolean sameCosts(EdgeCostSnapshot current, EdgeCostSnapshot loaded) {
+		return current.graph() == loaded.graph() && current.costs().mismatch(loaded.costs()) == -1L;
+	}
+
+	/**
+	 * A cached snapshot and the time its costs were last loaded and found current.
+	 */
+	private record CostEntry(EdgeCostSnapshot snapshot, Instant checkedAt) {
+	}
+}
@@ -0,0 +1,414 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongToIntFunction;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Loads resident routing graphs and cost snapshots from the {@code nodes}/{@code edges} tables.
+ * <p>
+ * When {@code routing.graph.file-dir} points at exported {@link GraphFile}s, a graph is
+ * memory-mapped from its file instead, provided the file's version matches the
+ * {@code routing_graph_version} row of its travel mode. Any mismatch or unreadable file falls back
+ * to loading from the database.
+ * </p>
+ * <p>
+ * Rows are streamed with a JDBC cursor straight into primitive arrays; no JPA entities are
+ * materialized. The finished graph and cost snapshots are copied off-heap, so the temporary
+ * arrays are short-lived garbage.
+ * </p>
+ * <p>
+ * As a {@link GraphTileSource} it also reads single tiles for the {@link TiledGraphStore}, with
+ * costs restricted to the edges of the tile.
+ * </p>
+ */
+@Component
+public class ResidentGraphLoader implements GraphTileSource {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResidentGraphLoader.class);
+	private static final int FETCH_SIZE = 10_000;
+
+	private static final String NODES_SQL = """
+			SELECT id, ST_Y(geom) AS lat, ST_X(geom) AS lon
+			FROM nodes
+			""";
+
+	private static final String EDGES_SQL = """
+			SELECT id, source, target, length_m, cost_s, tags, attrs->>'highway' AS highway
+			FROM edges
+			WHERE mode = ?
+			""";
+
+	private static final String WALK_SAFE_COSTS_SQL = """
+			SELECT edge_id, cost_seconds
+			FROM walk_safe_edge_costs
+			""";
+
+	private static final String WALK_ACCESSIBILITY_COSTS_SQL = """
+			SELECT edge_id, cost_seconds
+			FROM walk_accessibility_edge_costs
+			""";
+
+	private static final String ACTIVE_OVERLAYS_SQL = """
+			SELECT edge_id, cost_multiplier, cost_delta_s
+			FROM edge_cost_overlays
+			WHERE mode = ?
+			  AND (valid_from IS NULL OR valid_from <= ?)
+			  AND (valid_to IS NULL OR valid_to >= ?)
+			""";
+
+	private static final String TILE_EDGES_SQL = """
+			WITH tile_nodes AS (
+			    SELECT id
+			    FROM nodes
+			    WHERE geom && ST_MakeEnvelope(?, ?, ?, ?, 4326)
+			),
+			tile_edges AS (
+			    SELECT e.id
+			    FROM tile_nodes n
+			    JOIN edges e ON e.source = n.id
+			    WHERE e.mode = ?
+			    UNION
+			    SELECT e.id
+			    FROM tile_nodes n
+			    JOIN edges e ON e.target = n.id
+			    WHERE e.mode = ?
+			)
+			SELECT e.id, e.source, e.target, e.length_m, e.cost_s, e.tags, e.attrs->>'highway' AS highway,
+			       ST_Y(s.geom) AS source_lat, ST_X(s.geom) AS source_lon,
+			       ST_Y(t.geom) AS target_lat, ST_X(t.geom) AS target_lon
+			FROM tile_edges te
+			JOIN edges e ON e.id = te.id
+			JOIN nodes s ON s.id = e.source
+			JOIN nodes t ON t.id = e.target
+			""";
+
+	private static final String GRAPH_VERSION_SQL = """
+			SELECT version
+			FROM routing_graph_version
+			WHERE mode = ?
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Path graphFileDir;
+	private final NodeOrder nodeOrder;
+	private final GraphPrecision precision;
+
+	/**
+	 * Creates a loader using a dedicated cursor-friendly JDBC template.
+	 *
+	 * @param dataSource data source for the routing tables
+	 * @param graphFileDir directory holding exported graph files; blank disables file loading
+	 * @param nodeOrder node numbering of graphs built from the database ({@code hilbert} or {@code database_id})
+	 * @param precision storage precision of graphs and cost snapshots ({@code double}, {@code compact} or
+	 * {@code compact_quantized})
+	 */
+	public ResidentGraphLoader(
+			DataSource dataSource,
+			@Value("${routing.graph.file-dir:}") String graphFileDir,
+			@Value("${routing.graph.node-order:hilbert}") String nodeOrder,
+			@Value("${routing.graph.precision:compact}") String precision
+	) {
+		this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(dataSource, "dataSource"));
+		this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+		this.graphFileDir = graphFileDir == null || graphFileDir.isBlank() ? null : Path.of(graphFileDir);
+		this.nodeOrder = NodeOrder.fromValue(nodeOrder);
+		if (this.nodeOrder == null) {
+			throw new IllegalArgumentException("Unknown routing.graph.node-order: " + nodeOrder);
+		}
+		this.precision = GraphPrecision.fromValue(precision);
+		if (this.precision == null) {
+			throw new IllegalArgumentException("Unknown routing.graph.precision: " + precision);
+		}
+	}
+
+	/**
+	 * Loads the full graph for a travel mode, preferring an up-to-date graph file.
+	 *
+	 * @param mode travel mode
+	 * @return resident graph
+	 */
+	@Transactional(readOnly = true)
+	public RoutingGraph loadGraph(TravelMode mode) {
+		Objects.requireNonNull(mode, "mode");
+		RoutingGraph mapped = mapGraphFile(mode);
+		return mapped != null ? mapped : loadGraphFromDatabase(mode);
+	}
+
+	/**
+	 * Loads the full graph for a travel mode from the database, ignoring graph files.
+	 *
+	 * @param mode travel mode
+	 * @return resident graph
+	 */
+	@Transactional(readOnly = true)
+	public RoutingGraph loadGraphFromDatabase(TravelMode mode) {
+		Objects.requireNonNull(mode, "mode");
+		long startedAt = System.nanoTime();
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(mode).nodeOrder(nodeOrder).precision(precision);
+
+		jdbcTemplate.query(NODES_SQL, rs -> {
+			builder.addNode(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+		});
+		jdbcTemplate.query(EDGES_SQL, rs -> {
+			builder.addEdge(
+					rs.getLong(1),
+					rs.getLong(2),
+					rs.getLong(3),
+					rs.getDouble(4),
+					rs.getDouble(5),
+					EdgeFlags.of(rs.getString(7), readTags(rs))
+			);
+		}, mode.dbValue());
+
+		RoutingGraph graph = builder.build();
+		Runtime runtime = Runtime.getRuntime();
+		LOG.info("Loaded resident {} graph: {} nodes, {} edges in {} ms ({} MiB off-heap, {} MiB heap used)",
+				mode, graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - startedAt) / 1_000_000,
+				graph.offHeapBytes() >> 20, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+		return graph;
+	}
+
+	/**
+	 * Loads the effective edge costs of a graph for a route type.
+	 * Pre-computed costs replace the base cost; when both safety and accessibility costs apply,
+	 * the higher one wins. Active overlays are applied on top.
+	 *
+	 * @param graph graph to align the costs with
+	 * @param routeType route type determining the cost tables
+	 * @return cost snapshot
+	 */
+	@Transactional(readOnly = true)
+	public EdgeCostSnapshot loadCosts(RoutingGraph graph, RouteType routeType) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(routeType, "routeType");
+		Instant loadedAt = Instant.now();
+		double[] costs = graph.copyBaseCosts();
+		applyCosts(costs, graph::indexOfEdge, routeType, loadedAt, null);
+		return new EdgeCostSnapshot(graph, routeType, EdgeCostColumns.copyOf(costs, graph.precision()), loadedAt);
+	}
+
+	/**
+	 * Loads the nodes of a tile that touch an edge of the travel mode, and the edges leaving them.
+	 *
+	 * @param mode travel mode
+	 * @param grid tile grid
+	 * @param tile tile code
+	 * @return tile, possibly empty
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public GraphTile loadTile(TravelMode mode, TileGrid grid, long tile) {
+		Objects.requireNonNull(mode, "mode");
+		Objects.requireNonNull(grid, "grid");
+		GraphTileBuilder builder = new GraphTileBuilder(mode, tile);
+		double minLat = grid.minLat(tile);
+		double minLon = grid.minLon(tile);
+		// The envelope includes its borders; rows are assigned to tiles by TileGrid below.
+		jdbcTemplate.query(TILE_EDGES_SQL, rs -> {
+			long sourceTile = grid.tileOf(rs.getDouble(8), rs.getDouble(9));
+			long targetTile = grid.tileOf(rs.getDouble(10), rs.getDouble(11));
+			if (targetTile == tile) {
+				builder.addNode(rs.getLong(3), rs.getDouble(10), rs.getDouble(11));
+			}
+			if (sourceTile == tile) {
+				builder.addNode(rs.getLong(2), rs.getDouble(8), rs.getDouble(9));
+				builder.addEdge(
+						rs.getLong(1),
+						rs.getLong(2),
+						rs.getLong(3),
+						targetTile,
+						rs.getDouble(4),
+						rs.getDouble(5),
+						EdgeFlags.of(rs.getString(7), readTags(rs))
+				);
+			}
+		}, minLon, minLat, minLon + grid.sizeDegrees(), minLat + grid.sizeDegrees(), mode.dbValue(), mode.dbValue());
+		return builder.build();
+	}
+
+	/**
+	 * Loads the effective edge costs of a tile with the same rules as {@link #loadCosts(RoutingGraph, RouteType)}.
+	 *
+	 * @param tile loaded tile
+	 * @param routeType route type determining the cost tables
+	 * @return cost per local edge index in seconds
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public double[] loadCosts(GraphTile tile, RouteType routeType) {
+		Objects.requireNonNull(tile, "tile");
+		Objects.requireNonNull(routeType, "routeType");
+		double[] costs = tile.copyBaseCosts();
+		if (costs.length == 0) {
+			return costs;
+		}
+		long[] edgeIds = new long[tile.edgeCount()];
+		Map<Long, Integer> edgeIndex = new HashMap<>(edgeIds.length * 2);
+		for (int edge = 0; edge < edgeIds.length; edge++) {
+			edgeIds[edge] = tile.edgeId(edge);
+			edgeIndex.put(edgeIds[edge], edge);
+		}
+		applyCosts(costs, edgeId -> edgeIndex.getOrDefault(edgeId, -1), routeType, Instant.now(), edgeIds);
+		return costs;
+	}
+
+	/**
+	 * Replaces base costs by pre-computed costs and applies active overlays.
+	 *
+	 * @param edgeIds edges to read, or {@code null} for all edges
+	 */
+	private void applyCosts(
+			double[] costs,
+			LongToIntFunction indexOfEdge,
+			RouteType routeType,
+			Instant loadedAt,
+			long[] edgeIds
+	) {
+		boolean[] precomputed = new boolean[costs.length];
+		Object[] edgeFilter = edgeIds == null ? new Object[0] : new Object[]{edgeIds};
+
+		if (routeType.usesWalkSafeCosts()) {
+			jdbcTemplate.query(filtered(WALK_SAFE_COSTS_SQL, edgeIds), rs -> {
+				int edge = indexOfEdge.applyAsInt(rs.getLong(1));
+				if (edge >= 0) {
+					costs[edge] = rs.getDouble(2);
+					precomputed[edge] = true;
+				}
+			}, edgeFilter);
+		}
+		if (routeType.usesWalkAccessibilityCosts()) {
+			jdbcTemplate.query(filtered(WALK_ACCESSIBILITY_COSTS_SQL, edgeIds), rs -> {
+				int edge = indexOfEdge.applyAsInt(rs.getLong(1));
+				if (edge >= 0) {
+					double cost = rs.getDouble(2);
+					costs[edge] = precomputed[edge] ? Math.max(costs[edge], cost) : cost;
+					precomputed[edge] = true;
+				}
+			}, edgeFilter);
+		}
+
+		Map<Integer, double[]> overlays = new HashMap<>();
+		Timestamp asOf = Timestamp.from(loadedAt);
+		Object[] overlayArgs = edgeIds == null
+				? new Object[]{routeType.travelMode().dbValue(), asOf, asOf}
+				: new Object[]{routeType.travelMode().dbValue(), asOf, asOf, edgeIds};
+		jdbcTemplate.query(filtered(ACTIVE_OVERLAYS_SQL, edgeIds), rs -> {
+			int edge = indexOfEdge.applyAsInt(rs.getLong(1));
+			if (edge >= 0) {
+				double[] accumulator = overlays.computeIfAbsent(edge, key -> new double[]{1.0, 0.0});
+				accumulator[0] *= rs.getDouble(2);
+				accumulator[1] += rs.getDouble(3);
+			}
+		}, overlayArgs);
+		overlays.forEach((edge, accumulator) ->
+				costs[edge] = Math.max(0.0, costs[edge] * accumulator[0] + accumulator[1]));
+	}
+
+	private static String filtered(String sql, long[] edgeIds) {
+		if (edgeIds == null) {
+			return sql;
+		}
+		return sql + (sql.contains("WHERE") ? "  AND" : "WHERE") + " edge_id = ANY(?)\n";
+	}
+
+	/**
+	 * Returns the current topology version of a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @return version from {@code routing_graph_version}, or empty if no row exists
+	 */
+	public OptionalLong graphVersion(TravelMode mode) {
+		List<Long> versions = jdbcTemplate.queryForList(GRAPH_VERSION_SQL, Long.class, mode.dbValue());
+		return versions.isEmpty() ? OptionalLong.empty() : OptionalLong.of(versions.get(0));
+	}
+
+	/**
+	 * Returns the configured storage precision of resident graphs.
+	 *
+	 * @return graph precision
+	 */
+	public GraphPrecision precision() {
+		return precision;
+	}
+
+	/**
+	 * Returns the configured graph file of a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @return graph file path, or {@code null} if no file directory is configured
+	 */
+	public Path graphFile(TravelMode mode) {
+		return graphFileDir == null ? null : graphFileDir.resolve(GraphFile.fileName(mode));
+	}
+
+	/**
+	 * Maps the graph file of a travel mode if it exists and matches the database version and the
+	 * configured precision.
+	 *
+	 * @param mode travel mode
+	 * @return mapped graph, or {@code null} if the database has to be used
+	 */
+	public RoutingGraph mapGraphFile(TravelMode mode) {
+		Path path = graphFile(mode);
+		if (path == null || !Files.isRegularFile(path)) {
+			return null;
+		}
+		long startedAt = System.nanoTime();
+		try {
+			GraphFile.Header header = GraphFile.readHeader(path);
+			OptionalLong dbVersion = graphVersion(mode);
+			if (header.mode() != mode || dbVersion.isEmpty() || header.graphVersion() != dbVersion.getAsLong()) {
+				LOG.warn("Graph file {} (mode {}, version {}) does not match database version {}; loading from database",
+						path, header.mode(), header.graphVersion(), dbVersion);
+				return null;
+			}
+			if (header.precision() != precision) {
+				LOG.warn("Graph file {} has precision {} but {} is configured; loading from database",
+						path, header.precision().value(), precision.value());
+				return null;
+			}
+			RoutingGraph graph = GraphFile.map(path);
+			LOG.info("Mapped resident {} graph version {} from {}: {} nodes, {} edges in {} ms",
+					mode, header.graphVersion(), path, graph.nodeCount(), graph.edgeCount(),
+					(System.nanoTime() - startedAt) / 1_000_000);
+			return graph;
+		} catch (IOException | DataAccessException ex) {
+			LOG.warn("Could not use graph file {}; loading from database: {}", path, ex.getMessage());
+			return null;
+		}
+	}
+
+	private static String[] readTags(ResultSet rs) throws SQLException {
+		Array array = rs.getArray(6);
+		if (array == null) {
+			return null;
+		}
+		try {
+			return (String[]) array.getArray();
+		} finally {
+			array.free();
+		}
+	}
+}
@@ -0,0 +1,442 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable resident routing graph for a single travel mode in compressed sparse row (CSR) form.
+ * <p>
+ * Nodes and edges are addressed by dense {@code int} indices. Outgoing edges of node {@code n}
+ * occupy indices {@code [firstEdge(n), endEdge(n))}. Node indices normally follow a Hilbert curve
+ * over the node coordinates (see {@link NodeOrder}), so nodes that are close on the map are close
+ * in memory and A* relaxation stays cache-friendly. Translation tables in both directions keep
+ * results reported in terms of {@code nodes.id} and {@code edges.id}.
+ * </p>
+ * <p>
+ * All per-node and per-edge columns live off-heap in native {@link MemorySegment}s, so a large
+ * graph adds only a handful of small objects to the Java heap and is never scanned or copied by
+ * the garbage collector. Segments are either allocated from an automatic {@link Arena} or mapped
+ * from a {@link GraphFile}; in both cases the memory is released once the graph becomes
+ * unreachable, which keeps searches still running on a graph that was just invalidated safe.
+ * </p>
+ * <p>
+ * Column widths follow the graph's {@link GraphPrecision}. Compact graphs keep fixed-point
+ * coordinates, {@code float} lengths and costs, {@code int} flags and, when the id range allows
+ * it, 32-bit id offsets; accessors widen values back to {@code double} and {@code long}.
+ * </p>
+ */
+public final class RoutingGraph {
+
+	private final TravelMode mode;
+	private final int nodeCount;
+	private final int edgeCount;
+	private final ColumnLayout layout;
+	private final boolean fixedPointCoordinates;
+	private final boolean floatValues;
+	private final boolean quantizedLengths;
+	private final MemorySegment nodeIds;
+	private final MemorySegment edgeOffsets;
+	private final MemorySegment edgeTargets;
+	private final MemorySegment edgeIds;
+	private final MemorySegment nodeLats;
+	private final MemorySegment nodeLons;
+	private final MemorySegment edgeLengths;
+	private final MemorySegment edgeBaseCosts;
+	private final MemorySegment edgeFlags;
+	private final MemorySegment sortedNodeIds;
+	private final MemorySegment nodeIndexBySortedId;
+	private final MemorySegment sortedEdgeIds;
+	private final MemorySegment edgeIndexBySortedId;
+	private volatile PlanarCoordinates planar;
+
+	RoutingGraph(
+			TravelMode mode,
+			int nodeCount,
+			int edgeCount,
+			ColumnLayout layout,
+			MemorySegment nodeIds,
+			MemorySegment edgeOffsets,
+			MemorySegment edgeTargets,
+			MemorySegment edgeIds,
+			MemorySegment nodeLats,
+			MemorySegment nodeLons,
+			MemorySegment edgeLengths,
+			MemorySegment edgeBaseCosts,
+			MemorySegment edgeFlags,
+			MemorySegment sortedNodeIds,
+			MemorySegment nodeIndexBySortedId,
+			MemorySegment sortedEdgeIds,
+			MemorySegment edgeIndexBySortedId
+	) {
+		this.mode = Objects.requireNonNull(mode, "mode");
+		this.nodeCount = nodeCount;
+		this.edgeCount = edgeCount;
+		this.layout = Objects.requireNonNull(layout, "layout");
+		this.fixedPointCoordinates = layout.precision().isCompact();
+		this.floatValues = layout.precision().isCompact();
+		this.quantizedLengths = layout.precision() == GraphPrecision.COMPACT_QUANTIZED;
+		this.nodeIds = nodeIds;
+		this.edgeOffsets = edgeOffsets;
+		this.edgeTargets = edgeTargets;
+		this.edgeIds = edgeIds;
+		this.nodeLats = nodeLats;
+		this.nodeLons = nodeLons;
+		this.edgeLengths = edgeLengths;
+		this.edgeBaseCosts = edgeBaseCosts;
+		this.edgeFlags = edgeFlags;
+		this.sortedNodeIds = sortedNodeIds;
+		this.nodeIndexBySortedId = nodeIndexBySortedId;
+		this.sortedEdgeIds = sortedEdgeIds;
+		this.edgeIndexBySortedId = edgeIndexBySortedId;
+	}
+
+	static RoutingGraph fromArrays(
+			TravelMode mode,
+			GraphPrecision precision,
+			long[] nodeIds,
+			double[] nodeLats,
+			double[] nodeLons,
+			int[] edgeOffsets,
+			int[] edgeTargets,
+			long[] edgeIds,
+			double[] edgeLengths,
+			double[] edgeBaseCosts,
+			long[] edgeFlags
+	) {
+		long[] sortedNodes = nodeIds.clone();
+		Arrays.sort(sortedNodes);
+		int[] nodeIndexBySorted = indexBySortedId(nodeIds, sortedNodes);
+		long[] sortedEdges = edgeIds.clone();
+		Arrays.sort(sortedEdges);
+		int[] edgeIndexBySorted = indexBySortedId(edgeIds, sortedEdges);
+		ColumnLayout layout = ColumnLayout.of(precision, sortedNodes, sortedEdges);
+
+		Arena arena = Arena.ofAuto();
+		return new RoutingGraph(
+				mode,
+				nodeIds.length,
+				edgeIds.length,
+				layout,
+				ids(arena, nodeIds, layout.narrowNodeIds(), layout.nodeIdBase()),
+				OffHeapArrays.copyOf(arena, edgeOffsets),
+				OffHeapArrays.copyOf(arena, edgeTargets),
+				ids(arena, edgeIds, layout.narrowEdgeIds(), layout.edgeIdBase()),
+				coordinates(arena, nodeLats, precision),
+				coordinates(arena, nodeLons, precision),
+				lengths(arena, edgeLengths, precision),
+				EdgeCostColumns.copyOf(edgeBaseCosts, precision),
+				flags(arena, edgeFlags, precision),
+				ids(arena, sortedNodes, layout.narrowNodeIds(), layout.nodeIdBase()),
+				OffHeapArrays.copyOf(arena, nodeIndexBySorted),
+				ids(arena, sortedEdges, layout.narrowEdgeIds(), layout.edgeIdBase()),
+				OffHeapArrays.copyOf(arena, edgeIndexBySorted)
+		);
+	}
+
+	private static int[] indexBySortedId(long[] ids, long[] sortedIds) {
+		int[] indexBySortedId = new int[ids.length];
+		for (int index = 0; index < ids.length; index++) {
+			indexBySortedId[Arrays.binarySearch(sortedIds, ids[index])] = index;
+		}
+		return indexBySortedId;
+	}
+
+	private static MemorySegment ids(Arena arena, long[] ids, boolean narrow, long base) {
+		if (!narrow) {
+			return OffHeapArrays.copyOf(arena, ids);
+		}
+		int[] offsets = new int[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			offsets[i] = (int) (ids[i] - base);
+		}
+		return OffHeapArrays.copyOf(arena, offsets);
+	}
+
+	private static MemorySegment coordinates(Arena arena, double[] degrees, GraphPrecision precision) {
+		if (!precision.isCompact()) {
+			return OffHeapArrays.copyOf(arena, degrees);
+		}
+		int[] fixed = new int[degrees.length];
+		for (int i = 0; i < degrees.length; i++) {
+			fixed[i] = (int) Math.round(degrees[i] / GraphPrecision.COORDINATE_UNIT);
+		}
+		return OffHeapArrays.copyOf(arena, fixed);
+	}
+
+	private static MemorySegment lengths(Arena arena, double[] meters, GraphPrecision precision) {
+		if (precision != GraphPrecision.COMPACT_QUANTIZED) {
+			return EdgeCostColumns.copyOf(meters, precision);
+		}
+		short[] quantized = new short[meters.length];
+		for (int i = 0; i < meters.length; i++) {
+			quantized[i] = GraphPrecision.quantizeLength(meters[i]);
+		}
+		return OffHeapArrays.copyOf(arena, quantized);
+	}
+
+	private static MemorySegment flags(Arena arena, long[] flags, GraphPrecision precision) {
+		if (!precision.isCompact()) {
+			return OffHeapArrays.copyOf(arena, flags);
+		}
+		int[] compact = new int[flags.length];
+		for (int i = 0; i < flags.length; i++) {
+			compact[i] = EdgeFlags.toCompact(flags[i]);
+		}
+		return OffHeapArrays.copyOf(arena, compact);
+	}
+
+	/**
+	 * Returns the storage precision of this graph.
+	 *
+	 * @return precision
+	 */
+	public GraphPrecision precision() {
+		return layout.precision();
+	}
+
+	ColumnLayout layout() {
+		return layout;
+	}
+
+	/**
+	 * Returns the travel mode this graph was built for.
+	 *
+	 * @return travel mode
+	 */
+	public TravelMode mode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return node count
+	 */
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Returns the number of directed edges.
+	 *
+	 * @return edge count
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Returns the dense index of a database node id.
+	 *
+	 * @param nodeId database node id
+	 * @return node index, or {@code -1} if the node has no edges in this graph
+	 */
+	public int indexOfNode(long nodeId) {
+		int position = layout.narrowNodeIds()
+				? OffHeapArrays.binarySearchUnsigned(sortedNodeIds, nodeCount, nodeId - layout.nodeIdBase())
+				: OffHeapArrays.binarySearch(sortedNodeIds, nodeCount, nodeId);
+		return position >= 0 ? nodeIndexBySortedId.getAtIndex(ValueLayout.JAVA_INT, position) : -1;
+	}
+
+	/**
+	 * Returns the dense index of a database edge id.
+	 *
+	 * @param edgeId database edge id
+	 * @return edge index, or {@code -1} if the edge is not part of this graph
+	 */
+	public int indexOfEdge(long edgeId) {
+		int position = layout.narrowEdgeIds()
+				? OffHeapArrays.binarySearchUnsigned(sortedEdgeIds, edgeCount, edgeId - layout.edgeIdBase())
+				: OffHeapArrays.binarySearch(sortedEdgeIds, edgeCount, edgeId);
+		return position >= 0 ? edgeIndexBySortedId.getAtIndex(ValueLayout.JAVA_INT, position) : -1;
+	}
+
+	/**
+	 * Returns the database id of a node.
+	 *
+	 * @param node node index
+	 * @return database node id
+	 */
+	public long nodeId(int node) {
+		return layout.narrowNodeIds()
+				? layout.nodeIdBase() + Integer.toUnsignedLong(nodeIds.getAtIndex(ValueLayout.JAVA_INT, node))
+				: nodeIds.getAtIndex(ValueLayout.JAVA_LONG, node);
+	}
+
+	/**
+	 * Returns the latitude of a node.
+	 *
+	 * @param node node index
+	 * @return latitude in decimal degrees
+	 */
+	public double lat(int node) {
+		return fixedPointCoordinates
+				? nodeLats.getAtIndex(ValueLayout.JAVA_INT, node) * GraphPrecision.COORDINATE_UNIT
+				: nodeLats.getAtIndex(ValueLayout.JAVA_DOUBLE, node);
+	}
+
+	/**
+	 * Returns the longitude of a node.
+	 *
+	 * @param node node index
+	 * @return longitude in decimal degrees
+	 */
+	public double lon(int node) {
+		return fixedPointCoordinates
+				? nodeLons.getAtIndex(ValueLayout.JAVA_INT, node) * GraphPrecision.COORDINATE_UNIT
+				: nodeLons.getAtIndex(ValueLayout.JAVA_DOUBLE, node);
+	}
+
+	/**
+	 * Returns the first outgoing edge index of a node.
+	 *
+	 * @param node node index
+	 * @return first edge index (inclusive)
+	 */
+	public int firstEdge(int node) {
+		return edgeOffsets.getAtIndex(ValueLayout.JAVA_INT, node);
+	}
+
+	/**
+	 * Returns the end of the outgoing edge range of a node.
+	 *
+	 * @param node node index
+	 * @return end edge index (exclusive)
+	 */
+	public int endEdge(int node) {
+		return edgeOffsets.getAtIndex(ValueLayout.JAVA_INT, node + 1);
+	}
+
+	/**
+	 * Returns the target node index of an edge.
+	 *
+	 * @param edge edge index
+	 * @return target node index
+	 */
+	public int edgeTarget(int edge) {
+		return edgeTargets.getAtIndex(ValueLayout.JAVA_INT, edge);
+	}
+
+	/**
+	 * Returns the database id of an edge.
+	 *
+	 * @param edge edge index
+	 * @return database edge id
+	 */
+	public long edgeId(int edge) {
+		return layout.narrowEdgeIds()
+				? layout.edgeIdBase() + Integer.toUnsignedLong(edgeIds.getAtIndex(ValueLayout.JAVA_INT, edge))
+				: edgeIds.getAtIndex(ValueLayout.JAVA_LONG, edge);
+	}
+
+	/**
+	 * Returns the length of an edge.
+	 *
+	 * @param edge edge index
+	 * @return length in meters
+	 */
+	public double edgeLength(int edge) {
+		if (quantizedLengths) {
+			return GraphPrecision.dequantizeLength(edgeLengths.getAtIndex(ValueLayout.JAVA_SHORT, edge));
+		}
+		return floatValues
+				? edgeLengths.getAtIndex(ValueLayout.JAVA_FLOAT, edge)
+				: edgeLengths.getAtIndex(ValueLayout.JAVA_DOUBLE, edge);
+	}
+
+	/**
+	 * Returns the base traversal cost of an edge ({@code edges.cost_s}).
+	 *
+	 * @param edge edge index
+	 * @return base cost in seconds
+	 */
+	public double edgeBaseCost(int edge) {
+		return floatValues
+				? edgeBaseCosts.getAtIndex(ValueLayout.JAVA_FLOAT, edge)
+				: edgeBaseCosts.getAtIndex(ValueLayout.JAVA_DOUBLE, edge);
+	}
+
+	/**
+	 * Returns the packed {@link EdgeFlags} of an edge.
+	 *
+	 * @param edge edge index
+	 * @return edge flags
+	 */
+	public long edgeFlags(int edge) {
+		return floatValues
+				? EdgeFlags.fromCompact(edgeFlags.getAtIndex(ValueLayout.JAVA_INT, edge))
+				: edgeFlags.getAtIndex(ValueLayout.JAVA_LONG, edge);
+	}
+
+	/**
+	 * Returns a fresh copy of the base edge costs indexed by edge index.
+	 *
+	 * @return base costs in seconds
+	 */
+	public double[] copyBaseCosts() {
+		return EdgeCostColumns.toArray(edgeBaseCosts, edgeCount);
+	}
+
+	/**
+	 * Returns a read-only view of the base edge costs indexed by edge index.
+	 *
+	 * @return base costs in seconds, as {@code double}s or, for compact precisions, {@code float}s
+	 */
+	public MemorySegment baseCosts() {
+		return edgeBaseCosts.asReadOnly();
+	}
+
+	/**
+	 * Returns the node coordinates projected onto a local plane, computing them on first use.
+	 * Concurrent first calls may each project the graph; all results are equal.
+	 *
+	 * @return planar coordinates
+	 */
+	public PlanarCoordinates planar() {
+		PlanarCoordinates result = planar;
+		if (result == null) {
+			result = PlanarCoordinates.of(this);
+			planar = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the native memory held by this graph.
+	 *
+	 * @return off-heap size in bytes
+	 */
+	public long offHeapBytes() {
+		long bytes = 0L;
+		for (MemorySegment column : columns()) {
+			bytes += column.byteSize();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the storage columns in {@link GraphFile} section order.
+	 */
+	List<MemorySegment> columns() {
+		return List.of(
+				nodeIds,
+				edgeOffsets,
+				edgeTargets,
+				edgeIds,
+				nodeLats,
+				nodeLons,
+				edgeLengths,
+				edgeBaseCosts,
+				edgeFlags,
+				sortedNodeIds,
+				nodeIndexBySortedId,
+				sortedEdgeIds,
+				edgeIndexBySortedId
+		);
+	}
+}
@@ -0,0 +1,244 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Accumulates nodes and edges in primitive arrays and builds a {@link RoutingGraph}.
+ * <p>
+ * Nodes without any incident edge are dropped and edges whose endpoints were not added are
+ * skipped, so the result only contains the routable part of the input. Nodes are numbered in
+ * the configured {@link NodeOrder} and edges are grouped by source node, so the adjacency of
+ * nearby nodes is stored close together.
+ * </p>
+ */
+public final class RoutingGraphBuilder {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final TravelMode mode;
+	private NodeOrder nodeOrder = NodeOrder.HILBERT;
+	private GraphPrecision precision = GraphPrecision.DOUBLE;
+
+	private int nodeCount;
+	private long[] nodeIds = new long[INITIAL_CAPACITY];
+	private double[] nodeLats = new double[INITIAL_CAPACITY];
+	private double[] nodeLons = new double[INITIAL_CAPACITY];
+
+	private int edgeCount;
+	private long[] edgeIds = new long[INITIAL_CAPACITY];
+	private long[] edgeSources = new long[INITIAL_CAPACITY];
+	private long[] edgeTargets = new long[INITIAL_CAPACITY];
+	private double[] edgeLengths = new double[INITIAL_CAPACITY];
+	private double[] edgeCosts = new double[INITIAL_CAPACITY];
+	private long[] edgeFlags = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Creates a builder for the given travel mode.
+	 *
+	 * @param mode travel mode of the graph
+	 */
+	public RoutingGraphBuilder(TravelMode mode) {
+		this.mode = Objects.requireNonNull(mode, "mode");
+	}
+
+	/**
+	 * Sets the order in which nodes are numbered. Defaults to {@link NodeOrder#HILBERT}.
+	 *
+	 * @param nodeOrder node order
+	 * @return this builder
+	 */
+	public RoutingGraphBuilder nodeOrder(NodeOrder nodeOrder) {
+		this.nodeOrder = Objects.requireNonNull(nodeOrder, "nodeOrder");
+		return this;
+	}
+
+	/**
+	 * Sets the numeric storage precision of the graph. Defaults to {@link GraphPrecision#DOUBLE}.
+	 *
+	 * @param precision storage precision
+	 * @return this builder
+	 */
+	public RoutingGraphBuilder precision(GraphPrecision precision) {
+		this.precision = Objects.requireNonNull(precision, "precision");
+		return this;
+	}
+
+	/**
+	 * Adds a node.
+	 *
+	 * @param nodeId database node id
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return this builder
+	 */
+	public RoutingGraphBuilder addNode(long nodeId, double lat, double lon) {
+		if (nodeCount == nodeIds.length) {
+			int capacity = nodeCount * 2;
+			nodeIds = Arrays.copyOf(nodeIds, capacity);
+			nodeLats = Arrays.copyOf(nodeLats, capacity);
+			nodeLons = Arrays.copyOf(nodeLons, capacity);
+		}
+		nodeIds[nodeCount] = nodeId;
+		nodeLats[nodeCount] = lat;
+		nodeLons[nodeCount] = lon;
+		nodeCount++;
+		return this;
+	}
+
+	/**
+	 * Adds a directed edge.
+	 *
+	 * @param edgeId database edge id
+	 * @param sourceId database id of the source node
+	 * @param targetId database id of the target node
+	 * @param lengthMeters edge length in meters
+	 * @param costSeconds base traversal cost in seconds
+	 * @param flags packed {@link EdgeFlags}
+	 * @return this builder
+	 */
+	public RoutingGraphBuilder addEdge(
+			long edgeId,
+			long sourceId,
+			long targetId,
+			double lengthMeters,
+			double costSeconds,
+			long flags
+	) {
+		if (edgeCount == edgeIds.length) {
+			int capacity = edgeCount * 2;
+			edgeIds = Arrays.copyOf(edgeIds, capacity);
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+			edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+			edgeCosts = Arrays.copyOf(edgeCosts, capacity);
+			edgeFlags = Arrays.copyOf(edgeFlags, capacity);
+		}
+		edgeIds[edgeCount] = edgeId;
+		edgeSources[edgeCount] = sourceId;
+		edgeTargets[edgeCount] = targetId;
+		edgeLengths[edgeCount] = lengthMeters;
+		edgeCosts[edgeCount] = costSeconds;
+		edgeFlags[edgeCount] = flags;
+		edgeCount++;
+		return this;
+	}
+
+	/**
+	 * Builds the CSR graph.
+	 *
+	 * @return routing graph
+	 */
+	public RoutingGraph build() {
+		// Sort nodes by database id so ids can be resolved by binary search.
+		long[] sortedIds = Arrays.copyOf(nodeIds, nodeCount);
+		Arrays.sort(sortedIds);
+		double[] sortedLats = new double[nodeCount];
+		double[] sortedLons = new double[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			int position = Arrays.binarySearch(sortedIds, nodeIds[i]);
+			sortedLats[position] = nodeLats[i];
+			sortedLons[position] = nodeLons[i];
+		}
+
+		// Resolve edge endpoints and mark nodes that take part in at least one edge.
+		int[] sourcePositions = new int[edgeCount];
+		int[] targetPositions = new int[edgeCount];
+		boolean[] referenced = new boolean[nodeCount];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			int source = Arrays.binarySearch(sortedIds, edgeSources[edge]);
+			int target = Arrays.binarySearch(sortedIds, edgeTargets[edge]);
+			sourcePositions[edge] = source;
+			targetPositions[edge] = target;
+			if (source >= 0 && target >= 0) {
+				referenced[source] = true;
+				referenced[target] = true;
+			}
+		}
+
+		int keptNodes = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (referenced[i]) {
+				keptNodes++;
+			}
+		}
+		long[] keptIds = new long[keptNodes];
+		double[] keptLats = new double[keptNodes];
+		double[] keptLons = new double[keptNodes];
+		int kept = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (referenced[i]) {
+				keptIds[kept] = sortedIds[i];
+				keptLats[kept] = sortedLats[i];
+				keptLons[kept] = sortedLons[i];
+				kept++;
+			}
+		}
+
+		// Renumber the kept nodes in the configured order.
+		int[] rank = nodeOrder.rank(keptLats, keptLons, keptNodes);
+		int[] compactIndex = new int[nodeCount];
+		long[] finalNodeIds = new long[keptNodes];
+		double[] finalLats = new double[keptNodes];
+		double[] finalLons = new double[keptNodes];
+		kept = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (!referenced[i]) {
+				compactIndex[i] = -1;
+				continue;
+			}
+			int index = rank[kept];
+			compactIndex[i] = index;
+			finalNodeIds[index] = keptIds[kept];
+			finalLats[index] = keptLats[kept];
+			finalLons[index] = keptLons[kept];
+			kept++;
+		}
+
+		// Counting sort of edges by source index.
+		int[] offsets = new int[keptNodes + 1];
+		int keptEdges = 0;
+		for (int edge = 0; edge < edgeCount; edge++) {
+			if (sourcePositions[edge] >= 0 && targetPositions[edge] >= 0) {
+				offsets[compactIndex[sourcePositions[edge]] + 1]++;
+				keptEdges++;
+			}
+		}
+		for (int node = 0; node < keptNodes; node++) {
+			offsets[node + 1] += offsets[node];
+		}
+
+		int[] cursor = Arrays.copyOf(offsets, keptNodes);
+		int[] csrTargets = new int[keptEdges];
+		long[] csrIds = new long[keptEdges];
+		double[] csrLengths = new double[keptEdges];
+		double[] csrCosts = new double[keptEdges];
+		long[] csrFlags = new long[keptEdges];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			if (sourcePositions[edge] < 0 || targetPositions[edge] < 0) {
+				continue;
+			}
+			int slot = cursor[compactIndex[sourcePositions[edge]]]++;
+			csrTargets[slot] = compactIndex[targetPositions[edge]];
+			csrIds[slot] = edgeIds[edge];
+			csrLengths[slot] = edgeLengths[edge];
+			csrCosts[slot] = edgeCosts[edge];
+			csrFlags[slot] = edgeFlags[edge];
+		}
+
+		return RoutingGraph.fromArrays(
+				mode,
+				precision,
+				finalNodeIds,
+				finalLats,
+				finalLons,
+				offsets,
+				csrTargets,
+				csrIds,
+				csrLengths,
+				csrCosts,
+				csrFlags
+		);
+	}
+}
@@ -0,0 +1,47 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Plain Java {@link DistanceKernel}, used when the Vector API is unavailable.
+ */
+final class ScalarDistanceKernel implements DistanceKernel {
+
+	@Override
+	public void planarDistances(MemorySegment xs, MemorySegment ys, int from, int count, float x, float y, float[] out) {
+		planarDistances(xs, ys, from, 0, count, x, y, out);
+	}
+
+	/**
+	 * Fills {@code out[start, count)}; lets the vector kernel finish its remainder in place.
+	 */
+	void planarDistances(MemorySegment xs, MemorySegment ys, int from, int start, int count, float x, float y, float[] out) {
+		for (int i = start; i < count; i++) {
+			float dx = xs.getAtIndex(ValueLayout.JAVA_FLOAT, from + i) - x;
+			float dy = ys.getAtIndex(ValueLayout.JAVA_FLOAT, from + i) - y;
+			out[i] = (float) Math.sqrt(dx * dx + dy * dy);
+		}
+	}
+
+	@Override
+	public void project(
+			double[] lats,
+			double[] lons,
+			int from,
+			int to,
+			double centerLon,
+			double sinCenterLat,
+			double cosCenterLat,
+			double radius,
+			double[] xs,
+			double[] ys
+	) {
+		for (int i = from; i < to; i++) {
+			double cosLat = Math.cos(lats[i]);
+			double dLon = lons[i] - centerLon;
+			xs[i] = radius * cosLat * Math.sin(dLon);
+			ys[i] = radius * (Math.sin(lats[i]) * cosCenterLat - cosLat * sinCenterLat * Math.cos(dLon));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.team.GroundTruth.routing.graph;
+
+/**
+ * Fixed geographic grid partitioning the routing graph into square tiles of {@code sizeDegrees}.
+ * <p>
+ * Tiles are half-open: a point on a tile border belongs to the tile north and east of it, so every
+ * node lies in exactly one tile. A tile is identified by a code packing its row and column.
+ * </p>
+ *
+ * @param sizeDegrees tile edge length in decimal degrees
+ */
+public record TileGrid(double sizeDegrees) {
+
+	private static final int COLUMN_BITS = 32;
+	private static final long COLUMN_MASK = (1L << COLUMN_BITS) - 1L;
+
+	/**
+	 * Validates the tile size.
+	 *
+	 * @param sizeDegrees tile edge length in decimal degrees
+	 */
+	public TileGrid {
+		if (!(sizeDegrees > 0.0) || sizeDegrees > 90.0) {
+			throw new IllegalArgumentException("Tile size must be in (0, 90] degrees.");
+		}
+	}
+
+	/**
+	 * Returns the tile containing a point.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return tile code
+	 */
+	public long tileOf(double lat, double lon) {
+		return tile((int) Math.floor((lat + 90.0) / sizeDegrees), (int) Math.floor((lon + 180.0) / sizeDegrees));
+	}
+
+	/**
+	 * Returns the code of the tile at a row and column.
+	 *
+	 * @param row row counted from the south pole
+	 * @param column column counted from the antimeridian
+	 * @return tile code
+	 */
+	public long tile(int row, int column) {
+		return ((long) row << COLUMN_BITS) | (column & COLUMN_MASK);
+	}
+
+	/**
+	 * Returns the row of a tile.
+	 *
+	 * @param tile tile code
+	 * @return row counted from the south pole
+	 */
+	public int row(long tile) {
+		return (int) (tile >> COLUMN_BITS);
+	}
+
+	/**
+	 * Returns the column of a tile.
+	 *
+	 * @param tile tile code
+	 * @return column counted from the antimeridian
+	 */
+	public int column(long tile) {
+		return (int) (tile & COLUMN_MASK);
+	}
+
+	/**
+	 * Returns the southern border of a tile.
+	 *
+	 * @param tile tile code
+	 * @return latitude in decimal degrees
+	 */
+	public double minLat(long tile) {
+		return row(tile) * sizeDegrees - 90.0;
+	}
+
+	/**
+	 * Returns the western border of a tile.
+	 *
+	 * @param tile tile code
+	 * @return longitude in decimal degrees
+	 */
+	public double minLon(long tile) {
+		return column(tile) * sizeDegrees - 180.0;
+	}
+}
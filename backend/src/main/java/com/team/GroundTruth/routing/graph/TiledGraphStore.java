@@ -0,0 +1,383 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Memory-bounded alternative to {@link ResidentGraphCache} that keeps only the tiles of the graph
+ * that searches touch.
+ * <p>
+ * The graph is partitioned by a fixed {@link TileGrid}. Tiles are loaded on demand, from the
+ * memory-mapped {@link GraphFile} of the travel mode when it is current and otherwise from the
+ * database, and kept in an access-ordered LRU. Whenever the estimated heap footprint of the
+ * resident tiles exceeds {@code routing.graph.tiles.memory-budget-mib}, the least recently used
+ * tiles are evicted. Route type costs are cached per tile and reloaded after
+ * {@code routing.graph.cost-snapshot-ttl-seconds}, like the resident cost snapshots.
+ * </p>
+ * <p>
+ * A search works through a {@link Session}, which holds on to every tile it has touched so that
+ * eviction cannot pull a tile out from under it. A session whose tiles alone would exceed the
+ * budget is refused further tiles instead of growing without bound.
+ * </p>
+ */
+@Component
+public class TiledGraphStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TiledGraphStore.class);
+	private static final int MAX_SNAP_RINGS = 2;
+
+	private final Function<TravelMode, GraphTileSource> sourceFactory;
+	private final Map<TravelMode, GraphTileSource> sources = new ConcurrentHashMap<>();
+	private final TileGrid grid;
+	private final long budgetBytes;
+	private final Duration costTtl;
+	private final LinkedHashMap<TileKey, GraphTile> tiles = new LinkedHashMap<>(64, 0.75f, true);
+	private long residentBytes;
+	private long loads;
+	private long evictions;
+
+	/**
+	 * Creates the store from configuration.
+	 *
+	 * @param loader loader serving graph files and database tiles
+	 * @param tileSizeDegrees tile edge length in decimal degrees
+	 * @param memoryBudgetMib heap budget of the resident tiles in MiB
+	 * @param costTtlSeconds maximum age of cached tile costs in seconds
+	 */
+	@Autowired
+	public TiledGraphStore(
+			ResidentGraphLoader loader,
+			@Value("${routing.graph.tiles.size-degrees:0.02}") double tileSizeDegrees,
+			@Value("${routing.graph.tiles.memory-budget-mib:256}") long memoryBudgetMib,
+			@Value("${routing.graph.cost-snapshot-ttl-seconds:30}") long costTtlSeconds
+	) {
+		this(mode -> {
+			RoutingGraph mapped = loader.mapGraphFile(mode);
+			return mapped != null ? new MappedTileSource(mapped, loader) : loader;
+		}, new TileGrid(tileSizeDegrees), memoryBudgetMib << 20, Duration.ofSeconds(Math.max(0L, costTtlSeconds)));
+	}
+
+	/**
+	 * Creates a store over explicit tile sources.
+	 *
+	 * @param sourceFactory creates the tile source of a travel mode on first use
+	 * @param grid tile grid
+	 * @param budgetBytes heap budget of the resident tiles in bytes
+	 * @param costTtl maximum age of cached tile costs
+	 */
+	public TiledGraphStore(
+			Function<TravelMode, GraphTileSource> sourceFactory,
+			TileGrid grid,
+			long budgetBytes,
+			Duration costTtl
+	) {
+		this.sourceFactory = Objects.requireNonNull(sourceFactory, "sourceFactory");
+		this.grid = Objects.requireNonNull(grid, "grid");
+		if (budgetBytes <= 0L) {
+			throw new IllegalArgumentException("Tile memory budget must be positive.");
+		}
+		this.budgetBytes = budgetBytes;
+		this.costTtl = Objects.requireNonNull(costTtl, "costTtl");
+	}
+
+	/**
+	 * Returns the tile grid.
+	 *
+	 * @return tile grid
+	 */
+	public TileGrid grid() {
+		return grid;
+	}
+
+	/**
+	 * Opens a search session for a route type.
+	 *
+	 * @param routeType route type whose travel mode and costs the session serves
+	 * @return new session
+	 */
+	public Session session(RouteType routeType) {
+		return new Session(Objects.requireNonNull(routeType, "routeType"));
+	}
+
+	/**
+	 * Returns a tile, loading it and evicting cold tiles as needed.
+	 *
+	 * @param mode travel mode
+	 * @param tile tile code
+	 * @return graph tile
+	 */
+	public GraphTile tile(TravelMode mode, long tile) {
+		Objects.requireNonNull(mode, "mode");
+		TileKey key = new TileKey(mode, tile);
+		synchronized (tiles) {
+			GraphTile cached = tiles.get(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		GraphTile loaded = source(mode).loadTile(mode, grid, tile);
+		synchronized (tiles) {
+			GraphTile raced = tiles.putIfAbsent(key, loaded);
+			if (raced != null) {
+				return raced;
+			}
+			residentBytes += loaded.estimatedBytes();
+			loads++;
+			evictOverBudget(key);
+			return loaded;
+		}
+	}
+
+	/**
+	 * Returns the effective costs of a tile for a route type, reloading them when stale.
+	 *
+	 * @param tile graph tile
+	 * @param routeType route type
+	 * @return cost per local edge index in seconds
+	 */
+	public double[] costs(GraphTile tile, RouteType routeType) {
+		Objects.requireNonNull(tile, "tile");
+		Objects.requireNonNull(routeType, "routeType");
+		GraphTile.TileCosts cached = tile.cachedCosts(routeType);
+		if (cached != null && cached.loadedAt().plus(costTtl).isAfter(Instant.now())) {
+			return cached.costs();
+		}
+		GraphTile.TileCosts loaded = new GraphTile.TileCosts(source(tile.mode()).loadCosts(tile, routeType), Instant.now());
+		TileKey key = new TileKey(tile.mode(), tile.tile());
+		synchronized (tiles) {
+			long before = tile.estimatedBytes();
+			tile.cacheCosts(routeType, loaded);
+			if (tiles.get(key) == tile) {
+				residentBytes += tile.estimatedBytes() - before;
+				evictOverBudget(key);
+			}
+		}
+		return loaded.costs();
+	}
+
+	/**
+	 * Drops all tiles and the tile source of a travel mode, e.g. after a new graph was imported.
+	 *
+	 * @param mode travel mode
+	 */
+	public void invalidate(TravelMode mode) {
+		synchronized (tiles) {
+			Iterator<Map.Entry<TileKey, GraphTile>> iterator = tiles.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<TileKey, GraphTile> entry = iterator.next();
+				if (entry.getKey().mode() == mode) {
+					residentBytes -= entry.getValue().estimatedBytes();
+					iterator.remove();
+				}
+			}
+		}
+		sources.remove(mode);
+	}
+
+	/**
+	 * Returns the number of resident tiles.
+	 *
+	 * @return tile count
+	 */
+	public int residentTiles() {
+		synchronized (tiles) {
+			return tiles.size();
+		}
+	}
+
+	/**
+	 * Returns the estimated heap footprint of the resident tiles.
+	 *
+	 * @return size in bytes
+	 */
+	public long residentBytes() {
+		synchronized (tiles) {
+			return residentBytes;
+		}
+	}
+
+	/**
+	 * Returns the number of tiles evicted since startup.
+	 *
+	 * @return eviction count
+	 */
+	public long evictions() {
+		synchronized (tiles) {
+			return evictions;
+		}
+	}
+
+	private GraphTileSource source(TravelMode mode) {
+		return sources.computeIfAbsent(mode, sourceFactory);
+	}
+
+	/**
+	 * Evicts least recently used tiles until the budget holds, never evicting the tile just used.
+	 */
+	private void evictOverBudget(TileKey keep) {
+		Iterator<Map.Entry<TileKey, GraphTile>> iterator = tiles.entrySet().iterator();
+		while (residentBytes > budgetBytes && iterator.hasNext()) {
+			Map.Entry<TileKey, GraphTile> eldest = iterator.next();
+			if (eldest.getKey().equals(keep)) {
+				continue;
+			}
+			residentBytes -= eldest.getValue().estimatedBytes();
+			iterator.remove();
+			evictions++;
+			if (evictions % 1000 == 0) {
+				LOG.info("Tiled graph store: {} tiles resident ({} KiB), {} loads, {} evictions",
+						tiles.size(), residentBytes >> 10, loads, evictions);
+			}
+		}
+	}
+
+	/**
+	 * Key of a resident tile.
+	 */
+	private record TileKey(TravelMode mode, long tile) {
+	}
+
+	/**
+	 * A node addressed by its tile and local index.
+	 *
+	 * @param tile tile holding the node
+	 * @param node local node index within the tile
+	 */
+	public record TileNode(GraphTile tile, int node) {
+
+		/**
+		 * Returns the database id of the node.
+		 *
+		 * @return database node id
+		 */
+		public long nodeId() {
+			return tile.nodeId(node);
+		}
+	}
+
+	/**
+	 * Tiles and costs used by one search.
+	 */
+	public final class Session {
+
+		private final RouteType routeType;
+		private final Map<Long, GraphTile> tiles = new HashMap<>();
+		private final Map<Long, double[]> costs = new HashMap<>();
+		private long bytes;
+
+		private Session(RouteType routeType) {
+			this.routeType = routeType;
+		}
+
+		/**
+		 * Returns the route type of the session.
+		 *
+		 * @return route type
+		 */
+		public RouteType routeType() {
+			return routeType;
+		}
+
+		/**
+		 * Returns the tile grid.
+		 *
+		 * @return tile grid
+		 */
+		public TileGrid grid() {
+			return grid;
+		}
+
+		/**
+		 * Returns a tile, keeping it reachable for the rest of the session.
+		 *
+		 * @param tile tile code
+		 * @return graph tile, or {@code null} if the session's tiles would exceed the memory budget
+		 */
+		public GraphTile tile(long tile) {
+			GraphTile cached = tiles.get(tile);
+			if (cached != null) {
+				return cached;
+			}
+			GraphTile loaded = TiledGraphStore.this.tile(routeType.travelMode(), tile);
+			if (bytes + loaded.estimatedBytes() > budgetBytes) {
+				return null;
+			}
+			bytes += loaded.estimatedBytes();
+			tiles.put(tile, loaded);
+			return loaded;
+		}
+
+		/**
+		 * Returns the costs of a tile for the session's route type, fixed for the whole session.
+		 *
+		 * @param tile graph tile obtained from this session
+		 * @return cost per local edge index in seconds
+		 */
+		public double[] costs(GraphTile tile) {
+			return costs.computeIfAbsent(tile.tile(), key -> TiledGraphStore.this.costs(tile, routeType));
+		}
+
+		/**
+		 * Finds the node closest to a point in the point's tile and its neighbours, widening the
+		 * search ring by ring up to two tiles away when they are empty.
+		 *
+		 * @param lat latitude in decimal degrees
+		 * @param lon longitude in decimal degrees
+		 * @return nearest node, or {@code null} if no node lies within reach
+		 */
+		public TileNode nearestNode(double lat, double lon) {
+			long center = grid.tileOf(lat, lon);
+			double lonScale = Math.cos(Math.toRadians(lat));
+			GraphTile bestTile = null;
+			int bestNode = -1;
+			double bestDistance = Double.POSITIVE_INFINITY;
+			for (int ring = 0; ring <= MAX_SNAP_RINGS && (bestTile == null || ring <= 1); ring++) {
+				for (int dRow = -ring; dRow <= ring; dRow++) {
+					for (int dColumn = -ring; dColumn <= ring; dColumn++) {
+						if (Math.max(Math.abs(dRow), Math.abs(dColumn)) != ring) {
+							continue;
+						}
+						GraphTile candidate = tile(grid.tile(grid.row(center) + dRow, grid.column(center) + dColumn));
+						if (candidate == null) {
+							continue;
+						}
+						for (int node = 0; node < candidate.nodeCount(); node++) {
+							double dLat = candidate.lat(node) - lat;
+							double dLon = (candidate.lon(node) - lon) * lonScale;
+							double distance = dLat * dLat + dLon * dLon;
+							if (distance < bestDistance) {
+								bestDistance = distance;
+								bestTile = candidate;
+								bestNode = node;
+							}
+						}
+					}
+				}
+			}
+			return bestTile == null ? null : new TileNode(bestTile, bestNode);
+		}
+
+		/**
+		 * Returns the number of tiles touched by the session.
+		 *
+		 * @return tile count
+		 */
+		public int tileCount() {
+			return tiles.size();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DistanceKernel} using the incubating Vector API. Loops run over the preferred species
+ * width and finish the remainder with the scalar kernel.
+ */
+final class VectorDistanceKernel implements DistanceKernel {
+
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+	private final ScalarDistanceKernel tail = new ScalarDistanceKernel();
+
+	@Override
+	public void planarDistances(MemorySegment xs, MemorySegment ys, int from, int count, float x, float y, float[] out) {
+		FloatVector qx = FloatVector.broadcast(FLOATS, x);
+		FloatVector qy = FloatVector.broadcast(FLOATS, y);
+		int upper = FLOATS.loopBound(count);
+		int i = 0;
+		for (; i < upper; i += FLOATS.length()) {
+			long offset = (long) (from + i) * Float.BYTES;
+			FloatVector dx = FloatVector.fromMemorySegment(FLOATS, xs, offset, ByteOrder.nativeOrder()).sub(qx);
+			FloatVector dy = FloatVector.fromMemorySegment(FLOATS, ys, offset, ByteOrder.nativeOrder()).sub(qy);
+			dx.fma(dx, dy.mul(dy)).sqrt().intoArray(out, i);
+		}
+		tail.planarDistances(xs, ys, from, i, count, x, y, out);
+	}
+
+	@Override
+	public void project(
+			double[] lats,
+			double[] lons,
+			int from,
+			int to,
+			double centerLon,
+			double sinCenterLat,
+			double cosCenterLat,
+			double radius,
+			double[] xs,
+			double[] ys
+	) {
+		int upper = from + DOUBLES.loopBound(to - from);
+		int i = from;
+		for (; i < upper; i += DOUBLES.length()) {
+			DoubleVector lat = DoubleVector.fromArray(DOUBLES, lats, i);
+			DoubleVector dLon = DoubleVector.fromArray(DOUBLES, lons, i).sub(centerLon);
+			DoubleVector cosLat = lat.lanewise(VectorOperators.COS);
+			cosLat.mul(dLon.lanewise(VectorOperators.SIN)).mul(radius).intoArray(xs, i);
+			lat.lanewise(VectorOperators.SIN).mul(cosCenterLat)
+					.sub(cosLat.mul(dLon.lanewise(VectorOperators.COS)).mul(sinCenterLat))
+					.mul(radius)
+					.intoArray(ys, i);
+		}
+		tail.project(lats, lons, i, to, centerLon, sinCenterLat, cosCenterLat, radius, xs, ys);
+	}
+}
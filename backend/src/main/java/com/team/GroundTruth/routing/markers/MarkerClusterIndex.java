@@ -0,0 +1,202 @@
+package com.team.GroundTruth.routing.markers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hierarchical greedy clustering of map points, precomputed for every zoom level.
+ * <p>
+ * This follows supercluster: points are projected to Web Mercator coordinates in {@code [0, 1]}
+ * and, starting one level below {@code maxZoom} with the points themselves, each level is formed
+ * by walking the previous level and merging every item with the unvisited items within
+ * {@code radiusPixels} (at the level's scale) into one cluster at their count-weighted centre.
+ * Each level keeps a {@link PointTree}, so a viewport query is a single KD-tree range search.
+ * Clusters carry their point count and the largest severity of the points inside.
+ * </p>
+ */
+public final class MarkerClusterIndex {
+
+	private static final double MAX_LATITUDE = 85.05112878;
+
+	private final int maxZoom;
+	private final Level[] levels;
+
+	/**
+	 * Clusters points.
+	 *
+	 * @param lats point latitudes in decimal degrees
+	 * @param lons point longitudes in decimal degrees
+	 * @param severities point severities
+	 * @param maxZoom deepest zoom level with clusters; deeper queries return the points
+	 * @param radiusPixels cluster radius in pixels
+	 * @param extent tile size in pixels the radius refers to
+	 */
+	public MarkerClusterIndex(
+			double[] lats,
+			double[] lons,
+			double[] severities,
+			int maxZoom,
+			double radiusPixels,
+			int extent
+	) {
+		if (lats.length != lons.length || lats.length != severities.length) {
+			throw new IllegalArgumentException("Point arrays differ in length.");
+		}
+		if (maxZoom < 0 || maxZoom > 30) {
+			throw new IllegalArgumentException("Max zoom must be in [0, 30].");
+		}
+		this.maxZoom = maxZoom;
+		this.levels = new Level[maxZoom + 2];
+
+		int count = lats.length;
+		double[] xs = new double[count];
+		double[] ys = new double[count];
+		int[] points = new int[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = x(lons[i]);
+			ys[i] = y(lats[i]);
+			points[i] = i;
+		}
+		int[] counts = new int[count];
+		Arrays.fill(counts, 1);
+		levels[maxZoom + 1] = new Level(xs, ys, counts, severities.clone(), points, count);
+		for (int zoom = maxZoom; zoom >= 0; zoom--) {
+			levels[zoom] = cluster(levels[zoom + 1], radiusPixels / (extent * Math.pow(2, zoom)));
+		}
+	}
+
+	/**
+	 * Returns the clusters and single points of a zoom level inside a bounding box.
+	 *
+	 * @param minLat minimum latitude
+	 * @param maxLat maximum latitude
+	 * @param minLon minimum longitude
+	 * @param maxLon maximum longitude
+	 * @param zoom zoom level, clamped to {@code [0, maxZoom + 1]}
+	 * @return clusters in the box
+	 */
+	public List<Cluster> clusters(double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+		Level level = levels[Math.clamp(zoom, 0, maxZoom + 1)];
+		List<Cluster> clusters = new ArrayList<>();
+		level.tree.range(x(minLon), y(maxLat), x(maxLon), y(minLat), item -> clusters.add(new Cluster(
+				lat(level.ys[item]),
+				lon(level.xs[item]),
+				level.counts[item],
+				level.maxSeverities[item],
+				level.points[item]
+		)));
+		return clusters;
+	}
+
+	/**
+	 * Returns the number of items on a zoom level.
+	 *
+	 * @param zoom zoom level, clamped to {@code [0, maxZoom + 1]}
+	 * @return clusters plus unclustered points
+	 */
+	public int size(int zoom) {
+		return levels[Math.clamp(zoom, 0, maxZoom + 1)].size;
+	}
+
+	private static Level cluster(Level previous, double radius) {
+		int size = previous.size;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		int[] counts = new int[size];
+		double[] maxSeverities = new double[size];
+		int[] points = new int[size];
+		int next = 0;
+		boolean[] visited = new boolean[size];
+		for (int item = 0; item < size; item++) {
+			if (visited[item]) {
+				continue;
+			}
+			visited[item] = true;
+			double[] sums = {previous.xs[item] * previous.counts[item], previous.ys[item] * previous.counts[item],
+					previous.counts[item], previous.maxSeverities[item]};
+			boolean[] merged = {false};
+			previous.tree.within(previous.xs[item], previous.ys[item], radius, neighbour -> {
+				if (visited[neighbour]) {
+					return;
+				}
+				visited[neighbour] = true;
+				int weight = previous.counts[neighbour];
+				sums[0] += previous.xs[neighbour] * weight;
+				sums[1] += previous.ys[neighbour] * weight;
+				sums[2] += weight;
+				sums[3] = Math.max(sums[3], previous.maxSeverities[neighbour]);
+				merged[0] = true;
+			});
+			if (merged[0]) {
+				xs[next] = sums[0] / sums[2];
+				ys[next] = sums[1] / sums[2];
+				counts[next] = (int) sums[2];
+				maxSeverities[next] = sums[3];
+				points[next] = -1;
+			} else {
+				xs[next] = previous.xs[item];
+				ys[next] = previous.ys[item];
+				counts[next] = previous.counts[item];
+				maxSeverities[next] = previous.maxSeverities[item];
+				points[next] = previous.points[item];
+			}
+			next++;
+		}
+		return new Level(xs, ys, counts, maxSeverities, points, next);
+	}
+
+	private static double x(double lon) {
+		return lon / 360.0 + 0.5;
+	}
+
+	private static double y(double lat) {
+		double sin = Math.sin(Math.toRadians(Math.clamp(lat, -MAX_LATITUDE, MAX_LATITUDE)));
+		double y = 0.5 - 0.25 * Math.log((1.0 + sin) / (1.0 - sin)) / Math.PI;
+		return Math.clamp(y, 0.0, 1.0);
+	}
+
+	private static double lon(double x) {
+		return (x - 0.5) * 360.0;
+	}
+
+	private static double lat(double y) {
+		return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1.0 - 2.0 * y))));
+	}
+
+	/**
+	 * A cluster or single point.
+	 *
+	 * @param lat latitude of the cluster centre
+	 * @param lon longitude of the cluster centre
+	 * @param count number of points in the cluster
+	 * @param maxSeverity largest severity of the points in the cluster
+	 * @param point index of the point if the cluster is a single point, otherwise -1
+	 */
+	public record Cluster(double lat, double lon, int count, double maxSeverity, int point) {
+	}
+
+	/**
+	 * Items of one zoom level with their KD-tree.
+	 */
+	private static final class Level {
+
+		private final double[] xs;
+		private final double[] ys;
+		private final int[] counts;
+		private final double[] maxSeverities;
+		private final int[] points;
+		private final int size;
+		private final PointTree tree;
+
+		private Level(double[] xs, double[] ys, int[] counts, double[] maxSeverities, int[] points, int size) {
+			this.xs = xs;
+			this.ys = ys;
+			this.counts = counts;
+			this.maxSeverities = maxSeverities;
+			this.points = points;
+			this.size = size;
+			this.tree = new PointTree(xs, ys, size);
+		}
+	}
+}
@@ -0,0 +1,356 @@
+package com.team.GroundTruth.routing.markers;
+
+import com.team.GroundTruth.domain.dto.routing.HazardMarkerDto;
+import com.team.GroundTruth.domain.dto.routing.MarkerClusterDto;
+import com.team.GroundTruth.domain.dto.routing.RiskMarkerDto;
+import com.team.GroundTruth.domain.dto.routing.RouteMarkersDto;
+import com.team.GroundTruth.domain.entity.Hazard.Hazard;
+import com.team.GroundTruth.domain.entity.HazardReport.HazardReport;
+import com.team.GroundTruth.repository.HazardLocation;
+import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Clusters hazard and risk markers for a map zoom level.
+ * <p>
+ * Hazards are kept in memory, loaded once and then updated by {@link #addHazards(HazardReport)}
+ * and {@link #removeHazards(HazardReport)} when reports are written. For the default filters,
+ * accessibility hazards, all hazards and the risk markers of {@link RiskMarkerIndex} each have a
+ * {@link MarkerClusterIndex} over every point and zoom level, rebuilt on the first query after its
+ * points changed, so a query is one KD-tree range search. Requests with a minimum severity or
+ * other risk thresholds cluster just the points of their viewport.
+ * </p>
+ */
+@Service
+public class MarkerClusterService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MarkerClusterService.class);
+	private static final int EXTENT = 512;
+	private static final Set<String> ACCESSIBILITY_LABELS = Set.of("cracks", "blocked sidewalk");
+
+	private final HazardRepository hazardRepository;
+	private final RiskMarkerIndex riskMarkerIndex;
+	private final int maxZoom;
+	private final double radiusPixels;
+	private volatile Map<UUID, HazardPoint> hazards;
+	private volatile long hazardVersion;
+	private volatile Hierarchy<HazardMarkerDto> accessibilityHierarchy;
+	private volatile Hierarchy<HazardMarkerDto> hazardHierarchy;
+	private volatile Hierarchy<RiskMarkerDto> riskHierarchy;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param hazardRepository repository loading all hazards
+	 * @param riskMarkerIndex in-memory risk markers
+	 * @param maxZoom deepest zoom level with clusters; deeper zoom levels return single markers
+	 * @param radiusPixels cluster radius in pixels of a 512 pixel tile
+	 */
+	public MarkerClusterService(
+			HazardRepository hazardRepository,
+			RiskMarkerIndex riskMarkerIndex,
+			@Value("${routing.markers.cluster-max-zoom:16}") int maxZoom,
+			@Value("${routing.markers.cluster-radius-pixels:40}") double radiusPixels
+	) {
+		this.hazardRepository = Objects.requireNonNull(hazardRepository, "hazardRepository");
+		this.riskMarkerIndex = Objects.requireNonNull(riskMarkerIndex, "riskMarkerIndex");
+		this.maxZoom = maxZoom;
+		this.radiusPixels = radiusPixels;
+	}
+
+	/**
+	 * Returns the clustered hazard markers in a bounding box.
+	 *
+	 * @param minLat minimum latitude
+	 * @param maxLat maximum latitude
+	 * @param minLon minimum longitude
+	 * @param maxLon maximum longitude
+	 * @param minSeverity minimum severity threshold (0-100)
+	 * @param accessibilityOnly whether to return only cracks and blocked sidewalks
+	 * @param zoom map zoom level
+	 * @return single hazard markers and hazard clusters
+	 */
+	public RouteMarkersDto hazards(
+			double minLat,
+			double maxLat,
+			double minLon,
+			double maxLon,
+			double minSeverity,
+			boolean accessibilityOnly,
+			int zoom
+	) {
+		Hierarchy<HazardMarkerDto> hierarchy;
+		if (minSeverity <= 0.0) {
+			hierarchy = accessibilityOnly ? accessibilityHierarchy : hazardHierarchy;
+			long version = hazardVersion;
+			if (hierarchy == null || hierarchy.version() != version) {
+				List<HazardMarkerDto> markers = new ArrayList<>();
+				for (HazardPoint point : hazards().values()) {
+					if (!accessibilityOnly || point.accessibility()) {
+						markers.add(point.marker());
+					}
+				}
+				hierarchy = hierarchy(markers, HazardMarkerDto::latitude, HazardMarkerDto::longitude,
+						HazardMarkerDto::severity, version);
+				if (accessibilityOnly) {
+					accessibilityHierarchy = hierarchy;
+				} else {
+					hazardHierarchy = hierarchy;
+				}
+			}
+		} else {
+			List<HazardMarkerDto> markers = new ArrayList<>();
+			for (HazardPoint point : hazards().values()) {
+				HazardMarkerDto marker = point.marker();
+				if ((!accessibilityOnly || point.accessibility())
+						&& (point.confidence() == null || point.confidence() >= minSeverity)
+						&& marker.latitude() >= minLat && marker.latitude() <= maxLat
+						&& marker.longitude() >= minLon && marker.longitude() <= maxLon) {
+					markers.add(marker);
+				}
+			}
+			hierarchy = hierarchy(markers, HazardMarkerDto::latitude, HazardMarkerDto::longitude,
+					HazardMarkerDto::severity, 0L);
+		}
+
+		List<HazardMarkerDto> singles = new ArrayList<>();
+		List<MarkerClusterDto> clusters = new ArrayList<>();
+		hierarchy.query(minLat, maxLat, minLon, maxLon, zoom, MarkerTileService.HAZARD_LAYER, singles, clusters);
+		return new RouteMarkersDto(singles, List.of(), clusters);
+	}
+
+	/**
+	 * Returns the clustered risk markers in a bounding box.
+	 *
+	 * @param minLat minimum latitude
+	 * @param maxLat maximum latitude
+	 * @param minLon minimum longitude
+	 * @param maxLon maximum longitude
+	 * @param maxStreetlight max streetlight value (areas below are marked)
+	 * @param minCrime min crime value (areas above are marked)
+	 * @param maxDensity max density value (areas below are marked)
+	 * @param zoom map zoom level
+	 * @return single risk markers and risk clusters
+	 */
+	public RouteMarkersDto risks(
+			double minLat,
+			double maxLat,
+			double minLon,
+			double maxLon,
+			double maxStreetlight,
+			double minCrime,
+			double maxDensity,
+			int zoom
+	) {
+		Hierarchy<RiskMarkerDto> hierarchy;
+		if (maxStreetlight == RiskMarkerIndex.DEFAULT_MAX_STREETLIGHT
+				&& minCrime == RiskMarkerIndex.DEFAULT_MIN_CRIME
+				&& maxDensity == RiskMarkerIndex.DEFAULT_MAX_DENSITY) {
+			hierarchy = riskHierarchy;
+			long version = riskMarkerIndex.version();
+			if (hierarchy == null || hierarchy.version() != version) {
+				hierarchy = hierarchy(riskMarkerIndex.riskMarkers(-90.0, 90.0, -180.0, 180.0,
+								maxStreetlight, minCrime, maxDensity),
+						RiskMarkerDto::latitude, RiskMarkerDto::longitude, MarkerClusterService::riskScore, version);
+				riskHierarchy = hierarchy;
+			}
+		} else {
+			hierarchy = hierarchy(riskMarkerIndex.riskMarkers(minLat, maxLat, minLon, maxLon,
+							maxStreetlight, minCrime, maxDensity),
+					RiskMarkerDto::latitude, RiskMarkerDto::longitude, MarkerClusterService::riskScore, 0L);
+		}
+
+		List<RiskMarkerDto> singles = new ArrayList<>();
+		List<MarkerClusterDto> clusters = new ArrayList<>();
+		hierarchy.query(minLat, maxLat, minLon, maxLon, zoom, MarkerTileService.RISK_LAYER, singles, clusters);
+		return new RouteMarkersDto(List.of(), singles, clusters);
+	}
+
+	/**
+	 * Adds the hazards of a saved report. Inside a transaction they are added after commit, once
+	 * their ids are assigned.
+	 *
+	 * @param report saved hazard report
+	 */
+	public void addHazards(HazardReport report) {
+		afterCommit(() -> {
+			Map<UUID, HazardPoint> current = hazards;
+			if (current == null || report.getHazards() == null) {
+				// Loaded on next use, already including the committed hazards
+				return;
+			}
+			for (Hazard hazard : report.getHazards()) {
+				HazardPoint point = point(hazard.getId(), hazard.getLabel(), hazard.getConfidence(), report.getLatitude(),
+						report.getLongitude());
+				if (point != null) {
+					current.put(hazard.getId(), point);
+				}
+			}
+			hazardVersion++;
+		});
+	}
+
+	/**
+	 * Removes the hazards of a report, e.g. before it is deleted or moved. Inside a transaction
+	 * they are removed after commit.
+	 *
+	 * @param report hazard report
+	 */
+	public void removeHazards(HazardReport report) {
+		List<UUID> ids = new ArrayList<>();
+		if (report.getHazards() != null) {
+			for (Hazard hazard : report.getHazards()) {
+				if (hazard.getId() != null) {
+					ids.add(hazard.getId());
+				}
+			}
+		}
+		if (ids.isEmpty()) {
+			return;
+		}
+		afterCommit(() -> {
+			Map<UUID, HazardPoint> current = hazards;
+			if (current == null) {
+				return;
+			}
+			ids.forEach(current::remove);
+			hazardVersion++;
+		});
+	}
+
+	private Map<UUID, HazardPoint> hazards() {
+		Map<UUID, HazardPoint> current = hazards;
+		if (current == null) {
+			synchronized (this) {
+				current = hazards;
+				if (current == null) {
+					current = loadHazards();
+					hazards = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private Map<UUID, HazardPoint> loadHazards() {
+		long startedAt = System.nanoTime();
+		Map<UUID, HazardPoint> loaded = new ConcurrentHashMap<>();
+		for (HazardLocation hazard : hazardRepository.findHazardsInBounds(-90.0f, 90.0f, -180.0f, 180.0f, 0.0)) {
+			HazardPoint point = point(hazard.getId(), hazard.getLabel(), hazard.getConfidence(), hazard.getLatitude(),
+					hazard.getLongitude());
+			if (point != null) {
+				loaded.put(hazard.getId(), point);
+			}
+		}
+		LOG.info("Loaded {} hazard markers for clustering in {} ms", loaded.size(),
+				(System.nanoTime() - startedAt) / 1_000_000);
+		return loaded;
+	}
+
+	private synchronized void apply(Runnable change) {
+		change.run();
+	}
+
+	private void afterCommit(Runnable change) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(change);
+				}
+			});
+		} else {
+			apply(change);
+		}
+	}
+
+	private <T> Hierarchy<T> hierarchy(
+			List<T> markers,
+			ToDoubleFunction<T> lat,
+			ToDoubleFunction<T> lon,
+			ToDoubleFunction<T> severity,
+			long version
+	) {
+		double[] lats = new double[markers.size()];
+		double[] lons = new double[markers.size()];
+		double[] severities = new double[markers.size()];
+		for (int i = 0; i < markers.size(); i++) {
+			lats[i] = lat.applyAsDouble(markers.get(i));
+			lons[i] = lon.applyAsDouble(markers.get(i));
+			severities[i] = severity.applyAsDouble(markers.get(i));
+		}
+		return new Hierarchy<>(markers, new MarkerClusterIndex(lats, lons, severities, maxZoom, radiusPixels, EXTENT),
+				version);
+	}
+
+	private static HazardPoint point(UUID id, String label, Double confidence, Float lat, Float lon) {
+		if (id == null || lat == null || lon == null) {
+			return null;
+		}
+		HazardMarkerDto marker = new HazardMarkerDto(
+				id,
+				lat.doubleValue(),
+				lon.doubleValue(),
+				label,
+				confidence != null ? confidence : 50.0,
+				HazardMarkerDto.iconTypeFor(label)
+		);
+		boolean accessibility = label != null && ACCESSIBILITY_LABELS.contains(label.toLowerCase(Locale.ROOT));
+		return new HazardPoint(marker, confidence, accessibility);
+	}
+
+	/**
+	 * Scores a risk marker on the 0-100 hazard severity scale, higher meaning riskier.
+	 */
+	static double riskScore(RiskMarkerDto marker) {
+		double risk = "high_crime".equals(marker.riskType()) ? marker.value() : 1.0 - marker.value();
+		return Math.clamp(risk, 0.0, 1.0) * 100.0;
+	}
+
+	/**
+	 * A hazard marker with the raw confidence used for severity filtering.
+	 */
+	private record HazardPoint(HazardMarkerDto marker, Double confidence, boolean accessibility) {
+	}
+
+	/**
+	 * Markers with their cluster index, tagged with the source version they were built from.
+	 */
+	private record Hierarchy<T>(List<T> markers, MarkerClusterIndex index, long version) {
+
+		void query(
+				double minLat,
+				double maxLat,
+				double minLon,
+				double maxLon,
+				int zoom,
+				String layer,
+				List<T> singles,
+				List<MarkerClusterDto> clusters
+		) {
+			for (MarkerClusterIndex.Cluster cluster : index.clusters(minLat, maxLat, minLon, maxLon, zoom)) {
+				if (cluster.point() >= 0) {
+					singles.add(markers.get(cluster.point()));
+				} else {
+					clusters.add(new MarkerClusterDto(layer, cluster.lat(), cluster.lon(), cluster.count(),
+							cluster.maxSeverity()));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.team.GroundTruth.routing.markers;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Static KD-tree over points in the plane, for range and radius queries.
+ * <p>
+ * Point ids and coordinates are kept in two flat arrays, recursively partitioned around the
+ * median with alternating axes until a run is at most {@link #NODE_SIZE} points long, so the tree
+ * has no node objects and small runs are scanned linearly.
+ * </p>
+ */
+final class PointTree {
+
+	private static final int NODE_SIZE = 64;
+
+	private final int[] ids;
+	private final double[] coords;
+
+	/**
+	 * Builds the tree; point {@code i} is reported as id {@code i}.
+	 *
+	 * @param xs x coordinates
+	 * @param ys y coordinates
+	 * @param count number of points
+	 */
+	PointTree(double[] xs, double[] ys, int count) {
+		ids = new int[count];
+		coords = new double[count * 2];
+		for (int i = 0; i < count; i++) {
+			ids[i] = i;
+			coords[2 * i] = xs[i];
+			coords[2 * i + 1] = ys[i];
+		}
+		sort(0, count - 1, 0);
+	}
+
+	/**
+	 * Reports the points inside a box.
+	 *
+	 * @param minX minimum x
+	 * @param minY minimum y
+	 * @param maxX maximum x
+	 * @param maxY maximum y
+	 * @param visitor receives the ids of the points inside
+	 */
+	void range(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+		search(minX, minY, maxX, maxY, 0.0, 0.0, -1.0, visitor);
+	}
+
+	/**
+	 * Reports the points within a distance of a point.
+	 *
+	 * @param qx x of the centre
+	 * @param qy y of the centre
+	 * @param radius search radius
+	 * @param visitor receives the ids of the points within the radius
+	 */
+	void within(double qx, double qy, double radius, IntConsumer visitor) {
+		search(qx - radius, qy - radius, qx + radius, qy + radius, qx, qy, radius * radius, visitor);
+	}
+
+	/**
+	 * Visits the points inside a box and, unless {@code squaredRadius} is negative, within a
+	 * distance of {@code (qx, qy)}.
+	 */
+	private void search(
+			double minX,
+			double minY,
+			double maxX,
+			double maxY,
+			double qx,
+			double qy,
+			double squaredRadius,
+			IntConsumer visitor
+	) {
+		if (ids.length == 0) {
+			return;
+		}
+		int[] stack = new int[3 * 64];
+		int top = push(stack, 0, 0, ids.length - 1, 0);
+		while (top > 0) {
+			int axis = stack[--top];
+			int right = stack[--top];
+			int left = stack[--top];
+			if (right - left <= NODE_SIZE) {
+				for (int i = left; i <= right; i++) {
+					visit(i, minX, minY, maxX, maxY, qx, qy, squaredRadius, visitor);
+				}
+				continue;
+			}
+			int mid = (left + right) >>> 1;
+			visit(mid, minX, minY, maxX, maxY, qx, qy, squaredRadius, visitor);
+			double value = coords[2 * mid + axis];
+			if ((axis == 0 ? minX : minY) <= value) {
+				top = push(stack, top, left, mid - 1, 1 - axis);
+			}
+			if ((axis == 0 ? maxX : maxY) >= value) {
+				top = push(stack, top, mid + 1, right, 1 - axis);
+			}
+		}
+	}
+
+	private void visit(
+			int position,
+			double minX,
+			double minY,
+			double maxX,
+			double maxY,
+			double qx,
+			double qy,
+			double squaredRadius,
+			IntConsumer visitor
+	) {
+		double x = coords[2 * position];
+		double y = coords[2 * position + 1];
+		if (x < minX || x > maxX || y < minY || y > maxY) {
+			return;
+		}
+		if (squaredRadius >= 0.0 && (x - qx) * (x - qx) + (y - qy) * (y - qy) > squaredRadius) {
+			return;
+		}
+		visitor.accept(ids[position]);
+	}
+
+	private static int push(int[] stack, int top, int left, int right, int axis) {
+		stack[top] = left;
+		stack[top + 1] = right;
+		stack[top + 2] = axis;
+		return top + 3;
+	}
+
+	private void sort(int left, int right, int axis) {
+		if (right - left <= NODE_SIZE) {
+			return;
+		}
+		int mid = (left + right) >>> 1;
+		select(mid, left, right, axis);
+		sort(left, mid - 1, 1 - axis);
+		sort(mid + 1, right, 1 - axis);
+	}
+
+	/**
+	 * Rearranges {@code [left, right]} so position {@code k} holds the point it would hold if the
+	 * run were sorted along the axis, with smaller values before it and larger ones after.
+	 */
+	private void select(int k, int left, int right, int axis) {
+		while (right > left) {
+			double pivot = coords[2 * k + axis];
+			swap(left, k);
+			if (coords[2 * right + axis] > pivot) {
+				swap(left, right);
+			}
+			int i = left;
+			int j = right;
+			while (i < j) {
+				swap(i, j);
+				i++;
+				j--;
+				while (coords[2 * i + axis] < pivot) {
+					i++;
+				}
+				while (coords[2 * j + axis] > pivot) {
+					j--;
+				}
+			}
+			if (coords[2 * left + axis] == pivot) {
+				swap(left, j);
+			} else {
+				j++;
+				swap(j, right);
+			}
+			if (j <= k) {
+				left = j + 1;
+			}
+			if (k <= j) {
+				right = j - 1;
+			}
+		}
+	}
+
+	private void swap(int i, int j) {
+		int id = ids[i];
+		ids[i] = ids[j];
+		ids[j] = id;
+		double x = coords[2 * i];
+		double y = coords[2 * i + 1];
+		coords[2 * i] = coords[2 * j];
+		coords[2 * i + 1] = coords[2 * j + 1];
+		coords[2 * j] = x;
+		coords[2 * j + 1] = y;
+	}
+}
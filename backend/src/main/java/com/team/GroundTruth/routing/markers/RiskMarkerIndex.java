@@ -0,0 +1,436 @@
+package com.team.GroundTruth.routing.markers;
+
+import com.team.GroundTruth.domain.dto.routing.RiskMarkerDto;
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.routing.graph.EdgeGeometry;
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import com.team.GroundTruth.routing.repo.WalkSafeModifierRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory grid of walk safety modifiers located at the centroids of their edges.
+ * <p>
+ * Every modifier is stored with the length-weighted centroid of its edge shape, the same point
+ * {@code ST_Centroid} returns, in a {@link TileGrid} of {@code cellSizeDegrees} cells. Entries are
+ * sorted by cell code, so the cells of one grid row are contiguous and a viewport query is one
+ * binary search per row followed by a linear scan. The index is loaded from the database on first
+ * use; modifier writes are applied in memory once their transaction commits, and a graph import
+ * drops the index so centroids follow the new edge shapes.
+ * </p>
+ */
+@Component
+public class RiskMarkerIndex {
+
+	/** Default max streetlight value of a low lighting marker. */
+	public static final double DEFAULT_MAX_STREETLIGHT = 0.4;
+	/** Default min crime value of a high crime marker. */
+	public static final double DEFAULT_MIN_CRIME = 0.5;
+	/** Default max density value of a low density marker. */
+	public static final double DEFAULT_MAX_DENSITY = 0.3;
+
+	private static final Logger LOG = LoggerFactory.getLogger(RiskMarkerIndex.class);
+
+	private final Supplier<Collection<WalkSafeModifierEntity>> modifierLoader;
+	private final Supplier<EdgeGeometry> geometryLoader;
+	private final TileGrid grid;
+	private volatile Entries entries;
+	private volatile long version;
+
+	/**
+	 * Creates the index from configuration.
+	 *
+	 * @param modifierRepository repository loading all modifiers
+	 * @param edgeGeometryStore edge shapes for centroids
+	 * @param cellSizeDegrees grid cell edge length in decimal degrees
+	 */
+	@Autowired
+	public RiskMarkerIndex(
+			WalkSafeModifierRepository modifierRepository,
+			EdgeGeometryStore edgeGeometryStore,
+			@Value("${routing.markers.cell-size-degrees:0.005}") double cellSizeDegrees
+	) {
+		this(modifierRepository::findAll, edgeGeometryStore::geometry, new TileGrid(cellSizeDegrees));
+	}
+
+	/**
+	 * Creates the index over explicit sources.
+	 *
+	 * @param modifierLoader loads all modifiers
+	 * @param geometryLoader returns the current edge shapes
+	 * @param grid grid the centroids are bucketed by
+	 */
+	public RiskMarkerIndex(
+			Supplier<Collection<WalkSafeModifierEntity>> modifierLoader,
+			Supplier<EdgeGeometry> geometryLoader,
+			TileGrid grid
+	) {
+		this.modifierLoader = Objects.requireNonNull(modifierLoader, "modifierLoader");
+		this.geometryLoader = Objects.requireNonNull(geometryLoader, "geometryLoader");
+		this.grid = Objects.requireNonNull(grid, "grid");
+	}
+
+	/**
+	 * Returns the risk markers whose edge centroid lies in a bounding box, one marker per risk
+	 * type an edge exceeds.
+	 *
+	 * @param minLat minimum latitude
+	 * @param maxLat maximum latitude
+	 * @param minLon minimum longitude
+	 * @param maxLon maximum longitude
+	 * @param maxStreetlight max streetlight value (areas below are marked)
+	 * @param minCrime min crime value (areas above are marked)
+	 * @param maxDensity max density value (areas below are marked)
+	 * @return risk markers
+	 */
+	public List<RiskMarkerDto> riskMarkers(
+			double minLat,
+			double maxLat,
+			double minLon,
+			double maxLon,
+			double maxStreetlight,
+			double minCrime,
+			double maxDensity
+	) {
+		Entries current = entries();
+		List<RiskMarkerDto> markers = new ArrayList<>();
+		if (current.size() == 0 || minLat > maxLat || minLon > maxLon) {
+			return markers;
+		}
+		long southWest = grid.tileOf(minLat, minLon);
+		long northEast = grid.tileOf(maxLat, maxLon);
+		for (int row = grid.row(southWest); row <= grid.row(northEast); row++) {
+			long last = grid.tile(row, grid.column(northEast));
+			int index = current.firstAtOrAfter(grid.tile(row, grid.column(southWest)));
+			for (; index < current.size() && current.cells[index] <= last; index++) {
+				double lat = current.lats[index];
+				double lon = current.lons[index];
+				if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+					continue;
+				}
+				addMarkers(markers, lat, lon, current.streetlight[index], current.crime[index], current.density[index],
+						maxStreetlight, minCrime, maxDensity);
+			}
+		}
+		return markers;
+	}
+
+	/**
+	 * Applies written modifiers to the index. Inside a transaction the values are applied after
+	 * commit.
+	 *
+	 * @param modifiers modifiers that were saved
+	 */
+	public void update(Collection<WalkSafeModifierEntity> modifiers) {
+		Map<Long, double[]> values = new LinkedHashMap<>();
+		for (WalkSafeModifierEntity modifier : modifiers) {
+			values.put(modifier.getEdgeId(), new double[]{
+					valueOf(modifier.getStreetlight()), valueOf(modifier.getCrimeInArea()), valueOf(modifier.getPopDensity())});
+		}
+		if (values.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(values);
+				}
+			});
+		} else {
+			apply(values);
+		}
+	}
+
+	/**
+	 * Drops the index, e.g. after a graph import changed the edge shapes.
+	 */
+	public void invalidate() {
+		synchronized (this) {
+			entries = null;
+			version++;
+		}
+	}
+
+	/**
+	 * Returns a counter that changes whenever indexed values change, so derived views know when
+	 * to rebuild.
+	 *
+	 * @return index version
+	 */
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * Returns the number of indexed modifiers.
+	 *
+	 * @return entry count
+	 */
+	public int size() {
+		return entries().size();
+	}
+
+	private Entries entries() {
+		Entries current = entries;
+		if (current == null) {
+			synchronized (this) {
+				current = entries;
+				if (current == null) {
+					current = load();
+					entries = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private Entries load() {
+		long startedAt = System.nanoTime();
+		EdgeGeometry geometry = geometryLoader.get();
+		Builder builder = new Builder();
+		for (WalkSafeModifierEntity modifier : modifierLoader.get()) {
+			builder.add(geometry, modifier.getEdgeId(), valueOf(modifier.getStreetlight()),
+					valueOf(modifier.getCrimeInArea()), valueOf(modifier.getPopDensity()));
+		}
+		Entries loaded = builder.build(grid);
+		LOG.info("Indexed {} walk safety modifiers in {} ms", loaded.size(), (System.nanoTime() - startedAt) / 1_000_000);
+		return loaded;
+	}
+
+	private synchronized void apply(Map<Long, double[]> values) {
+		Entries current = entries;
+		if (current == null) {
+			// Loaded on next use, already including the committed values
+			return;
+		}
+		double[] streetlight = current.streetlight.clone();
+		double[] crime = current.crime.clone();
+		double[] density = current.density.clone();
+		Builder added = new Builder();
+		EdgeGeometry geometry = null;
+		for (Map.Entry<Long, double[]> change : values.entrySet()) {
+			int index = current.indexOfEdge(change.getKey());
+			double[] value = change.getValue();
+			if (index >= 0) {
+				streetlight[index] = value[0];
+				crime[index] = value[1];
+				density[index] = value[2];
+			} else {
+				geometry = geometry != null ? geometry : geometryLoader.get();
+				added.add(geometry, change.getKey(), value[0], value[1], value[2]);
+			}
+		}
+		Entries updated = new Entries(current.cells, current.edgeIds, current.lats, current.lons, streetlight, crime,
+				density, current.edgeOrder);
+		if (added.count > 0) {
+			Builder merged = new Builder();
+			merged.addAll(updated);
+			merged.addAll(added);
+			updated = merged.build(grid);
+		}
+		entries = updated;
+		version++;
+	}
+
+	private static void addMarkers(
+			List<RiskMarkerDto> markers,
+			double lat,
+			double lon,
+			double streetlight,
+			double crime,
+			double density,
+			double maxStreetlight,
+			double minCrime,
+			double maxDensity
+	) {
+		if (!Double.isNaN(streetlight) && streetlight <= maxStreetlight) {
+			markers.add(marker(lat, lon, "low_lighting", streetlight));
+		}
+		if (!Double.isNaN(crime) && crime >= minCrime) {
+			markers.add(marker(lat, lon, "high_crime", crime));
+		}
+		if (!Double.isNaN(density) && density <= maxDensity) {
+			markers.add(marker(lat, lon, "low_density", density));
+		}
+	}
+
+	private static RiskMarkerDto marker(double lat, double lon, String riskType, double value) {
+		return new RiskMarkerDto(lat, lon, riskType, value, RiskMarkerDto.severityFor(riskType, value),
+				RiskMarkerDto.iconTypeFor(riskType));
+	}
+
+	private static double valueOf(Double value) {
+		return value != null ? value : Double.NaN;
+	}
+
+	/**
+	 * Returns the length-weighted centroid of a line, or its first point if it has no length.
+	 *
+	 * @param lonLat interleaved {@code lon, lat} coordinates
+	 * @return {@code lat, lon}, or {@code null} for an empty line
+	 */
+	static double[] centroid(double[] lonLat) {
+		if (lonLat.length < 2) {
+			return null;
+		}
+		double weight = 0.0;
+		double sumLon = 0.0;
+		double sumLat = 0.0;
+		for (int i = 2; i + 1 < lonLat.length; i += 2) {
+			double length = Math.hypot(lonLat[i] - lonLat[i - 2], lonLat[i + 1] - lonLat[i - 1]);
+			sumLon += length * (lonLat[i] + lonLat[i - 2]) / 2.0;
+			sumLat += length * (lonLat[i + 1] + lonLat[i - 1]) / 2.0;
+			weight += length;
+		}
+		return weight > 0.0 ? new double[]{sumLat / weight, sumLon / weight} : new double[]{lonLat[1], lonLat[0]};
+	}
+
+	/**
+	 * Immutable index contents sorted by cell code; {@code NaN} marks a missing modifier value.
+	 */
+	private record Entries(
+			long[] cells,
+			long[] edgeIds,
+			double[] lats,
+			double[] lons,
+			double[] streetlight,
+			double[] crime,
+			double[] density,
+			int[] edgeOrder
+	) {
+
+		int size() {
+			return cells.length;
+		}
+
+		int firstAtOrAfter(long cell) {
+			int index = Arrays.binarySearch(cells, cell);
+			if (index < 0) {
+				return -index - 1;
+			}
+			while (index > 0 && cells[index - 1] == cell) {
+				index--;
+			}
+			return index;
+		}
+
+		/**
+		 * Finds an entry by edge id through {@code edgeOrder}, the entry positions sorted by edge id.
+		 */
+		int indexOfEdge(long edgeId) {
+			int low = 0;
+			int high = edgeOrder.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long candidate = edgeIds[edgeOrder[mid]];
+				if (candidate < edgeId) {
+					low = mid + 1;
+				} else if (candidate > edgeId) {
+					high = mid - 1;
+				} else {
+					return edgeOrder[mid];
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * Collects located modifiers and sorts them into {@link Entries}.
+	 */
+	private static final class Builder {
+
+		private int count;
+		private long[] edgeIds = new long[16];
+		private double[] values = new double[16 * 5];
+
+		private void add(EdgeGeometry geometry, long edgeId, double streetlight, double crime, double density) {
+			double[] centroid = centroid(geometry.shape(edgeId));
+			if (centroid == null) {
+				return;
+			}
+			add(edgeId, centroid[0], centroid[1], streetlight, crime, density);
+		}
+
+		private void add(long edgeId, double lat, double lon, double streetlight, double crime, double density) {
+			if (count == edgeIds.length) {
+				edgeIds = Arrays.copyOf(edgeIds, count * 2);
+				values = Arrays.copyOf(values, count * 2 * 5);
+			}
+			edgeIds[count] = edgeId;
+			values[5 * count] = lat;
+			values[5 * count + 1] = lon;
+			values[5 * count + 2] = streetlight;
+			values[5 * count + 3] = crime;
+			values[5 * count + 4] = density;
+			count++;
+		}
+
+		private void addAll(Entries entries) {
+			for (int i = 0; i < entries.size(); i++) {
+				add(entries.edgeIds[i], entries.lats[i], entries.lons[i], entries.streetlight[i], entries.crime[i],
+						entries.density[i]);
+			}
+		}
+
+		private void addAll(Builder other) {
+			for (int i = 0; i < other.count; i++) {
+				add(other.edgeIds[i], other.values[5 * i], other.values[5 * i + 1], other.values[5 * i + 2],
+						other.values[5 * i + 3], other.values[5 * i + 4]);
+			}
+		}
+
+		private Entries build(TileGrid grid) {
+			long[] cellOf = new long[count];
+			Integer[] order = new Integer[count];
+			for (int i = 0; i < count; i++) {
+				cellOf[i] = grid.tileOf(values[5 * i], values[5 * i + 1]);
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Long.compare(cellOf[a], cellOf[b]));
+
+			long[] cells = new long[count];
+			long[] ids = new long[count];
+			double[] lats = new double[count];
+			double[] lons = new double[count];
+			double[] streetlight = new double[count];
+			double[] crime = new double[count];
+			double[] density = new double[count];
+			for (int i = 0; i < count; i++) {
+				int source = order[i];
+				cells[i] = cellOf[source];
+				ids[i] = edgeIds[source];
+				lats[i] = values[5 * source];
+				lons[i] = values[5 * source + 1];
+				streetlight[i] = values[5 * source + 2];
+				crime[i] = values[5 * source + 3];
+				density[i] = values[5 * source + 4];
+			}
+			Integer[] byEdge = new Integer[count];
+			for (int i = 0; i < count; i++) {
+				byEdge[i] = i;
+			}
+			Arrays.sort(byEdge, (a, b) -> Long.compare(ids[a], ids[b]));
+			int[] edgeOrder = new int[count];
+			for (int i = 0; i < count; i++) {
+				edgeOrder[i] = byEdge[i];
+			}
+			return new Entries(cells, ids, lats, lons, streetlight, crime, density, edgeOrder);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.team.GroundTruth.routing.model;
+
+import java.util.List;
+
+/**
+ * Strongly connected component statistics of a resident routing graph.
+ * <p>
+ * A healthy street network has one dominant component; many or large secondary components
+ * usually point at broken connections or wrong {@code oneway} tags in the imported data.
+ * </p>
+ *
+ * @param mode travel mode of the graph
+ * @param nodeCount number of routable nodes
+ * @param componentCount number of strongly connected components
+ * @param largestComponentNodes node count of the largest component
+ * @param largestComponentShare share of nodes in the largest component, 0 to 1
+ * @param singletonComponents number of components consisting of a single node
+ * @param components largest components in descending size
+ */
+public record ComponentStats(
+		TravelMode mode,
+		int nodeCount,
+		int componentCount,
+		int largestComponentNodes,
+		double largestComponentShare,
+		int singletonComponents,
+		List<Component> components
+) {
+	/**
+	 * A single component.
+	 *
+	 * @param id component id, 0 for the largest component
+	 * @param nodeCount number of nodes in the component
+	 * @param sampleNodeId database id of a node in the component
+	 * @param sampleLat latitude of the sample node
+	 * @param sampleLon longitude of the sample node
+	 */
+	public record Component(
+			int id,
+			int nodeCount,
+			long sampleNodeId,
+			double sampleLat,
+			double sampleLon
+	) {
+	}
+}
@@ -0,0 +1,17 @@
+package com.team.GroundTruth.routing.model;
+
+import java.util.List;
+
+/**
+ * Result of a multi-stop routing computation.
+ *
+ * @param stopOrder indices into the requested stop list in visiting order
+ * @param legs one route per consecutive pair of visited stops
+ * @param route all legs joined into a single route from the first to the last stop
+ */
+public record MultiStopRouteResult(
+		List<Integer> stopOrder,
+		List<RouteResult> legs,
+		RouteResult route
+) {
+}
@@ -0,0 +1,130 @@
+package com.team.GroundTruth.routing.model;
+
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+
+/**
+ * Routing profiles that restrict which edges may be traversed, independent of the cost strategy
+ * selected by {@link RouteType}.
+ * <p>
+ * Each profile carries a deny mask of edge flags that must not be present and an optional allow
+ * mask of highway classes that the edge must belong to. Both are folded into a single
+ * {@link #blockedMask()} so the router can test each edge with one AND.
+ * </p>
+ */
+public enum RoutingProfile {
+	/**
+	 * No restrictions beyond the travel mode.
+	 */
+	DEFAULT("default", EdgeFlags.NONE, EdgeFlags.NONE),
+
+	/**
+	 * Wheelchair users: excludes stairs and edges tagged as not wheelchair accessible.
+	 */
+	WHEELCHAIR("wheelchair",
+			EdgeFlags.HIGHWAY_STEPS | EdgeFlags.TAG_STEPS | EdgeFlags.TAG_WHEELCHAIR_NO,
+			EdgeFlags.NONE),
+
+	/**
+	 * Avoids service roads and tracks (alleys, parking aisles, dirt tracks).
+	 */
+	AVOID_SERVICE("avoid_service",
+			EdgeFlags.HIGHWAY_SERVICE | EdgeFlags.HIGHWAY_TRACK,
+			EdgeFlags.NONE),
+
+	/**
+	 * Keeps walkers on dedicated pedestrian infrastructure and quiet streets.
+	 */
+	PEDESTRIAN_ONLY("pedestrian_only",
+			EdgeFlags.TAG_PRIVATE,
+			EdgeFlags.HIGHWAY_FOOTWAY | EdgeFlags.HIGHWAY_PEDESTRIAN | EdgeFlags.HIGHWAY_PATH
+					| EdgeFlags.HIGHWAY_LIVING_STREET | EdgeFlags.HIGHWAY_RESIDENTIAL
+					| EdgeFlags.HIGHWAY_STEPS | EdgeFlags.HIGHWAY_CORRIDOR);
+
+	private final String value;
+	private final long denyMask;
+	private final long allowMask;
+	private final long blockedMask;
+
+	RoutingProfile(String value, long denyMask, long allowMask) {
+		this.value = value;
+		this.denyMask = denyMask;
+		this.allowMask = allowMask;
+		this.blockedMask = toBlockedMask(denyMask, allowMask);
+	}
+
+	/**
+	 * Returns the string value for API usage.
+	 *
+	 * @return string value
+	 */
+	public String value() {
+		return value;
+	}
+
+	/**
+	 * Returns the flags that exclude an edge when present.
+	 *
+	 * @return deny mask
+	 */
+	public long denyMask() {
+		return denyMask;
+	}
+
+	/**
+	 * Returns the highway classes an edge must belong to, or {@code 0} to allow every class.
+	 *
+	 * @return allow mask
+	 */
+	public long allowMask() {
+		return allowMask;
+	}
+
+	/**
+	 * Returns the combined mask: an edge is traversable when {@code (flags & blockedMask) == 0}.
+	 *
+	 * @return blocked mask
+	 */
+	public long blockedMask() {
+		return blockedMask;
+	}
+
+	/**
+	 * Returns true if an edge with the given flags may be traversed under this profile.
+	 *
+	 * @param edgeFlags packed edge flags
+	 * @return true if allowed
+	 */
+	public boolean allows(long edgeFlags) {
+		return (edgeFlags & blockedMask) == 0L;
+	}
+
+	/**
+	 * Parses a routing profile from string value.
+	 *
+	 * @param value string value
+	 * @return matching RoutingProfile or null if not found
+	 */
+	public static RoutingProfile fromValue(String value) {
+		if (value == null) {
+			return null;
+		}
+		for (RoutingProfile profile : values()) {
+			if (profile.value.equalsIgnoreCase(value)) {
+				return profile;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Folds an allow mask into the deny mask. Highway classes outside the allow mask become
+	 * blocked, so edges without any highway class remain traversable.
+	 */
+	private static long toBlockedMask(long denyMask, long allowMask) {
+		long allowedClasses = allowMask & EdgeFlags.HIGHWAY_CLASS_MASK;
+		if (allowedClasses == 0L) {
+			return denyMask;
+		}
+		return denyMask | (EdgeFlags.HIGHWAY_CLASS_MASK & ~allowedClasses);
+	}
+}
@@ -0,0 +1,91 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from OSM ids to dense indices assigned in insertion order.
+ * Avoids boxing for the tens of millions of node references in a regional extract.
+ */
+final class LongIntMap {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+	private int threshold;
+
+	LongIntMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the index of a key, assigning the next index if absent.
+	 */
+	int putIfAbsent(long key) {
+		int slot = slot(key);
+		if (keys[slot] == key) {
+			return values[slot];
+		}
+		if (size >= threshold) {
+			rehash(keys.length << 1);
+			slot = slot(key);
+		}
+		keys[slot] = key;
+		values[slot] = size;
+		return size++;
+	}
+
+	/**
+	 * Returns the index of a key, or {@code -1} if absent.
+	 */
+	int get(long key) {
+		int slot = slot(key);
+		return keys[slot] == key ? values[slot] : -1;
+	}
+
+	private int slot(long key) {
+		int mask = keys.length - 1;
+		int slot = (int) mix(key) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (key != EMPTY) {
+				int slot = (int) mix(key) & mask;
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static long mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+}
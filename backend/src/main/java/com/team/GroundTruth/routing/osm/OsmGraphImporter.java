@@ -0,0 +1,335 @@
+package com.team.GroundTruth.routing.osm;
+
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.graph.GraphFile;
+import com.team.GroundTruth.routing.graph.ResidentGraphCache;
+import com.team.GroundTruth.routing.graph.ResidentGraphLoader;
+import com.team.GroundTruth.routing.graph.TiledGraphStore;
+import com.team.GroundTruth.routing.markers.RiskMarkerIndex;
+import com.team.GroundTruth.routing.model.TravelMode;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports walk and drive routing graphs from a local OSM PBF extract.
+ * <p>
+ * The extract is streamed into an {@link OsmNetwork}, then {@code nodes} and {@code edges} are
+ * replaced in one transaction using {@code COPY}, the {@code routing_graph_version} of both modes
+ * is bumped and, when {@code routing.graph.file-dir} is set, matching binary graph files are
+ * written so the next start maps them instead of reading the tables.
+ * </p>
+ * <p>
+ * Edge ids of the new graph need not match the old ones, so every table keyed by edge is emptied
+ * with it: {@link #RESET_TABLES} lists them. That includes the walk safety modifiers, the
+ * materialized cost tables and the cost overlays; the walk safety data has to be harvested again
+ * after an import. The tables are truncated without {@code CASCADE}, so a table that references
+ * the graph but is missing from the list makes the import fail instead of being wiped unnoticed.
+ * </p>
+ */
+@Component
+public class OsmGraphImporter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OsmGraphImporter.class);
+	private static final int COPY_BUFFER_CHARS = 1 << 20;
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	private static final int WGS84_SRID = 4326;
+
+	/**
+	 * The graph tables and every table referencing them, emptied by an import.
+	 */
+	static final List<String> RESET_TABLES = List.of(
+			"nodes",
+			"edges",
+			"edge_cost_overlays",
+			"walk_edge_costs",
+			"drive_edge_costs",
+			"walk_safe_edge_costs",
+			"walk_safe_modifiers",
+			"walk_accessibility_edge_costs"
+	);
+	private static final String TRUNCATE_SQL = "TRUNCATE " + String.join(", ", RESET_TABLES) + " RESTART IDENTITY";
+	private static final String COPY_NODES_SQL = "COPY nodes (id, geom) FROM STDIN";
+	private static final String COPY_EDGES_SQL =
+			"COPY edges (id, source, target, geom, length_m, cost_s, mode, attrs, tags) FROM STDIN";
+	private static final String RESET_SEQUENCES_SQL = """
+			SELECT setval(pg_get_serial_sequence('nodes', 'id'), GREATEST((SELECT max(id) FROM nodes), 1)),
+			       setval(pg_get_serial_sequence('edges', 'id'), GREATEST((SELECT max(id) FROM edges), 1))
+			""";
+	private static final String BUMP_VERSION_SQL = """
+			INSERT INTO routing_graph_version (mode, version)
+			VALUES (?, 1)
+			ON CONFLICT (mode) DO UPDATE
+			SET version = routing_graph_version.version + 1,
+			    updated_at = NOW()
+			RETURNING version
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ResidentGraphLoader graphLoader;
+	private final ResidentGraphCache graphCache;
+	private final TiledGraphStore tiledGraphStore;
+	private final EdgeGeometryStore edgeGeometryStore;
+	private final MarkerTileService markerTileService;
+	private final RiskMarkerIndex riskMarkerIndex;
+
+	/**
+	 * Creates the importer.
+	 *
+	 * @param dataSource data source for the routing tables
+	 * @param transactionManager transaction manager used to replace the tables atomically
+	 * @param graphLoader loader providing the graph file locations
+	 * @param graphCache cache to invalidate after an import
+	 * @param tiledGraphStore tile store to invalidate after an import
+	 * @param edgeGeometryStore edge shape store to invalidate after an import
+	 * @param markerTileService marker tiles to invalidate after an import
+	 * @param riskMarkerIndex risk marker index to invalidate after an import
+	 */
+	public OsmGraphImporter(
+			DataSource dataSource,
+			PlatformTransactionManager transactionManager,
+			ResidentGraphLoader graphLoader,
+			ResidentGraphCache graphCache,
+			TiledGraphStore tiledGraphStore,
+			EdgeGeometryStore edgeGeometryStore,
+			MarkerTileService markerTileService,
+			RiskMarkerIndex riskMarkerIndex
+	) {
+		this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(dataSource, "dataSource"));
+		this.transactionTemplate = new TransactionTemplate(Objects.requireNonNull(transactionManager, "transactionManager"));
+		this.graphLoader = Objects.requireNonNull(graphLoader, "graphLoader");
+		this.graphCache = Objects.requireNonNull(graphCache, "graphCache");
+		this.tiledGraphStore = Objects.requireNonNull(tiledGraphStore, "tiledGraphStore");
+		this.edgeGeometryStore = Objects.requireNonNull(edgeGeometryStore, "edgeGeometryStore");
+		this.markerTileService = Objects.requireNonNull(markerTileService, "markerTileService");
+		this.riskMarkerIndex = Objects.requireNonNull(riskMarkerIndex, "riskMarkerIndex");
+	}
+
+	/**
+	 * Imports a PBF extract from local disk, replacing the current routing graph and emptying the
+	 * {@link #RESET_TABLES} that depend on it.
+	 *
+	 * @param pbf OSM PBF extract
+	 * @return extracted network
+	 * @throws IOException if the extract cannot be read or a graph file cannot be written
+	 */
+	public OsmNetwork importExtract(Path pbf) throws IOException {
+		Objects.requireNonNull(pbf, "pbf");
+		long startedAt = System.nanoTime();
+		OsmNetwork network = OsmNetworkExtractor.extract(pbf);
+		LOG.info("Extracted {} intersections, {} segments and {} directed edges from {} in {} s",
+				network.nodeCount(), network.segmentCount(), network.edgeCount(), pbf, elapsedSeconds(startedAt));
+
+		Map<TravelMode, Long> versions = transactionTemplate.execute(status -> writeTables(network));
+		LOG.info("Wrote routing tables in {} s", elapsedSeconds(startedAt));
+
+		for (TravelMode mode : TravelMode.values()) {
+			Path graphFile = graphLoader.graphFile(mode);
+			if (graphFile != null) {
+				Files.createDirectories(graphFile.getParent());
+				GraphFile.write(network.toRoutingGraph(mode, graphLoader.precision()), versions.get(mode), graphFile);
+				LOG.info("Wrote {} graph version {} to {}", mode, versions.get(mode), graphFile);
+			}
+			graphCache.invalidate(mode);
+			tiledGraphStore.invalidate(mode);
+		}
+		edgeGeometryStore.invalidate();
+		markerTileService.invalidateAll();
+		riskMarkerIndex.invalidate();
+		LOG.info("Imported {} in {} s", pbf, elapsedSeconds(startedAt));
+		return network;
+	}
+
+	private Map<TravelMode, Long> writeTables(OsmNetwork network) {
+		LOG.info("Resetting {}", String.join(", ", RESET_TABLES));
+		jdbcTemplate.execute(TRUNCATE_SQL);
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			PGConnection pg = connection.unwrap(PGConnection.class);
+			copyNodes(pg, network);
+			copyEdges(pg, network);
+			return null;
+		});
+		jdbcTemplate.queryForList(RESET_SEQUENCES_SQL);
+
+		Map<TravelMode, Long> versions = new EnumMap<>(TravelMode.class);
+		for (TravelMode mode : TravelMode.values()) {
+			versions.put(mode, jdbcTemplate.queryForObject(BUMP_VERSION_SQL, Long.class, mode.dbValue()));
+		}
+		return versions;
+	}
+
+	private static void copyNodes(PGConnection connection, OsmNetwork network) throws SQLException {
+		CopyBuffer copy = new CopyBuffer(connection.getCopyAPI().copyIn(COPY_NODES_SQL));
+		StringBuilder row = copy.row();
+		try {
+			for (int node = 0; node < network.nodeCount(); node++) {
+				row.append(network.nodeId(node)).append('\t');
+				appendPointHex(row, network.lat(node), network.lon(node));
+				copy.endRow();
+			}
+			copy.finish();
+		} finally {
+			copy.cancelIfActive();
+		}
+	}
+
+	private static void copyEdges(PGConnection connection, OsmNetwork network) throws SQLException {
+		CopyBuffer copy = new CopyBuffer(connection.getCopyAPI().copyIn(COPY_EDGES_SQL));
+		StringBuilder row = copy.row();
+		try {
+			for (int edge = 0; edge < network.edgeCount(); edge++) {
+				OsmWayProfile profile = network.edgeProfile(edge);
+				row.append(network.edgeId(edge)).append('\t')
+						.append(network.nodeId(network.edgeSource(edge))).append('\t')
+						.append(network.nodeId(network.edgeTarget(edge))).append('\t');
+				appendLineHex(row, network, edge);
+				row.append('\t').append(network.edgeLength(edge))
+						.append('\t').append(network.edgeCost(edge))
+						.append('\t').append(network.edgeMode(edge).dbValue())
+						.append('\t');
+				appendCopyText(row, "{\"highway\":" + jsonString(profile.highway())
+						+ ",\"oneway\":" + jsonString(profile.oneway()) + "}");
+				row.append('\t').append('{').append(String.join(",", profile.tags())).append('}');
+				copy.endRow();
+			}
+			copy.finish();
+		} finally {
+			copy.cancelIfActive();
+		}
+	}
+
+	private static void appendPointHex(StringBuilder row, double lat, double lon) {
+		appendHex(row, (byte) 1);
+		appendHexInt(row, 0x2000_0001); // Point with SRID
+		appendHexInt(row, WGS84_SRID);
+		appendHexDouble(row, lon);
+		appendHexDouble(row, lat);
+	}
+
+	private static void appendLineHex(StringBuilder row, OsmNetwork network, int edge) {
+		int points = network.shapePointCount(edge);
+		appendHex(row, (byte) 1);
+		appendHexInt(row, 0x2000_0002); // LineString with SRID
+		appendHexInt(row, WGS84_SRID);
+		appendHexInt(row, points);
+		for (int point = 0; point < points; point++) {
+			appendHexDouble(row, network.shapeLon(edge, point));
+			appendHexDouble(row, network.shapeLat(edge, point));
+		}
+	}
+
+	private static void appendHexInt(StringBuilder row, int value) {
+		for (int i = 0; i < Integer.BYTES; i++) {
+			appendHex(row, (byte) (value >>> (8 * i)));
+		}
+	}
+
+	private static void appendHexDouble(StringBuilder row, double value) {
+		long bits = Double.doubleToRawLongBits(value);
+		for (int i = 0; i < Long.BYTES; i++) {
+			appendHex(row, (byte) (bits >>> (8 * i)));
+		}
+	}
+
+	private static void appendHex(StringBuilder row, byte value) {
+		row.append(HEX[(value >> 4) & 0xF]).append(HEX[value & 0xF]);
+	}
+
+	private static String jsonString(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> json.append("\\\"");
+				case '\\' -> json.append("\\\\");
+				default -> {
+					if (c < 0x20) {
+						json.append(String.format("\\u%04x", (int) c));
+					} else {
+						json.append(c);
+					}
+				}
+			}
+		}
+		return json.append('"').toString();
+	}
+
+	private static void appendCopyText(StringBuilder row, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\' -> row.append("\\\\");
+				case '\t' -> row.append("\\t");
+				case '\n' -> row.append("\\n");
+				case '\r' -> row.append("\\r");
+				default -> row.append(c);
+			}
+		}
+	}
+
+	private static long elapsedSeconds(long startedAt) {
+		return (System.nanoTime() - startedAt) / 1_000_000_000L;
+	}
+
+	/**
+	 * Batches COPY rows into large writes.
+	 */
+	private static final class CopyBuffer {
+
+		private final CopyIn copyIn;
+		private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+
+		private CopyBuffer(CopyIn copyIn) {
+			this.copyIn = copyIn;
+		}
+
+		private StringBuilder row() {
+			return buffer;
+		}
+
+		private void endRow() throws SQLException {
+			buffer.append('\n');
+			if (buffer.length() >= COPY_BUFFER_CHARS) {
+				flush();
+			}
+		}
+
+		private void finish() throws SQLException {
+			flush();
+			copyIn.endCopy();
+		}
+
+		private void cancelIfActive() throws SQLException {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+
+		private void flush() throws SQLException {
+			byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+			copyIn.writeToCopy(bytes, 0, bytes.length);
+			buffer.setLength(0);
+		}
+	}
+}
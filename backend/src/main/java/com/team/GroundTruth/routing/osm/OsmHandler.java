@@ -0,0 +1,48 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.util.Map;
+
+/**
+ * Receives OSM entities from a {@link PbfReader} pass.
+ * Entity kinds a handler does not want are skipped without being decoded.
+ */
+public interface OsmHandler {
+
+	/**
+	 * Returns true if {@link #node} should be called for this pass.
+	 *
+	 * @return whether nodes are decoded
+	 */
+	default boolean wantsNodes() {
+		return true;
+	}
+
+	/**
+	 * Returns true if {@link #way} should be called for this pass.
+	 *
+	 * @return whether ways are decoded
+	 */
+	default boolean wantsWays() {
+		return true;
+	}
+
+	/**
+	 * Called for every node.
+	 *
+	 * @param id OSM node id
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 */
+	default void node(long id, double lat, double lon) {
+	}
+
+	/**
+	 * Called for every way.
+	 *
+	 * @param id OSM way id
+	 * @param refs OSM node ids in way order
+	 * @param tags way tags
+	 */
+	default void way(long id, long[] refs, Map<String, String> tags) {
+	}
+}
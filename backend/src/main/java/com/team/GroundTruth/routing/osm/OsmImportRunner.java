@@ -0,0 +1,48 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the OSM extract at {@code routing.osm.import.file} on startup.
+ * <p>
+ * Enabled with {@code routing.osm.import.enabled=true}, e.g.
+ * {@code --routing.osm.import.enabled=true --routing.osm.import.file=/data/rhode-island-latest.osm.pbf
+ * --spring.main.web-application-type=none}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(value = "routing.osm.import.enabled", havingValue = "true")
+public class OsmImportRunner implements ApplicationRunner {
+
+	private final OsmGraphImporter importer;
+	private final String file;
+
+	public OsmImportRunner(OsmGraphImporter importer, @Value("${routing.osm.import.file:}") String file) {
+		this.importer = importer;
+		this.file = file;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (file == null || file.isBlank()) {
+			throw new IllegalStateException("routing.osm.import.file must point to a local .osm.pbf extract.");
+		}
+		Path path = Path.of(file);
+		if (!Files.isRegularFile(path)) {
+			throw new IllegalStateException("OSM extract not found: " + path);
+		}
+		try {
+			importer.importExtract(path);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to import " + path, ex);
+		}
+	}
+}
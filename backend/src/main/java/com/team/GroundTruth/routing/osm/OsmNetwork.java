@@ -0,0 +1,297 @@
+package com.team.GroundTruth.routing.osm;
+
+import com.team.GroundTruth.routing.graph.GraphPrecision;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Road network extracted from OSM: intersection nodes, undirected segments between them with
+ * their shape points, and the directed walk/drive edges derived from those segments.
+ * <p>
+ * Directed edge {@code i} gets database id {@code i + 1}, so the database rows and the binary
+ * graph file written from the same network always agree on edge ids. Node ids are OSM node ids.
+ * </p>
+ */
+public final class OsmNetwork {
+
+	private static final byte REVERSED = 1;
+	private static final byte DRIVE = 2;
+
+	private final long[] nodeIds;
+	private final double[] nodeLats;
+	private final double[] nodeLons;
+	private final int[] segmentFrom;
+	private final int[] segmentTo;
+	private final int[] shapeOffsets;
+	private final double[] shapeLats;
+	private final double[] shapeLons;
+	private final double[] segmentLengths;
+	private final int[] segmentProfiles;
+	private final List<OsmWayProfile> profiles;
+	private final int[] edgeSegments;
+	private final byte[] edgeKinds;
+
+	OsmNetwork(
+			long[] nodeIds,
+			double[] nodeLats,
+			double[] nodeLons,
+			int[] segmentFrom,
+			int[] segmentTo,
+			int[] shapeOffsets,
+			double[] shapeLats,
+			double[] shapeLons,
+			double[] segmentLengths,
+			int[] segmentProfiles,
+			List<OsmWayProfile> profiles
+	) {
+		this.nodeIds = nodeIds;
+		this.nodeLats = nodeLats;
+		this.nodeLons = nodeLons;
+		this.segmentFrom = segmentFrom;
+		this.segmentTo = segmentTo;
+		this.shapeOffsets = shapeOffsets;
+		this.shapeLats = shapeLats;
+		this.shapeLons = shapeLons;
+		this.segmentLengths = segmentLengths;
+		this.segmentProfiles = segmentProfiles;
+		this.profiles = List.copyOf(Objects.requireNonNull(profiles, "profiles"));
+
+		int edgeCount = 0;
+		for (int segment = 0; segment < segmentFrom.length; segment++) {
+			edgeCount += directions(segment, TravelMode.WALK) + directions(segment, TravelMode.DRIVE);
+		}
+		this.edgeSegments = new int[edgeCount];
+		this.edgeKinds = new byte[edgeCount];
+		int edge = 0;
+		for (int segment = 0; segment < segmentFrom.length; segment++) {
+			OsmWayProfile profile = profile(segment);
+			if (profile.walk()) {
+				edge = addEdge(edge, segment, (byte) 0);
+				edge = addEdge(edge, segment, REVERSED);
+			}
+			if (profile.drive()) {
+				if (profile.onewayDirection() >= 0) {
+					edge = addEdge(edge, segment, DRIVE);
+				}
+				if (profile.onewayDirection() <= 0) {
+					edge = addEdge(edge, segment, (byte) (DRIVE | REVERSED));
+				}
+			}
+		}
+	}
+
+	private int addEdge(int edge, int segment, byte kind) {
+		edgeSegments[edge] = segment;
+		edgeKinds[edge] = kind;
+		return edge + 1;
+	}
+
+	private int directions(int segment, TravelMode mode) {
+		OsmWayProfile profile = profile(segment);
+		if (mode == TravelMode.WALK) {
+			return profile.walk() ? 2 : 0;
+		}
+		return profile.drive() ? (profile.onewayDirection() == 0 ? 2 : 1) : 0;
+	}
+
+	/**
+	 * Returns the number of intersection nodes.
+	 *
+	 * @return node count
+	 */
+	public int nodeCount() {
+		return nodeIds.length;
+	}
+
+	/**
+	 * Returns the OSM id of a node.
+	 *
+	 * @param node node index
+	 * @return OSM node id, also used as {@code nodes.id}
+	 */
+	public long nodeId(int node) {
+		return nodeIds[node];
+	}
+
+	/**
+	 * Returns the latitude of a node.
+	 *
+	 * @param node node index
+	 * @return latitude in decimal degrees
+	 */
+	public double lat(int node) {
+		return nodeLats[node];
+	}
+
+	/**
+	 * Returns the longitude of a node.
+	 *
+	 * @param node node index
+	 * @return longitude in decimal degrees
+	 */
+	public double lon(int node) {
+		return nodeLons[node];
+	}
+
+	/**
+	 * Returns the number of undirected segments.
+	 *
+	 * @return segment count
+	 */
+	public int segmentCount() {
+		return segmentFrom.length;
+	}
+
+	/**
+	 * Returns the number of directed edges over both travel modes.
+	 *
+	 * @return edge count
+	 */
+	public int edgeCount() {
+		return edgeSegments.length;
+	}
+
+	/**
+	 * Returns the database id of a directed edge.
+	 *
+	 * @param edge edge index
+	 * @return edge id
+	 */
+	public long edgeId(int edge) {
+		return edge + 1L;
+	}
+
+	/**
+	 * Returns the travel mode of an edge.
+	 *
+	 * @param edge edge index
+	 * @return travel mode
+	 */
+	public TravelMode edgeMode(int edge) {
+		return (edgeKinds[edge] & DRIVE) != 0 ? TravelMode.DRIVE : TravelMode.WALK;
+	}
+
+	/**
+	 * Returns the source node index of an edge.
+	 *
+	 * @param edge edge index
+	 * @return source node index
+	 */
+	public int edgeSource(int edge) {
+		int segment = edgeSegments[edge];
+		return reversed(edge) ? segmentTo[segment] : segmentFrom[segment];
+	}
+
+	/**
+	 * Returns the target node index of an edge.
+	 *
+	 * @param edge edge index
+	 * @return target node index
+	 */
+	public int edgeTarget(int edge) {
+		int segment = edgeSegments[edge];
+		return reversed(edge) ? segmentFrom[segment] : segmentTo[segment];
+	}
+
+	/**
+	 * Returns the length of an edge along its shape.
+	 *
+	 * @param edge edge index
+	 * @return length in meters
+	 */
+	public double edgeLength(int edge) {
+		return segmentLengths[edgeSegments[edge]];
+	}
+
+	/**
+	 * Returns the base traversal cost of an edge.
+	 *
+	 * @param edge edge index
+	 * @return cost in seconds
+	 */
+	public double edgeCost(int edge) {
+		OsmWayProfile profile = edgeProfile(edge);
+		double length = edgeLength(edge);
+		return edgeMode(edge) == TravelMode.DRIVE ? profile.driveCostSeconds(length) : profile.walkCostSeconds(length);
+	}
+
+	/**
+	 * Returns the way profile an edge was derived from.
+	 *
+	 * @param edge edge index
+	 * @return way profile
+	 */
+	public OsmWayProfile edgeProfile(int edge) {
+		return profile(edgeSegments[edge]);
+	}
+
+	/**
+	 * Returns the number of shape points of an edge, endpoints included.
+	 *
+	 * @param edge edge index
+	 * @return point count
+	 */
+	public int shapePointCount(int edge) {
+		int segment = edgeSegments[edge];
+		return shapeOffsets[segment + 1] - shapeOffsets[segment];
+	}
+
+	/**
+	 * Returns a shape point latitude in edge direction.
+	 *
+	 * @param edge edge index
+	 * @param point point index along the edge
+	 * @return latitude in decimal degrees
+	 */
+	public double shapeLat(int edge, int point) {
+		return shapeLats[shapeIndex(edge, point)];
+	}
+
+	/**
+	 * Returns a shape point longitude in edge direction.
+	 *
+	 * @param edge edge index
+	 * @param point point index along the edge
+	 * @return longitude in decimal degrees
+	 */
+	public double shapeLon(int edge, int point) {
+		return shapeLons[shapeIndex(edge, point)];
+	}
+
+	/**
+	 * Builds the resident routing graph of one travel mode.
+	 *
+	 * @param mode travel mode
+	 * @param precision storage precision of the graph
+	 * @return routing graph with the same node and edge ids as the database rows
+	 */
+	public RoutingGraph toRoutingGraph(TravelMode mode, GraphPrecision precision) {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(mode).precision(precision);
+		for (int node = 0; node < nodeIds.length; node++) {
+			builder.addNode(nodeIds[node], nodeLats[node], nodeLons[node]);
+		}
+		for (int edge = 0; edge < edgeSegments.length; edge++) {
+			if (edgeMode(edge) == mode) {
+				builder.addEdge(edgeId(edge), nodeIds[edgeSource(edge)], nodeIds[edgeTarget(edge)],
+						edgeLength(edge), edgeCost(edge), edgeProfile(edge).flags());
+			}
+		}
+		return builder.build();
+	}
+
+	private boolean reversed(int edge) {
+		return (edgeKinds[edge] & REVERSED) != 0;
+	}
+
+	private int shapeIndex(int edge, int point) {
+		int segment = edgeSegments[edge];
+		return reversed(edge) ? shapeOffsets[segment + 1] - 1 - point : shapeOffsets[segment] + point;
+	}
+
+	private OsmWayProfile profile(int segment) {
+		return profiles.get(segmentProfiles[segment]);
+	}
+}
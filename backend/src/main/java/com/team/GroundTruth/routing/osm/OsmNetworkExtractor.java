@@ -0,0 +1,270 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link OsmNetwork} from an OSM extract in two streaming passes.
+ * <p>
+ * The first pass keeps routable ways and counts how often each node is referenced; the second
+ * pass only keeps coordinates of referenced nodes. Ways are then cut at intersections (nodes
+ * referenced more than once, plus way ends), so every run of degree-2 nodes becomes a single
+ * segment whose interior nodes survive only as shape points.
+ * </p>
+ */
+public final class OsmNetworkExtractor {
+
+	private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	/**
+	 * Source of OSM entities; invoked once per pass.
+	 */
+	@FunctionalInterface
+	public interface OsmSource {
+		void read(OsmHandler handler) throws IOException;
+	}
+
+	private OsmNetworkExtractor() {
+	}
+
+	/**
+	 * Extracts the network from a PBF file on local disk.
+	 *
+	 * @param pbf OSM PBF extract
+	 * @return extracted network
+	 * @throws IOException if the file cannot be read
+	 */
+	public static OsmNetwork extract(Path pbf) throws IOException {
+		return extract(handler -> PbfReader.read(pbf, handler));
+	}
+
+	/**
+	 * Extracts the network from an entity source.
+	 *
+	 * @param source entity source, read twice
+	 * @return extracted network
+	 * @throws IOException if the source cannot be read
+	 */
+	public static OsmNetwork extract(OsmSource source) throws IOException {
+		WayCollector ways = new WayCollector();
+		source.read(ways);
+
+		int referenced = ways.nodeIndex.size();
+		double[] lats = new double[referenced];
+		double[] lons = new double[referenced];
+		Arrays.fill(lats, Double.NaN);
+		source.read(new OsmHandler() {
+			@Override
+			public boolean wantsWays() {
+				return false;
+			}
+
+			@Override
+			public void node(long id, double lat, double lon) {
+				int index = ways.nodeIndex.get(id);
+				if (index >= 0) {
+					lats[index] = lat;
+					lons[index] = lon;
+				}
+			}
+		});
+
+		return ways.split(lats, lons);
+	}
+
+	private static final class WayCollector implements OsmHandler {
+
+		private final LongIntMap nodeIndex = new LongIntMap(INITIAL_CAPACITY);
+		private final Map<OsmWayProfile, Integer> profileIndex = new HashMap<>();
+		private final List<OsmWayProfile> profiles = new ArrayList<>();
+		private long[] referencedIds = new long[INITIAL_CAPACITY];
+		private int[] references = new int[INITIAL_CAPACITY];
+
+		private int wayCount;
+		private int[] wayStarts = new int[INITIAL_CAPACITY + 1];
+		private int[] wayProfiles = new int[INITIAL_CAPACITY];
+		private int refCount;
+		private int[] wayRefs = new int[INITIAL_CAPACITY];
+
+		@Override
+		public boolean wantsNodes() {
+			return false;
+		}
+
+		@Override
+		public void way(long id, long[] refs, Map<String, String> tags) {
+			if (refs.length < 2) {
+				return;
+			}
+			OsmWayProfile profile = OsmWayProfile.of(tags);
+			if (profile == null) {
+				return;
+			}
+			if (wayCount + 1 >= wayStarts.length) {
+				wayStarts = Arrays.copyOf(wayStarts, wayStarts.length * 2);
+				wayProfiles = Arrays.copyOf(wayProfiles, wayProfiles.length * 2);
+			}
+			if (refCount + refs.length > wayRefs.length) {
+				wayRefs = Arrays.copyOf(wayRefs, Math.max(wayRefs.length * 2, refCount + refs.length));
+			}
+			wayProfiles[wayCount] = profileIndex.computeIfAbsent(profile, key -> {
+				profiles.add(key);
+				return profiles.size() - 1;
+			});
+			for (int i = 0; i < refs.length; i++) {
+				int node = nodeIndex.putIfAbsent(refs[i]);
+				if (node >= references.length) {
+					references = Arrays.copyOf(references, references.length * 2);
+					referencedIds = Arrays.copyOf(referencedIds, referencedIds.length * 2);
+				}
+				referencedIds[node] = refs[i];
+				// Way ends always terminate a segment, so count them as intersections.
+				references[node] += (i == 0 || i == refs.length - 1) ? 2 : 1;
+				wayRefs[refCount++] = node;
+			}
+			wayCount++;
+			wayStarts[wayCount] = refCount;
+		}
+
+		private OsmNetwork split(double[] lats, double[] lons) {
+			SegmentBuffer segments = new SegmentBuffer(nodeIndex.size());
+			for (int way = 0; way < wayCount; way++) {
+				int start = wayStarts[way];
+				int end = wayStarts[way + 1];
+				int segmentStart = -1;
+				for (int i = start; i < end; i++) {
+					int node = wayRefs[i];
+					if (Double.isNaN(lats[node])) {
+						// Node outside the extract: drop the partial segment and restart after it.
+						segmentStart = -1;
+						continue;
+					}
+					if (segmentStart < 0) {
+						segmentStart = i;
+						continue;
+					}
+					boolean last = i == end - 1 || Double.isNaN(lats[wayRefs[i + 1]]);
+					if (last || references[node] >= 2) {
+						segments.add(wayRefs, segmentStart, i, lats, lons, wayProfiles[way]);
+						segmentStart = i;
+					}
+				}
+			}
+			return segments.build(referencedIds, lats, lons, profiles);
+		}
+	}
+
+	private static final class SegmentBuffer {
+
+		private final int[] graphNode;
+		private int graphNodeCount;
+		private int[] graphNodeSource = new int[INITIAL_CAPACITY];
+
+		private int count;
+		private int[] from = new int[INITIAL_CAPACITY];
+		private int[] to = new int[INITIAL_CAPACITY];
+		private int[] profiles = new int[INITIAL_CAPACITY];
+		private double[] lengths = new double[INITIAL_CAPACITY];
+		private int[] shapeOffsets = new int[INITIAL_CAPACITY + 1];
+		private int shapeCount;
+		private double[] shapeLats = new double[INITIAL_CAPACITY];
+		private double[] shapeLons = new double[INITIAL_CAPACITY];
+
+		private SegmentBuffer(int referencedNodes) {
+			this.graphNode = new int[referencedNodes];
+			Arrays.fill(graphNode, -1);
+		}
+
+		private void add(int[] refs, int first, int last, double[] lats, double[] lons, int profile) {
+			double length = 0.0;
+			for (int i = first + 1; i <= last; i++) {
+				length += haversineMeters(lats[refs[i - 1]], lons[refs[i - 1]], lats[refs[i]], lons[refs[i]]);
+			}
+			if (length <= 0.0) {
+				return;
+			}
+			if (count + 1 >= shapeOffsets.length) {
+				int capacity = from.length * 2;
+				from = Arrays.copyOf(from, capacity);
+				to = Arrays.copyOf(to, capacity);
+				profiles = Arrays.copyOf(profiles, capacity);
+				lengths = Arrays.copyOf(lengths, capacity);
+				shapeOffsets = Arrays.copyOf(shapeOffsets, capacity + 1);
+			}
+			int points = last - first + 1;
+			if (shapeCount + points > shapeLats.length) {
+				int capacity = Math.max(shapeLats.length * 2, shapeCount + points);
+				shapeLats = Arrays.copyOf(shapeLats, capacity);
+				shapeLons = Arrays.copyOf(shapeLons, capacity);
+			}
+			for (int i = first; i <= last; i++) {
+				shapeLats[shapeCount] = lats[refs[i]];
+				shapeLons[shapeCount] = lons[refs[i]];
+				shapeCount++;
+			}
+			from[count] = graphNode(refs[first]);
+			to[count] = graphNode(refs[last]);
+			profiles[count] = profile;
+			lengths[count] = length;
+			count++;
+			shapeOffsets[count] = shapeCount;
+		}
+
+		private int graphNode(int referencedNode) {
+			int node = graphNode[referencedNode];
+			if (node < 0) {
+				if (graphNodeCount == graphNodeSource.length) {
+					graphNodeSource = Arrays.copyOf(graphNodeSource, graphNodeCount * 2);
+				}
+				node = graphNodeCount++;
+				graphNode[referencedNode] = node;
+				graphNodeSource[node] = referencedNode;
+			}
+			return node;
+		}
+
+		private OsmNetwork build(long[] referencedIds, double[] lats, double[] lons, List<OsmWayProfile> profileList) {
+			long[] nodeIds = new long[graphNodeCount];
+			double[] nodeLats = new double[graphNodeCount];
+			double[] nodeLons = new double[graphNodeCount];
+			for (int node = 0; node < graphNodeCount; node++) {
+				int source = graphNodeSource[node];
+				nodeIds[node] = referencedIds[source];
+				nodeLats[node] = lats[source];
+				nodeLons[node] = lons[source];
+			}
+			return new OsmNetwork(
+					nodeIds,
+					nodeLats,
+					nodeLons,
+					Arrays.copyOf(from, count),
+					Arrays.copyOf(to, count),
+					Arrays.copyOf(shapeOffsets, count + 1),
+					Arrays.copyOf(shapeLats, shapeCount),
+					Arrays.copyOf(shapeLons, shapeCount),
+					Arrays.copyOf(lengths, count),
+					Arrays.copyOf(profiles, count),
+					profileList
+			);
+		}
+	}
+
+	private static double haversineMeters(double latA, double lonA, double latB, double lonB) {
+		double lat1 = Math.toRadians(latA);
+		double lat2 = Math.toRadians(latB);
+		double dLat = lat2 - lat1;
+		double dLon = Math.toRadians(lonB - lonA);
+
+		double sinLat = Math.sin(dLat / 2.0);
+		double sinLon = Math.sin(dLon / 2.0);
+		double h = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLon * sinLon;
+		double c = 2.0 * Math.atan2(Math.sqrt(h), Math.sqrt(1.0 - h));
+		return EARTH_RADIUS_METERS * c;
+	}
+}
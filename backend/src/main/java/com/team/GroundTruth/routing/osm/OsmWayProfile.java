@@ -0,0 +1,155 @@
+package com.team.GroundTruth.routing.osm;
+
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routing-relevant attributes of an OSM way, derived from its tags.
+ * <p>
+ * Walk edges are two-way on footways and general roads at 1.4 m/s (1.0 m/s on steps); drive
+ * edges follow {@code oneway} on the road classes at a per-class speed.
+ * </p>
+ *
+ * @param highway {@code highway} tag value
+ * @param oneway raw {@code oneway} tag value, or {@code null}
+ * @param onewayDirection 1 for forward only, -1 for reverse only, 0 for both directions
+ * @param walk true if the way is walkable
+ * @param drive true if the way is drivable
+ * @param tags routing tags stored in {@code edges.tags}
+ */
+public record OsmWayProfile(
+		String highway,
+		String oneway,
+		int onewayDirection,
+		boolean walk,
+		boolean drive,
+		List<String> tags
+) {
+
+	private static final Set<String> WALK_HIGHWAYS = Set.of(
+			"footway", "pedestrian", "path", "living_street", "residential", "service", "track",
+			"unclassified", "tertiary", "secondary", "primary", "cycleway", "steps", "corridor", "road"
+	);
+
+	private static final Set<String> DRIVE_HIGHWAYS = Set.of(
+			"motorway", "motorway_link", "trunk", "trunk_link", "primary", "primary_link",
+			"secondary", "secondary_link", "tertiary", "tertiary_link", "residential",
+			"unclassified", "service", "living_street", "road"
+	);
+
+	private static final Set<String> UNPAVED_SURFACES = Set.of(
+			"unpaved", "gravel", "fine_gravel", "dirt", "earth", "ground", "grass", "mud", "sand", "compacted"
+	);
+
+	private static final double WALK_SPEED_MPS = 1.4;
+	private static final double STEPS_SPEED_MPS = 1.0;
+
+	/**
+	 * Derives the profile of a way.
+	 *
+	 * @param tags way tags
+	 * @return profile, or {@code null} if the way is neither walkable nor drivable
+	 */
+	public static OsmWayProfile of(Map<String, String> tags) {
+		String highway = tags.get("highway");
+		if (highway == null) {
+			return null;
+		}
+		boolean walk = WALK_HIGHWAYS.contains(highway);
+		boolean drive = DRIVE_HIGHWAYS.contains(highway);
+		if (!walk && !drive) {
+			return null;
+		}
+		String oneway = tags.get("oneway");
+		int direction = 0;
+		if ("-1".equals(oneway) || "reverse".equals(oneway)) {
+			direction = -1;
+		} else if ("yes".equals(oneway) || "true".equals(oneway) || "1".equals(oneway)) {
+			direction = 1;
+		}
+		return new OsmWayProfile(highway, oneway, direction, walk, drive, routingTags(highway, tags));
+	}
+
+	/**
+	 * Returns the walking traversal cost of a segment of this way.
+	 *
+	 * @param lengthMeters segment length
+	 * @return cost in seconds
+	 */
+	public double walkCostSeconds(double lengthMeters) {
+		return lengthMeters / ("steps".equals(highway) ? STEPS_SPEED_MPS : WALK_SPEED_MPS);
+	}
+
+	/**
+	 * Returns the driving traversal cost of a segment of this way.
+	 *
+	 * @param lengthMeters segment length
+	 * @return cost in seconds
+	 */
+	public double driveCostSeconds(double lengthMeters) {
+		String base = highway.endsWith("_link") ? highway.substring(0, highway.length() - "_link".length()) : highway;
+		double speed = switch (base) {
+			case "motorway" -> 27.8;
+			case "trunk" -> 24.6;
+			case "primary" -> 20.1;
+			case "secondary" -> 17.9;
+			case "tertiary" -> 15.6;
+			case "residential", "living_street", "service", "unclassified", "road" -> 11.1;
+			default -> 13.9;
+		};
+		return lengthMeters / speed;
+	}
+
+	/**
+	 * Returns the packed {@link EdgeFlags} of this way.
+	 *
+	 * @return edge flags
+	 */
+	public long flags() {
+		return EdgeFlags.of(highway, tags.toArray(String[]::new));
+	}
+
+	private static List<String> routingTags(String highway, Map<String, String> tags) {
+		List<String> result = new ArrayList<>();
+		if ("steps".equals(highway)) {
+			result.add("steps");
+		}
+		if ("no".equals(tags.get("wheelchair"))) {
+			result.add("wheelchair_no");
+		}
+		String surface = tags.get("surface");
+		if (surface != null && UNPAVED_SURFACES.contains(surface)) {
+			result.add("unpaved");
+		}
+		if ("no".equals(tags.get("lit"))) {
+			result.add("unlit");
+		}
+		if ("crossing".equals(tags.get("footway")) || tags.containsKey("crossing")) {
+			result.add("crossing");
+		}
+		if (isYes(tags.get("tunnel"))) {
+			result.add("tunnel");
+		}
+		if (isYes(tags.get("bridge"))) {
+			result.add("bridge");
+		}
+		if ("elevator".equals(highway) || isYes(tags.get("elevator"))) {
+			result.add("elevator");
+		}
+		if (isYes(tags.get("ramp")) || isYes(tags.get("ramp:wheelchair"))) {
+			result.add("ramp");
+		}
+		String access = tags.get("access");
+		if ("private".equals(access) || "no".equals(access)) {
+			result.add("private");
+		}
+		return List.copyOf(result);
+	}
+
+	private static boolean isYes(String value) {
+		return value != null && !"no".equals(value) && !"false".equals(value) && !"0".equals(value);
+	}
+}
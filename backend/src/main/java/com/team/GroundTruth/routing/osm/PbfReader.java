@@ -0,0 +1,311 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streaming reader for OSM PBF extracts.
+ * <p>
+ * Blocks are read and inflated one at a time, so memory use is bounded by the largest block
+ * (32 MiB by the format spec) regardless of extract size. Only the parts of the format needed
+ * for routing are decoded: dense and plain nodes with their coordinates, and ways with their
+ * node references and tags. Relations are skipped.
+ * </p>
+ */
+public final class PbfReader {
+
+	private static final int MAX_HEADER_BYTES = 64 * 1024;
+	private static final int MAX_BLOB_BYTES = 32 * 1024 * 1024;
+	private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes");
+
+	private PbfReader() {
+	}
+
+	/**
+	 * Reads a PBF file from disk and feeds its entities to a handler.
+	 *
+	 * @param file PBF extract
+	 * @param handler entity handler
+	 * @throws IOException if the file cannot be read or is malformed
+	 */
+	public static void read(Path file, OsmHandler handler) throws IOException {
+		try (InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+			read(input, handler);
+		}
+	}
+
+	/**
+	 * Reads a PBF stream and feeds its entities to a handler.
+	 *
+	 * @param input PBF stream
+	 * @param handler entity handler
+	 * @throws IOException if the stream cannot be read or is malformed
+	 */
+	public static void read(InputStream input, OsmHandler handler) throws IOException {
+		DataInputStream data = new DataInputStream(input);
+		Inflater inflater = new Inflater();
+		try {
+			while (true) {
+				int headerLength;
+				try {
+					headerLength = data.readInt();
+				} catch (EOFException end) {
+					return;
+				}
+				if (headerLength <= 0 || headerLength > MAX_HEADER_BYTES) {
+					throw new IOException("Invalid blob header length " + headerLength + ".");
+				}
+				String type = null;
+				int dataSize = -1;
+				ProtoReader header = new ProtoReader(data.readNBytes(headerLength));
+				while (header.next()) {
+					switch (header.field()) {
+						case 1 -> type = header.readString();
+						case 3 -> dataSize = (int) header.readVarint();
+						default -> header.skip();
+					}
+				}
+				if (dataSize < 0 || dataSize > MAX_BLOB_BYTES) {
+					throw new IOException("Invalid blob size " + dataSize + ".");
+				}
+				byte[] blob = data.readNBytes(dataSize);
+				if (blob.length != dataSize) {
+					throw new IOException("Truncated blob.");
+				}
+				if ("OSMHeader".equals(type)) {
+					checkHeader(inflate(blob, inflater));
+				} else if ("OSMData".equals(type) && (handler.wantsNodes() || handler.wantsWays())) {
+					readPrimitiveBlock(inflate(blob, inflater), handler);
+				}
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] inflate(byte[] blob, Inflater inflater) throws IOException {
+		byte[] raw = null;
+		byte[] zlib = null;
+		int rawSize = -1;
+		ProtoReader reader = new ProtoReader(blob);
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> raw = reader.readBytes();
+				case 2 -> rawSize = (int) reader.readVarint();
+				case 3 -> zlib = reader.readBytes();
+				case 4, 6, 7 -> throw new IOException("Unsupported blob compression (field " + reader.field() + ").");
+				default -> reader.skip();
+			}
+		}
+		if (raw != null) {
+			return raw;
+		}
+		if (zlib == null || rawSize < 0 || rawSize > MAX_BLOB_BYTES) {
+			throw new IOException("Blob has no usable payload.");
+		}
+		byte[] out = new byte[rawSize];
+		inflater.reset();
+		inflater.setInput(zlib);
+		try {
+			int written = 0;
+			while (written < rawSize) {
+				int n = inflater.inflate(out, written, rawSize - written);
+				if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				written += n;
+			}
+			if (written != rawSize) {
+				throw new IOException("Inflated blob size " + written + " does not match " + rawSize + ".");
+			}
+		} catch (DataFormatException ex) {
+			throw new IOException("Corrupt zlib blob.", ex);
+		}
+		return out;
+	}
+
+	private static void checkHeader(byte[] block) throws IOException {
+		ProtoReader reader = new ProtoReader(block);
+		while (reader.next()) {
+			if (reader.field() == 4) {
+				String feature = reader.readString();
+				if (!SUPPORTED_FEATURES.contains(feature)) {
+					throw new IOException("Unsupported required PBF feature: " + feature);
+				}
+			} else {
+				reader.skip();
+			}
+		}
+	}
+
+	private static void readPrimitiveBlock(byte[] block, OsmHandler handler) throws IOException {
+		String[] strings = new String[0];
+		long granularity = 100L;
+		long latOffset = 0L;
+		long lonOffset = 0L;
+		ProtoReader[] groups = new ProtoReader[8];
+		int groupCount = 0;
+
+		ProtoReader reader = new ProtoReader(block);
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> strings = readStringTable(reader.readMessage());
+				case 2 -> {
+					if (groupCount == groups.length) {
+						groups = Arrays.copyOf(groups, groupCount * 2);
+					}
+					groups[groupCount++] = reader.readMessage();
+				}
+				case 17 -> granularity = reader.readVarint();
+				case 19 -> latOffset = reader.readVarint();
+				case 20 -> lonOffset = reader.readVarint();
+				default -> reader.skip();
+			}
+		}
+
+		Coordinates coordinates = new Coordinates(granularity, latOffset, lonOffset);
+		for (int i = 0; i < groupCount; i++) {
+			ProtoReader group = groups[i];
+			while (group.next()) {
+				switch (group.field()) {
+					case 1 -> {
+						if (handler.wantsNodes()) {
+							readNode(group.readMessage(), coordinates, handler);
+						} else {
+							group.skip();
+						}
+					}
+					case 2 -> {
+						if (handler.wantsNodes()) {
+							readDenseNodes(group.readMessage(), coordinates, handler);
+						} else {
+							group.skip();
+						}
+					}
+					case 3 -> {
+						if (handler.wantsWays()) {
+							readWay(group.readMessage(), strings, handler);
+						} else {
+							group.skip();
+						}
+					}
+					default -> group.skip();
+				}
+			}
+		}
+	}
+
+	private static String[] readStringTable(ProtoReader reader) throws IOException {
+		String[] strings = new String[64];
+		int count = 0;
+		while (reader.next()) {
+			if (reader.field() == 1) {
+				if (count == strings.length) {
+					strings = Arrays.copyOf(strings, count * 2);
+				}
+				strings[count++] = reader.readString();
+			} else {
+				reader.skip();
+			}
+		}
+		return Arrays.copyOf(strings, count);
+	}
+
+	private static void readNode(ProtoReader reader, Coordinates coordinates, OsmHandler handler) throws IOException {
+		long id = 0L;
+		long lat = 0L;
+		long lon = 0L;
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> id = reader.readSignedVarint();
+				case 8 -> lat = reader.readSignedVarint();
+				case 9 -> lon = reader.readSignedVarint();
+				default -> reader.skip();
+			}
+		}
+		handler.node(id, coordinates.lat(lat), coordinates.lon(lon));
+	}
+
+	private static void readDenseNodes(ProtoReader reader, Coordinates coordinates, OsmHandler handler)
+			throws IOException {
+		long[] ids = new long[0];
+		long[] lats = new long[0];
+		long[] lons = new long[0];
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> ids = reader.readPackedVarints(true);
+				case 8 -> lats = reader.readPackedVarints(true);
+				case 9 -> lons = reader.readPackedVarints(true);
+				default -> reader.skip();
+			}
+		}
+		if (lats.length != ids.length || lons.length != ids.length) {
+			throw new IOException("Dense node arrays have mismatched lengths.");
+		}
+		long id = 0L;
+		long lat = 0L;
+		long lon = 0L;
+		for (int i = 0; i < ids.length; i++) {
+			id += ids[i];
+			lat += lats[i];
+			lon += lons[i];
+			handler.node(id, coordinates.lat(lat), coordinates.lon(lon));
+		}
+	}
+
+	private static void readWay(ProtoReader reader, String[] strings, OsmHandler handler) throws IOException {
+		long id = 0L;
+		long[] keys = new long[0];
+		long[] values = new long[0];
+		long[] refs = new long[0];
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> id = reader.readVarint();
+				case 2 -> keys = reader.readPackedVarints(false);
+				case 3 -> values = reader.readPackedVarints(false);
+				case 8 -> refs = reader.readPackedVarints(true);
+				default -> reader.skip();
+			}
+		}
+		if (keys.length != values.length) {
+			throw new IOException("Way " + id + " has mismatched tag arrays.");
+		}
+		Map<String, String> tags = new HashMap<>(Math.max(4, keys.length * 2));
+		for (int i = 0; i < keys.length; i++) {
+			tags.put(string(strings, keys[i]), string(strings, values[i]));
+		}
+		for (int i = 1; i < refs.length; i++) {
+			refs[i] += refs[i - 1];
+		}
+		handler.way(id, refs, tags);
+	}
+
+	private static String string(String[] strings, long index) throws IOException {
+		if (index < 0 || index >= strings.length) {
+			throw new IOException("String table index " + index + " out of range.");
+		}
+		return strings[(int) index];
+	}
+
+	private record Coordinates(long granularity, long latOffset, long lonOffset) {
+
+		double lat(long value) {
+			return 1e-9 * (latOffset + granularity * value);
+		}
+
+		double lon(long value) {
+			return 1e-9 * (lonOffset + granularity * value);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal protobuf wire-format reader over a byte range, covering what OSM PBF needs:
+ * varints, zig-zag signed varints, length-delimited fields and packed repeated scalars.
+ */
+final class ProtoReader {
+
+	static final int WIRE_VARINT = 0;
+	static final int WIRE_FIXED64 = 1;
+	static final int WIRE_LENGTH_DELIMITED = 2;
+	static final int WIRE_FIXED32 = 5;
+
+	private final byte[] buffer;
+	private final int limit;
+	private int position;
+	private int tag;
+
+	ProtoReader(byte[] buffer) {
+		this(buffer, 0, buffer.length);
+	}
+
+	ProtoReader(byte[] buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.position = offset;
+		this.limit = offset + length;
+	}
+
+	/**
+	 * Advances to the next field.
+	 *
+	 * @return false once the message is exhausted
+	 */
+	boolean next() throws IOException {
+		if (position >= limit) {
+			return false;
+		}
+		tag = (int) readVarint();
+		return true;
+	}
+
+	int field() {
+		return tag >>> 3;
+	}
+
+	int wireType() {
+		return tag & 0x7;
+	}
+
+	long readVarint() throws IOException {
+		long result = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (position >= limit) {
+				throw new IOException("Truncated varint.");
+			}
+			byte b = buffer[position++];
+			result |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed varint.");
+	}
+
+	long readSignedVarint() throws IOException {
+		long raw = readVarint();
+		return (raw >>> 1) ^ -(raw & 1L);
+	}
+
+	int readLength() throws IOException {
+		long length = readVarint();
+		if (length < 0 || length > limit - position) {
+			throw new IOException("Length-delimited field exceeds message bounds.");
+		}
+		return (int) length;
+	}
+
+	/**
+	 * Returns a reader over the current length-delimited field and skips past it.
+	 */
+	ProtoReader readMessage() throws IOException {
+		int length = readLength();
+		ProtoReader message = new ProtoReader(buffer, position, length);
+		position += length;
+		return message;
+	}
+
+	byte[] readBytes() throws IOException {
+		int length = readLength();
+		byte[] bytes = new byte[length];
+		System.arraycopy(buffer, position, bytes, 0, length);
+		position += length;
+		return bytes;
+	}
+
+	String readString() throws IOException {
+		int length = readLength();
+		String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	/**
+	 * Reads a packed repeated varint field, or a single unpacked element.
+	 */
+	long[] readPackedVarints(boolean signed) throws IOException {
+		if (wireType() == WIRE_VARINT) {
+			return new long[]{signed ? readSignedVarint() : readVarint()};
+		}
+		int length = readLength();
+		int end = position + length;
+		long[] values = new long[16];
+		int count = 0;
+		ProtoReader packed = new ProtoReader(buffer, position, length);
+		while (packed.position < end) {
+			if (count == values.length) {
+				values = Arrays.copyOf(values, count * 2);
+			}
+			values[count++] = signed ? packed.readSignedVarint() : packed.readVarint();
+		}
+		position = end;
+		return count == values.length ? values : Arrays.copyOf(values, count);
+	}
+
+	void skip() throws IOException {
+		switch (wireType()) {
+			case WIRE_VARINT -> readVarint();
+			case WIRE_FIXED64 -> position += 8;
+			case WIRE_LENGTH_DELIMITED -> {
+				int length = readLength();
+				position += length;
+			}
+			case WIRE_FIXED32 -> position += 4;
+			default -> throw new IOException("Unsupported wire type " + wireType() + ".");
+		}
+		if (position > limit) {
+			throw new IOException("Field exceeds message bounds.");
+		}
+	}
+}
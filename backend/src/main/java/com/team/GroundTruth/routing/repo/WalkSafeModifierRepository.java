@@ -106,4 +106,36 @@ public interface WalkSafeModifierRepository extends JpaRepository<WalkSafeModifi
 			@Param("minCrime") double minCrime,
 			@Param("maxDensity") double maxDensity
 	);
-}
\ No newline at end of file
+
+	/**
+	 * Finds the modifiers exceeding any risk threshold on walk edges overlapping a bounding box.
+	 *
+	 * @param minLon minimum longitude
+	 * @param minLat minimum latitude
+	 * @param maxLon maximum longitude
+	 * @param maxLat maximum latitude
+	 * @param maxStreetlight max streetlight value (below = risky)
+	 * @param minCrime min crime value (above = risky)
+	 * @param maxDensity max density value (below = risky)
+	 * @return risky modifiers within the box
+	 */
+	@Query(value = """
+			SELECT m.*
+			FROM walk_safe_modifiers m
+			JOIN edges e ON e.id = m.edge_id
+			WHERE e.mode = 'walk'
+			  AND e.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+			  AND ((m.streetlight IS NOT NULL AND m.streetlight <= :maxStreetlight)
+			    OR (m.crime_in_area IS NOT NULL AND m.crime_in_area >= :minCrime)
+			    OR (m.pop_density IS NOT NULL AND m.pop_density <= :maxDensity))
+			""", nativeQuery = true)
+	List<WalkSafeModifierEntity> findRiskyAreasInBounds(
+			@Param("minLon") double minLon,
+			@Param("minLat") double minLat,
+			@Param("maxLon") double maxLon,
+			@Param("maxLat") double maxLat,
+			@Param("maxStreetlight") double maxStreetlight,
+			@Param("minCrime") double minCrime,
+			@Param("maxDensity") double maxDensity
+	);
+}
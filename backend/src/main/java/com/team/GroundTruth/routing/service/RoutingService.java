@@ -1,12 +1,21 @@
 package com.team.GroundTruth.routing.service;
 
+import com.team.GroundTruth.routing.model.ComponentStats;
 import com.team.GroundTruth.routing.model.Location;
+import com.team.GroundTruth.routing.model.MultiStopRouteResult;
 import com.team.GroundTruth.routing.model.RouteResult;
 import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.RoutingProfile;
 import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.List;
 
 /**
  * Service for walking-path routing over the map graph.
+ * <p>
+ * A {@code radiusMeters} argument bounds the search on the resident graph. With
+ * {@code routing.graph.tiles.enabled} or {@code routing.shards.enabled} routes are searched over
+ * the whole graph instead, and the radius is ignored.
+ * </p>
  */
 public interface RoutingService {
 
@@ -69,6 +78,37 @@ public interface RoutingService {
 	 */
 	RouteResult route(Location start, Location end, double radiusMeters, RouteType routeType);
 
+	/**
+	 * Computes a route over the resident graph using a route type (cost strategy) and a routing
+	 * profile that excludes edges by their highway class and tags (e.g. stairs for wheelchairs).
+	 *
+	 * @param start start coordinate
+	 * @param end end coordinate
+	 * @param routeType the route type determining cost strategy
+	 * @param profile the routing profile determining which edges may be traversed
+	 * @return routing result with node and edge paths
+	 */
+	RouteResult route(Location start, Location end, RouteType routeType, RoutingProfile profile);
+
+	/**
+	 * Computes a route through several stops over the resident graph.
+	 * Every stop is snapped once and all legs share one cost snapshot. When the order is
+	 * optimized, the first and last stops stay fixed and the intermediate stops are reordered
+	 * using a leg matrix computed with one one-to-many search per stop.
+	 *
+	 * @param stops stops in requested order; at least two
+	 * @param routeType the route type determining cost strategy
+	 * @param profile the routing profile determining which edges may be traversed
+	 * @param optimizeOrder true to reorder intermediate stops for the lowest total duration
+	 * @return multi-stop result with the visiting order, legs and joined route
+	 */
+	MultiStopRouteResult routeMultiStop(
+			List<Location> stops,
+			RouteType routeType,
+			RoutingProfile profile,
+			boolean optimizeOrder
+	);
+
 	/**
 	 * Computes a safe walking route avoiding high-crime, poorly-lit areas.
 	 *
@@ -108,4 +148,13 @@ public interface RoutingService {
 	 * @return routing result optimized for hazard avoidance
 	 */
 	RouteResult routeDrivingSafe(Location start, Location end, double radiusMeters);
+
+	/**
+	 * Returns strongly connected component statistics of the resident graph for a travel mode.
+	 *
+	 * @param mode travel mode
+	 * @param limit maximum number of components to list
+	 * @return component statistics
+	 */
+	ComponentStats componentStats(TravelMode mode, int limit);
 }
@@ -7,18 +7,31 @@ import com.team.GroundTruth.entity.maps.WalkSafeEdgeCostEntity;
 import com.team.GroundTruth.routing.astar.AStarRouter;
 import com.team.GroundTruth.routing.astar.DirectedEdge;
 import com.team.GroundTruth.routing.astar.NodeCoord;
+import com.team.GroundTruth.routing.astar.ShortestPathTree;
 import com.team.GroundTruth.routing.exception.NoRouteFoundException;
 import com.team.GroundTruth.routing.exception.NodeSnapException;
 import com.team.GroundTruth.routing.exception.RoutingException;
+import com.team.GroundTruth.routing.graph.ChainCostSnapshot;
+import com.team.GroundTruth.routing.graph.EdgeCostSnapshot;
+import com.team.GroundTruth.routing.graph.GraphComponents;
+import com.team.GroundTruth.routing.graph.PlanarCoordinates;
+import com.team.GroundTruth.routing.graph.ResidentGraphCache;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.TiledGraphStore;
+import com.team.GroundTruth.routing.model.ComponentStats;
 import com.team.GroundTruth.routing.model.Location;
+import com.team.GroundTruth.routing.model.MultiStopRouteResult;
 import com.team.GroundTruth.routing.model.RouteResult;
 import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.RoutingProfile;
 import com.team.GroundTruth.routing.model.TravelMode;
 import com.team.GroundTruth.routing.repo.EdgeCostOverlayRepository;
 import com.team.GroundTruth.routing.repo.EdgeRepository;
 import com.team.GroundTruth.routing.repo.NodeRepository;
 import com.team.GroundTruth.routing.repo.WalkAccessibilityEdgeCostRepository;
 import com.team.GroundTruth.routing.repo.WalkSafeEdgeCostRepository;
+import com.team.GroundTruth.routing.shard.ShardCoordinator;
+import java.lang.foreign.MemorySegment;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -26,12 +39,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Default routing service implementation that orchestrates database access and A* search.
+ * <p>
+ * With {@code routing.graph.tiles.enabled}, every route is searched on the {@link TiledGraphStore}
+ * instead: no radius subgraph is extracted and no full graph is held resident, at the price of
+ * snapping without the largest-component preference and of per-request tile loads.
+ * </p>
+ * <p>
+ * With {@code routing.shards.enabled}, routes are planned by the {@link ShardCoordinator} over the
+ * geographic shards of the graph instead; start and goal snap to the nearest node of the shard
+ * owning their coordinate.
+ * </p>
  */
 @Service
 @Transactional(readOnly = true)
@@ -40,6 +65,9 @@ public class RoutingServiceImpl implements RoutingService {
 	private static final double EARTH_RADIUS_METERS = 6_371_000.0;
 	private static final double DEFAULT_RADIUS_MULTIPLIER = 1.2;
 	private static final double MIN_RADIUS_METERS = 2_000.0;
+	private static final int MAX_OPTIMIZED_STOPS = 10;
+	private static final int SNAP_CANDIDATES = 16;
+	private static final double LARGEST_COMPONENT_SNAP_SLACK_METERS = 150.0;
 
 	private final NodeRepository nodeRepository;
 	private final EdgeRepository edgeRepository;
@@ -47,6 +75,11 @@ public class RoutingServiceImpl implements RoutingService {
 	private final WalkSafeEdgeCostRepository walkSafeEdgeCostRepository;
 	private final WalkAccessibilityEdgeCostRepository walkAccessibilityEdgeCostRepository;
 	private final AStarRouter aStarRouter;
+	private final ResidentGraphCache residentGraphCache;
+	private final TiledGraphStore tiledGraphStore;
+	private final boolean tiled;
+	private final ShardCoordinator shardCoordinator;
+	private final boolean sharded;
 
 	/**
 	 * Creates a routing service implementation.
@@ -57,6 +90,13 @@ public class RoutingServiceImpl implements RoutingService {
 	 * @param walkSafeEdgeCostRepository repository for walk safety costs
 	 * @param walkAccessibilityEdgeCostRepository repository for walk accessibility costs
 	 * @param aStarRouter A* router implementation
+	 * @param residentGraphCache cache of resident routing graphs and cost snapshots
+	 * @param tiledGraphStore memory-bounded store of graph tiles
+	 * @param tiled whether routes are searched on graph tiles instead of the resident graph, ignoring
+	 *              the search radius
+	 * @param shardCoordinator coordinator of routes across graph shards
+	 * @param sharded whether routes are planned across graph shards instead of the resident graph,
+	 *                ignoring the search radius
 	 */
 	public RoutingServiceImpl(
 			NodeRepository nodeRepository,
@@ -64,7 +104,12 @@ public class RoutingServiceImpl implements RoutingService {
 			EdgeCostOverlayRepository edgeCostOverlayRepository,
 			WalkSafeEdgeCostRepository walkSafeEdgeCostRepository,
 			WalkAccessibilityEdgeCostRepository walkAccessibilityEdgeCostRepository,
-			AStarRouter aStarRouter
+			AStarRouter aStarRouter,
+			ResidentGraphCache residentGraphCache,
+			TiledGraphStore tiledGraphStore,
+			@Value("${routing.graph.tiles.enabled:false}") boolean tiled,
+			ShardCoordinator shardCoordinator,
+			@Value("${routing.shards.enabled:false}") boolean sharded
 	) {
 		this.nodeRepository = Objects.requireNonNull(nodeRepository, "nodeRepository");
 		this.edgeRepository = Objects.requireNonNull(edgeRepository, "edgeRepository");
@@ -72,6 +117,11 @@ public class RoutingServiceImpl implements RoutingService {
 		this.walkSafeEdgeCostRepository = Objects.requireNonNull(walkSafeEdgeCostRepository, "walkSafeEdgeCostRepository");
 		this.walkAccessibilityEdgeCostRepository = Objects.requireNonNull(walkAccessibilityEdgeCostRepository, "walkAccessibilityEdgeCostRepository");
 		this.aStarRouter = Objects.requireNonNull(aStarRouter, "aStarRouter");
+		this.residentGraphCache = Objects.requireNonNull(residentGraphCache, "residentGraphCache");
+		this.tiledGraphStore = Objects.requireNonNull(tiledGraphStore, "tiledGraphStore");
+		this.tiled = tiled;
+		this.shardCoordinator = Objects.requireNonNull(shardCoordinator, "shardCoordinator");
+		this.sharded = sharded;
 	}
 
 	/**
@@ -90,18 +140,26 @@ public class RoutingServiceImpl implements RoutingService {
 		Objects.requireNonNull(start, "start");
 		Objects.requireNonNull(end, "end");
 		Objects.requireNonNull(mode, "mode");
+		if (tiled) {
+			RouteType routeType = mode == TravelMode.DRIVE ? RouteType.DRIVE_FASTEST : RouteType.FASTEST;
+			return routeTiled(start, end, routeType, RoutingProfile.DEFAULT.blockedMask());
+		}
+		if (sharded) {
+			RouteType routeType = mode == TravelMode.DRIVE ? RouteType.DRIVE_FASTEST : RouteType.FASTEST;
+			return routeSharded(start, end, routeType, RoutingProfile.DEFAULT.blockedMask());
+		}
 
-		NodeEntity startNode = nodeRepository.snapNearestNode(start.lat(), start.lon())
-				.orElseThrow(() -> new NodeSnapException("Unable to snap start coordinate to a graph node."));
-		NodeEntity endNode = nodeRepository.snapNearestNode(end.lat(), end.lon())
-				.orElseThrow(() -> new NodeSnapException("Unable to snap end coordinate to a graph node."));
-
-		long startNodeId = startNode.getId();
-		long endNodeId = endNode.getId();
+		GraphComponents components = residentGraphCache.components(mode);
+		RoutingGraph graph = components.graph();
+		int startIndex = snap(components, start, "start");
+		int endIndex = snap(components, end, "end");
 
-		if (startNodeId == endNodeId) {
-			return new RouteResult(List.of(startNodeId), List.of(), 0.0, 0.0);
+		if (startIndex == endIndex) {
+			return new RouteResult(List.of(graph.nodeId(startIndex)), List.of(), 0.0, 0.0);
 		}
+		requireConnected(components, startIndex, endIndex);
+		SnappedNode startNode = snapped(graph, startIndex);
+		SnappedNode endNode = snapped(graph, endIndex);
 
 		double baseRadius = radiusMeters > 0.0 ? radiusMeters : defaultRadiusMeters(start, end);
 		double[] attempts = new double[]{baseRadius, baseRadius * 2.0, baseRadius * 4.0};
@@ -145,8 +203,8 @@ public class RoutingServiceImpl implements RoutingService {
 	private RouteResult routeWithRadius(
 			Location start,
 			Location end,
-			NodeEntity startNode,
-			NodeEntity endNode,
+			SnappedNode startNode,
+			SnappedNode endNode,
 			double radiusMeters,
 			TravelMode mode
 	) {
@@ -162,8 +220,8 @@ public class RoutingServiceImpl implements RoutingService {
 		for (NodeEntity node : subgraphNodes) {
 			nodeCoords.put(node.getId(), toCoord(node));
 		}
-		nodeCoords.putIfAbsent(startNode.getId(), toCoord(startNode));
-		nodeCoords.putIfAbsent(endNode.getId(), toCoord(endNode));
+		nodeCoords.putIfAbsent(startNode.id(), startNode.coord());
+		nodeCoords.putIfAbsent(endNode.id(), endNode.coord());
 
 		long[] nodeIds = nodeCoords.keySet().stream().mapToLong(Long::longValue).toArray();
 		List<EdgeEntity> subgraphEdges = edgeRepository.loadSubgraphEdgesByMode(nodeIds, mode.dbValue());
@@ -192,7 +250,7 @@ public class RoutingServiceImpl implements RoutingService {
 			throw new NoRouteFoundException("No edges available for mode " + mode + ".");
 		}
 
-		return aStarRouter.route(startNode.getId(), endNode.getId(), nodeCoords, outgoingBySource, edgeById);
+		return aStarRouter.route(startNode.id(), endNode.id(), nodeCoords, outgoingBySource, edgeById);
 	}
 
 	private Map<Long, OverlayAccumulator> loadOverlays(List<EdgeEntity> edges, TravelMode mode) {
@@ -228,6 +286,12 @@ public class RoutingServiceImpl implements RoutingService {
 	}
 
 
+	/**
+	 * Snapped endpoint of a radius-limited search.
+	 */
+	private record SnappedNode(long id, NodeCoord coord) {
+	}
+
 	private static final class OverlayAccumulator {
 		private double multiplier = 1.0;
 		private double deltaSeconds = 0.0;
@@ -246,18 +310,24 @@ public class RoutingServiceImpl implements RoutingService {
 		Objects.requireNonNull(start, "start");
 		Objects.requireNonNull(end, "end");
 		Objects.requireNonNull(routeType, "routeType");
+		if (tiled) {
+			return routeTiled(start, end, routeType, RoutingProfile.DEFAULT.blockedMask());
+		}
+		if (sharded) {
+			return routeSharded(start, end, routeType, RoutingProfile.DEFAULT.blockedMask());
+		}
 
-		NodeEntity startNode = nodeRepository.snapNearestNode(start.lat(), start.lon())
-				.orElseThrow(() -> new NodeSnapException("Unable to snap start coordinate to a graph node."));
-		NodeEntity endNode = nodeRepository.snapNearestNode(end.lat(), end.lon())
-				.orElseThrow(() -> new NodeSnapException("Unable to snap end coordinate to a graph node."));
-
-		long startNodeId = startNode.getId();
-		long endNodeId = endNode.getId();
+		GraphComponents components = residentGraphCache.components(routeType.travelMode());
+		RoutingGraph graph = components.graph();
+		int startIndex = snap(components, start, "start");
+		int endIndex = snap(components, end, "end");
 
-		if (startNodeId == endNodeId) {
-			return new RouteResult(List.of(startNodeId), List.of(), 0.0, 0.0);
+		if (startIndex == endIndex) {
+			return new RouteResult(List.of(graph.nodeId(startIndex)), List.of(), 0.0, 0.0);
 		}
+		requireConnected(components, startIndex, endIndex);
+		SnappedNode startNode = snapped(graph, startIndex);
+		SnappedNode endNode = snapped(graph, endIndex);
 
 		double baseRadius = radiusMeters > 0.0 ? radiusMeters : defaultRadiusMeters(start, end);
 		double[] attempts = new double[]{baseRadius, baseRadius * 2.0, baseRadius * 4.0};
@@ -274,6 +344,292 @@ public class RoutingServiceImpl implements RoutingService {
 				: last;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RouteResult route(Location start, Location end, RouteType routeType, RoutingProfile profile) {
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		Objects.requireNonNull(routeType, "routeType");
+		Objects.requireNonNull(profile, "profile");
+		if (tiled) {
+			return routeTiled(start, end, routeType, profile.blockedMask());
+		}
+		if (sharded) {
+			return routeSharded(start, end, routeType, profile.blockedMask());
+		}
+
+		EdgeCostSnapshot snapshot = residentGraphCache.costs(routeType);
+		RoutingGraph graph = snapshot.graph();
+		GraphComponents components = residentGraphCache.components(graph.mode());
+		int startIndex = snap(components, start, "start");
+		int endIndex = snap(components, end, "end");
+		if (!components.connected(startIndex, endIndex)) {
+			throw disconnected(graph.mode(), "start", "end");
+		}
+
+		ChainCostSnapshot chains = residentGraphCache.chainCosts(snapshot);
+		if (chains != null) {
+			return aStarRouter.route(chains.graph(), startIndex, endIndex, snapshot.costs(), chains.costs(),
+					profile.blockedMask());
+		}
+		return aStarRouter.route(graph, startIndex, endIndex, snapshot.costs(), profile.blockedMask());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public MultiStopRouteResult routeMultiStop(
+			List<Location> stops,
+			RouteType routeType,
+			RoutingProfile profile,
+			boolean optimizeOrder
+	) {
+		Objects.requireNonNull(stops, "stops");
+		Objects.requireNonNull(routeType, "routeType");
+		Objects.requireNonNull(profile, "profile");
+		if (stops.size() < 2) {
+			throw new IllegalArgumentException("At least two stops are required.");
+		}
+		if (optimizeOrder && stops.size() > MAX_OPTIMIZED_STOPS) {
+			throw new IllegalArgumentException("Stop order optimization supports at most "
+					+ MAX_OPTIMIZED_STOPS + " stops.");
+		}
+		if (tiled) {
+			return routeMultiStopTiled(stops, routeType, profile, optimizeOrder);
+		}
+		if (sharded) {
+			return routeMultiStopSharded(stops, routeType, profile, optimizeOrder);
+		}
+
+		EdgeCostSnapshot snapshot = residentGraphCache.costs(routeType);
+		RoutingGraph graph = snapshot.graph();
+		MemorySegment costs = snapshot.costs();
+		long blockedMask = profile.blockedMask();
+
+		GraphComponents components = residentGraphCache.components(graph.mode());
+		int[] nodes = new int[stops.size()];
+		for (int i = 0; i < stops.size(); i++) {
+			nodes[i] = snap(components, Objects.requireNonNull(stops.get(i), "stop"), "stop " + i);
+			if (!components.connected(nodes[0], nodes[i])) {
+				throw disconnected(graph.mode(), "stop 0", "stop " + i);
+			}
+		}
+
+		List<Integer> stopOrder = new ArrayList<>();
+		List<RouteResult> legs = new ArrayList<>();
+		if (!optimizeOrder) {
+			for (int i = 0; i < nodes.length; i++) {
+				stopOrder.add(i);
+				if (i > 0) {
+					legs.add(aStarRouter.route(graph, nodes[i - 1], nodes[i], costs, blockedMask));
+				}
+			}
+		} else {
+			// One search per origin stop yields a full row of the leg matrix and the paths for it.
+			ShortestPathTree[] trees = new ShortestPathTree[nodes.length - 1];
+			double[][] legCosts = new double[nodes.length][nodes.length];
+			for (int i = 0; i < trees.length; i++) {
+				trees[i] = aStarRouter.oneToMany(graph, nodes[i], nodes, costs, blockedMask);
+				for (int j = 0; j < nodes.length; j++) {
+					legCosts[i][j] = trees[i].cost(nodes[j]);
+				}
+			}
+			int[] order = StopOrderOptimizer.solve(legCosts);
+			for (int k = 0; k < order.length; k++) {
+				stopOrder.add(order[k]);
+				if (k > 0) {
+					legs.add(trees[order[k - 1]].pathTo(nodes[order[k]]));
+				}
+			}
+		}
+
+		return new MultiStopRouteResult(List.copyOf(stopOrder), List.copyOf(legs), joinLegs(legs));
+	}
+
+	/**
+	 * Plans a multi-stop route on graph tiles, with all legs sharing one session.
+	 */
+	private MultiStopRouteResult routeMultiStopTiled(
+			List<Location> stops,
+			RouteType routeType,
+			RoutingProfile profile,
+			boolean optimizeOrder
+	) {
+		TiledGraphStore.Session session = tiledGraphStore.session(routeType);
+		long blockedMask = profile.blockedMask();
+		TiledGraphStore.TileNode[] nodes = new TiledGraphStore.TileNode[stops.size()];
+		for (int i = 0; i < stops.size(); i++) {
+			nodes[i] = snapTiled(session, Objects.requireNonNull(stops.get(i), "stop"), "stop " + i);
+		}
+		return routeMultiStopPairwise(nodes.length,
+				(from, to) -> aStarRouter.route(session, nodes[from], nodes[to], blockedMask), optimizeOrder);
+	}
+
+	/**
+	 * Plans a multi-stop route across graph shards.
+	 */
+	private MultiStopRouteResult routeMultiStopSharded(
+			List<Location> stops,
+			RouteType routeType,
+			RoutingProfile profile,
+			boolean optimizeOrder
+	) {
+		long blockedMask = profile.blockedMask();
+		ShardCoordinator.ShardNode[] nodes = new ShardCoordinator.ShardNode[stops.size()];
+		for (int i = 0; i < stops.size(); i++) {
+			nodes[i] = snapSharded(Objects.requireNonNull(stops.get(i), "stop"), routeType.travelMode(), "stop " + i);
+		}
+		return routeMultiStopPairwise(nodes.length,
+				(from, to) -> shardCoordinator.route(nodes[from], nodes[to], routeType, blockedMask), optimizeOrder);
+	}
+
+	/**
+	 * Plans a multi-stop route from point-to-point legs. Without a one-to-many search, the leg
+	 * matrix for order optimization is filled with one search per ordered pair of stops.
+	 */
+	private MultiStopRouteResult routeMultiStopPairwise(
+			int stopCount,
+			BiFunction<Integer, Integer, RouteResult> leg,
+			boolean optimizeOrder
+	) {
+		List<Integer> stopOrder = new ArrayList<>();
+		List<RouteResult> legs = new ArrayList<>();
+		if (!optimizeOrder) {
+			for (int i = 0; i < stopCount; i++) {
+				stopOrder.add(i);
+				if (i > 0) {
+					legs.add(leg.apply(i - 1, i));
+				}
+			}
+		} else {
+			RouteResult[][] legRoutes = new RouteResult[stopCount][stopCount];
+			double[][] legCosts = new double[stopCount][stopCount];
+			// The origin is never entered and the destination never left.
+			for (int i = 0; i < stopCount - 1; i++) {
+				for (int j = 1; j < stopCount; j++) {
+					if (i == j) {
+						continue;
+					}
+					try {
+						legRoutes[i][j] = leg.apply(i, j);
+						legCosts[i][j] = legRoutes[i][j].durationSeconds();
+					} catch (NoRouteFoundException ex) {
+						legCosts[i][j] = Double.POSITIVE_INFINITY;
+					}
+				}
+			}
+			int[] order = StopOrderOptimizer.solve(legCosts);
+			for (int k = 0; k < order.length; k++) {
+				stopOrder.add(order[k]);
+				if (k > 0) {
+					legs.add(legRoutes[order[k - 1]][order[k]]);
+				}
+			}
+		}
+
+		return new MultiStopRouteResult(List.copyOf(stopOrder), List.copyOf(legs), joinLegs(legs));
+	}
+
+	private RouteResult routeTiled(Location start, Location end, RouteType routeType, long blockedMask) {
+		TiledGraphStore.Session session = tiledGraphStore.session(routeType);
+		TiledGraphStore.TileNode startNode = snapTiled(session, start, "start");
+		TiledGraphStore.TileNode endNode = snapTiled(session, end, "end");
+		return aStarRouter.route(session, startNode, endNode, blockedMask);
+	}
+
+	private static TiledGraphStore.TileNode snapTiled(TiledGraphStore.Session session, Location location, String label) {
+		TiledGraphStore.TileNode node = session.nearestNode(location.lat(), location.lon());
+		if (node == null) {
+			throw new NodeSnapException("Unable to snap " + label + " coordinate to a "
+					+ session.routeType().travelMode() + " graph node.");
+		}
+		return node;
+	}
+
+	private RouteResult routeSharded(Location start, Location end, RouteType routeType, long blockedMask) {
+		ShardCoordinator.ShardNode startNode = snapSharded(start, routeType.travelMode(), "start");
+		ShardCoordinator.ShardNode endNode = snapSharded(end, routeType.travelMode(), "end");
+		return shardCoordinator.route(startNode, endNode, routeType, blockedMask);
+	}
+
+	private ShardCoordinator.ShardNode snapSharded(Location location, TravelMode mode, String label) {
+		ShardCoordinator.ShardNode node = shardCoordinator.nearestNode(location.lat(), location.lon(), mode);
+		if (node == null) {
+			throw new NodeSnapException("Unable to snap " + label + " coordinate to a " + mode + " graph node.");
+		}
+		return node;
+	}
+
+	private RouteResult joinLegs(List<RouteResult> legs) {
+		List<Long> nodePath = new ArrayList<>();
+		List<Long> edgePath = new ArrayList<>();
+		double distanceMeters = 0.0;
+		double durationSeconds = 0.0;
+		for (RouteResult leg : legs) {
+			List<Long> legNodes = leg.pathNodeIds();
+			nodePath.addAll(nodePath.isEmpty() ? legNodes : legNodes.subList(1, legNodes.size()));
+			edgePath.addAll(leg.pathEdgeIds());
+			distanceMeters += leg.distanceMeters();
+			durationSeconds += leg.durationSeconds();
+		}
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, durationSeconds);
+	}
+
+	/**
+	 * Snaps a coordinate to a node of the resident graph, preferring the largest component when
+	 * one of its nodes is nearly as close as the nearest node. This keeps points next to a
+	 * disconnected footpath or parking aisle on the main network. Candidates come from the grid
+	 * index over the graph's planar coordinates, so snapping needs no database round trip.
+	 */
+	private int snap(GraphComponents components, Location location, String label) {
+		RoutingGraph graph = components.graph();
+		PlanarCoordinates planar = graph.planar();
+		int[] candidates = planar.nearestNodes(location.lat(), location.lon(), SNAP_CANDIDATES);
+		if (candidates.length == 0) {
+			throw new NodeSnapException("Unable to snap " + label + " coordinate to a "
+					+ graph.mode() + " graph node.");
+		}
+		double x = planar.projectX(location.lat(), location.lon());
+		double y = planar.projectY(location.lat(), location.lon());
+		double nearestDistance = planar.lowerBoundMeters(candidates[0], x, y);
+		for (int candidate : candidates) {
+			if (planar.lowerBoundMeters(candidate, x, y) > nearestDistance + LARGEST_COMPONENT_SNAP_SLACK_METERS) {
+				break;
+			}
+			if (components.isInLargest(candidate)) {
+				return candidate;
+			}
+		}
+		return candidates[0];
+	}
+
+	private static SnappedNode snapped(RoutingGraph graph, int node) {
+		return new SnappedNode(graph.nodeId(node), new NodeCoord(graph.lat(node), graph.lon(node)));
+	}
+
+	private void requireConnected(GraphComponents components, int startNode, int endNode) {
+		if (!components.connected(startNode, endNode)) {
+			throw disconnected(components.graph().mode(), "start", "end");
+		}
+	}
+
+	private static NoRouteFoundException disconnected(TravelMode mode, String from, String to) {
+		return new NoRouteFoundException("The " + from + " and " + to + " coordinates lie in disconnected parts of the "
+				+ mode + " network.");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ComponentStats componentStats(TravelMode mode, int limit) {
+		Objects.requireNonNull(mode, "mode");
+		return residentGraphCache.components(mode).stats(limit);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -312,8 +668,8 @@ public class RoutingServiceImpl implements RoutingService {
 	private RouteResult routeWithRadiusAndType(
 			Location start,
 			Location end,
-			NodeEntity startNode,
-			NodeEntity endNode,
+			SnappedNode startNode,
+			SnappedNode endNode,
 			double radiusMeters,
 			RouteType routeType
 	) {
@@ -331,8 +687,8 @@ public class RoutingServiceImpl implements RoutingService {
 		for (NodeEntity node : subgraphNodes) {
 			nodeCoords.put(node.getId(), toCoord(node));
 		}
-		nodeCoords.putIfAbsent(startNode.getId(), toCoord(startNode));
-		nodeCoords.putIfAbsent(endNode.getId(), toCoord(endNode));
+		nodeCoords.putIfAbsent(startNode.id(), startNode.coord());
+		nodeCoords.putIfAbsent(endNode.id(), endNode.coord());
 
 		long[] nodeIds = nodeCoords.keySet().stream().mapToLong(Long::longValue).toArray();
 		List<EdgeEntity> subgraphEdges = edgeRepository.loadSubgraphEdgesByMode(nodeIds, mode.dbValue());
@@ -378,7 +734,7 @@ public class RoutingServiceImpl implements RoutingService {
 			throw new NoRouteFoundException("No edges available for mode " + mode + ".");
 		}
 
-		return aStarRouter.route(startNode.getId(), endNode.getId(), nodeCoords, outgoingBySource, edgeById);
+		return aStarRouter.route(startNode.id(), endNode.id(), nodeCoords, outgoingBySource, edgeById);
 	}
 
 	/**
@@ -0,0 +1,96 @@
+package com.team.GroundTruth.routing.service;
+
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import java.util.Arrays;
+
+/**
+ * Finds the cheapest visiting order of intermediate stops with a fixed origin and destination.
+ * <p>
+ * Uses the Held-Karp dynamic program over a precomputed leg cost matrix, which is exact and
+ * runs in {@code O(n^2 * 2^n)}; this is instantaneous for the small stop counts we accept.
+ * </p>
+ */
+final class StopOrderOptimizer {
+
+	private StopOrderOptimizer() {
+	}
+
+	/**
+	 * Computes the optimal stop order.
+	 *
+	 * @param legCosts square matrix where {@code legCosts[i][j]} is the cost from stop i to stop j
+	 * @return stop indices in visiting order, starting with 0 and ending with the last stop
+	 * @throws NoRouteFoundException if no order connects all stops
+	 */
+	static int[] solve(double[][] legCosts) {
+		int stops = legCosts.length;
+		if (stops <= 2) {
+			int[] order = new int[stops];
+			for (int i = 0; i < stops; i++) {
+				order[i] = i;
+			}
+			return order;
+		}
+
+		int destination = stops - 1;
+		int middle = stops - 2;
+		int subsets = 1 << middle;
+		double[][] best = new double[subsets][middle];
+		int[][] previous = new int[subsets][middle];
+		for (double[] row : best) {
+			Arrays.fill(row, Double.POSITIVE_INFINITY);
+		}
+
+		// Intermediate stop k corresponds to input stop k + 1.
+		for (int k = 0; k < middle; k++) {
+			best[1 << k][k] = legCosts[0][k + 1];
+			previous[1 << k][k] = -1;
+		}
+		for (int mask = 1; mask < subsets; mask++) {
+			for (int last = 0; last < middle; last++) {
+				double cost = best[mask][last];
+				if ((mask & (1 << last)) == 0 || cost == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int next = 0; next < middle; next++) {
+					if ((mask & (1 << next)) != 0) {
+						continue;
+					}
+					int nextMask = mask | (1 << next);
+					double candidate = cost + legCosts[last + 1][next + 1];
+					if (candidate < best[nextMask][next]) {
+						best[nextMask][next] = candidate;
+						previous[nextMask][next] = last;
+					}
+				}
+			}
+		}
+
+		int full = subsets - 1;
+		double bestTotal = Double.POSITIVE_INFINITY;
+		int bestLast = -1;
+		for (int last = 0; last < middle; last++) {
+			double total = best[full][last] + legCosts[last + 1][destination];
+			if (total < bestTotal) {
+				bestTotal = total;
+				bestLast = last;
+			}
+		}
+		if (bestLast < 0) {
+			throw new NoRouteFoundException("No order of stops connects the origin to the destination.");
+		}
+
+		int[] order = new int[stops];
+		order[0] = 0;
+		order[destination] = destination;
+		int mask = full;
+		int current = bestLast;
+		for (int position = middle; position >= 1; position--) {
+			order[position] = current + 1;
+			int before = previous[mask][current];
+			mask &= ~(1 << current);
+			current = before;
+		}
+		return order;
+	}
+}
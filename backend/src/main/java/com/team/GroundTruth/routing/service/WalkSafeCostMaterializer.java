@@ -0,0 +1,228 @@
+package com.team.GroundTruth.routing.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes {@code walk_safe_edge_costs} for every walk edge in one set-based pass.
+ * <p>
+ * Walk edges are streamed with their base cost, modifiers and current safe cost through a JDBC
+ * cursor, in chunks of {@code chunkSize} rows. Each chunk's costs are computed on the common
+ * fork/join pool while the next chunk is read, and only rows whose cost changed are written back,
+ * as one multi-row {@code INSERT ... ON CONFLICT} upsert per chunk. No JPA entities are loaded.
+ * The same pass recomputes a given set of edges for {@link WalkSafeCostWorker}.
+ * </p>
+ */
+@Component
+public class WalkSafeCostMaterializer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WalkSafeCostMaterializer.class);
+	private static final long PROGRESS_INTERVAL = 100_000L;
+
+	private static final String EDGES_SQL = """
+			SELECT e.id, e.cost_s, m.pop_density, m.streetlight, m.crime_in_area, c.cost_seconds
+			FROM edges e
+			LEFT JOIN walk_safe_modifiers m ON m.edge_id = e.id
+			LEFT JOIN walk_safe_edge_costs c ON c.edge_id = e.id
+			WHERE e.mode = 'walk'
+			""";
+
+	private static final String EDGE_IDS_SQL = EDGES_SQL + """
+			  AND e.id = ANY(?)
+			""";
+
+	private static final String UPSERT_SQL = """
+			INSERT INTO walk_safe_edge_costs (edge_id, cost_seconds, updated_at)
+			SELECT t.edge_id, t.cost_seconds, NOW()
+			FROM unnest(?::bigint[], ?::double precision[]) AS t(edge_id, cost_seconds)
+			ON CONFLICT (edge_id) DO UPDATE
+			SET cost_seconds = EXCLUDED.cost_seconds,
+			    updated_at = EXCLUDED.updated_at
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+
+	/**
+	 * Creates the materializer.
+	 *
+	 * @param dataSource data source for the routing tables
+	 * @param transactionManager transaction manager keeping the cursor open while chunks are written
+	 * @param chunkSize rows computed and written together
+	 */
+	public WalkSafeCostMaterializer(
+			DataSource dataSource,
+			PlatformTransactionManager transactionManager,
+			@Value("${routing.walk-safe.materialize-chunk-size:10000}") int chunkSize
+	) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive.");
+		}
+		this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(dataSource, "dataSource"));
+		this.jdbcTemplate.setFetchSize(chunkSize);
+		this.transactionTemplate = new TransactionTemplate(Objects.requireNonNull(transactionManager, "transactionManager"));
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Recomputes the safe cost of every walk edge.
+	 *
+	 * @return number of walk edges
+	 */
+	public int materializeAll() {
+		long startedAt = System.nanoTime();
+		Progress progress = transactionTemplate.execute(status -> materialize(EDGES_SQL));
+		LOG.info("Materialized walk safe costs for {} edges ({} changed) in {} ms", progress.scanned,
+				progress.written, (System.nanoTime() - startedAt) / 1_000_000);
+		return Math.toIntExact(progress.scanned);
+	}
+
+	/**
+	 * Recomputes the safe cost of some walk edges; ids of other edges are ignored.
+	 *
+	 * @param edgeIds database ids of the edges
+	 * @return number of costs that changed
+	 */
+	public int recompute(long[] edgeIds) {
+		Objects.requireNonNull(edgeIds, "edgeIds");
+		return Objects.requireNonNull(transactionTemplate.execute(status -> {
+			long written = 0;
+			for (int from = 0; from < edgeIds.length; from += chunkSize) {
+				long[] batch = Arrays.copyOfRange(edgeIds, from, Math.min(edgeIds.length, from + chunkSize));
+				written += materialize(EDGE_IDS_SQL, (Object) batch).written;
+			}
+			return Math.toIntExact(written);
+		}));
+	}
+
+	private Progress materialize(String sql, Object... args) {
+		Progress running = new Progress();
+		Deque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+		Chunk[] reading = {new Chunk(chunkSize)};
+		jdbcTemplate.query(sql, rs -> {
+			reading[0].add(rs.getLong(1), rs.getDouble(2), nullableDouble(rs, 3), nullableDouble(rs, 4),
+					nullableDouble(rs, 5), nullableDouble(rs, 6));
+			if (reading[0].size == chunkSize) {
+				Chunk full = reading[0];
+				pending.add(CompletableFuture.supplyAsync(full::compute));
+				reading[0] = new Chunk(chunkSize);
+				while (!pending.isEmpty() && pending.peek().isDone()) {
+					write(pending.poll().join(), running);
+				}
+			}
+		}, args);
+		pending.add(CompletableFuture.completedFuture(reading[0].compute()));
+		while (!pending.isEmpty()) {
+			write(pending.poll().join(), running);
+		}
+		return running;
+	}
+
+	private void write(Chunk chunk, Progress progress) {
+		if (chunk.changed > 0) {
+			jdbcTemplate.update(UPSERT_SQL, (Object) Arrays.copyOf(chunk.changedIds, chunk.changed),
+					(Object) Arrays.copyOf(chunk.changedCosts, chunk.changed));
+		}
+		long before = progress.scanned;
+		progress.scanned += chunk.size;
+		progress.written += chunk.changed;
+		if (before / PROGRESS_INTERVAL != progress.scanned / PROGRESS_INTERVAL) {
+			LOG.info("Materializing walk safe costs: {} edges scanned, {} changed", progress.scanned, progress.written);
+		}
+	}
+
+	private static double nullableDouble(ResultSet rs, int column) throws SQLException {
+		double value = rs.getDouble(column);
+		return rs.wasNull() ? Double.NaN : value;
+	}
+
+	/**
+	 * Computes the safety-adjusted cost of an edge. Higher crime and lower streetlight coverage
+	 * increase cost; higher population density decreases it (more eyes on the street).
+	 *
+	 * @param baseCostSeconds base traversal cost
+	 * @param popDensity population density (0-1), {@code NaN} if unknown
+	 * @param streetlight streetlight coverage (0-1), {@code NaN} if unknown
+	 * @param crimeInArea normalized crime level (0-1), {@code NaN} if unknown
+	 * @return adjusted cost, never negative
+	 */
+	static double computeCost(double baseCostSeconds, double popDensity, double streetlight, double crimeInArea) {
+		double multiplier = 1.0;
+		if (popDensity > 0) {
+			multiplier *= Math.min(1.5, (2 * (1 - popDensity)) + 0.3);
+		}
+		if (!Double.isNaN(streetlight)) {
+			multiplier *= Math.min(1.5, (2 * (1 - streetlight)) + 0.5);
+		}
+		if (crimeInArea > 0) {
+			multiplier *= 1.0 + crimeInArea;
+		}
+		return Math.max(0.0, baseCostSeconds * multiplier);
+	}
+
+	/**
+	 * Running totals of a materialization.
+	 */
+	private static final class Progress {
+
+		private long scanned;
+		private long written;
+	}
+
+	/**
+	 * Rows of one chunk and, once computed, its changed costs.
+	 */
+	private static final class Chunk {
+
+		private final long[] edgeIds;
+		private final double[] values;
+		private int size;
+		private long[] changedIds;
+		private double[] changedCosts;
+		private int changed;
+
+		private Chunk(int capacity) {
+			edgeIds = new long[capacity];
+			values = new double[capacity * 5];
+		}
+
+		private void add(long edgeId, double baseCost, double popDensity, double streetlight, double crime,
+				double current) {
+			edgeIds[size] = edgeId;
+			values[5 * size] = baseCost;
+			values[5 * size + 1] = popDensity;
+			values[5 * size + 2] = streetlight;
+			values[5 * size + 3] = crime;
+			values[5 * size + 4] = current;
+			size++;
+		}
+
+		private Chunk compute() {
+			changedIds = new long[size];
+			changedCosts = new double[size];
+			for (int row = 0; row < size; row++) {
+				double cost = computeCost(values[5 * row], values[5 * row + 1], values[5 * row + 2], values[5 * row + 3]);
+				if (Double.compare(cost, values[5 * row + 4]) != 0) {
+					changedIds[changed] = edgeIds[row];
+					changedCosts[changed] = cost;
+					changed++;
+				}
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.team.GroundTruth.routing.service;
+
+import com.team.GroundTruth.routing.graph.ResidentGraphCache;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Recomputes walk safe edge costs in the background, once per dirty edge.
+ * <p>
+ * Modifier writes only mark their edges dirty. The first mark schedules a drain
+ * {@code delayMillis} later on a single worker thread; marks arriving until then join the same
+ * drain, so a burst of updates to several modifier fields of the same edges costs one recompute
+ * per edge. A drain takes the whole dirty set, recomputes it through
+ * {@link WalkSafeCostMaterializer}, publishes the costs by dropping the cached cost snapshots and
+ * completes the futures of every mark it covered. Marks made inside a transaction are queued once
+ * it commits, so the worker reads the committed modifiers.
+ * </p>
+ */
+@Component
+public class WalkSafeCostWorker {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WalkSafeCostWorker.class);
+
+	private final ToIntFunction<long[]> recompute;
+	private final Runnable publish;
+	private final long delayMillis;
+	private final ScheduledExecutorService executor;
+	private final Set<Long> dirty = new LinkedHashSet<>();
+	private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+	private boolean scheduled;
+	private boolean draining;
+
+	/**
+	 * Creates the worker from configuration.
+	 *
+	 * @param materializer recomputes and writes edge costs
+	 * @param graphCache cache whose cost snapshots are dropped after each drain
+	 * @param delayMillis time marks are collected before a drain starts
+	 */
+	@Autowired
+	public WalkSafeCostWorker(
+			WalkSafeCostMaterializer materializer,
+			ResidentGraphCache graphCache,
+			@Value("${routing.walk-safe.recompute-delay-ms:200}") long delayMillis
+	) {
+		this(materializer::recompute, graphCache::invalidateCosts, delayMillis);
+	}
+
+	/**
+	 * Creates the worker over explicit actions.
+	 *
+	 * @param recompute recomputes the costs of a set of edges
+	 * @param publish makes recomputed costs visible to routing
+	 * @param delayMillis time marks are collected before a drain starts
+	 */
+	public WalkSafeCostWorker(ToIntFunction<long[]> recompute, Runnable publish, long delayMillis) {
+		this.recompute = Objects.requireNonNull(recompute, "recompute");
+		this.publish = Objects.requireNonNull(publish, "publish");
+		if (delayMillis < 0) {
+			throw new IllegalArgumentException("Delay must not be negative.");
+		}
+		this.delayMillis = delayMillis;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "walk-safe-cost-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Marks edges whose modifiers changed. Inside a transaction the edges are queued after commit;
+	 * after a rollback the future completes without a recompute.
+	 *
+	 * @param edgeIds database ids of the edges
+	 * @return future completing once the edges' new costs are published
+	 */
+	public CompletableFuture<Void> markDirty(Collection<Long> edgeIds) {
+		List<Long> ids = List.copyOf(edgeIds);
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		if (ids.isEmpty()) {
+			done.complete(null);
+			return done;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						enqueue(ids, done);
+					} else {
+						done.complete(null);
+					}
+				}
+			});
+		} else {
+			enqueue(ids, done);
+		}
+		return done;
+	}
+
+	/**
+	 * Returns a future completing once every edge marked so far has its cost published.
+	 *
+	 * @return completion future, already complete if nothing is pending
+	 */
+	public synchronized CompletableFuture<Void> flush() {
+		if (dirty.isEmpty() && !scheduled && !draining) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		waiting.add(done);
+		schedule();
+		return done;
+	}
+
+	/**
+	 * Returns the number of edges waiting for a recompute.
+	 *
+	 * @return dirty edge count
+	 */
+	public synchronized int pending() {
+		return dirty.size();
+	}
+
+	/**
+	 * Stops the worker thread; pending edges are left for the next full recompute.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private synchronized void enqueue(List<Long> edgeIds, CompletableFuture<Void> done) {
+		dirty.addAll(edgeIds);
+		waiting.add(done);
+		schedule();
+	}
+
+	private void schedule() {
+		if (!scheduled) {
+			scheduled = true;
+			executor.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void drain() {
+		long[] edgeIds;
+		List<CompletableFuture<Void>> covered;
+		synchronized (this) {
+			edgeIds = dirty.stream().mapToLong(Long::longValue).toArray();
+			covered = waiting;
+			dirty.clear();
+			waiting = new ArrayList<>();
+			scheduled = false;
+			draining = true;
+		}
+		RuntimeException failure = null;
+		try {
+			long startedAt = System.nanoTime();
+			int changed = edgeIds.length > 0 ? recompute.applyAsInt(edgeIds) : 0;
+			if (changed > 0) {
+				publish.run();
+			}
+			LOG.debug("Recomputed walk safe costs of {} dirty edges ({} changed) in {} ms", edgeIds.length, changed,
+					(System.nanoTime() - startedAt) / 1_000_000);
+		} catch (RuntimeException ex) {
+			LOG.warn("Failed to recompute walk safe costs of {} edges", edgeIds.length, ex);
+			failure = ex;
+		} finally {
+			synchronized (this) {
+				draining = false;
+			}
+		}
+		// Completed only once the drain is over, so a caller woken here sees an idle worker.
+		for (CompletableFuture<Void> future : covered) {
+			if (failure == null) {
+				future.complete(null);
+			} else {
+				future.completeExceptionally(failure);
+			}
+		}
+	}
+}
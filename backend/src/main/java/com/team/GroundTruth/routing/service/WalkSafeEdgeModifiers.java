@@ -0,0 +1,22 @@
+package com.team.GroundTruth.routing.service;
+
+/**
+ * All three modifier values of one walk edge, e.g. as estimated by a bulk import. The centroid
+ * locates the edge for cache invalidation only; the edge is matched by its id.
+ *
+ * @param edgeId database edge id
+ * @param lat centroid latitude
+ * @param lon centroid longitude
+ * @param popDensity population density value
+ * @param streetlight streetlight coverage value
+ * @param crimeInArea crime level value
+ */
+public record WalkSafeEdgeModifiers(
+		long edgeId,
+		double lat,
+		double lon,
+		double popDensity,
+		double streetlight,
+		double crimeInArea
+) {
+}
@@ -0,0 +1,22 @@
+package com.team.GroundTruth.routing.service;
+
+/**
+ * One modifier update of a batch: values applied to every walk edge within a radius of a point.
+ * A {@code null} value leaves that modifier of the edges unchanged.
+ *
+ * @param lon longitude
+ * @param lat latitude
+ * @param radiusMeters search radius
+ * @param popDensity population density value, or {@code null}
+ * @param streetlight streetlight coverage value, or {@code null}
+ * @param crimeInArea crime level value, or {@code null}
+ */
+public record WalkSafeModifierUpdate(
+		double lon,
+		double lat,
+		double radiusMeters,
+		Double popDensity,
+		Double streetlight,
+		Double crimeInArea
+) {
+}
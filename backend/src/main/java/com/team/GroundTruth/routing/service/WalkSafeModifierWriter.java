@@ -0,0 +1,194 @@
+package com.team.GroundTruth.routing.service;
+
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies batches of {@link WalkSafeModifierUpdate}s in two statements, and writes batches of
+ * {@link WalkSafeEdgeModifiers} keyed by edge id in one.
+ * <p>
+ * The walk edges near every update are found, together with their stored modifiers, by one
+ * spatial join against the unnested update points. Values are merged in memory in batch order, so
+ * a later update of the same edge and field wins as if the updates had run one by one. The merged
+ * modifiers are written back as one multi-row {@code INSERT ... ON CONFLICT} upsert.
+ * </p>
+ */
+@Component
+public class WalkSafeModifierWriter {
+
+	private static final String MATCH_SQL = """
+			SELECT u.ord, e.id, m.pop_density, m.streetlight, m.crime_in_area
+			FROM unnest(?::double precision[], ?::double precision[], ?::double precision[])
+			     WITH ORDINALITY AS u(lon, lat, radius_m, ord)
+			JOIN edges e
+			  ON e.mode = 'walk'
+			 AND ST_DWithin(
+			     e.geom::geography,
+			     ST_SetSRID(ST_MakePoint(u.lon, u.lat), 4326)::geography,
+			     u.radius_m
+			 )
+			LEFT JOIN walk_safe_modifiers m ON m.edge_id = e.id
+			ORDER BY u.ord
+			""";
+
+	private static final String UPSERT_SQL = """
+			INSERT INTO walk_safe_modifiers (edge_id, pop_density, streetlight, crime_in_area, updated_at)
+			SELECT t.edge_id, t.pop_density, t.streetlight, t.crime_in_area, NOW()
+			FROM unnest(?::bigint[], ?::double precision[], ?::double precision[], ?::double precision[])
+			     AS t(edge_id, pop_density, streetlight, crime_in_area)
+			ON CONFLICT (edge_id) DO UPDATE
+			SET pop_density = EXCLUDED.pop_density,
+			    streetlight = EXCLUDED.streetlight,
+			    crime_in_area = EXCLUDED.crime_in_area,
+			    updated_at = EXCLUDED.updated_at
+			""";
+
+	private static final String EDGE_UPSERT_SQL = """
+			INSERT INTO walk_safe_modifiers (edge_id, pop_density, streetlight, crime_in_area, updated_at)
+			SELECT t.edge_id, t.pop_density, t.streetlight, t.crime_in_area, NOW()
+			FROM unnest(?::bigint[], ?::double precision[], ?::double precision[], ?::double precision[])
+			     AS t(edge_id, pop_density, streetlight, crime_in_area)
+			WHERE EXISTS (SELECT 1 FROM edges e WHERE e.id = t.edge_id AND e.mode = 'walk')
+			ON CONFLICT (edge_id) DO UPDATE
+			SET pop_density = EXCLUDED.pop_density,
+			    streetlight = EXCLUDED.streetlight,
+			    crime_in_area = EXCLUDED.crime_in_area,
+			    updated_at = EXCLUDED.updated_at
+			RETURNING edge_id
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Creates the writer.
+	 *
+	 * @param dataSource data source for the routing tables
+	 */
+	public WalkSafeModifierWriter(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(dataSource, "dataSource"));
+	}
+
+	/**
+	 * Applies a batch of updates.
+	 *
+	 * @param updates updates in the order they take effect
+	 * @return merged modifiers of every affected edge, as written
+	 */
+	public List<WalkSafeModifierEntity> apply(List<WalkSafeModifierUpdate> updates) {
+		Objects.requireNonNull(updates, "updates");
+		if (updates.isEmpty()) {
+			return List.of();
+		}
+		double[] lons = new double[updates.size()];
+		double[] lats = new double[updates.size()];
+		double[] radii = new double[updates.size()];
+		for (int i = 0; i < updates.size(); i++) {
+			WalkSafeModifierUpdate update = updates.get(i);
+			lons[i] = update.lon();
+			lats[i] = update.lat();
+			radii[i] = update.radiusMeters();
+		}
+
+		Map<Long, WalkSafeModifierEntity> merged = new LinkedHashMap<>();
+		jdbcTemplate.query(MATCH_SQL, rs -> {
+			WalkSafeModifierUpdate update = updates.get(rs.getInt(1) - 1);
+			WalkSafeModifierEntity modifier = merged.get(rs.getLong(2));
+			if (modifier == null) {
+				modifier = new WalkSafeModifierEntity(rs.getLong(2));
+				modifier.setPopDensity(nullableDouble(rs, 3));
+				modifier.setStreetlight(nullableDouble(rs, 4));
+				modifier.setCrimeInArea(nullableDouble(rs, 5));
+				merged.put(modifier.getEdgeId(), modifier);
+			}
+			merge(modifier, update);
+		}, lons, lats, radii);
+		if (merged.isEmpty()) {
+			return List.of();
+		}
+
+		List<WalkSafeModifierEntity> modifiers = new ArrayList<>(merged.values());
+		long[] edgeIds = new long[modifiers.size()];
+		Double[] popDensities = new Double[modifiers.size()];
+		Double[] streetlights = new Double[modifiers.size()];
+		Double[] crimes = new Double[modifiers.size()];
+		for (int i = 0; i < modifiers.size(); i++) {
+			WalkSafeModifierEntity modifier = modifiers.get(i);
+			edgeIds[i] = modifier.getEdgeId();
+			popDensities[i] = modifier.getPopDensity();
+			streetlights[i] = modifier.getStreetlight();
+			crimes[i] = modifier.getCrimeInArea();
+		}
+		jdbcTemplate.update(UPSERT_SQL, edgeIds, popDensities, streetlights, crimes);
+		return modifiers;
+	}
+
+	/**
+	 * Writes the modifiers of individual edges with one upsert keyed by edge id. Ids that are not
+	 * walk edges are skipped. Where an edge appears more than once, the last entry wins.
+	 *
+	 * @param modifiers modifier values per edge
+	 * @return the entries written, one per edge
+	 */
+	public List<WalkSafeEdgeModifiers> write(List<WalkSafeEdgeModifiers> modifiers) {
+		Objects.requireNonNull(modifiers, "modifiers");
+		Map<Long, WalkSafeEdgeModifiers> byEdge = new LinkedHashMap<>();
+		for (WalkSafeEdgeModifiers modifier : modifiers) {
+			byEdge.put(modifier.edgeId(), modifier);
+		}
+		if (byEdge.isEmpty()) {
+			return List.of();
+		}
+
+		List<WalkSafeEdgeModifiers> unique = new ArrayList<>(byEdge.values());
+		long[] edgeIds = new long[unique.size()];
+		double[] popDensities = new double[unique.size()];
+		double[] streetlights = new double[unique.size()];
+		double[] crimes = new double[unique.size()];
+		for (int i = 0; i < unique.size(); i++) {
+			WalkSafeEdgeModifiers modifier = unique.get(i);
+			edgeIds[i] = modifier.edgeId();
+			popDensities[i] = modifier.popDensity();
+			streetlights[i] = modifier.streetlight();
+			crimes[i] = modifier.crimeInArea();
+		}
+		Set<Long> written = new HashSet<>(
+				jdbcTemplate.queryForList(EDGE_UPSERT_SQL, Long.class, edgeIds, popDensities, streetlights, crimes));
+		return written.size() == unique.size()
+				? unique
+				: unique.stream().filter(modifier -> written.contains(modifier.edgeId())).toList();
+	}
+
+	/**
+	 * Copies the values an update sets onto a modifier.
+	 *
+	 * @param modifier modifier to change
+	 * @param update update whose non-null values are applied
+	 */
+	static void merge(WalkSafeModifierEntity modifier, WalkSafeModifierUpdate update) {
+		if (update.popDensity() != null) {
+			modifier.setPopDensity(update.popDensity());
+		}
+		if (update.streetlight() != null) {
+			modifier.setStreetlight(update.streetlight());
+		}
+		if (update.crimeInArea() != null) {
+			modifier.setCrimeInArea(update.crimeInArea());
+		}
+	}
+
+	private static Double nullableDouble(ResultSet rs, int column) throws SQLException {
+		double value = rs.getDouble(column);
+		return rs.wasNull() ? null : value;
+	}
+}
@@ -1,5 +1,8 @@
 package com.team.GroundTruth.routing.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service for managing walk safety edge costs based on statistical modifiers.
  */
@@ -13,6 +16,14 @@ public interface WalkSafeService {
 	 */
 	int initializeEdgeCosts();
 
+	/**
+	 * Returns a future completing once the edge costs of all modifier updates made so far are
+	 * recomputed. Modifier updates only queue their edges, so costs follow them asynchronously.
+	 *
+	 * @return completion future
+	 */
+	CompletableFuture<Void> awaitCostUpdates();
+
 	/**
 	 * Updates population density modifier for edges near the given location.
 	 *
@@ -45,4 +56,23 @@ public interface WalkSafeService {
 	 * @return number of edges updated
 	 */
 	int updateCrimeInArea(double lon, double lat, double radiusMeters, double value);
-}
\ No newline at end of file
+
+	/**
+	 * Applies a batch of modifier updates. The affected edges of all updates are resolved and
+	 * written together; where updates overlap, later ones win per modifier, as if applied one by
+	 * one.
+	 *
+	 * @param updates updates in the order they take effect
+	 * @return number of distinct edges updated
+	 */
+	int updateModifiers(List<WalkSafeModifierUpdate> updates);
+
+	/**
+	 * Writes all three modifiers of individual edges, matched by edge id rather than by location.
+	 * Ids that are not walk edges are skipped.
+	 *
+	 * @param modifiers modifier values per edge; where an edge repeats, the last entry wins
+	 * @return number of distinct edges updated
+	 */
+	int updateEdgeModifiers(List<WalkSafeEdgeModifiers> modifiers);
+}
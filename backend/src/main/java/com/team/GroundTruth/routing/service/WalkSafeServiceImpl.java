@@ -1,15 +1,14 @@
 package com.team.GroundTruth.routing.service;
 
-import com.team.GroundTruth.entity.maps.EdgeEntity;
-import com.team.GroundTruth.entity.maps.WalkSafeEdgeCostEntity;
 import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
-import com.team.GroundTruth.routing.repo.EdgeRepository;
-import com.team.GroundTruth.routing.repo.WalkSafeEdgeCostRepository;
+import com.team.GroundTruth.routing.markers.RiskMarkerIndex;
 import com.team.GroundTruth.routing.repo.WalkSafeModifierRepository;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
@@ -22,43 +21,37 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class WalkSafeServiceImpl implements WalkSafeService {
 
-	private final EdgeRepository edgeRepository;
 	private final WalkSafeModifierRepository modifierRepository;
-	private final WalkSafeEdgeCostRepository costRepository;
+	private final MarkerTileService markerTileService;
+	private final RiskMarkerIndex riskMarkerIndex;
+	private final WalkSafeCostMaterializer costMaterializer;
+	private final WalkSafeCostWorker costWorker;
+	private final WalkSafeModifierWriter modifierWriter;
 
 	public WalkSafeServiceImpl(
-			EdgeRepository edgeRepository,
 			WalkSafeModifierRepository modifierRepository,
-			WalkSafeEdgeCostRepository costRepository
+			MarkerTileService markerTileService,
+			RiskMarkerIndex riskMarkerIndex,
+			WalkSafeCostMaterializer costMaterializer,
+			WalkSafeCostWorker costWorker,
+			WalkSafeModifierWriter modifierWriter
 	) {
-		this.edgeRepository = Objects.requireNonNull(edgeRepository, "edgeRepository");
 		this.modifierRepository = Objects.requireNonNull(modifierRepository, "modifierRepository");
-		this.costRepository = Objects.requireNonNull(costRepository, "costRepository");
+		this.markerTileService = Objects.requireNonNull(markerTileService, "markerTileService");
+		this.riskMarkerIndex = Objects.requireNonNull(riskMarkerIndex, "riskMarkerIndex");
+		this.costMaterializer = Objects.requireNonNull(costMaterializer, "costMaterializer");
+		this.costWorker = Objects.requireNonNull(costWorker, "costWorker");
+		this.modifierWriter = Objects.requireNonNull(modifierWriter, "modifierWriter");
 	}
 
 	@Override
 	public int initializeEdgeCosts() {
-		List<EdgeEntity> walkEdges = edgeRepository.findAll().stream()
-				.filter(e -> "walk".equals(e.getMode()))
-				.toList();
-
-		if (walkEdges.isEmpty()) {
-			return 0;
-		}
-
-		long[] edgeIds = walkEdges.stream().mapToLong(EdgeEntity::getId).toArray();
-		Map<Long, WalkSafeModifierEntity> modifiersByEdgeId = modifierRepository.findByEdgeIds(edgeIds).stream()
-				.collect(Collectors.toMap(WalkSafeModifierEntity::getEdgeId, m -> m));
-
-		List<WalkSafeEdgeCostEntity> costs = new ArrayList<>();
-		for (EdgeEntity edge : walkEdges) {
-			WalkSafeModifierEntity modifier = modifiersByEdgeId.get(edge.getId());
-			double costSeconds = computeCost(edge.getCostSeconds(), modifier);
-			costs.add(new WalkSafeEdgeCostEntity(edge.getId(), costSeconds));
-		}
+		return costMaterializer.materializeAll();
+	}
 
-		costRepository.saveAll(costs);
-		return costs.size();
+	@Override
+	public CompletableFuture<Void> awaitCostUpdates() {
+		return costWorker.flush();
 	}
 
 	@Override
@@ -76,6 +69,52 @@ public class WalkSafeServiceImpl implements WalkSafeService {
 		return updateModifier(lon, lat, radiusMeters, value, WalkSafeModifierEntity::setCrimeInArea);
 	}
 
+	@Override
+	public int updateModifiers(List<WalkSafeModifierUpdate> updates) {
+		Objects.requireNonNull(updates, "updates");
+		List<WalkSafeModifierEntity> written = modifierWriter.apply(updates);
+		if (written.isEmpty()) {
+			return 0;
+		}
+
+		costWorker.markDirty(written.stream().map(WalkSafeModifierEntity::getEdgeId).toList());
+		for (WalkSafeModifierUpdate update : updates) {
+			markerTileService.invalidate(update.lat(), update.lon(), update.radiusMeters());
+		}
+		riskMarkerIndex.update(written);
+		return written.size();
+	}
+
+	@Override
+	public int updateEdgeModifiers(List<WalkSafeEdgeModifiers> modifiers) {
+		Objects.requireNonNull(modifiers, "modifiers");
+		List<WalkSafeEdgeModifiers> written = modifierWriter.write(modifiers);
+		if (written.isEmpty()) {
+			return 0;
+		}
+
+		List<WalkSafeModifierEntity> entities = new ArrayList<>(written.size());
+		double minLat = Double.POSITIVE_INFINITY;
+		double minLon = Double.POSITIVE_INFINITY;
+		double maxLat = Double.NEGATIVE_INFINITY;
+		double maxLon = Double.NEGATIVE_INFINITY;
+		for (WalkSafeEdgeModifiers modifier : written) {
+			WalkSafeModifierEntity entity = new WalkSafeModifierEntity(modifier.edgeId());
+			entity.setPopDensity(modifier.popDensity());
+			entity.setStreetlight(modifier.streetlight());
+			entity.setCrimeInArea(modifier.crimeInArea());
+			entities.add(entity);
+			minLat = Math.min(minLat, modifier.lat());
+			minLon = Math.min(minLon, modifier.lon());
+			maxLat = Math.max(maxLat, modifier.lat());
+			maxLon = Math.max(maxLon, modifier.lon());
+		}
+		costWorker.markDirty(entities.stream().map(WalkSafeModifierEntity::getEdgeId).toList());
+		markerTileService.invalidate(minLat, minLon, maxLat, maxLon);
+		riskMarkerIndex.update(entities);
+		return entities.size();
+	}
+
 	private int updateModifier(
 			double lon,
 			double lat,
@@ -103,80 +142,9 @@ public class WalkSafeServiceImpl implements WalkSafeService {
 		}
 
 		modifierRepository.saveAll(toSave);
-		recalculateCosts(edgeIds);
+		costWorker.markDirty(edgeIds);
+		markerTileService.invalidate(lat, lon, radiusMeters);
+		riskMarkerIndex.update(toSave);
 		return edgeIds.size();
 	}
-
-	private void recalculateCosts(List<Long> edgeIds) {
-		if (edgeIds.isEmpty()) {
-			return;
-		}
-
-		long[] edgeIdArray = edgeIds.stream().mapToLong(Long::longValue).toArray();
-		Map<Long, WalkSafeModifierEntity> modifiersByEdgeId = modifierRepository.findByEdgeIds(edgeIdArray).stream()
-				.collect(Collectors.toMap(WalkSafeModifierEntity::getEdgeId, m -> m));
-
-		Map<Long, EdgeEntity> edgesById = edgeRepository.findAllById(edgeIds).stream()
-				.collect(Collectors.toMap(EdgeEntity::getId, e -> e));
-
-		Map<Long, WalkSafeEdgeCostEntity> existingCosts = costRepository.findByEdgeIds(edgeIdArray).stream()
-				.collect(Collectors.toMap(WalkSafeEdgeCostEntity::getEdgeId, c -> c));
-
-		List<WalkSafeEdgeCostEntity> toSave = new ArrayList<>();
-		for (Long edgeId : edgeIds) {
-			EdgeEntity edge = edgesById.get(edgeId);
-			if (edge == null) {
-				continue;
-			}
-			WalkSafeModifierEntity modifier = modifiersByEdgeId.get(edgeId);
-			double costSeconds = computeCost(edge.getCostSeconds(), modifier);
-
-			WalkSafeEdgeCostEntity costEntity = existingCosts.get(edgeId);
-			if (costEntity == null) {
-				costEntity = new WalkSafeEdgeCostEntity(edgeId, costSeconds);
-			} else {
-				costEntity.setCostSeconds(costSeconds);
-			}
-			toSave.add(costEntity);
-		}
-
-		costRepository.saveAll(toSave);
-	}
-
-	/**
-	 * Computes the safety-adjusted cost for an edge based on its modifiers.
-	 * Higher crime and lower streetlight coverage increase cost.
-	 * Higher population density decreases cost (more eyes on the street).
-	 */
-	private double computeCost(double baseCostSeconds, WalkSafeModifierEntity modifier) {
-		if (modifier == null) {
-			return baseCostSeconds;
-		}
-
-		double multiplier = 1.0;
-
-		Double popDensity = modifier.getPopDensity();
-		if (popDensity != null && popDensity > 0) {
-			// Higher population density = safer = lower multiplier
-			//popDesnity from 0-1, where 1 is super safe and 0 is sparse
-			multiplier *= Math.min(1.5, (2 * (1 - popDensity))+0.3);
-		}
-
-		Double streetlight = modifier.getStreetlight();
-		if (streetlight != null) {
-			// Higher streetlight coverage = safer = lower multiplier
-			// Assume streetlight is 0-1 scale
-			//Check this
-			multiplier *= Math.min(1.5, (2 * (1 - streetlight)) + 0.5);
-		}
-
-		Double crimeInArea = modifier.getCrimeInArea();
-		if (crimeInArea != null && crimeInArea > 0) {
-			// Higher crime = less safe = higher multiplier
-			// Crime from 0-1 (normalized)
-			multiplier *= 1.0 + (crimeInArea);
-		}
-
-		return Math.max(0.0, baseCostSeconds * multiplier);
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.team.GroundTruth.routing.shard;
+
+/**
+ * Precomputed travel costs across one shard, from every node where an edge enters the shard to
+ * every node where an edge leaves it.
+ * <p>
+ * Exit nodes are owned by the neighbouring shard the edge leads into, where they are entry nodes
+ * in turn, so the tables of all shards together form the boundary overlay graph.
+ * </p>
+ *
+ * @param shard shard the table belongs to
+ * @param entryNodeIds database ids of the entry nodes
+ * @param exitNodeIds database ids of the exit nodes
+ * @param exitShards shard owning each exit node
+ * @param costs costs in seconds, row-major by entry, infinite where the exit is unreachable
+ */
+public record BoundaryTable(int shard, long[] entryNodeIds, long[] exitNodeIds, int[] exitShards, double[] costs) {
+
+	/**
+	 * Returns the cost from an entry node to an exit node.
+	 *
+	 * @param entry entry position in {@link #entryNodeIds()}
+	 * @param exit exit position in {@link #exitNodeIds()}
+	 * @return cost in seconds
+	 */
+	public double cost(int entry, int exit) {
+		return costs[entry * exitNodeIds.length + exit];
+	}
+}
@@ -0,0 +1,354 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.astar.AStarRouter;
+import com.team.GroundTruth.routing.astar.ShortestPathTree;
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import com.team.GroundTruth.routing.graph.EdgeCostColumns;
+import com.team.GroundTruth.routing.graph.EdgeCostSnapshot;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RouteType;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * One partition of a routing graph, serving searches confined to the cells it owns.
+ * <p>
+ * A shard keeps the nodes of its cells and every edge leaving them. Edges into another shard end
+ * in that shard's node, kept here as an exit without outgoing edges, so searches stop at the
+ * border. A reversed copy of the owned edges answers many-to-one queries towards a goal.
+ * </p>
+ * <p>
+ * Costs are taken from snapshots of the graph the shard was cut from. When the snapshot of a route
+ * type is replaced, the shard realigns its costs and compares them with the ones it holds: the
+ * aligned costs are the shard's cost version, so a reload that leaves the shard's edges unchanged
+ * keeps its {@link BoundaryTable}s. When they did change, the tables of the blocked masks in use are
+ * rebuilt in the background and the previous table of a mask is served until its rebuild is done.
+ * </p>
+ */
+public final class GraphShard implements ShardEndpoint {
+
+	private static final int SNAP_CANDIDATES = 8;
+
+	private final int shard;
+	private final RoutingGraph local;
+	private final RoutingGraph reverse;
+	private final boolean[] exit;
+	private final long[] entryIds;
+	private final long[] exitIds;
+	private final int[] exitShards;
+	private final Function<RouteType, EdgeCostSnapshot> costSource;
+	private final AStarRouter router;
+	private final Map<RouteType, ShardCosts> costs = new ConcurrentHashMap<>();
+
+	private GraphShard(
+			int shard,
+			RoutingGraph local,
+			RoutingGraph reverse,
+			long[] entryIds,
+			long[] exitIds,
+			int[] exitShards,
+			Function<RouteType, EdgeCostSnapshot> costSource,
+			AStarRouter router
+	) {
+		this.shard = shard;
+		this.local = local;
+		this.reverse = reverse;
+		this.entryIds = entryIds;
+		this.exitIds = exitIds;
+		this.exitShards = exitShards;
+		this.costSource = costSource;
+		this.router = router;
+		this.exit = new boolean[local.nodeCount()];
+		for (long exitId : exitIds) {
+			exit[local.indexOfNode(exitId)] = true;
+		}
+	}
+
+	/**
+	 * Cuts the part of a graph owned by a shard.
+	 *
+	 * @param shard shard index
+	 * @param graph graph to partition
+	 * @param layout layout assigning nodes to shards
+	 * @param costSource cost snapshots aligned with {@code graph} or a later reload of it
+	 * @param router router running the searches
+	 * @return graph shard
+	 */
+	public static GraphShard of(
+			int shard,
+			RoutingGraph graph,
+			ShardLayout layout,
+			Function<RouteType, EdgeCostSnapshot> costSource,
+			AStarRouter router
+	) {
+		Objects.requireNonNull(graph, "graph");
+		Objects.requireNonNull(layout, "layout");
+		Objects.requireNonNull(costSource, "costSource");
+		Objects.requireNonNull(router, "router");
+		if (shard < 0 || shard >= layout.shardCount()) {
+			throw new IllegalArgumentException("Shard " + shard + " is not part of the layout.");
+		}
+
+		int[] owner = new int[graph.nodeCount()];
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			owner[node] = layout.shardOf(graph.lat(node), graph.lon(node));
+		}
+		RoutingGraphBuilder localBuilder = new RoutingGraphBuilder(graph.mode()).precision(graph.precision());
+		RoutingGraphBuilder reverseBuilder = new RoutingGraphBuilder(graph.mode()).precision(graph.precision());
+		boolean[] entry = new boolean[graph.nodeCount()];
+		boolean[] exit = new boolean[graph.nodeCount()];
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			boolean owned = owner[node] == shard;
+			for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+				int target = graph.edgeTarget(edge);
+				boolean targetOwned = owner[target] == shard;
+				if (owned) {
+					localBuilder.addEdge(graph.edgeId(edge), graph.nodeId(node), graph.nodeId(target),
+							graph.edgeLength(edge), graph.edgeBaseCost(edge), graph.edgeFlags(edge));
+					if (targetOwned) {
+						reverseBuilder.addEdge(graph.edgeId(edge), graph.nodeId(target), graph.nodeId(node),
+								graph.edgeLength(edge), graph.edgeBaseCost(edge), graph.edgeFlags(edge));
+					} else {
+						exit[target] = true;
+					}
+				} else if (targetOwned) {
+					entry[target] = true;
+				}
+			}
+		}
+
+		int entryCount = 0;
+		int exitCount = 0;
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			if (owner[node] == shard || exit[node]) {
+				localBuilder.addNode(graph.nodeId(node), graph.lat(node), graph.lon(node));
+			}
+			if (owner[node] == shard) {
+				reverseBuilder.addNode(graph.nodeId(node), graph.lat(node), graph.lon(node));
+			}
+			entryCount += entry[node] ? 1 : 0;
+			exitCount += exit[node] ? 1 : 0;
+		}
+		long[] entryIds = new long[entryCount];
+		long[] exitIds = new long[exitCount];
+		int[] exitShards = new int[exitCount];
+		entryCount = 0;
+		exitCount = 0;
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			if (entry[node]) {
+				entryIds[entryCount++] = graph.nodeId(node);
+			}
+			if (exit[node]) {
+				exitShards[exitCount] = owner[node];
+				exitIds[exitCount++] = graph.nodeId(node);
+			}
+		}
+		return new GraphShard(shard, localBuilder.build(), reverseBuilder.build(), entryIds, exitIds, exitShards,
+				costSource, router);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int shard() {
+		return shard;
+	}
+
+	/**
+	 * Returns the shard's graph: its owned nodes and edges plus the exit nodes.
+	 *
+	 * @return local graph
+	 */
+	public RoutingGraph graph() {
+		return local;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public OptionalLong nearestNode(double lat, double lon) {
+		for (int candidate : local.planar().nearestNodes(lat, lon, SNAP_CANDIDATES)) {
+			if (!exit[candidate]) {
+				return OptionalLong.of(local.nodeId(candidate));
+			}
+		}
+		return OptionalLong.empty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BoundaryTable boundaryTable(RouteType routeType, long blockedMask) {
+		ShardCosts current = costs(routeType);
+		BoundaryTable table = current.tables().get(blockedMask);
+		if (table == null) {
+			table = current.previous().get(blockedMask);
+		}
+		return table != null ? table : buildTable(current, blockedMask);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double[] distancesFrom(long nodeId, long[] targetIds, RouteType routeType, long blockedMask) {
+		return distances(local, costs(routeType).local(), nodeId, targetIds, blockedMask);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double[] distancesTo(long nodeId, long[] sourceIds, RouteType routeType, long blockedMask) {
+		return distances(reverse, costs(routeType).reverse(), nodeId, sourceIds, blockedMask);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RouteResult route(long fromId, long toId, RouteType routeType, long blockedMask) {
+		if (fromId == toId) {
+			return new RouteResult(List.of(fromId), List.of(), 0.0, 0.0);
+		}
+		int from = local.indexOfNode(fromId);
+		int to = local.indexOfNode(toId);
+		if (from < 0 || to < 0) {
+			throw new NoRouteFoundException("No route found between nodes " + fromId + " and " + toId
+					+ " within shard " + shard + ".");
+		}
+		// Dijkstra rather than A*, so the legs match the boundary table costs exactly.
+		return router.oneToMany(local, from, new int[]{to}, costs(routeType).local(), blockedMask).pathTo(to);
+	}
+
+	private double[] distances(RoutingGraph graph, MemorySegment edgeCosts, long nodeId, long[] otherIds, long blockedMask) {
+		double[] result = new double[otherIds.length];
+		Arrays.fill(result, Double.POSITIVE_INFINITY);
+		int node = graph.indexOfNode(nodeId);
+		if (node < 0) {
+			for (int i = 0; i < otherIds.length; i++) {
+				if (otherIds[i] == nodeId) {
+					result[i] = 0.0;
+				}
+			}
+			return result;
+		}
+		int[] others = indices(graph, otherIds);
+		int[] present = Arrays.stream(others).filter(other -> other >= 0).toArray();
+		ShortestPathTree tree = router.oneToMany(graph, node, present, edgeCosts, blockedMask);
+		for (int i = 0; i < others.length; i++) {
+			if (others[i] >= 0) {
+				result[i] = tree.cost(others[i]);
+			}
+		}
+		return result;
+	}
+
+	private ShardCosts costs(RouteType routeType) {
+		Objects.requireNonNull(routeType, "routeType");
+		EdgeCostSnapshot snapshot = costSource.apply(routeType);
+		ShardCosts current = costs.get(routeType);
+		if (current != null && current.snapshot() == snapshot) {
+			return current;
+		}
+		MemorySegment localCosts = align(local, snapshot);
+		MemorySegment reverseCosts = align(reverse, snapshot);
+		ShardCosts next;
+		if (current != null && localCosts.mismatch(current.local()) == -1L
+				&& reverseCosts.mismatch(current.reverse()) == -1L) {
+			// Same cost version: only the snapshot instance changed.
+			next = new ShardCosts(snapshot, current.local(), current.reverse(), current.tables(), current.previous());
+		} else {
+			Map<Long, BoundaryTable> previous = new ConcurrentHashMap<>();
+			if (current != null) {
+				previous.putAll(current.previous());
+				previous.putAll(current.tables());
+			}
+			next = new ShardCosts(snapshot, localCosts, reverseCosts, new ConcurrentHashMap<>(), previous);
+		}
+		boolean installed = current == null
+				? costs.putIfAbsent(routeType, next) == null
+				: costs.replace(routeType, current, next);
+		if (!installed) {
+			ShardCosts winner = costs.get(routeType);
+			return winner != null && winner.snapshot() == snapshot ? winner : next;
+		}
+		for (long mask : next.previous().keySet()) {
+			CompletableFuture.runAsync(() -> {
+				ShardCosts latest = costs.get(routeType);
+				if (latest != null && latest.tables() == next.tables()) {
+					buildTable(next, mask);
+				}
+			});
+		}
+		return next;
+	}
+
+	/**
+	 * Computes the boundary table of a blocked mask from a cost version and publishes it, replacing
+	 * the previous table of the mask.
+	 */
+	private BoundaryTable buildTable(ShardCosts current, long mask) {
+		double[] table = new double[entryIds.length * exitIds.length];
+		for (int entry = 0; entry < entryIds.length; entry++) {
+			double[] row = distances(local, current.local(), entryIds[entry], exitIds, mask);
+			System.arraycopy(row, 0, table, entry * exitIds.length, row.length);
+		}
+		BoundaryTable built = new BoundaryTable(shard, entryIds, exitIds, exitShards, table);
+		BoundaryTable winner = current.tables().putIfAbsent(mask, built);
+		current.previous().remove(mask);
+		return winner != null ? winner : built;
+	}
+
+	/**
+	 * Copies the snapshot costs of the graph's edges, matched by edge id, into a column of the graph.
+	 */
+	private static MemorySegment align(RoutingGraph graph, EdgeCostSnapshot snapshot) {
+		RoutingGraph source = snapshot.graph();
+		boolean single = EdgeCostColumns.isSingle(snapshot.costs(), source.edgeCount());
+		double[] aligned = new double[graph.edgeCount()];
+		for (int edge = 0; edge < aligned.length; edge++) {
+			int sourceEdge = source.indexOfEdge(graph.edgeId(edge));
+			aligned[edge] = sourceEdge >= 0
+					? EdgeCostColumns.get(snapshot.costs(), single, sourceEdge)
+					: graph.edgeBaseCost(edge);
+		}
+		return MemorySegment.ofArray(aligned);
+	}
+
+	/**
+	 * Resolves node ids to indices, or {@code -1} for ids missing from the graph.
+	 */
+	private static int[] indices(RoutingGraph graph, long[] nodeIds) {
+		int[] result = new int[nodeIds.length];
+		for (int i = 0; i < nodeIds.length; i++) {
+			result[i] = graph.indexOfNode(nodeIds[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Costs of one route type aligned with the local and reversed graphs, the boundary tables
+	 * computed from them per blocked mask, and the tables of earlier costs still being rebuilt.
+	 */
+	private record ShardCosts(
+			EdgeCostSnapshot snapshot,
+			MemorySegment local,
+			MemorySegment reverse,
+			Map<Long, BoundaryTable> tables,
+			Map<Long, BoundaryTable> previous
+	) {
+	}
+}
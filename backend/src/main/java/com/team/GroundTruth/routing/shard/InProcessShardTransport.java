@@ -0,0 +1,109 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.astar.AStarRouter;
+import com.team.GroundTruth.routing.graph.EdgeCostSnapshot;
+import com.team.GroundTruth.routing.graph.ResidentGraphCache;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every shard inside this process, cut from the resident graph of each travel mode.
+ * <p>
+ * Calls are plain method calls, so this transport serves tests and single-node deployments that
+ * want to exercise the partitioned code path. The shards of a travel mode are cut on first use and
+ * cut again once the resident graph has been reloaded.
+ * </p>
+ */
+@Component
+public class InProcessShardTransport implements ShardTransport {
+
+	private final ShardLayout layout;
+	private final Function<TravelMode, RoutingGraph> graphs;
+	private final Function<RouteType, EdgeCostSnapshot> costs;
+	private final AStarRouter router;
+	private final Map<TravelMode, ModeShards> shards = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the transport from configuration.
+	 *
+	 * @param residentGraphCache cache of resident graphs and cost snapshots to cut shards from
+	 * @param router router running the shard searches
+	 * @param shardCount number of shards
+	 * @param cellSizeDegrees edge length of the cells assigned to shards in decimal degrees
+	 * @param stripeColumns width of a shard stripe in cells
+	 */
+	@Autowired
+	public InProcessShardTransport(
+			ResidentGraphCache residentGraphCache,
+			AStarRouter router,
+			@Value("${routing.shards.count:4}") int shardCount,
+			@Value("${routing.shards.cell-size-degrees:0.02}") double cellSizeDegrees,
+			@Value("${routing.shards.stripe-cells:16}") int stripeColumns
+	) {
+		this(new ShardLayout(new TileGrid(cellSizeDegrees), shardCount, stripeColumns), residentGraphCache::graph,
+				residentGraphCache::costs, router);
+	}
+
+	/**
+	 * Creates a transport over explicit graphs and costs.
+	 *
+	 * @param layout shard layout
+	 * @param graphs graph per travel mode
+	 * @param costs cost snapshot per route type
+	 * @param router router running the shard searches
+	 */
+	public InProcessShardTransport(
+			ShardLayout layout,
+			Function<TravelMode, RoutingGraph> graphs,
+			Function<RouteType, EdgeCostSnapshot> costs,
+			AStarRouter router
+	) {
+		this.layout = Objects.requireNonNull(layout, "layout");
+		this.graphs = Objects.requireNonNull(graphs, "graphs");
+		this.costs = Objects.requireNonNull(costs, "costs");
+		this.router = Objects.requireNonNull(router, "router");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ShardLayout layout() {
+		return layout;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GraphShard endpoint(TravelMode mode, int shard) {
+		Objects.requireNonNull(mode, "mode");
+		RoutingGraph graph = graphs.apply(mode);
+		return shards.compute(mode, (key, current) -> current != null && current.graph() == graph
+				? current
+				: cut(graph)).shards()[shard];
+	}
+
+	private ModeShards cut(RoutingGraph graph) {
+		GraphShard[] cut = new GraphShard[layout.shardCount()];
+		for (int shard = 0; shard < cut.length; shard++) {
+			cut[shard] = GraphShard.of(shard, graph, layout, costs, router);
+		}
+		return new ModeShards(graph, cut);
+	}
+
+	/**
+	 * Shards of one travel mode and the graph they were cut from.
+	 */
+	private record ModeShards(RoutingGraph graph, GraphShard[] shards) {
+	}
+}
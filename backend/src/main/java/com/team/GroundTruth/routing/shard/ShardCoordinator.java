@@ -0,0 +1,226 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes across a partitioned graph by stitching shard-local searches together.
+ * <p>
+ * The start shard reports the costs from the start to its exits and the goal shard the costs from
+ * its entries to the goal. In between, a Dijkstra search runs on the boundary overlay: its nodes
+ * are the shard entries and its edges the {@link BoundaryTable} costs, fetched from a shard when
+ * the search first settles one of its entries. The winning overlay path is then expanded leg by
+ * leg by the shards it passes through, so the result carries the same node and edge ids as a
+ * search on the whole graph.
+ * </p>
+ */
+@Component
+public class ShardCoordinator {
+
+	private final ShardTransport transport;
+
+	/**
+	 * Creates a coordinator.
+	 *
+	 * @param transport transport reaching the shards
+	 */
+	public ShardCoordinator(ShardTransport transport) {
+		this.transport = Objects.requireNonNull(transport, "transport");
+	}
+
+	/**
+	 * Finds the node closest to a point within the shard owning the point.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @param mode travel mode of the graph
+	 * @return nearest node, or {@code null} if the shard has no nodes
+	 */
+	public ShardNode nearestNode(double lat, double lon, TravelMode mode) {
+		int shard = transport.layout().shardOf(lat, lon);
+		OptionalLong node = transport.endpoint(mode, shard).nearestNode(lat, lon);
+		return node.isPresent() ? new ShardNode(shard, node.getAsLong()) : null;
+	}
+
+	/**
+	 * Routes between two nodes that may lie in different shards.
+	 *
+	 * @param start start node
+	 * @param goal goal node
+	 * @param routeType route type determining the costs
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return route result reported in database node and edge ids
+	 * @throws NoRouteFoundException if no permitted path exists
+	 */
+	public RouteResult route(ShardNode start, ShardNode goal, RouteType routeType, long blockedMask) {
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(goal, "goal");
+		Objects.requireNonNull(routeType, "routeType");
+		if (start.nodeId() == goal.nodeId()) {
+			return new RouteResult(List.of(start.nodeId()), List.of(), 0.0, 0.0);
+		}
+		TravelMode mode = routeType.travelMode();
+		ShardEndpoint startShard = transport.endpoint(mode, start.shard());
+		ShardEndpoint goalShard = transport.endpoint(mode, goal.shard());
+		Map<Integer, OverlayTable> tables = new HashMap<>();
+		OverlayTable startTable = table(tables, mode, start.shard(), routeType, blockedMask);
+		OverlayTable goalTable = table(tables, mode, goal.shard(), routeType, blockedMask);
+
+		// Without leaving the shard, only a start and goal in the same shard connect directly.
+		long[] exits = startTable.table().exitNodeIds();
+		boolean sameShard = start.shard() == goal.shard();
+		long[] targets = sameShard ? append(exits, goal.nodeId()) : exits;
+		double[] fromStart = startShard.distancesFrom(start.nodeId(), targets, routeType, blockedMask);
+		double bestCost = sameShard ? fromStart[exits.length] : Double.POSITIVE_INFINITY;
+		Long bestEntry = null;
+
+		long[] goalEntries = goalTable.table().entryNodeIds();
+		double[] toGoal = goalShard.distancesTo(goal.nodeId(), goalEntries, routeType, blockedMask);
+
+		Map<Long, Double> costs = new HashMap<>();
+		Map<Long, Hop> previous = new HashMap<>();
+		PriorityQueue<OverlayEntry> openSet = new PriorityQueue<>(Comparator.comparingDouble(OverlayEntry::cost));
+		costs.put(start.nodeId(), 0.0);
+		int[] exitShards = startTable.table().exitShards();
+		for (int exit = 0; exit < exits.length; exit++) {
+			relax(costs, previous, openSet, exits[exit], exitShards[exit], fromStart[exit],
+					new Hop(start.nodeId(), start.shard()));
+		}
+
+		while (!openSet.isEmpty()) {
+			OverlayEntry current = openSet.poll();
+			if (current.cost() >= bestCost) {
+				break;
+			}
+			if (current.cost() > costs.get(current.nodeId())) {
+				continue;
+			}
+			if (current.shard() == goal.shard()) {
+				Integer entry = goalTable.entryPositions().get(current.nodeId());
+				if (entry != null && current.cost() + toGoal[entry] < bestCost) {
+					bestCost = current.cost() + toGoal[entry];
+					bestEntry = current.nodeId();
+				}
+			}
+			OverlayTable overlay = table(tables, mode, current.shard(), routeType, blockedMask);
+			Integer entry = overlay.entryPositions().get(current.nodeId());
+			if (entry == null) {
+				continue;
+			}
+			BoundaryTable table = overlay.table();
+			Hop hop = new Hop(current.nodeId(), current.shard());
+			for (int exit = 0; exit < table.exitNodeIds().length; exit++) {
+				relax(costs, previous, openSet, table.exitNodeIds()[exit], table.exitShards()[exit],
+						current.cost() + table.cost(entry, exit), hop);
+			}
+		}
+
+		if (bestCost == Double.POSITIVE_INFINITY) {
+			throw new NoRouteFoundException("No route found between nodes " + start.nodeId() + " and "
+					+ goal.nodeId() + ".");
+		}
+		if (bestEntry == null) {
+			return startShard.route(start.nodeId(), goal.nodeId(), routeType, blockedMask);
+		}
+		List<RouteResult> legs = new ArrayList<>();
+		legs.add(goalShard.route(bestEntry, goal.nodeId(), routeType, blockedMask));
+		for (long node = bestEntry; node != start.nodeId(); ) {
+			Hop hop = previous.get(node);
+			legs.add(transport.endpoint(mode, hop.shard()).route(hop.fromNodeId(), node, routeType, blockedMask));
+			node = hop.fromNodeId();
+		}
+		Collections.reverse(legs);
+		return join(legs);
+	}
+
+	private OverlayTable table(
+			Map<Integer, OverlayTable> tables,
+			TravelMode mode,
+			int shard,
+			RouteType routeType,
+			long blockedMask
+	) {
+		return tables.computeIfAbsent(shard, key -> {
+			BoundaryTable table = transport.endpoint(mode, key).boundaryTable(routeType, blockedMask);
+			Map<Long, Integer> entryPositions = new HashMap<>(table.entryNodeIds().length * 2);
+			for (int entry = 0; entry < table.entryNodeIds().length; entry++) {
+				entryPositions.put(table.entryNodeIds()[entry], entry);
+			}
+			return new OverlayTable(table, entryPositions);
+		});
+	}
+
+	private static void relax(
+			Map<Long, Double> costs,
+			Map<Long, Hop> previous,
+			PriorityQueue<OverlayEntry> openSet,
+			long nodeId,
+			int shard,
+			double cost,
+			Hop hop
+	) {
+		if (cost < costs.getOrDefault(nodeId, Double.POSITIVE_INFINITY)) {
+			costs.put(nodeId, cost);
+			previous.put(nodeId, hop);
+			openSet.add(new OverlayEntry(nodeId, shard, cost));
+		}
+	}
+
+	private static long[] append(long[] values, long value) {
+		long[] result = Arrays.copyOf(values, values.length + 1);
+		result[values.length] = value;
+		return result;
+	}
+
+	private static RouteResult join(List<RouteResult> legs) {
+		List<Long> nodePath = new ArrayList<>();
+		List<Long> edgePath = new ArrayList<>();
+		double distanceMeters = 0.0;
+		double durationSeconds = 0.0;
+		for (RouteResult leg : legs) {
+			List<Long> legNodes = leg.pathNodeIds();
+			nodePath.addAll(nodePath.isEmpty() ? legNodes : legNodes.subList(1, legNodes.size()));
+			edgePath.addAll(leg.pathEdgeIds());
+			distanceMeters += leg.distanceMeters();
+			durationSeconds += leg.durationSeconds();
+		}
+		return new RouteResult(List.copyOf(nodePath), List.copyOf(edgePath), distanceMeters, durationSeconds);
+	}
+
+	/**
+	 * A node addressed by the shard owning it.
+	 *
+	 * @param shard shard index
+	 * @param nodeId database node id
+	 */
+	public record ShardNode(int shard, long nodeId) {
+	}
+
+	/**
+	 * Overlay predecessor of a node: the overlay node a leg started from and the shard it crossed.
+	 */
+	private record Hop(long fromNodeId, int shard) {
+	}
+
+	private record OverlayEntry(long nodeId, int shard, double cost) {
+	}
+
+	/**
+	 * A shard's boundary table with its entries indexed by node id.
+	 */
+	private record OverlayTable(BoundaryTable table, Map<Long, Integer> entryPositions) {
+	}
+}
@@ -0,0 +1,74 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RouteType;
+import java.util.OptionalLong;
+
+/**
+ * Operations a routing shard serves to the {@link ShardCoordinator}.
+ * <p>
+ * All nodes are addressed by database id and all searches are confined to the shard, ending at
+ * the latest at its exit nodes. Every argument and result is plain data so that remote transports
+ * can serialize them.
+ * </p>
+ */
+public interface ShardEndpoint {
+
+	/**
+	 * Returns the index of the shard.
+	 *
+	 * @return shard index
+	 */
+	int shard();
+
+	/**
+	 * Finds the owned node closest to a point.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return database node id, or empty if the shard has no nodes
+	 */
+	OptionalLong nearestNode(double lat, double lon);
+
+	/**
+	 * Returns the entry-to-exit cost table of the shard.
+	 *
+	 * @param routeType route type determining the costs
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return boundary table
+	 */
+	BoundaryTable boundaryTable(RouteType routeType, long blockedMask);
+
+	/**
+	 * Computes the costs from a node to several nodes of the shard.
+	 *
+	 * @param nodeId database id of the source node
+	 * @param targetIds database ids of the target nodes
+	 * @param routeType route type determining the costs
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return cost in seconds per target, infinite where unreachable
+	 */
+	double[] distancesFrom(long nodeId, long[] targetIds, RouteType routeType, long blockedMask);
+
+	/**
+	 * Computes the costs from several nodes of the shard to a node.
+	 *
+	 * @param nodeId database id of the target node
+	 * @param sourceIds database ids of the source nodes
+	 * @param routeType route type determining the costs
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return cost in seconds per source, infinite where unreachable
+	 */
+	double[] distancesTo(long nodeId, long[] sourceIds, RouteType routeType, long blockedMask);
+
+	/**
+	 * Routes between two nodes of the shard.
+	 *
+	 * @param fromId database id of the start node
+	 * @param toId database id of the goal node, possibly an exit node
+	 * @param routeType route type determining the costs
+	 * @param blockedMask edges whose flags intersect this mask are not traversed
+	 * @return route result
+	 */
+	RouteResult route(long fromId, long toId, RouteType routeType, long blockedMask);
+}
@@ -0,0 +1,57 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.graph.TileGrid;
+import java.util.Objects;
+
+/**
+ * Assigns the cells of a {@link TileGrid} to routing shards.
+ * <p>
+ * Cells are grouped into north-south stripes of {@code stripeColumns} columns, and stripes are dealt
+ * out to the shards in turn. Stripes keep each shard's territory contiguous over long distances, so
+ * the boundary between shards, and with it the overlay the coordinator searches, stays small.
+ * </p>
+ *
+ * @param cells grid of the cells owned by shards
+ * @param shardCount number of shards
+ * @param stripeColumns width of a stripe in cell columns
+ */
+public record ShardLayout(TileGrid cells, int shardCount, int stripeColumns) {
+
+	/**
+	 * Validates the layout.
+	 *
+	 * @param cells grid of the cells owned by shards
+	 * @param shardCount number of shards
+	 * @param stripeColumns width of a stripe in cell columns
+	 */
+	public ShardLayout {
+		Objects.requireNonNull(cells, "cells");
+		if (shardCount <= 0) {
+			throw new IllegalArgumentException("Shard count must be positive.");
+		}
+		if (stripeColumns <= 0) {
+			throw new IllegalArgumentException("Stripe width must be positive.");
+		}
+	}
+
+	/**
+	 * Returns the shard owning a point.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return shard index in {@code [0, shardCount)}
+	 */
+	public int shardOf(double lat, double lon) {
+		return shardOfCell(cells.tileOf(lat, lon));
+	}
+
+	/**
+	 * Returns the shard owning a cell.
+	 *
+	 * @param cell cell code of {@link #cells()}
+	 * @return shard index in {@code [0, shardCount)}
+	 */
+	public int shardOfCell(long cell) {
+		return Math.floorMod(Math.floorDiv(cells.column(cell), stripeColumns), shardCount);
+	}
+}
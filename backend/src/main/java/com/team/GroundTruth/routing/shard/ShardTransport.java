@@ -0,0 +1,26 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+
+/**
+ * Connects the {@link ShardCoordinator} to the shards of a partitioned routing graph, wherever
+ * they run.
+ */
+public interface ShardTransport {
+
+	/**
+	 * Returns the layout the shards were partitioned with.
+	 *
+	 * @return shard layout
+	 */
+	ShardLayout layout();
+
+	/**
+	 * Returns the endpoint of one shard.
+	 *
+	 * @param mode travel mode of the graph
+	 * @param shard shard index
+	 * @return shard endpoint
+	 */
+	ShardEndpoint endpoint(TravelMode mode, int shard);
+}
@@ -0,0 +1,254 @@
+package com.team.GroundTruth.routing.tiles;
+
+import com.team.GroundTruth.domain.dto.routing.HazardMarkerDto;
+import com.team.GroundTruth.domain.dto.routing.RiskMarkerDto;
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.repository.HazardLocation;
+import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.markers.RiskMarkerIndex;
+import com.team.GroundTruth.routing.repo.WalkSafeModifierRepository;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serves hazard and risk markers as Mapbox Vector Tiles.
+ * <p>
+ * Each tile has a {@value #HAZARD_LAYER} layer with one point per hazard and a
+ * {@value #RISK_LAYER} layer with the shape of every walk edge whose safety modifiers cross a risk
+ * threshold, one feature per risk type. The properties match {@link HazardMarkerDto} and
+ * {@link RiskMarkerDto}, so clients can filter and style tiles the same way as the marker
+ * endpoints. Below {@code minZoom} tiles are empty.
+ * </p>
+ * <p>
+ * Encoded tiles are kept in a least-recently-used cache. Writers report the area they changed and
+ * every cached tile overlapping it is dropped once their transaction commits. A tile that was being
+ * built while an invalidation happened is returned but not cached.
+ * </p>
+ */
+@Service
+public class MarkerTileService {
+
+	/**
+	 * Media type of the encoded tiles.
+	 */
+	public static final String MEDIA_TYPE_VALUE = "application/vnd.mapbox-vector-tile";
+
+	public static final String HAZARD_LAYER = "hazards";
+	public static final String RISK_LAYER = "risks";
+
+	// Same thresholds as the defaults of the risk marker endpoint
+	static final double MAX_STREETLIGHT = RiskMarkerIndex.DEFAULT_MAX_STREETLIGHT;
+	static final double MIN_CRIME = RiskMarkerIndex.DEFAULT_MIN_CRIME;
+	static final double MAX_DENSITY = RiskMarkerIndex.DEFAULT_MAX_DENSITY;
+
+	// Features are queried this fraction of a tile beyond its edges so icons are not cut at borders
+	private static final double BUFFER = 64.0 / VectorTileEncoder.DEFAULT_EXTENT;
+	private static final double METERS_PER_DEGREE = 111_320.0;
+	private static final byte[] EMPTY_TILE = new byte[0];
+
+	private final HazardRepository hazardRepository;
+	private final WalkSafeModifierRepository modifierRepository;
+	private final EdgeGeometryStore edgeGeometryStore;
+	private final int minZoom;
+	private final int cacheSize;
+	private final LinkedHashMap<TileAddress, byte[]> tiles = new LinkedHashMap<>(64, 0.75f, true);
+	private long invalidations;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param hazardRepository hazard repository
+	 * @param modifierRepository walk safety modifier repository
+	 * @param edgeGeometryStore edge shapes for risk segments
+	 * @param minZoom lowest zoom level with markers
+	 * @param cacheSize maximum number of cached tiles
+	 */
+	public MarkerTileService(
+			HazardRepository hazardRepository,
+			WalkSafeModifierRepository modifierRepository,
+			EdgeGeometryStore edgeGeometryStore,
+			@Value("${routing.tiles.min-zoom:12}") int minZoom,
+			@Value("${routing.tiles.cache-size:4096}") int cacheSize
+	) {
+		this.hazardRepository = Objects.requireNonNull(hazardRepository, "hazardRepository");
+		this.modifierRepository = Objects.requireNonNull(modifierRepository, "modifierRepository");
+		this.edgeGeometryStore = Objects.requireNonNull(edgeGeometryStore, "edgeGeometryStore");
+		this.minZoom = minZoom;
+		this.cacheSize = Math.max(0, cacheSize);
+	}
+
+	/**
+	 * Returns the encoded markers of a tile.
+	 *
+	 * @param tile tile address
+	 * @return protobuf-encoded vector tile, empty if the tile has no markers
+	 */
+	public byte[] tile(TileAddress tile) {
+		Objects.requireNonNull(tile, "tile");
+		if (tile.z() < minZoom) {
+			return EMPTY_TILE;
+		}
+		long generation;
+		synchronized (tiles) {
+			byte[] cached = tiles.get(tile);
+			if (cached != null) {
+				return cached;
+			}
+			generation = invalidations;
+		}
+		byte[] encoded = encode(tile);
+		synchronized (tiles) {
+			if (generation == invalidations && cacheSize > 0) {
+				tiles.put(tile, encoded);
+				trim();
+			}
+		}
+		return encoded;
+	}
+
+	/**
+	 * Drops the cached tiles around a point, e.g. after a hazard was reported there or the
+	 * modifiers of the walk edges near it changed. Inside a transaction the tiles are dropped after
+	 * commit.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @param radiusMeters radius of the changed area in meters
+	 */
+	public void invalidate(double lat, double lon, double radiusMeters) {
+		double latDelta = Math.max(0.0, radiusMeters) / METERS_PER_DEGREE;
+		double lonDelta = latDelta / Math.max(0.01, Math.cos(Math.toRadians(lat)));
+		invalidate(lat - latDelta, lon - lonDelta, lat + latDelta, lon + lonDelta);
+	}
+
+	/**
+	 * Drops the cached tiles overlapping a bounding box. Inside a transaction the tiles are dropped
+	 * after commit.
+	 *
+	 * @param minLat minimum latitude
+	 * @param minLon minimum longitude
+	 * @param maxLat maximum latitude
+	 * @param maxLon maximum longitude
+	 */
+	public void invalidate(double minLat, double minLon, double maxLat, double maxLon) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					drop(minLat, minLon, maxLat, maxLon);
+				}
+			});
+		} else {
+			drop(minLat, minLon, maxLat, maxLon);
+		}
+	}
+
+	/**
+	 * Drops every cached tile.
+	 */
+	public void invalidateAll() {
+		synchronized (tiles) {
+			invalidations++;
+			tiles.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached tiles.
+	 *
+	 * @return cached tile count
+	 */
+	public int cachedTiles() {
+		synchronized (tiles) {
+			return tiles.size();
+		}
+	}
+
+	private void drop(double minLat, double minLon, double maxLat, double maxLon) {
+		synchronized (tiles) {
+			invalidations++;
+			Iterator<TileAddress> cached = tiles.keySet().iterator();
+			while (cached.hasNext()) {
+				if (cached.next().intersects(minLat, minLon, maxLat, maxLon, BUFFER)) {
+					cached.remove();
+				}
+			}
+		}
+	}
+
+	private void trim() {
+		Iterator<TileAddress> eldest = tiles.keySet().iterator();
+		while (tiles.size() > cacheSize && eldest.hasNext()) {
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	private byte[] encode(TileAddress tile) {
+		double lonBuffer = (tile.east() - tile.west()) * BUFFER;
+		double latBuffer = (tile.north() - tile.south()) * BUFFER;
+		double minLat = tile.south() - latBuffer;
+		double maxLat = tile.north() + latBuffer;
+		double minLon = tile.west() - lonBuffer;
+		double maxLon = tile.east() + lonBuffer;
+		VectorTileEncoder encoder = new VectorTileEncoder(tile);
+
+		List<HazardLocation> hazards = hazardRepository.findHazardsInBounds(
+				(float) minLat, (float) maxLat, (float) minLon, (float) maxLon, 0.0);
+		for (HazardLocation hazard : hazards) {
+			if (hazard.getLatitude() == null || hazard.getLongitude() == null) {
+				continue;
+			}
+			Map<String, Object> properties = new LinkedHashMap<>();
+			properties.put("id", hazard.getId().toString());
+			properties.put("type", hazard.getLabel());
+			properties.put("severity", hazard.getConfidence() != null ? hazard.getConfidence() : 50.0);
+			properties.put("iconType", HazardMarkerDto.iconTypeFor(hazard.getLabel()));
+			encoder.addPoint(HAZARD_LAYER, hazard.getLatitude().doubleValue(), hazard.getLongitude().doubleValue(),
+					properties);
+		}
+
+		List<WalkSafeModifierEntity> modifiers = modifierRepository.findRiskyAreasInBounds(
+				minLon, minLat, maxLon, maxLat, MAX_STREETLIGHT, MIN_CRIME, MAX_DENSITY);
+		long[] edgeIds = new long[modifiers.size()];
+		for (int i = 0; i < edgeIds.length; i++) {
+			edgeIds[i] = modifiers.get(i).getEdgeId();
+		}
+		// One packed read of every shape on the tile; lines are encoded straight from its ranges
+		int[] offsets = new int[edgeIds.length + 1];
+		double[] shapes = edgeGeometryStore.shapes(edgeIds, offsets);
+		for (int i = 0; i < edgeIds.length; i++) {
+			WalkSafeModifierEntity modifier = modifiers.get(i);
+			if (modifier.getStreetlight() != null && modifier.getStreetlight() <= MAX_STREETLIGHT) {
+				addRisk(encoder, shapes, offsets[i], offsets[i + 1], edgeIds[i], "low_lighting", modifier.getStreetlight());
+			}
+			if (modifier.getCrimeInArea() != null && modifier.getCrimeInArea() >= MIN_CRIME) {
+				addRisk(encoder, shapes, offsets[i], offsets[i + 1], edgeIds[i], "high_crime", modifier.getCrimeInArea());
+			}
+			if (modifier.getPopDensity() != null && modifier.getPopDensity() <= MAX_DENSITY) {
+				addRisk(encoder, shapes, offsets[i], offsets[i + 1], edgeIds[i], "low_density", modifier.getPopDensity());
+			}
+		}
+
+		return encoder.isEmpty() ? EMPTY_TILE : encoder.encode();
+	}
+
+	private static void addRisk(VectorTileEncoder encoder, double[] shapes, int fromPoint, int toPoint, long edgeId,
+			String riskType, double value) {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("edgeId", edgeId);
+		properties.put("riskType", riskType);
+		properties.put("value", value);
+		properties.put("severity", RiskMarkerDto.severityFor(riskType, value));
+		properties.put("iconType", RiskMarkerDto.iconTypeFor(riskType));
+		encoder.addLine(RISK_LAYER, shapes, fromPoint, toPoint, properties);
+	}
+}
@@ -0,0 +1,139 @@
+package com.team.GroundTruth.routing.tiles;
+
+/**
+ * A Web Mercator map tile in the XYZ scheme used by slippy maps: {@code x} grows eastwards from
+ * the antimeridian and {@code y} southwards from the northern edge of the projection.
+ *
+ * @param z zoom level
+ * @param x column
+ * @param y row
+ */
+public record TileAddress(int z, int x, int y) {
+
+	/**
+	 * Deepest zoom level served.
+	 */
+	public static final int MAX_ZOOM = 22;
+
+	private static final double MAX_LATITUDE = Math.toDegrees(Math.atan(Math.sinh(Math.PI)));
+
+	/**
+	 * Validates the address.
+	 *
+	 * @param z zoom level
+	 * @param x column
+	 * @param y row
+	 */
+	public TileAddress {
+		if (z < 0 || z > MAX_ZOOM) {
+			throw new IllegalArgumentException("Zoom must be in [0, " + MAX_ZOOM + "].");
+		}
+		int tiles = 1 << z;
+		if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+			throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is outside the zoom level.");
+		}
+	}
+
+	/**
+	 * Returns the tile containing a point.
+	 *
+	 * @param z zoom level
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @return tile address
+	 */
+	public static TileAddress containing(int z, double lat, double lon) {
+		int max = (1 << z) - 1;
+		int x = (int) Math.floor(worldX(lon) * (1 << z));
+		int y = (int) Math.floor(worldY(lat) * (1 << z));
+		return new TileAddress(z, Math.clamp(x, 0, max), Math.clamp(y, 0, max));
+	}
+
+	/**
+	 * Returns the western edge of the tile.
+	 *
+	 * @return longitude in decimal degrees
+	 */
+	public double west() {
+		return x * 360.0 / (1 << z) - 180.0;
+	}
+
+	/**
+	 * Returns the eastern edge of the tile.
+	 *
+	 * @return longitude in decimal degrees
+	 */
+	public double east() {
+		return (x + 1) * 360.0 / (1 << z) - 180.0;
+	}
+
+	/**
+	 * Returns the northern edge of the tile.
+	 *
+	 * @return latitude in decimal degrees
+	 */
+	public double north() {
+		return latitude(y);
+	}
+
+	/**
+	 * Returns the southern edge of the tile.
+	 *
+	 * @return latitude in decimal degrees
+	 */
+	public double south() {
+		return latitude(y + 1);
+	}
+
+	/**
+	 * Returns whether the tile, grown by a buffer, overlaps a bounding box.
+	 *
+	 * @param minLat minimum latitude of the box
+	 * @param minLon minimum longitude of the box
+	 * @param maxLat maximum latitude of the box
+	 * @param maxLon maximum longitude of the box
+	 * @param buffer buffer as a fraction of the tile size
+	 * @return true if the areas overlap
+	 */
+	public boolean intersects(double minLat, double minLon, double maxLat, double maxLon, double buffer) {
+		double lonBuffer = (east() - west()) * buffer;
+		double latBuffer = (north() - south()) * buffer;
+		return minLon <= east() + lonBuffer && maxLon >= west() - lonBuffer
+				&& minLat <= north() + latBuffer && maxLat >= south() - latBuffer;
+	}
+
+	/**
+	 * Projects a longitude into tile coordinates.
+	 *
+	 * @param lon longitude in decimal degrees
+	 * @param extent tile extent
+	 * @return x in tile coordinates; values outside {@code [0, extent)} lie in a neighbour tile
+	 */
+	double tileX(double lon, int extent) {
+		return (worldX(lon) * (1 << z) - x) * extent;
+	}
+
+	/**
+	 * Projects a latitude into tile coordinates.
+	 *
+	 * @param lat latitude in decimal degrees
+	 * @param extent tile extent
+	 * @return y in tile coordinates, growing southwards
+	 */
+	double tileY(double lat, int extent) {
+		return (worldY(lat) * (1 << z) - y) * extent;
+	}
+
+	private double latitude(int row) {
+		return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1.0 - 2.0 * row / (1 << z)))));
+	}
+
+	private static double worldX(double lon) {
+		return (lon + 180.0) / 360.0;
+	}
+
+	private static double worldY(double lat) {
+		double sin = Math.sin(Math.toRadians(Math.clamp(lat, -MAX_LATITUDE, MAX_LATITUDE)));
+		return 0.5 - Math.log((1.0 + sin) / (1.0 - sin)) / (4.0 * Math.PI);
+	}
+}
@@ -0,0 +1,293 @@
+package com.team.GroundTruth.routing.tiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes point and line features into a Mapbox Vector Tile (specification 2.1).
+ * <p>
+ * Coordinates are projected into the tile's integer grid of {@code extent} units per side and
+ * written as zigzag-encoded {@code MoveTo}/{@code LineTo} command deltas. Property keys and values
+ * are deduplicated per layer. Features may extend past the tile edge; renderers clip them against
+ * the tile plus its buffer.
+ * </p>
+ */
+public final class VectorTileEncoder {
+
+	/**
+	 * Default tile extent.
+	 */
+	public static final int DEFAULT_EXTENT = 4096;
+
+	private static final int GEOM_POINT = 1;
+	private static final int GEOM_LINESTRING = 2;
+	private static final int COMMAND_MOVE_TO = 1;
+	private static final int COMMAND_LINE_TO = 2;
+
+	private final TileAddress tile;
+	private final int extent;
+	private final Map<String, Layer> layers = new LinkedHashMap<>();
+
+	/**
+	 * Creates an encoder with the default extent.
+	 *
+	 * @param tile tile being encoded
+	 */
+	public VectorTileEncoder(TileAddress tile) {
+		this(tile, DEFAULT_EXTENT);
+	}
+
+	/**
+	 * Creates an encoder.
+	 *
+	 * @param tile tile being encoded
+	 * @param extent number of grid units per tile side
+	 */
+	public VectorTileEncoder(TileAddress tile, int extent) {
+		this.tile = Objects.requireNonNull(tile, "tile");
+		if (extent <= 0) {
+			throw new IllegalArgumentException("Extent must be positive.");
+		}
+		this.extent = extent;
+	}
+
+	/**
+	 * Adds a point feature.
+	 *
+	 * @param layer layer name
+	 * @param lat latitude in decimal degrees
+	 * @param lon longitude in decimal degrees
+	 * @param properties feature properties; strings, numbers and booleans, {@code null} values skipped
+	 */
+	public void addPoint(String layer, double lat, double lon, Map<String, ?> properties) {
+		int px = (int) Math.round(tile.tileX(lon, extent));
+		int py = (int) Math.round(tile.tileY(lat, extent));
+		int[] geometry = {command(COMMAND_MOVE_TO, 1), zigzag(px), zigzag(py)};
+		layer(layer).addFeature(GEOM_POINT, geometry, properties);
+	}
+
+	/**
+	 * Adds a line feature. Points that fall onto the same grid cell as their predecessor are
+	 * dropped; a line collapsing to a single cell is skipped.
+	 *
+	 * @param layer layer name
+	 * @param lonLat interleaved {@code lon, lat} coordinates
+	 * @param properties feature properties; strings, numbers and booleans, {@code null} values skipped
+	 * @return true if the line was added
+	 */
+	public boolean addLine(String layer, double[] lonLat, Map<String, ?> properties) {
+		return addLine(layer, lonLat, 0, lonLat.length / 2, properties);
+	}
+
+	/**
+	 * Adds a line feature from a range of points of a larger coordinate array, as
+	 * {@link #addLine(String, double[], Map)} does for a whole array.
+	 *
+	 * @param layer layer name
+	 * @param lonLat interleaved {@code lon, lat} coordinates
+	 * @param fromPoint index of the first point of the line
+	 * @param toPoint index after the last point of the line
+	 * @param properties feature properties; strings, numbers and booleans, {@code null} values skipped
+	 * @return true if the line was added
+	 */
+	public boolean addLine(String layer, double[] lonLat, int fromPoint, int toPoint, Map<String, ?> properties) {
+		int points = toPoint - fromPoint;
+		int[] geometry = new int[3 + 2 * Math.max(0, points - 1)];
+		int length = 3;
+		int lastX = 0;
+		int lastY = 0;
+		int lineTo = 0;
+		for (int point = 0; point < points; point++) {
+			int px = (int) Math.round(tile.tileX(lonLat[2 * (fromPoint + point)], extent));
+			int py = (int) Math.round(tile.tileY(lonLat[2 * (fromPoint + point) + 1], extent));
+			if (point == 0) {
+				geometry[0] = command(COMMAND_MOVE_TO, 1);
+				geometry[1] = zigzag(px);
+				geometry[2] = zigzag(py);
+			} else if (px != lastX || py != lastY) {
+				geometry[length++] = zigzag(px - lastX);
+				geometry[length++] = zigzag(py - lastY);
+				lineTo++;
+			} else {
+				continue;
+			}
+			lastX = px;
+			lastY = py;
+		}
+		if (lineTo == 0) {
+			return false;
+		}
+		int[] commands = new int[length + 1];
+		System.arraycopy(geometry, 0, commands, 0, 3);
+		commands[3] = command(COMMAND_LINE_TO, lineTo);
+		System.arraycopy(geometry, 3, commands, 4, length - 3);
+		layer(layer).addFeature(GEOM_LINESTRING, commands, properties);
+		return true;
+	}
+
+	/**
+	 * Returns whether no feature was added.
+	 *
+	 * @return true if the tile is empty
+	 */
+	public boolean isEmpty() {
+		return layers.isEmpty();
+	}
+
+	/**
+	 * Encodes the tile.
+	 *
+	 * @return protobuf-encoded vector tile
+	 */
+	public byte[] encode() {
+		ProtoBuffer tileMessage = new ProtoBuffer();
+		for (Layer layer : layers.values()) {
+			tileMessage.writeMessage(3, layer.encode(extent));
+		}
+		return tileMessage.toByteArray();
+	}
+
+	private Layer layer(String name) {
+		return layers.computeIfAbsent(Objects.requireNonNull(name, "layer"), Layer::new);
+	}
+
+	private static int command(int id, int count) {
+		return (id & 0x7) | (count << 3);
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Features of one layer with its key and value tables.
+	 */
+	private static final class Layer {
+
+		private final String name;
+		private final Map<String, Integer> keys = new LinkedHashMap<>();
+		private final Map<Object, Integer> values = new HashMap<>();
+		private final List<Object> valueOrder = new ArrayList<>();
+		private final List<ProtoBuffer> features = new ArrayList<>();
+
+		private Layer(String name) {
+			this.name = name;
+		}
+
+		private void addFeature(int type, int[] geometry, Map<String, ?> properties) {
+			ProtoBuffer tags = new ProtoBuffer();
+			for (Map.Entry<String, ?> property : properties.entrySet()) {
+				Object value = normalize(property.getValue());
+				if (value == null) {
+					continue;
+				}
+				tags.writeVarint(keys.computeIfAbsent(property.getKey(), key -> keys.size()));
+				tags.writeVarint(values.computeIfAbsent(value, key -> {
+					valueOrder.add(key);
+					return valueOrder.size() - 1;
+				}));
+			}
+			ProtoBuffer packedGeometry = new ProtoBuffer();
+			for (int value : geometry) {
+				packedGeometry.writeVarint(Integer.toUnsignedLong(value));
+			}
+			ProtoBuffer feature = new ProtoBuffer();
+			feature.writeMessage(2, tags);
+			feature.writeVarintField(3, type);
+			feature.writeMessage(4, packedGeometry);
+			features.add(feature);
+		}
+
+		private ProtoBuffer encode(int extent) {
+			ProtoBuffer layer = new ProtoBuffer();
+			layer.writeVarintField(15, 2);
+			layer.writeStringField(1, name);
+			for (ProtoBuffer feature : features) {
+				layer.writeMessage(2, feature);
+			}
+			for (String key : keys.keySet()) {
+				layer.writeStringField(3, key);
+			}
+			for (Object value : valueOrder) {
+				ProtoBuffer encoded = new ProtoBuffer();
+				switch (value) {
+					case String text -> encoded.writeStringField(1, text);
+					case Double number -> encoded.writeDoubleField(3, number);
+					case Long number -> encoded.writeVarintField(6, (number << 1) ^ (number >> 63));
+					case Boolean flag -> encoded.writeVarintField(7, flag ? 1 : 0);
+					default -> throw new IllegalStateException("Unexpected property value " + value);
+				}
+				layer.writeMessage(4, encoded);
+			}
+			layer.writeVarintField(5, extent);
+			return layer;
+		}
+
+		/**
+		 * Maps property values onto the value kinds written to the tile.
+		 */
+		private static Object normalize(Object value) {
+			return switch (value) {
+				case null -> null;
+				case String text -> text;
+				case Boolean flag -> flag;
+				case Double number -> number;
+				case Float number -> number.doubleValue();
+				case Number number -> number.longValue();
+				default -> value.toString();
+			};
+		}
+	}
+
+	/**
+	 * Growable buffer writing the protobuf wire format.
+	 */
+	private static final class ProtoBuffer {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private void writeVarint(long value) {
+			while ((value & ~0x7fL) != 0) {
+				bytes.write((int) ((value & 0x7f) | 0x80));
+				value >>>= 7;
+			}
+			bytes.write((int) value);
+		}
+
+		private void writeVarintField(int field, long value) {
+			writeVarint((long) field << 3);
+			writeVarint(value);
+		}
+
+		private void writeDoubleField(int field, double value) {
+			writeVarint((long) field << 3 | 1);
+			long bits = Double.doubleToRawLongBits(value);
+			for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+				bytes.write((int) (bits >>> shift));
+			}
+		}
+
+		private void writeStringField(int field, String value) {
+			byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+			writeVarint((long) field << 3 | 2);
+			writeVarint(utf8.length);
+			bytes.writeBytes(utf8);
+		}
+
+		private void writeMessage(int field, ProtoBuffer message) {
+			writeVarint((long) field << 3 | 2);
+			writeVarint(message.bytes.size());
+			bytes.writeBytes(message.bytes.toByteArray());
+		}
+
+		private byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+	}
+}
@@ -5,8 +5,10 @@ import com.team.GroundTruth.domain.entity.Hazard.Hazard;
 import com.team.GroundTruth.domain.entity.HazardReport.HazardReport;
 import com.team.GroundTruth.exception.HazardReportNotFoundException;
 import com.team.GroundTruth.repository.HazardReportRepository;
+import com.team.GroundTruth.routing.markers.MarkerClusterService;
 import com.team.GroundTruth.routing.model.HazardType;
 import com.team.GroundTruth.routing.service.WalkAccessibilityService;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
 import com.team.GroundTruth.services.hazard_analysis_service.HazardAnalysisResult;
 import com.team.GroundTruth.services.hazard_analysis_service.HazardAnalysisService;
 import com.team.GroundTruth.services.hazard_analysis_service.HazardScore;
@@ -43,6 +45,14 @@ public class HazardReportServiceImpl implements HazardReportService {
      * Client for the Python inference API (pothole depth analysis).
      */
     private final PotholeInferenceClient potholeInferenceClient;
+    /**
+     * Marker tile cache refreshed when hazards change.
+     */
+    private final MarkerTileService markerTileService;
+    /**
+     * Marker clusters kept in step with created and deleted hazards.
+     */
+    private final MarkerClusterService markerClusterService;
 
     /**
      * Creates the service with its repository dependencies.
@@ -51,17 +61,23 @@ public class HazardReportServiceImpl implements HazardReportService {
      * @param hazardAnalysisService AI service for image analysis
      * @param walkAccessibilityService service for updating edge costs
      * @param potholeInferenceClient client for inference API (pothole depth)
+     * @param markerTileService marker tiles to invalidate when hazards change
+     * @param markerClusterService marker clusters to update when hazards change
      */
     public HazardReportServiceImpl(
             HazardReportRepository hazardReportRepository,
             HazardAnalysisService hazardAnalysisService,
             WalkAccessibilityService walkAccessibilityService,
-            PotholeInferenceClient potholeInferenceClient
+            PotholeInferenceClient potholeInferenceClient,
+            MarkerTileService markerTileService,
+            MarkerClusterService markerClusterService
     ) {
         this.hazardReportRepository = hazardReportRepository;
         this.hazardAnalysisService = hazardAnalysisService;
         this.walkAccessibilityService = walkAccessibilityService;
         this.potholeInferenceClient = potholeInferenceClient;
+        this.markerTileService = markerTileService;
+        this.markerClusterService = markerClusterService;
     }
 
     /**
@@ -106,6 +122,8 @@ public class HazardReportServiceImpl implements HazardReportService {
                 savedReport.getHazards().clear();
                 savedReport.getHazards().addAll(hazards);
                 savedReport = hazardReportRepository.save(savedReport);
+                invalidateMarkerTiles(savedReport);
+                markerClusterService.addHazards(savedReport);
 
                 boolean hasDeepPothole = false;
                 if (hasPothole) {
@@ -144,6 +162,8 @@ public class HazardReportServiceImpl implements HazardReportService {
         HazardReport existingReport = hazardReportRepository.findById(id)
                 .orElseThrow(() -> new HazardReportNotFoundException(id));
 
+        invalidateMarkerTiles(existingReport);
+        markerClusterService.removeHazards(existingReport);
         existingReport.setLatitude(updateHazardReportRequest.latitude());
         existingReport.setLongitude(updateHazardReportRequest.longitude());
         if (updateHazardReportRequest.imageBytes() != null && updateHazardReportRequest.imageBytes().length > 0) {
@@ -151,7 +171,10 @@ public class HazardReportServiceImpl implements HazardReportService {
             existingReport.setImageContentType(updateHazardReportRequest.imageContentType());
         }
 
-        return hazardReportRepository.save(existingReport);
+        invalidateMarkerTiles(existingReport);
+        HazardReport savedReport = hazardReportRepository.save(existingReport);
+        markerClusterService.addHazards(savedReport);
+        return savedReport;
     }
 
     /**
@@ -164,6 +187,8 @@ public class HazardReportServiceImpl implements HazardReportService {
 
         // Remove hazard contributions from edge costs before deleting
         removeAccessibilityEdgeCosts(report);
+        invalidateMarkerTiles(report);
+        markerClusterService.removeHazards(report);
 
         hazardReportRepository.deleteById(id);
     }
@@ -242,4 +267,15 @@ public class HazardReportServiceImpl implements HazardReportService {
             }
         }
     }
+
+    /**
+     * Drops the cached marker tiles showing the report's location.
+     *
+     * @param report the hazard report whose hazards changed
+     */
+    private void invalidateMarkerTiles(HazardReport report) {
+        if (report.getLatitude() != null && report.getLongitude() != null) {
+            markerTileService.invalidate(report.getLatitude().doubleValue(), report.getLongitude().doubleValue(), 0.0);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+-- Topology version per travel mode. Bumped whenever nodes/edges are rebuilt so exported binary
+-- graph files can be checked against the database before they are memory-mapped.
+CREATE TABLE IF NOT EXISTS routing_graph_version (
+    mode TEXT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO routing_graph_version (mode, version)
+VALUES ('walk', 1), ('drive', 1)
+ON CONFLICT (mode) DO NOTHING;
@@ -0,0 +1,28 @@
+-- Point geometry of each hazard report so marker bounding box queries use a GiST index instead of
+-- scanning the plain latitude/longitude columns
+ALTER TABLE hazard_reports ADD COLUMN IF NOT EXISTS location geometry(Point, 4326);
+
+UPDATE hazard_reports
+SET location = ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)
+WHERE location IS NULL
+  AND latitude IS NOT NULL
+  AND longitude IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_hazard_reports_location ON hazard_reports USING GIST (location);
+
+-- Keep the point in step with the coordinates for every writer, JPA or not
+CREATE OR REPLACE FUNCTION hazard_reports_set_location() RETURNS trigger AS $$
+BEGIN
+    IF NEW.latitude IS NULL OR NEW.longitude IS NULL THEN
+        NEW.location := NULL;
+    ELSE
+        NEW.location := ST_SetSRID(ST_MakePoint(NEW.longitude, NEW.latitude), 4326);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_hazard_reports_location ON hazard_reports;
+CREATE TRIGGER trg_hazard_reports_location
+    BEFORE INSERT OR UPDATE OF latitude, longitude ON hazard_reports
+    FOR EACH ROW EXECUTE FUNCTION hazard_reports_set_location();
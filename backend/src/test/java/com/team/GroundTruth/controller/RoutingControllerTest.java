@@ -0,0 +1,100 @@
+package com.team.GroundTruth.controller;
+
+import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.encoding.CompactRouteJsonConverter;
+import com.team.GroundTruth.routing.encoding.GeoJsonRouteConverter;
+import com.team.GroundTruth.routing.encoding.RouteMediaTypes;
+import com.team.GroundTruth.routing.encoding.RouteProtobufConverter;
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.markers.MarkerClusterService;
+import com.team.GroundTruth.routing.markers.RiskMarkerIndex;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.TravelMode;
+import com.team.GroundTruth.routing.service.RoutingService;
+import com.team.GroundTruth.routing.tiles.MarkerTileService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation of the single-route endpoints, with the route converters registered ahead
+ * of the default JSON converter as the application does.
+ */
+class RoutingControllerTest {
+
+	private MockMvc mockMvc;
+	private RoutingService routingService;
+
+	@BeforeEach
+	void setUp() {
+		routingService = mock(RoutingService.class);
+		EdgeGeometryStore edgeGeometryStore = mock(EdgeGeometryStore.class);
+		RouteResult route = new RouteResult(List.of(1L, 2L, 3L), List.of(10L, 11L), 250.0, 180.0);
+		when(routingService.route(any(), any(), anyDouble(), eq(TravelMode.WALK))).thenReturn(route);
+		when(edgeGeometryStore.lineString(List.of(10L, 11L)))
+				.thenReturn(new double[]{-122.3351, 47.6080, -122.3349, 47.6084, -122.3330, 47.6090});
+
+		RoutingController controller = new RoutingController(routingService, edgeGeometryStore,
+				mock(HazardRepository.class), mock(RiskMarkerIndex.class), mock(MarkerTileService.class),
+				mock(MarkerClusterService.class));
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+				.setMessageConverters(new GeoJsonRouteConverter(), new CompactRouteJsonConverter(),
+						new RouteProtobufConverter(), new JacksonJsonHttpMessageConverter())
+				.build();
+	}
+
+	@Test
+	void testAnyAcceptReturnsGeoJson() throws Exception {
+		mockMvc.perform(get("/routing/route")
+						.param("startLat", "47.608").param("startLon", "-122.335")
+						.param("endLat", "47.609").param("endLon", "-122.333")
+						.accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.routeGeojson.type").value("Feature"))
+				.andExpect(jsonPath("$.routeGeojson.geometry.type").value("LineString"))
+				.andExpect(jsonPath("$.routeGeojson.geometry.coordinates.length()").value(3))
+				.andExpect(jsonPath("$.routeGeojson.geometry.coordinates[0][0]").value(-122.3351))
+				.andExpect(jsonPath("$.routeGeojson.geometry.coordinates[0][1]").value(47.6080))
+				.andExpect(jsonPath("$.pathEdgeIds[1]").value(11))
+				.andExpect(jsonPath("$.polyline").doesNotExist());
+	}
+
+	@Test
+	void testCompactAcceptReturnsPolyline() throws Exception {
+		mockMvc.perform(get("/routing/route")
+						.param("startLat", "47.608").param("startLon", "-122.335")
+						.param("endLat", "47.609").param("endLon", "-122.333")
+						.accept(RouteMediaTypes.COMPACT_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(RouteMediaTypes.COMPACT_JSON))
+				.andExpect(jsonPath("$.polyline").isString())
+				.andExpect(jsonPath("$.routeGeojson").doesNotExist());
+	}
+
+	@Test
+	void testProfileWithRadiusIsRejected() throws Exception {
+		mockMvc.perform(get("/routing/route/type")
+						.param("startLat", "47.608").param("startLon", "-122.335")
+						.param("endLat", "47.609").param("endLon", "-122.333")
+						.param("routeType", "fastest").param("profile", "wheelchair")
+						.param("radiusMeters", "500"))
+				.andExpect(status().isBadRequest());
+		verifyNoInteractions(routingService);
+	}
+}
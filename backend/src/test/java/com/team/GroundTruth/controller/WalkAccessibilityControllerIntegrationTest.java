@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -15,6 +16,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -63,7 +66,7 @@ class WalkAccessibilityControllerIntegrationTest {
 	private static final UUID REPORT_2_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
 
 	@BeforeEach
-	void setUp() {
+	void setUp() throws IOException {
 		jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS postgis");
 
 		jdbcTemplate.execute("""
@@ -134,6 +137,8 @@ class WalkAccessibilityControllerIntegrationTest {
 		""");
 
 		jdbcTemplate.execute("TRUNCATE hazards, hazard_reports, users, walk_accessibility_edge_costs, walk_safe_modifiers, edges, nodes CASCADE");
+		jdbcTemplate.execute(new ClassPathResource("db/migration/V7__add_hazard_report_location.sql")
+				.getContentAsString(StandardCharsets.UTF_8));
 
 		jdbcTemplate.update("INSERT INTO users (id, username) VALUES (?, 'testuser')", USER_ID);
 
@@ -154,6 +154,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.ModifierUpdateRequestDto(
 				40.7580, -73.9857, 200.0, 0.8);
 		var response = walkSafeController.updateCrimeInArea(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		assertTrue(response.edgesUpdated() > 0);
 
@@ -173,6 +174,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.ModifierUpdateRequestDto(
 				40.7580, -73.9857, 200.0, 0.9);
 		walkSafeController.updateStreetlight(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		List<WalkSafeModifierEntity> modifiers = modifierRepository.findByEdgeIds(new long[]{1L});
 		assertEquals(0.9, modifiers.get(0).getStreetlight(), 1e-6);
@@ -189,6 +191,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.ModifierUpdateRequestDto(
 				40.7580, -73.9857, 200.0, 0.8);
 		walkSafeController.updatePopDensity(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		List<WalkSafeModifierEntity> modifiers = modifierRepository.findByEdgeIds(new long[]{1L});
 		assertEquals(0.8, modifiers.get(0).getPopDensity(), 1e-6);
@@ -209,6 +212,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.LocationRequestDto(
 				40.7580, -73.9857, 200.0);
 		walkSafeController.computeAll(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		List<WalkSafeModifierEntity> modifiers = modifierRepository.findByEdgeIds(new long[]{1L});
 		assertFalse(modifiers.isEmpty());
@@ -233,6 +237,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.LocationRequestDto(
 				40.7580, -73.9857, 200.0);
 		walkSafeController.computeAll(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		// Safe area: 0.3 * 0.5 = 0.15 -> 60 * 0.15 = 9
 		List<WalkSafeEdgeCostEntity> costs = costRepository.findByEdgeIds(new long[]{1L});
@@ -250,6 +255,7 @@ class WalkSafeControllerIntegrationTest {
 		var request = new com.team.GroundTruth.domain.dto.walksafe.LocationRequestDto(
 				40.7580, -73.9857, 200.0);
 		walkSafeController.computeAll(request);
+		walkSafeService.awaitCostUpdates().join();
 
 		// Unsafe: 1.5 * 1.5 * 2.0 = 4.5 -> 60 * 4.5 = 270
 		List<WalkSafeEdgeCostEntity> costs = costRepository.findByEdgeIds(new long[]{1L});
@@ -0,0 +1,121 @@
+package com.team.GroundTruth.controller;
+
+import com.team.GroundTruth.routing.geodata.EdgeGeoData;
+import com.team.GroundTruth.routing.geodata.GeoDataFileImporter;
+import com.team.GroundTruth.routing.geodata.GeoDataHarvester;
+import com.team.GroundTruth.routing.geodata.FileGeoDataProvider;
+import com.team.GroundTruth.routing.geodata.GeoDataProvider;
+import com.team.GroundTruth.routing.repo.EdgeRepository;
+import com.team.GroundTruth.routing.service.WalkSafeEdgeModifiers;
+import com.team.GroundTruth.routing.service.WalkSafeService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk initialization endpoints, with harvested and file-estimated values written to their edges by id.
+ */
+class WalkSafeControllerTest {
+
+	private final List<Object[]> centroids = List.<Object[]>of(new Object[]{1L, 40.7580, -73.9857});
+
+	private WalkSafeService walkSafeService;
+	private GeoDataHarvester geoDataHarvester;
+	private GeoDataFileImporter geoDataFileImporter;
+	private EdgeRepository edgeRepository;
+	private WalkSafeController controller;
+
+	@BeforeEach
+	void setUp() {
+		walkSafeService = mock(WalkSafeService.class);
+		geoDataHarvester = mock(GeoDataHarvester.class);
+		geoDataFileImporter = mock(GeoDataFileImporter.class);
+		edgeRepository = mock(EdgeRepository.class);
+		when(edgeRepository.findWalkEdgeCentroids()).thenReturn(centroids);
+		controller = new WalkSafeController(walkSafeService, mock(GeoDataProvider.class), edgeRepository,
+				geoDataHarvester, geoDataFileImporter);
+	}
+
+	@Test
+	void testInitializeAllReadsFilesWithFileProvider() {
+		WalkSafeController offline = new WalkSafeController(walkSafeService, mock(FileGeoDataProvider.class),
+				edgeRepository, geoDataHarvester, geoDataFileImporter);
+		when(geoDataFileImporter.estimate(centroids, 100.0)).thenReturn(List.of(
+				new EdgeGeoData(7L, 40.7580, -73.9857, 0.1, 0.2, 0.3)));
+		when(walkSafeService.updateEdgeModifiers(anyList())).thenReturn(1);
+
+		assertEquals(1, offline.initializeAllFromGeodata().edgesInitialized());
+
+		verify(geoDataHarvester, never()).harvest(any(), anyDouble(), any());
+		verify(walkSafeService).initializeEdgeCosts();
+	}
+
+	@Test
+	void testHarvestedValuesAreWrittenByEdgeIdInBatches() {
+		List<EdgeGeoData> values = new ArrayList<>();
+		for (long edgeId = 1; edgeId <= 501; edgeId++) {
+			values.add(new EdgeGeoData(edgeId, 40.7580, -73.9857, 0.1, 0.2, 0.3));
+		}
+		harvestReturns(values);
+		List<Integer> batchSizes = new ArrayList<>();
+		when(walkSafeService.updateEdgeModifiers(anyList())).thenAnswer(invocation -> {
+			List<WalkSafeEdgeModifiers> batch = invocation.getArgument(0);
+			batchSizes.add(batch.size());
+			return batch.size();
+		});
+
+		assertEquals(501, controller.initializeAllFromGeodata().edgesInitialized());
+
+		assertEquals(List.of(500, 1), batchSizes);
+		verify(walkSafeService).initializeEdgeCosts();
+	}
+
+	@Test
+	void testFailedBatchAbortsInitialization() {
+		harvestReturns(List.of(new EdgeGeoData(1L, 40.7580, -73.9857, 0.1, 0.2, 0.3)));
+		when(walkSafeService.updateEdgeModifiers(anyList()))
+				.thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+		assertThrows(DataAccessResourceFailureException.class, controller::initializeAllFromGeodata);
+
+		verify(walkSafeService, never()).initializeEdgeCosts();
+	}
+
+	@Test
+	void testFileEstimatesAreWrittenToTheirOwnEdges() {
+		when(geoDataFileImporter.estimate(centroids, 100.0)).thenReturn(List.of(
+				new EdgeGeoData(7L, 40.7580, -73.9857, 0.1, 0.2, 0.3),
+				new EdgeGeoData(8L, 40.7581, -73.9856, 0.4, 0.5, 0.6)));
+		when(walkSafeService.updateEdgeModifiers(anyList())).thenReturn(2);
+
+		assertEquals(2, controller.initializeAllFromFiles().edgesInitialized());
+
+		verify(walkSafeService).updateEdgeModifiers(List.of(
+				new WalkSafeEdgeModifiers(7L, 40.7580, -73.9857, 0.1, 0.2, 0.3),
+				new WalkSafeEdgeModifiers(8L, 40.7581, -73.9856, 0.4, 0.5, 0.6)));
+		verify(walkSafeService, never()).updateModifiers(anyList());
+		verify(walkSafeService).initializeEdgeCosts();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void harvestReturns(List<EdgeGeoData> values) {
+		when(geoDataHarvester.harvest(any(), anyDouble(), any())).thenAnswer(invocation -> {
+			Consumer<List<EdgeGeoData>> sink = invocation.getArgument(2);
+			sink.accept(values);
+			return values.size();
+		});
+	}
+}
@@ -0,0 +1,171 @@
+package com.team.GroundTruth.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hazard report locations as maintained by the V7 migration, and the bounding box queries that
+ * read them.
+ */
+@SpringBootTest
+@Testcontainers
+class HazardRepositoryIntegrationTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+			DockerImageName.parse("postgis/postgis:15-3.4")
+					.asCompatibleSubstituteFor("postgres")
+	);
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+		registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+		registry.add("spring.docker.compose.enabled", () -> "false");
+	}
+
+	private static final UUID USER_ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+	private static final UUID REPORT_ID = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+	private static final UUID CRACK_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	private static final UUID POTHOLE_ID = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private HazardRepository hazardRepository;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS postgis");
+
+		jdbcTemplate.execute("""
+			CREATE TABLE IF NOT EXISTS users (
+				id UUID PRIMARY KEY,
+				username VARCHAR(50) NOT NULL UNIQUE
+			)
+		""");
+
+		// The table as it was before V7, without the location column
+		jdbcTemplate.execute("""
+			CREATE TABLE IF NOT EXISTS hazard_reports (
+				id UUID PRIMARY KEY,
+				user_id UUID NOT NULL REFERENCES users(id),
+				image_url TEXT,
+				latitude REAL,
+				longitude REAL,
+				created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+			)
+		""");
+
+		jdbcTemplate.execute("""
+			CREATE TABLE IF NOT EXISTS hazards (
+				id UUID PRIMARY KEY,
+				report_id UUID NOT NULL REFERENCES hazard_reports(id),
+				label VARCHAR(50) NOT NULL,
+				confidence DOUBLE PRECISION,
+				created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+			)
+		""");
+
+		jdbcTemplate.execute("TRUNCATE hazards, hazard_reports, users CASCADE");
+		jdbcTemplate.execute(new ClassPathResource("db/migration/V7__add_hazard_report_location.sql")
+				.getContentAsString(StandardCharsets.UTF_8));
+
+		jdbcTemplate.update("INSERT INTO users (id, username) VALUES (?, 'testuser')", USER_ID);
+		// Times Square
+		jdbcTemplate.update(
+				"INSERT INTO hazard_reports (id, user_id, latitude, longitude, created_at) VALUES (?, ?, ?, ?, NOW())",
+				REPORT_ID, USER_ID, 40.7580f, -73.9857f
+		);
+		jdbcTemplate.update(
+				"INSERT INTO hazards (id, report_id, label, confidence, created_at) VALUES (?, ?, 'Cracks', 80.0, NOW())",
+				CRACK_ID, REPORT_ID
+		);
+		jdbcTemplate.update(
+				"INSERT INTO hazards (id, report_id, label, confidence, created_at) VALUES (?, ?, 'Pothole', 40.0, NOW())",
+				POTHOLE_ID, REPORT_ID
+		);
+	}
+
+	@Test
+	void testInsertTrigger_setsLocationFromCoordinates() {
+		Integer matches = jdbcTemplate.queryForObject("""
+				SELECT COUNT(*) FROM hazard_reports
+				WHERE id = ?
+				  AND ST_SRID(location) = 4326
+				  AND ST_DWithin(location, ST_SetSRID(ST_MakePoint(longitude, latitude), 4326), 1e-9)
+				""", Integer.class, REPORT_ID);
+
+		assertEquals(1, matches);
+	}
+
+	@Test
+	void testUpdateTrigger_movesLocationWithCoordinates() {
+		// Brooklyn Bridge
+		jdbcTemplate.update("UPDATE hazard_reports SET latitude = 40.7061, longitude = -73.9969 WHERE id = ?", REPORT_ID);
+
+		assertEquals(0, hazardRepository.findHazardsInBounds(40.75f, 40.77f, -74.00f, -73.97f, 0.0).size());
+		assertEquals(2, hazardRepository.findHazardsInBounds(40.70f, 40.71f, -74.00f, -73.99f, 0.0).size());
+
+		jdbcTemplate.update("UPDATE hazard_reports SET latitude = NULL WHERE id = ?", REPORT_ID);
+		Boolean cleared = jdbcTemplate.queryForObject(
+				"SELECT location IS NULL FROM hazard_reports WHERE id = ?", Boolean.class, REPORT_ID);
+		assertTrue(cleared);
+	}
+
+	@Test
+	void testFindHazardsInBounds_matchesLocationAndSeverity() {
+		List<HazardLocation> all = hazardRepository.findHazardsInBounds(40.75f, 40.77f, -74.00f, -73.97f, 0.0);
+		assertEquals(2, all.size());
+		HazardLocation hazard = all.get(0);
+		assertEquals(40.7580f, hazard.getLatitude(), 1e-4);
+		assertEquals(-73.9857f, hazard.getLongitude(), 1e-4);
+
+		List<HazardLocation> severe = hazardRepository.findHazardsInBounds(40.75f, 40.77f, -74.00f, -73.97f, 50.0);
+		assertEquals(List.of(CRACK_ID), severe.stream().map(HazardLocation::getId).toList());
+
+		assertTrue(hazardRepository.findHazardsInBounds(40.70f, 40.71f, -74.00f, -73.99f, 0.0).isEmpty(),
+				"A box away from the report should match nothing");
+	}
+
+	@Test
+	void testFindAccessibilityHazardsInBounds_keepsAccessibilityLabelsOnly() {
+		List<HazardLocation> hazards = hazardRepository.findAccessibilityHazardsInBounds(
+				40.75f, 40.77f, -74.00f, -73.97f, 0.0);
+
+		assertEquals(List.of(CRACK_ID), hazards.stream().map(HazardLocation::getId).toList());
+		assertEquals("Cracks", hazards.get(0).getLabel());
+	}
+
+	@Test
+	void testMigration_backfillsReportsWrittenBeforeIt() throws IOException {
+		// The trigger only fires on coordinate changes, so this leaves the report as V7 finds it
+		jdbcTemplate.update("UPDATE hazard_reports SET location = NULL WHERE id = ?", REPORT_ID);
+		assertTrue(hazardRepository.findHazardsInBounds(40.75f, 40.77f, -74.00f, -73.97f, 0.0).isEmpty());
+
+		jdbcTemplate.execute(new ClassPathResource("db/migration/V7__add_hazard_report_location.sql")
+				.getContentAsString(StandardCharsets.UTF_8));
+
+		assertEquals(2, hazardRepository.findHazardsInBounds(40.75f, 40.77f, -74.00f, -73.97f, 0.0).size());
+	}
+}
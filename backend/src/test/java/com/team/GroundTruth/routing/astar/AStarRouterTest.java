@@ -1,14 +1,29 @@
 package com.team.GroundTruth.routing.astar;
 
 import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import com.team.GroundTruth.routing.graph.CompressedGraph;
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import com.team.GroundTruth.routing.graph.GeoDistance;
+import com.team.GroundTruth.routing.graph.MappedTileSource;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import com.team.GroundTruth.routing.graph.TiledGraphStore;
 import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.RoutingProfile;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AStarRouterTest {
 
@@ -85,6 +100,306 @@ class AStarRouterTest {
 		assertEquals(baseline.pathEdgeIds(), result.pathEdgeIds());
 	}
 
+	@Test
+	void testResidentGraphProfileSkipsBlockedEdges() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addNode(3L, 0.0, 0.002)
+				.addNode(4L, 0.001, 0.001)
+				.addEdge(10L, 1L, 3L, 222.0, 160.0, EdgeFlags.of("steps", null))
+				.addEdge(11L, 1L, 4L, 160.0, 120.0, EdgeFlags.of("footway", null))
+				.addEdge(12L, 4L, 3L, 160.0, 120.0, EdgeFlags.of("footway", new String[]{"crossing"}))
+				.addEdge(13L, 1L, 2L, 111.0, 80.0, EdgeFlags.of("service", null))
+				.addEdge(14L, 2L, 3L, 111.0, 80.0, EdgeFlags.of("service", null))
+				.build();
+		AStarRouter router = new AStarRouter();
+		int start = graph.indexOfNode(1L);
+		int goal = graph.indexOfNode(3L);
+		MemorySegment costs = graph.baseCosts();
+
+		RouteResult fastest = router.route(graph, start, goal, costs, RoutingProfile.DEFAULT.blockedMask());
+		RouteResult wheelchair = router.route(graph, start, goal, costs, RoutingProfile.WHEELCHAIR.blockedMask());
+		RouteResult noService = router.route(graph, start, goal, costs,
+				RoutingProfile.WHEELCHAIR.blockedMask() | RoutingProfile.AVOID_SERVICE.blockedMask());
+
+		assertEquals(List.of(10L), fastest.pathEdgeIds());
+		assertEquals(List.of(13L, 14L), wheelchair.pathEdgeIds());
+		assertEquals(List.of(1L, 4L, 3L), noService.pathNodeIds());
+		assertEquals(320.0, noService.distanceMeters(), 1e-6);
+		assertEquals(240.0, noService.durationSeconds(), 1e-6);
+	}
+
+	@Test
+	void testResidentGraphAllowMaskRestrictsHighwayClasses() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addNode(99L, 1.0, 1.0)
+				.addEdge(10L, 1L, 2L, 111.0, 80.0, EdgeFlags.of("primary_link", null))
+				.addEdge(11L, 1L, 98L, 111.0, 80.0, EdgeFlags.of("footway", null))
+				.build();
+		AStarRouter router = new AStarRouter();
+
+		assertEquals(2, graph.nodeCount());
+		assertEquals(1, graph.edgeCount());
+		assertEquals(-1, graph.indexOfNode(99L));
+		assertThrows(NoRouteFoundException.class, () -> router.route(
+				graph,
+				graph.indexOfNode(1L),
+				graph.indexOfNode(2L),
+				graph.baseCosts(),
+				RoutingProfile.PEDESTRIAN_ONLY.blockedMask()
+		));
+	}
+
+	@Test
+	void testOneToManyTreeMatchesPointToPointRoutes() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addNode(3L, 0.0, 0.002)
+				.addNode(4L, 0.001, 0.001)
+				.addEdge(10L, 1L, 2L, 111.0, 80.0, EdgeFlags.NONE)
+				.addEdge(11L, 2L, 3L, 111.0, 80.0, EdgeFlags.NONE)
+				.addEdge(12L, 1L, 4L, 160.0, 120.0, EdgeFlags.NONE)
+				.addEdge(13L, 4L, 3L, 160.0, 120.0, EdgeFlags.NONE)
+				.build();
+		AStarRouter router = new AStarRouter();
+		MemorySegment costs = graph.baseCosts();
+		int start = graph.indexOfNode(1L);
+		int[] targets = {graph.indexOfNode(3L), graph.indexOfNode(4L)};
+
+		ShortestPathTree tree = router.oneToMany(graph, start, targets, costs, EdgeFlags.NONE);
+
+		for (int target : targets) {
+			RouteResult direct = router.route(graph, start, target, costs, EdgeFlags.NONE);
+			RouteResult fromTree = tree.pathTo(target);
+			assertEquals(direct.pathEdgeIds(), fromTree.pathEdgeIds());
+			assertEquals(direct.durationSeconds(), fromTree.durationSeconds(), 1e-9);
+			assertEquals(direct.distanceMeters(), fromTree.distanceMeters(), 1e-9);
+		}
+	}
+
+	@Test
+	void testCompressedGraphRoutesMatchUncompressedRoutes() {
+		// 4x4 grid of junctions; every link is split into three segments by two pass-through nodes.
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		Random random = new Random(7L);
+		long[] nextId = {1000L};
+		for (int row = 0; row < 4; row++) {
+			for (int column = 0; column < 4; column++) {
+				builder.addNode(row * 4 + column + 1, row * 1e-5, column * 1e-5);
+			}
+		}
+		for (int row = 0; row < 4; row++) {
+			for (int column = 0; column < 4; column++) {
+				long node = row * 4 + column + 1;
+				if (column + 1 < 4) {
+					// The middle row of horizontal links is one-way.
+					addSplitLink(builder, random, nextId, node, node + 1, row * 1e-5, column * 1e-5, 0.0, 1e-5,
+							row != 2, row == 1 && column == 1);
+				}
+				if (row + 1 < 4) {
+					addSplitLink(builder, random, nextId, node, node + 4, row * 1e-5, column * 1e-5, 1e-5, 0.0,
+							true, false);
+				}
+			}
+		}
+		RoutingGraph graph = builder.build();
+		CompressedGraph compressed = CompressedGraph.of(graph);
+		AStarRouter router = new AStarRouter();
+
+		// A hazard on a single segment must still be seen by the chain containing it.
+		double[] hazardCosts = graph.copyBaseCosts();
+		hazardCosts[graph.indexOfEdge(1010L)] += 500.0;
+		MemorySegment costs = MemorySegment.ofArray(hazardCosts);
+		MemorySegment chainCosts = compressed.chainCosts(costs);
+
+		assertTrue(compressed.topology().nodeCount() < graph.nodeCount() / 2);
+		for (long blockedMask : new long[]{EdgeFlags.NONE, RoutingProfile.WHEELCHAIR.blockedMask()}) {
+			for (int start = 0; start < graph.nodeCount(); start++) {
+				for (int goal = 0; goal < graph.nodeCount(); goal++) {
+					RouteResult expected;
+					try {
+						expected = router.route(graph, start, goal, costs, blockedMask, Double.POSITIVE_INFINITY);
+					} catch (NoRouteFoundException ex) {
+						int from = start;
+						int to = goal;
+						assertThrows(NoRouteFoundException.class,
+								() -> router.route(compressed, from, to, costs, chainCosts, blockedMask));
+						continue;
+					}
+					RouteResult actual = router.route(compressed, start, goal, costs, chainCosts, blockedMask);
+					assertEquals(expected.durationSeconds(), actual.durationSeconds(), 1e-9);
+					assertEquals(expected.distanceMeters(), actual.distanceMeters(), 1e-9);
+					assertEquals(expected.pathEdgeIds(), actual.pathEdgeIds());
+					assertEquals(expected.pathNodeIds(), actual.pathNodeIds());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testPlanarHeuristicMatchesHaversineHeuristicRoutes() {
+		int size = 20;
+		double vMax = 2.0;
+		Random random = new Random(35L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		Map<Long, NodeCoord> coords = new HashMap<>();
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				long node = row * size + col;
+				double lat = 47.6 + row * 0.0015 + random.nextDouble() * 5e-4;
+				double lon = -122.35 + col * 0.0022 + random.nextDouble() * 5e-4;
+				builder.addNode(node, lat, lon);
+				coords.put(node, new NodeCoord(lat, lon));
+			}
+		}
+		Map<Long, List<DirectedEdge>> outgoing = new HashMap<>();
+		Map<Long, DirectedEdge> edgeById = new HashMap<>();
+		long edgeId = 1L;
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				long node = row * size + col;
+				long[] neighbours = {col + 1 < size ? node + 1 : -1, row + 1 < size ? node + size : -1,
+						col + 1 < size && row + 1 < size ? node + size + 1 : -1};
+				for (long neighbour : neighbours) {
+					if (neighbour < 0 || random.nextInt(5) == 0) {
+						continue;
+					}
+					for (long[] direction : new long[][]{{node, neighbour}, {neighbour, node}}) {
+						NodeCoord a = coords.get(direction[0]);
+						NodeCoord b = coords.get(direction[1]);
+						double length = GeoDistance.haversineMeters(a.lat(), a.lon(), b.lat(), b.lon())
+								* (1.0 + random.nextDouble() * 0.2);
+						double cost = length / (1.0 + random.nextDouble() * (vMax - 1.0));
+						builder.addEdge(edgeId, direction[0], direction[1], length, cost, EdgeFlags.NONE);
+						addEdge(outgoing, edgeById, direction[0], new DirectedEdge(edgeId, direction[1], length, cost));
+						edgeId++;
+					}
+				}
+			}
+		}
+		RoutingGraph graph = builder.build();
+		AStarRouter router = new AStarRouter();
+
+		int compared = 0;
+		for (int query = 0; query < 150; query++) {
+			long from = random.nextInt(size * size);
+			long to = random.nextInt(size * size);
+			RouteResult haversine;
+			try {
+				haversine = router.route(from, to, coords, outgoing, edgeById, vMax);
+			} catch (NoRouteFoundException ex) {
+				assertThrows(NoRouteFoundException.class, () -> router.route(graph, graph.indexOfNode(from),
+						graph.indexOfNode(to), graph.baseCosts(), EdgeFlags.NONE, vMax));
+				continue;
+			}
+			RouteResult planar = router.route(graph, graph.indexOfNode(from), graph.indexOfNode(to),
+					graph.baseCosts(), EdgeFlags.NONE, vMax);
+
+			assertEquals(haversine.pathEdgeIds(), planar.pathEdgeIds(), "route " + from + " -> " + to);
+			assertEquals(haversine.durationSeconds(), planar.durationSeconds(), 1e-6);
+			compared++;
+		}
+		assertTrue(compared > 100);
+	}
+
+	@Test
+	void testTiledRoutesMatchResidentRoutesUnderEviction() {
+		int size = 30;
+		Random random = new Random(38L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				builder.addNode(row * size + col, 47.6 + row * 0.001, -122.34 + col * 0.001);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				long node = (long) row * size + col;
+				long[] neighbours = {col + 1 < size ? node + 1 : -1, row + 1 < size ? node + size : -1};
+				for (long neighbour : neighbours) {
+					if (neighbour < 0 || random.nextInt(6) == 0) {
+						continue;
+					}
+					long flags = random.nextInt(10) == 0 ? EdgeFlags.of("steps", null) : EdgeFlags.of("footway", null);
+					// At most 1.3 m/s, so the 2 m/s heuristics of both searches stay admissible.
+					double length = neighbour == node + 1 ? 75.0 : 111.0;
+					builder.addEdge(edgeId++, node, neighbour, length, length / 1.3 * (1.0 + random.nextDouble()), flags);
+					builder.addEdge(edgeId++, neighbour, node, length, length / 1.3 * (1.0 + random.nextDouble()), flags);
+				}
+			}
+		}
+		RoutingGraph graph = builder.build();
+		TileGrid grid = new TileGrid(0.004);
+		MappedTileSource source = new MappedTileSource(graph, null);
+		long tileBytes = source.loadTile(TravelMode.WALK, grid, grid.tileOf(47.61, -122.33)).estimatedBytes();
+		TiledGraphStore store = new TiledGraphStore(mode -> source, grid, tileBytes * 48, Duration.ofSeconds(30));
+		AStarRouter router = new AStarRouter();
+
+		int compared = 0;
+		for (int query = 0; query < 60; query++) {
+			// Nearby pairs keep each search within the budget while the queries sweep the whole grid.
+			int fromRow = random.nextInt(size);
+			int fromCol = random.nextInt(size);
+			int toRow = Math.clamp(fromRow + random.nextInt(13) - 6, 0, size - 1);
+			int toCol = Math.clamp(fromCol + random.nextInt(13) - 6, 0, size - 1);
+			int from = graph.indexOfNode((long) fromRow * size + fromCol);
+			int to = graph.indexOfNode((long) toRow * size + toCol);
+			long blockedMask = query % 2 == 0 ? EdgeFlags.NONE : RoutingProfile.WHEELCHAIR.blockedMask();
+			TiledGraphStore.Session session = store.session(RouteType.FASTEST);
+			TiledGraphStore.TileNode start = session.nearestNode(graph.lat(from), graph.lon(from));
+			TiledGraphStore.TileNode goal = session.nearestNode(graph.lat(to), graph.lon(to));
+			assertEquals(graph.nodeId(from), start.nodeId());
+			assertEquals(graph.nodeId(to), goal.nodeId());
+			RouteResult resident;
+			try {
+				resident = router.route(graph, from, to, graph.baseCosts(), blockedMask);
+			} catch (NoRouteFoundException ex) {
+				assertThrows(NoRouteFoundException.class, () -> router.route(session, start, goal, blockedMask));
+				continue;
+			}
+			RouteResult tiled = router.route(session, start, goal, blockedMask);
+			assertEquals(resident.durationSeconds(), tiled.durationSeconds(), 1e-6);
+			assertEquals(resident.distanceMeters(), tiled.distanceMeters(), 1e-6);
+			assertEquals(resident.pathNodeIds().getFirst(), tiled.pathNodeIds().getFirst());
+			assertEquals(resident.pathNodeIds().getLast(), tiled.pathNodeIds().getLast());
+			compared++;
+		}
+		assertTrue(compared > 30);
+		assertTrue(store.evictions() > 0);
+		assertTrue(store.residentBytes() <= tileBytes * 48);
+	}
+
+	private static void addSplitLink(
+			RoutingGraphBuilder builder,
+			Random random,
+			long[] nextId,
+			long from,
+			long to,
+			double lat,
+			double lon,
+			double dLat,
+			double dLon,
+			boolean twoWay,
+			boolean stepsInMiddle
+	) {
+		long[] nodes = {from, nextId[0]++, nextId[0]++, to};
+		builder.addNode(nodes[1], lat + dLat / 3.0, lon + dLon / 3.0);
+		builder.addNode(nodes[2], lat + 2.0 * dLat / 3.0, lon + 2.0 * dLon / 3.0);
+		for (int i = 0; i < 3; i++) {
+			long flags = stepsInMiddle && i == 1 ? EdgeFlags.of("steps", null) : EdgeFlags.of("footway", null);
+			double length = 10.0 + random.nextDouble() * 10.0;
+			builder.addEdge(nextId[0]++, nodes[i], nodes[i + 1], length, length * (1.0 + random.nextDouble()), flags);
+			if (twoWay) {
+				builder.addEdge(nextId[0]++, nodes[i + 1], nodes[i], length, length * (1.0 + random.nextDouble()), flags);
+			}
+		}
+	}
+
 	private static void addEdge(
 			Map<Long, List<DirectedEdge>> outgoing,
 			Map<Long, DirectedEdge> edgeById,
@@ -0,0 +1,127 @@
+package com.team.GroundTruth.routing.astar;
+
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RoutingProfile;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeltaSteppingSearchTest {
+
+	@Test
+	void testMatchesSequentialDijkstraForAnyBucketWidth() {
+		RoutingGraph graph = grid(40, new Random(37L), false);
+		AStarRouter router = new AStarRouter();
+		int[] everyNode = IntStream.range(0, graph.nodeCount()).toArray();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DeltaSteppingSearch search = new DeltaSteppingSearch(pool, 60.0);
+			for (long blockedMask : new long[]{EdgeFlags.NONE, RoutingProfile.WHEELCHAIR.blockedMask()}) {
+				for (int source : new int[]{0, graph.nodeCount() / 2 + 7}) {
+					ShortestPathTree expected = router.oneToMany(graph, source, everyNode, graph.baseCosts(), blockedMask);
+					for (double delta : new double[]{1.0, 60.0, 1e6}) {
+						ShortestPathTree actual = search.oneToAll(graph, source, graph.baseCosts(), blockedMask, delta);
+						assertSameCosts(graph, expected, actual);
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testTreeIsConsistentWithTiesAndZeroCostEdges() {
+		RoutingGraph graph = grid(30, new Random(38L), true);
+		double[] costs = graph.copyBaseCosts();
+		MemorySegment costSegment = MemorySegment.ofArray(costs);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			ShortestPathTree tree = new DeltaSteppingSearch(pool, 5.0).oneToAll(graph, 0, costSegment, EdgeFlags.NONE);
+			ShortestPathTree expected = new AStarRouter().oneToMany(graph, 0,
+					IntStream.range(0, graph.nodeCount()).toArray(), costSegment, EdgeFlags.NONE);
+
+			assertSameCosts(graph, expected, tree);
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				if (!tree.reached(node)) {
+					continue;
+				}
+				RouteResult path = tree.pathTo(node);
+				double sum = 0.0;
+				for (long edgeId : path.pathEdgeIds()) {
+					sum += costs[graph.indexOfEdge(edgeId)];
+				}
+				assertEquals(tree.cost(node), sum, 0.0);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testRejectsInvalidBucketWidth() {
+		RoutingGraph graph = grid(3, new Random(39L), false);
+		DeltaSteppingSearch search = new DeltaSteppingSearch(ForkJoinPool.commonPool(), 60.0);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> search.oneToAll(graph, 0, graph.baseCosts(), EdgeFlags.NONE, 0.0));
+		assertThrows(IllegalArgumentException.class, () -> new DeltaSteppingSearch(ForkJoinPool.commonPool(), Double.NaN));
+	}
+
+	private static void assertSameCosts(RoutingGraph graph, ShortestPathTree expected, ShortestPathTree actual) {
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			assertEquals(expected.reached(node), actual.reached(node), "reached " + node);
+			if (expected.reached(node)) {
+				assertEquals(expected.cost(node), actual.cost(node), 1e-6, "cost " + node);
+				assertEquals(actual.cost(node), actual.pathTo(node).durationSeconds(), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Builds a grid with random one-way links, steps and, optionally, whole-second and zero costs.
+	 */
+	private static RoutingGraph grid(int size, Random random, boolean integerCosts) {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				builder.addNode(row * size + col, 47.6 + row * 0.0008, -122.3 + col * 0.0011);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				long node = (long) row * size + col;
+				for (long neighbour : new long[]{col + 1 < size ? node + 1 : -1, row + 1 < size ? node + size : -1}) {
+					if (neighbour < 0) {
+						continue;
+					}
+					long flags = random.nextInt(8) == 0 ? EdgeFlags.of("steps", null) : EdgeFlags.of("footway", null);
+					boolean oneWay = random.nextInt(6) == 0;
+					builder.addEdge(edgeId++, node, neighbour, 80.0, cost(random, integerCosts), flags);
+					if (!oneWay) {
+						builder.addEdge(edgeId++, neighbour, node, 80.0, cost(random, integerCosts), flags);
+					}
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private static double cost(Random random, boolean integerCosts) {
+		if (!integerCosts) {
+			// Mostly light edges with a tail of heavy ones, as on a real street network.
+			return random.nextInt(10) == 0 ? 200.0 + random.nextDouble() * 400.0 : 20.0 + random.nextDouble() * 60.0;
+		}
+		return random.nextInt(12) == 0 ? 0.0 : random.nextInt(1, 8);
+	}
+}
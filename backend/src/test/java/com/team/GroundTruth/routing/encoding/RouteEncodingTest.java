@@ -0,0 +1,134 @@
+package com.team.GroundTruth.routing.encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.GroundTruth.domain.dto.routing.RouteResponseDto;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteEncodingTest {
+
+	private static final RouteResponseDto ROUTE = new RouteResponseDto(
+			812.5,
+			584.25,
+			new long[]{90210L, 90211L, 90190L, 1_500_000_000L},
+			new long[]{7L, 8L, 3L},
+			new RouteResponseDto.GeoJsonFeature("Feature", Map.of(), new RouteResponseDto.GeoJsonGeometry(
+					"LineString",
+					new double[]{-122.335167, 47.608013, -122.334901, 47.608422, -122.333012, 47.609}))
+	);
+
+	@Test
+	void testPolylineMatchesReferenceEncoding() {
+		double[][] line = {{-120.2, 38.5}, {-120.95, 40.7}, {-126.453, 43.252}};
+
+		assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", PolylineEncoder.encode(line, 5));
+		String encoded = PolylineEncoder.encode(ROUTE.routeGeojson().geometry().coordinates(), 6);
+		double[][] decoded = PolylineEncoder.decode(encoded, 6);
+		assertEquals(3, decoded.length);
+		for (int point = 0; point < decoded.length; point++) {
+			assertArrayEquals(ROUTE.routeGeojson().geometry().coordinates()[point], decoded[point], 1e-7);
+		}
+		assertThrows(IllegalArgumentException.class, () -> PolylineEncoder.decode(encoded.substring(0, 3), 6));
+	}
+
+	@Test
+	void testDeltaVarintRoundTripsAndStaysSmall() {
+		long[] ids = {1_000_000L, 1_000_001L, 999_990L, 1_000_020L, Long.MAX_VALUE, Long.MIN_VALUE, 0L};
+		assertArrayEquals(ids, DeltaVarintEncoder.decode(DeltaVarintEncoder.encode(ids, 1), 1));
+
+		long[] interleaved = {47_608_013L, -122_335_167L, 47_608_422L, -122_334_901L};
+		byte[] encoded = DeltaVarintEncoder.encode(interleaved, 2);
+		assertArrayEquals(interleaved, DeltaVarintEncoder.decode(encoded, 2));
+		// Two first values of four bytes each, then two deltas below 8192 of two bytes each.
+		assertEquals(4 + 4 + 2 + 2, encoded.length);
+		assertThrows(IllegalArgumentException.class, () -> DeltaVarintEncoder.decode(new byte[]{(byte) 0x80}, 1));
+	}
+
+	@Test
+	void testCompactJsonCarriesEncodedFields() throws IOException {
+		CompactRouteJsonConverter converter = new CompactRouteJsonConverter();
+		assertTrue(converter.canWrite(RouteResponseDto.class, RouteMediaTypes.COMPACT_JSON));
+		assertFalse(converter.canWrite(RouteResponseDto.class, org.springframework.http.MediaType.APPLICATION_JSON));
+		assertFalse(converter.canRead(RouteResponseDto.class, RouteMediaTypes.COMPACT_JSON));
+
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		converter.write(ROUTE, RouteMediaTypes.COMPACT_JSON, message);
+		JsonNode body = new ObjectMapper().readTree(message.getBodyAsBytes());
+
+		assertEquals(812.5, body.get("distanceMeters").asDouble());
+		assertEquals(584.25, body.get("durationSeconds").asDouble());
+		assertArrayEquals(ROUTE.pathNodeIds(),
+				DeltaVarintEncoder.decode(Base64.getUrlDecoder().decode(body.get("pathNodeIds").asText()), 1));
+		assertArrayEquals(ROUTE.pathEdgeIds(),
+				DeltaVarintEncoder.decode(Base64.getUrlDecoder().decode(body.get("pathEdgeIds").asText()), 1));
+		assertEquals(PolylineEncoder.encode(ROUTE.routeGeojson().geometry().coordinates(), 6),
+				body.get("polyline").asText());
+		assertEquals(6, body.get("polylinePrecision").asInt());
+	}
+
+	@Test
+	void testGeoJsonMatchesMappedResponse() throws IOException {
+		GeoJsonRouteConverter converter = new GeoJsonRouteConverter();
+		assertTrue(converter.canWrite(RouteResponseDto.class, org.springframework.http.MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(RouteResponseDto.class, RouteMediaTypes.COMPACT_JSON));
+		assertFalse(converter.canRead(RouteResponseDto.class, org.springframework.http.MediaType.APPLICATION_JSON));
+
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		converter.write(ROUTE, org.springframework.http.MediaType.APPLICATION_JSON, message);
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode body = mapper.readTree(message.getBodyAsBytes());
+
+		assertEquals(mapper.readTree(mapper.writeValueAsBytes(ROUTE)), body);
+		JsonNode coordinates = body.at("/routeGeojson/geometry/coordinates");
+		assertEquals(3, coordinates.size());
+		assertEquals(-122.335167, coordinates.get(0).get(0).asDouble());
+		assertEquals(47.608013, coordinates.get(0).get(1).asDouble());
+		assertFalse(body.at("/routeGeojson/geometry").has("lonLat"));
+	}
+
+	@Test
+	void testProtobufFollowsWireFormat() throws IOException {
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		new RouteProtobufConverter().write(ROUTE, RouteMediaTypes.PROTOBUF, message);
+		ByteBuffer body = ByteBuffer.wrap(message.getBodyAsBytes()).order(ByteOrder.LITTLE_ENDIAN);
+
+		assertEquals(1 << 3 | 1, body.get());
+		assertEquals(812.5, body.getDouble());
+		assertEquals(2 << 3 | 1, body.get());
+		assertEquals(584.25, body.getDouble());
+		assertArrayEquals(ROUTE.pathNodeIds(), DeltaVarintEncoder.decode(lengthDelimited(body, 3), 1));
+		assertArrayEquals(ROUTE.pathEdgeIds(), DeltaVarintEncoder.decode(lengthDelimited(body, 4), 1));
+		long[] coordinates = DeltaVarintEncoder.decode(lengthDelimited(body, 5), 2);
+		assertArrayEquals(new long[]{47_608_013L, -122_335_167L}, Arrays.copyOf(coordinates, 2));
+		assertEquals(6, coordinates.length);
+		assertFalse(body.hasRemaining());
+	}
+
+	private static byte[] lengthDelimited(ByteBuffer body, int field) {
+		assertEquals(field << 3 | 2, body.get());
+		int length = 0;
+		int shift = 0;
+		byte current;
+		do {
+			current = body.get();
+			length |= (current & 0x7f) << shift;
+			shift += 7;
+		} while (current < 0);
+		byte[] bytes = new byte[length];
+		body.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,61 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.config.GeoDataConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeoDataFileImporterTest {
+
+	@TempDir
+	Path dir;
+
+	private final GeoDataConfig config = mock(GeoDataConfig.class);
+
+	@Test
+	void testEstimatesEveryEdgeFromFiles() throws IOException {
+		StringBuilder crimes = new StringBuilder("Latitude,Longitude\n");
+		for (int i = 0; i < 150; i++) {
+			crimes.append("40.70000,-74.00000\n");
+		}
+		when(config.getCrimeFile()).thenReturn(Files.writeString(dir.resolve("crime.csv"), crimes).toString());
+		when(config.getStreetlampFile()).thenReturn(Files.writeString(dir.resolve("lamps.json"), """
+				{"elements": [{"type": "node", "id": 1, "lat": 40.70005, "lon": -74.00000}]}
+				""").toString());
+		when(config.getPedestrianFile()).thenReturn("");
+		GeoDataFileImporter importer = new GeoDataFileImporter(config);
+
+		List<EdgeGeoData> values = importer.estimate(List.of(
+				new Object[]{1L, 40.7000, -74.0000},
+				new Object[]{2L, 40.7100, -74.0000}
+		), 100.0);
+
+		assertEquals(2, values.size());
+		EdgeGeoData hotspot = values.get(0);
+		assertEquals(1L, hotspot.edgeId());
+		assertEquals(1.0, hotspot.crimeLevel(), 1e-9);
+		assertTrue(hotspot.streetlight() > 0.0 && hotspot.streetlight() < 1.0);
+		assertEquals(PedestrianCountFetcher.DEFAULT_VALUE, hotspot.popDensity(), 1e-9);
+		EdgeGeoData quiet = values.get(1);
+		assertEquals(0.0, quiet.crimeLevel(), 1e-9);
+		assertEquals(0.0, quiet.streetlight(), 1e-9);
+		assertEquals(hotspot.crimeLevel(), new FileGeoDataProvider(importer).getCrimeLevel(40.7, -74.0, 100.0), 1e-9);
+	}
+
+	@Test
+	void testMissingFileFailsLoudly() {
+		when(config.getCrimeFile()).thenReturn(dir.resolve("absent.csv").toString());
+		GeoDataFileImporter importer = new GeoDataFileImporter(config);
+
+		assertThrows(IllegalStateException.class, () -> importer.crimeLevel(40.7, -74.0, 100.0));
+	}
+}
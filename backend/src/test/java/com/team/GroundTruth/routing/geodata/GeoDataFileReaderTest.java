@@ -0,0 +1,76 @@
+package com.team.GroundTruth.routing.geodata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeoDataFileReaderTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testReadsCsvByLatitudeLongitudeColumns() throws IOException {
+		Path file = Files.writeString(dir.resolve("crime.csv"), """
+				CMPLNT_NUM,OFNS_DESC,Latitude,Longitude
+				1,"ASSAULT, 3",40.7128,-74.0060
+				2,\"""QUOTED"" OFFENSE",40.7130,-74.0055
+				3,MISSING,,
+
+				""");
+
+		List<GeoPoint> points = GeoDataFileReader.read(file, null);
+
+		assertEquals(List.of(new GeoPoint(40.7128, -74.0060, 1.0), new GeoPoint(40.7130, -74.0055, 1.0)), points);
+	}
+
+	@Test
+	void testReadsCsvWktGeometryAndWeight() throws IOException {
+		Path file = Files.writeString(dir.resolve("pedestrians.csv"), """
+				the_geom,Loc,vol
+				"MULTIPOINT ((-73.98765 40.75123))",Broadway,"1,250"
+				POINT (-73.9 40.8),Bowery,
+				""");
+
+		List<GeoPoint> points = GeoDataFileReader.read(file, "vol");
+
+		assertEquals(List.of(new GeoPoint(40.75123, -73.98765, 1250.0), new GeoPoint(40.8, -73.9, 0.0)), points);
+	}
+
+	@Test
+	void testReadsGeoJsonOverpassAndSocrataJson() throws IOException {
+		Path geoJson = Files.writeString(dir.resolve("lamps.geojson"), """
+				{"type": "FeatureCollection", "name": "lamps", "features": [
+				  {"type": "Feature", "properties": {"vol": 12}, "geometry": {"type": "Point", "coordinates": [-74.0, 40.7]}},
+				  {"type": "Feature", "properties": {}, "geometry": null}
+				]}
+				""");
+		Path overpass = Files.writeString(dir.resolve("lamps.json"), """
+				{"version": 0.6, "osm3s": {"timestamp_osm_base": "x"}, "elements": [
+				  {"type": "node", "id": 1, "lat": 40.71, "lon": -74.01}
+				]}
+				""");
+		Path socrata = Files.writeString(dir.resolve("counts.json"), """
+				[{"the_geom": {"type": "MultiPoint", "coordinates": [[-73.99, 40.72]]}, "vol": "300"},
+				 {"latitude": "40.73", "longitude": "-73.98"}]
+				""");
+
+		assertEquals(List.of(new GeoPoint(40.7, -74.0, 12.0)), GeoDataFileReader.read(geoJson, "vol"));
+		assertEquals(List.of(new GeoPoint(40.71, -74.01, 1.0)), GeoDataFileReader.read(overpass, null));
+		assertEquals(List.of(new GeoPoint(40.72, -73.99, 300.0), new GeoPoint(40.73, -73.98, 0.0)),
+				GeoDataFileReader.read(socrata, "vol"));
+	}
+
+	@Test
+	void testRejectsCsvWithoutLocationColumns() throws IOException {
+		Path file = Files.writeString(dir.resolve("bad.csv"), "id,name\n1,x\n");
+
+		assertThrows(IOException.class, () -> GeoDataFileReader.read(file, null));
+	}
+}
@@ -0,0 +1,97 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.config.GeoDataConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.doubleThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeoDataHarvesterTest {
+
+	private final PedestrianCountFetcher pedestrianFetcher = mock(PedestrianCountFetcher.class);
+	private final StreetlampFetcher streetlampFetcher = mock(StreetlampFetcher.class);
+	private final CrimeFetcher crimeFetcher = mock(CrimeFetcher.class);
+	private final GeoDataConfig config = mock(GeoDataConfig.class);
+
+	@Test
+	void testFetchesEachDatasetOncePerOccupiedTile() {
+		when(config.getHarvestTileSizeDegrees()).thenReturn(0.01);
+		when(pedestrianFetcher.fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenReturn(List.of(new GeoPoint(40.7051, -74.0051, 4_000.0)));
+		when(streetlampFetcher.fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenReturn(List.of(new GeoPoint(40.7050, -74.0050, 1.0), new GeoPoint(40.7052, -74.0052, 1.0)));
+		when(crimeFetcher.fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenReturn(List.of(new GeoPoint(40.7050, -74.0050, 1.0)));
+		GeoDataHarvester harvester = new GeoDataHarvester(pedestrianFetcher, streetlampFetcher, crimeFetcher, config);
+
+		List<List<EdgeGeoData>> tiles = new ArrayList<>();
+		int harvested = harvester.harvest(List.of(
+				new Object[]{1L, 40.7050, -74.0050},
+				new Object[]{2L, 40.7060, -74.0040},
+				new Object[]{3L, 40.7550, -73.9550}
+		), 100.0, tiles::add);
+
+		assertEquals(3, harvested);
+		assertEquals(2, tiles.size());
+		verify(pedestrianFetcher, times(2)).fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+		verify(streetlampFetcher, times(2)).fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+		verify(crimeFetcher, times(2)).fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+
+		EdgeGeoData near = tiles.get(0).stream().filter(edge -> edge.edgeId() == 1L).findFirst().orElseThrow();
+		assertEquals(PedestrianCountFetcher.normalize(1, 4_000.0), near.popDensity(), 1e-9);
+		assertEquals(StreetlampFetcher.normalize(2, 100.0), near.streetlight(), 1e-9);
+		assertEquals(CrimeFetcher.normalize(1), near.crimeLevel(), 1e-9);
+
+		EdgeGeoData far = tiles.get(1).get(0);
+		assertEquals(3L, far.edgeId());
+		assertEquals(PedestrianCountFetcher.DEFAULT_VALUE, far.popDensity(), 1e-9);
+		assertEquals(0.0, far.streetlight(), 1e-9);
+		assertEquals(0.0, far.crimeLevel(), 1e-9);
+	}
+
+	@Test
+	void testTileBoundsAreGrownByTheRadius() {
+		when(config.getHarvestTileSizeDegrees()).thenReturn(0.01);
+		GeoDataHarvester harvester = new GeoDataHarvester(pedestrianFetcher, streetlampFetcher, crimeFetcher, config);
+
+		harvester.harvest(List.<Object[]>of(new Object[]{1L, 40.7050, -74.0050}), 200.0, tile -> { });
+
+		// Tile spans [40.70, 40.71] x [-74.01, -74.00]; 200 m is about 0.0018 degrees of latitude
+		verify(streetlampFetcher).fetchInBounds(
+				doubleThat(minLat -> minLat < 40.6983 && minLat > 40.6980),
+				doubleThat(minLon -> minLon < -74.0123),
+				doubleThat(maxLat -> maxLat > 40.7117 && maxLat < 40.7120),
+				doubleThat(maxLon -> maxLon > -73.9977));
+	}
+
+	@Test
+	void testFailedDatasetFallsBackToDefault() {
+		when(config.getHarvestTileSizeDegrees()).thenReturn(0.01);
+		when(crimeFetcher.fetchInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenThrow(new IllegalStateException("rate limited"));
+		GeoDataHarvester harvester = new GeoDataHarvester(pedestrianFetcher, streetlampFetcher, crimeFetcher, config);
+
+		List<EdgeGeoData> values = new ArrayList<>();
+		harvester.harvest(List.<Object[]>of(new Object[]{1L, 40.7050, -74.0050}), 100.0, values::addAll);
+
+		assertEquals(1, values.size());
+		assertEquals(CrimeFetcher.DEFAULT_VALUE, values.get(0).crimeLevel(), 1e-9);
+		assertTrue(values.get(0).streetlight() < CrimeFetcher.DEFAULT_VALUE);
+	}
+
+	@Test
+	void testRejectsNonPositiveRadius() {
+		GeoDataHarvester harvester = new GeoDataHarvester(pedestrianFetcher, streetlampFetcher, crimeFetcher, config);
+
+		assertThrows(IllegalArgumentException.class, () -> harvester.harvest(List.of(), 0.0, tile -> { }));
+	}
+}
@@ -0,0 +1,37 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.config.GeoDataConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Which {@link GeoDataProvider} is injected by interface, depending on {@code geodata.files.enabled}.
+ */
+class GeoDataProviderSelectionTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withBean(GeoDataConfig.class, () -> mock(GeoDataConfig.class))
+			.withBean(PedestrianCountFetcher.class, () -> mock(PedestrianCountFetcher.class))
+			.withBean(StreetlampFetcher.class, () -> mock(StreetlampFetcher.class))
+			.withBean(CrimeFetcher.class, () -> mock(CrimeFetcher.class))
+			.withBean(GeoDataFileImporter.class, () -> mock(GeoDataFileImporter.class))
+			.withUserConfiguration(GeoDataProviderImpl.class, FileGeoDataProvider.class);
+
+	@Test
+	void testNetworkProviderByDefault() {
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(FileGeoDataProvider.class);
+			assertThat(context.getBean(GeoDataProvider.class)).isInstanceOf(GeoDataProviderImpl.class);
+		});
+	}
+
+	@Test
+	void testFileProviderWhenFilesEnabled() {
+		contextRunner.withPropertyValues("geodata.files.enabled=true", "geodata.files.crime=crime.csv")
+				.run(context -> assertThat(context.getBean(GeoDataProvider.class))
+						.isInstanceOf(FileGeoDataProvider.class));
+	}
+}
@@ -0,0 +1,69 @@
+package com.team.GroundTruth.routing.geodata;
+
+import com.team.GroundTruth.routing.graph.GeoDistance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeoPointIndexTest {
+
+	@Test
+	void testRadiusAggregatesMatchBruteForce() {
+		Random random = new Random(7);
+		List<GeoPoint> points = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			points.add(new GeoPoint(40.70 + random.nextDouble() * 0.05, -74.02 + random.nextDouble() * 0.05,
+					random.nextInt(100)));
+		}
+		GeoPointIndex index = new GeoPointIndex(points, 0.001);
+
+		for (int query = 0; query < 200; query++) {
+			double lat = 40.70 + random.nextDouble() * 0.05;
+			double lon = -74.02 + random.nextDouble() * 0.05;
+			double radius = 50.0 + random.nextDouble() * 400.0;
+			int count = 0;
+			double sum = 0.0;
+			for (GeoPoint point : points) {
+				if (GeoDistance.haversineMeters(lat, lon, point.lat(), point.lon()) <= radius) {
+					count++;
+					sum += point.weight();
+				}
+			}
+			assertEquals(count, index.count(lat, lon, radius));
+			assertEquals(sum, index.sum(lat, lon, radius), 1e-9);
+		}
+	}
+
+	@Test
+	void testRadiusLargerThanCellsReachesDistantCells() {
+		GeoPointIndex index = new GeoPointIndex(List.of(
+				new GeoPoint(40.7000, -74.0000, 1.0),
+				new GeoPoint(40.7000, -73.9950, 2.0),
+				new GeoPoint(40.7100, -74.0000, 4.0)
+		), 0.0005);
+
+		// 0.005 degrees of longitude at 40.7N is about 421 m, 0.01 degrees of latitude about 1112 m
+		assertEquals(1, index.count(40.7000, -74.0000, 400.0));
+		assertEquals(3.0, index.sum(40.7000, -74.0000, 450.0), 1e-9);
+		assertEquals(3, index.count(40.7000, -74.0000, 1_200.0));
+		assertEquals(0, new GeoPointIndex(List.of(), 0.001).count(40.7, -74.0, 1_000.0));
+	}
+
+	@Test
+	void testDensityWeighsPointsByDistance() {
+		GeoPointIndex index = new GeoPointIndex(List.of(
+				new GeoPoint(40.7000, -74.0000, 3.0),
+				new GeoPoint(40.7009, -74.0000, 5.0),
+				new GeoPoint(40.7100, -74.0000, 7.0)
+		), 0.001);
+		double halfway = GeoDistance.haversineMeters(40.7000, -74.0000, 40.7009, -74.0000);
+
+		assertEquals(2.0 * 3.0, index.density(40.7000, -74.0000, 1.0, true), 1e-9);
+		double scaled = halfway / 200.0;
+		assertEquals(2.0 + 2.0 * (1.0 - scaled * scaled), index.density(40.7000, -74.0000, 200.0, false), 1e-9);
+		assertEquals(0.0, index.density(40.7050, -74.0000, 100.0, true), 1e-9);
+	}
+}
@@ -0,0 +1,74 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.ValueLayout;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompressedGraphTest {
+
+	@Test
+	void testTwoWayLineCollapsesIntoOneChainPerDirection() {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (long node = 1; node <= 5; node++) {
+			builder.addNode(node, 0.0, node * 0.001);
+		}
+		for (long node = 1; node < 5; node++) {
+			builder.addEdge(node * 10, node, node + 1, 100.0, 70.0 + node, EdgeFlags.NONE);
+			builder.addEdge(node * 10 + 1, node + 1, node, 100.0, 70.0, EdgeFlags.NONE);
+		}
+		RoutingGraph graph = builder.build();
+
+		CompressedGraph compressed = CompressedGraph.of(graph);
+		RoutingGraph topology = compressed.topology();
+
+		assertEquals(2, topology.nodeCount());
+		assertEquals(2, topology.edgeCount());
+		int forward = topology.firstEdge(topology.indexOfNode(1L));
+		assertEquals(5L, topology.nodeId(topology.edgeTarget(forward)));
+		assertEquals(400.0, topology.edgeLength(forward), 1e-9);
+		assertEquals(71.0 + 72.0 + 73.0 + 74.0, topology.edgeBaseCost(forward), 1e-9);
+
+		int chain = compressed.chainOf(forward);
+		assertEquals(4, compressed.endMember(chain) - compressed.firstMember(chain));
+		for (int i = 0; i < 4; i++) {
+			assertEquals((i + 1) * 10L, graph.edgeId(compressed.memberEdge(compressed.firstMember(chain) + i)));
+		}
+
+		int middle = graph.indexOfNode(3L);
+		assertEquals(-1, compressed.junction(middle));
+		int slot = compressed.chainThrough(middle, 0) == chain ? 0 : 1;
+		assertEquals(20L, graph.edgeId(compressed.memberEdge(compressed.memberInto(middle, slot))));
+
+		assertEquals(topology.edgeBaseCost(forward),
+				compressed.chainCosts(graph.baseCosts()).getAtIndex(ValueLayout.JAVA_DOUBLE, forward), 1e-9);
+	}
+
+	@Test
+	void testFlagChangeAndRingKeepJunctions() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				// One-way ring 1 -> 2 -> 3 -> 1 without any junction.
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addNode(3L, 0.001, 0.0)
+				.addEdge(1L, 1L, 2L, 100.0, 70.0, EdgeFlags.NONE)
+				.addEdge(2L, 2L, 3L, 100.0, 70.0, EdgeFlags.NONE)
+				.addEdge(3L, 3L, 1L, 100.0, 70.0, EdgeFlags.NONE)
+				// One-way line 10 -> 11 -> 12 whose flags change at 11.
+				.addNode(10L, 0.01, 0.0)
+				.addNode(11L, 0.01, 0.001)
+				.addNode(12L, 0.01, 0.002)
+				.addEdge(10L, 10L, 11L, 100.0, 70.0, EdgeFlags.NONE)
+				.addEdge(11L, 11L, 12L, 100.0, 70.0, EdgeFlags.of("steps", null))
+				.build();
+
+		CompressedGraph compressed = CompressedGraph.of(graph);
+
+		// One ring node is promoted to a junction; 11 stays a junction because of the flag change.
+		assertEquals(4, compressed.topology().nodeCount());
+		assertEquals(3, compressed.chainCount());
+		assertEquals(graph.indexOfNode(11L), graph.indexOfNode(compressed.topology().nodeId(
+				compressed.junction(graph.indexOfNode(11L)))));
+	}
+}
@@ -0,0 +1,95 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistanceKernelTest {
+
+	@Test
+	void testVectorKernelMatchesScalarKernel() {
+		Random random = new Random(36L);
+		// Odd count so the vector loop leaves a scalar remainder.
+		int count = 1_003;
+		float[] x = new float[count];
+		float[] y = new float[count];
+		double[] lats = new double[count];
+		double[] lons = new double[count];
+		for (int i = 0; i < count; i++) {
+			x[i] = (float) ((random.nextDouble() - 0.5) * 40_000.0);
+			y[i] = (float) ((random.nextDouble() - 0.5) * 40_000.0);
+			lats[i] = Math.toRadians(47.4 + random.nextDouble() * 0.4);
+			lons[i] = Math.toRadians(-122.6 + random.nextDouble() * 0.5);
+		}
+		Arena arena = Arena.ofAuto();
+		MemorySegment xs = OffHeapArrays.copyOf(arena, x);
+		MemorySegment ys = OffHeapArrays.copyOf(arena, y);
+		ScalarDistanceKernel scalar = new ScalarDistanceKernel();
+		VectorDistanceKernel vector = new VectorDistanceKernel();
+
+		float[] expected = new float[count - 5];
+		float[] actual = new float[count - 5];
+		scalar.planarDistances(xs, ys, 5, count - 5, 12.5f, -40.0f, expected);
+		vector.planarDistances(xs, ys, 5, count - 5, 12.5f, -40.0f, actual);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], actual[i], expected[i] * 1e-6f);
+		}
+
+		double[] expectedX = new double[count];
+		double[] expectedY = new double[count];
+		double[] actualX = new double[count];
+		double[] actualY = new double[count];
+		scalar.project(lats, lons, 3, count, -2.135, 0.737, 0.675, 6_371_000.0, expectedX, expectedY);
+		vector.project(lats, lons, 3, count, -2.135, 0.737, 0.675, 6_371_000.0, actualX, actualY);
+		assertArrayEquals(expectedX, actualX, 1e-6);
+		assertArrayEquals(expectedY, actualY, 1e-6);
+		assertEquals(0.0, actualX[0]);
+	}
+
+	@Test
+	void testBestKernelUsesVectorApiWhenModuleIsPresent() {
+		assertInstanceOf(VectorDistanceKernel.class, DistanceKernel.best());
+	}
+
+	@Test
+	void testNearestNodesMatchHaversineOrder() {
+		Random random = new Random(36L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		int nodes = 10_000;
+		for (long node = 0; node < nodes; node++) {
+			builder.addNode(node, 47.5 + random.nextDouble() * 0.2, -122.4 + random.nextDouble() * 0.3);
+		}
+		for (long node = 0; node + 1 < nodes; node++) {
+			builder.addEdge(node, node, node + 1, 1.0, 1.0, EdgeFlags.NONE);
+		}
+		RoutingGraph graph = builder.build();
+
+		for (int query = 0; query < 20; query++) {
+			double lat = 47.5 + random.nextDouble() * 0.2;
+			double lon = -122.4 + random.nextDouble() * 0.3;
+			int[] nearest = graph.planar().nearestNodes(lat, lon, 16);
+
+			int[] expected = IntStream.range(0, graph.nodeCount()).boxed()
+					.sorted(Comparator.comparingDouble(node ->
+							GeoDistance.haversineMeters(lat, lon, graph.lat(node), graph.lon(node))))
+					.limit(16)
+					.mapToInt(Integer::intValue)
+					.toArray();
+			assertEquals(expected[0], nearest[0]);
+			double farthestExpected = GeoDistance.haversineMeters(lat, lon, graph.lat(expected[15]), graph.lon(expected[15]));
+			for (int node : nearest) {
+				double distance = GeoDistance.haversineMeters(lat, lon, graph.lat(node), graph.lon(node));
+				assertTrue(distance <= farthestExpected * 1.001 + 0.01, "node " + node);
+			}
+		}
+	}
+}
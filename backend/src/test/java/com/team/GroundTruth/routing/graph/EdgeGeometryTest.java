@@ -0,0 +1,112 @@
+package com.team.GroundTruth.routing.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeGeometryTest {
+
+	@Test
+	void testReverseAndParallelEdgesShareShapes() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(10L, 1L, 2L, new double[]{0.0, 0.0, 0.5, 0.1, 1.0, 0.0})
+				.addEdge(11L, 2L, 1L, new double[]{1.0, 0.0, 0.5, 0.1, 0.0, 0.0})
+				.addEdge(12L, 1L, 2L, new double[]{0.0, 0.0, 0.5, 0.1, 1.0, 0.0})
+				.addEdge(13L, 2L, 3L, new double[]{1.0, 0.0, 1.0, 1.0})
+				.addEdge(14L, 1L, 2L, new double[]{0.0, 0.0, 1.0, 0.0})
+				.build();
+
+		assertEquals(5, geometry.edgeCount());
+		assertEquals(3, geometry.shapeCount());
+		assertArrayEquals(new double[]{1.0, 0.0, 0.5, 0.1, 0.0, 0.0}, geometry.shape(11L));
+		assertArrayEquals(new double[]{0.0, 0.0, 1.0, 0.0}, geometry.shape(14L));
+		assertTrue(geometry.contains(12L));
+		assertFalse(geometry.contains(15L));
+	}
+
+	@Test
+	void testLineStringDedupesJointsAndSkipsUnknownEdges() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{0.0, 0.0, 0.0, 0.0, 1.0, 0.0})
+				.addEdge(2L, 3L, 2L, new double[]{1.0, 1.0, 1.0, 0.5, 1.0, 0.0})
+				.addEdge(3L, 2L, 3L, new double[]{1.0, 0.0, 1.0, 0.5, 1.0, 1.0})
+				.addEdge(4L, 3L, 4L, new double[]{1.0, 1.0, 2.0, 1.0})
+				.build();
+
+		assertEquals(3, geometry.shapeCount());
+		assertArrayEquals(new double[]{0.0, 0.0, 1.0, 0.0, 1.0, 0.5, 1.0, 1.0, 2.0, 1.0},
+				geometry.lineString(List.of(1L, 3L, 99L, 4L)));
+		assertArrayEquals(new double[]{2.0, 1.0, 1.0, 1.0, 1.0, 0.5, 1.0, 0.0},
+				new EdgeGeometryBuilder()
+						.addEdge(4L, 3L, 4L, new double[]{1.0, 1.0, 2.0, 1.0})
+						.addEdge(5L, 4L, 3L, new double[]{2.0, 1.0, 1.0, 1.0})
+						.addEdge(2L, 3L, 2L, new double[]{1.0, 1.0, 1.0, 0.5, 1.0, 0.0})
+						.build()
+						.lineString(List.of(5L, 2L)));
+		assertArrayEquals(new double[0], geometry.lineString(List.of()));
+	}
+
+	@Test
+	void testLineStringFallsBackForMissingEdges() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{0.0, 0.0, 1.0, 0.0})
+				.build();
+		EdgeGeometry fallback = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{9.0, 9.0, 8.0, 8.0})
+				.addEdge(2L, 2L, 3L, new double[]{1.0, 0.0, 2.0, 0.0})
+				.build();
+
+		assertArrayEquals(new double[]{0.0, 0.0, 1.0, 0.0, 2.0, 0.0},
+				geometry.lineString(List.of(1L, 2L), fallback));
+	}
+
+	@Test
+	void testShapesKeepEdgesApart() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{0.0, 0.0, 1.0, 0.0})
+				.addEdge(2L, 2L, 1L, new double[]{1.0, 0.0, 0.0, 0.0})
+				.build();
+		EdgeGeometry fallback = new EdgeGeometryBuilder()
+				.addEdge(3L, 2L, 3L, new double[]{1.0, 0.0, 2.0, 0.0})
+				.build();
+		int[] offsets = new int[5];
+
+		double[] shapes = geometry.shapes(new long[]{1L, 2L, 7L, 3L}, fallback, offsets);
+
+		assertArrayEquals(new double[]{0.0, 0.0, 1.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 2.0, 0.0}, shapes);
+		assertArrayEquals(new int[]{0, 2, 4, 4, 6}, offsets);
+		assertThrows(IllegalArgumentException.class, () -> geometry.shapes(new long[]{1L}, null, new int[1]));
+	}
+
+	@Test
+	void testBuildKeepsLastShapeOfDuplicateEdge() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(7L, 1L, 2L, new double[]{0.0, 0.0, 1.0, 0.0})
+				.addEdge(7L, 1L, 2L, new double[]{0.0, 0.0, 0.5, 0.5, 1.0, 0.0})
+				.build();
+
+		assertEquals(1, geometry.edgeCount());
+		assertArrayEquals(new double[]{0.0, 0.0, 0.5, 0.5, 1.0, 0.0}, geometry.shape(7L));
+	}
+
+	@Test
+	void testDecodeLineStringReadsLittleEndianWkb() {
+		ByteBuffer wkb = ByteBuffer.allocate(1 + 4 + 4 + 4 * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		wkb.put((byte) 1).putInt(2).putInt(2)
+				.putDouble(-122.34).putDouble(47.61)
+				.putDouble(-122.33).putDouble(47.62);
+
+		assertArrayEquals(new double[]{-122.34, 47.61, -122.33, 47.62}, EdgeGeometryStore.decodeLineString(wkb.array()));
+
+		byte[] point = ByteBuffer.allocate(1 + 4 + 2 * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+				.put((byte) 1).putInt(1).putDouble(0.0).putDouble(0.0).array();
+		assertThrows(IllegalArgumentException.class, () -> EdgeGeometryStore.decodeLineString(point));
+	}
+}
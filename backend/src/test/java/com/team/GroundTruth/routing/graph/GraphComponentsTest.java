@@ -0,0 +1,82 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.ComponentStats;
+import com.team.GroundTruth.routing.model.TravelMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphComponentsTest {
+
+	@Test
+	void testComponentsAreStronglyConnectedAndOrderedBySize() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.DRIVE)
+				// Main loop 1 -> 2 -> 3 -> 4 -> 1.
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addNode(3L, 0.001, 0.001)
+				.addNode(4L, 0.001, 0.0)
+				.addEdge(1L, 1L, 2L, 100.0, 10.0, EdgeFlags.NONE)
+				.addEdge(2L, 2L, 3L, 100.0, 10.0, EdgeFlags.NONE)
+				.addEdge(3L, 3L, 4L, 100.0, 10.0, EdgeFlags.NONE)
+				.addEdge(4L, 4L, 1L, 100.0, 10.0, EdgeFlags.NONE)
+				// One-way spur 4 -> 5: reachable from the loop but not back.
+				.addNode(5L, 0.002, 0.0)
+				.addEdge(5L, 4L, 5L, 100.0, 10.0, EdgeFlags.NONE)
+				// Two-way island 6 <-> 7.
+				.addNode(6L, 0.01, 0.01)
+				.addNode(7L, 0.01, 0.011)
+				.addEdge(6L, 6L, 7L, 100.0, 10.0, EdgeFlags.NONE)
+				.addEdge(7L, 7L, 6L, 100.0, 10.0, EdgeFlags.NONE)
+				.build();
+
+		GraphComponents components = GraphComponents.of(graph);
+
+		assertEquals(3, components.componentCount());
+		assertEquals(4, components.size(GraphComponents.LARGEST));
+		assertEquals(2, components.size(1));
+		assertEquals(1, components.size(2));
+
+		int loop = graph.indexOfNode(1L);
+		assertTrue(components.isInLargest(loop));
+		assertTrue(components.connected(loop, graph.indexOfNode(3L)));
+		// The spur is its own strong component but reachable from the loop, so it is not rejected.
+		assertFalse(components.component(loop) == components.component(graph.indexOfNode(5L)));
+		assertTrue(components.connected(loop, graph.indexOfNode(5L)));
+		assertFalse(components.connected(loop, graph.indexOfNode(6L)));
+		assertFalse(components.connected(graph.indexOfNode(5L), graph.indexOfNode(7L)));
+		assertTrue(components.connected(graph.indexOfNode(6L), graph.indexOfNode(7L)));
+
+		ComponentStats stats = components.stats(2);
+		assertEquals(TravelMode.DRIVE, stats.mode());
+		assertEquals(7, stats.nodeCount());
+		assertEquals(3, stats.componentCount());
+		assertEquals(4, stats.largestComponentNodes());
+		assertEquals(4.0 / 7.0, stats.largestComponentShare(), 1e-12);
+		assertEquals(1, stats.singletonComponents());
+		assertEquals(2, stats.components().size());
+		ComponentStats.Component island = stats.components().get(1);
+		assertEquals(2, island.nodeCount());
+		assertTrue(island.sampleNodeId() == 6L || island.sampleNodeId() == 7L);
+	}
+
+	@Test
+	void testLongPathDoesNotOverflowTheStack() {
+		int length = 200_000;
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int i = 0; i < length; i++) {
+			builder.addNode(i, i * 1e-6, 0.0);
+		}
+		for (int i = 0; i + 1 < length; i++) {
+			builder.addEdge(2L * i, i, i + 1, 1.0, 1.0, EdgeFlags.NONE);
+			builder.addEdge(2L * i + 1, i + 1, i, 1.0, 1.0, EdgeFlags.NONE);
+		}
+
+		GraphComponents components = GraphComponents.of(builder.build());
+
+		assertEquals(1, components.componentCount());
+		assertEquals(length, components.size(GraphComponents.LARGEST));
+	}
+}
@@ -0,0 +1,106 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GraphFileTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void testWriteAndMapRoundTrip() throws IOException {
+		RoutingGraph graph = sampleGraph();
+		Path path = tempDir.resolve(GraphFile.fileName(TravelMode.WALK));
+
+		GraphFile.write(graph, 7L, path);
+		GraphFile.Header header = GraphFile.readHeader(path);
+		RoutingGraph mapped = GraphFile.map(path);
+
+		assertEquals(new GraphFile.Header(GraphFile.FORMAT_VERSION, TravelMode.WALK, 7L, 3, 3, GraphPrecision.DOUBLE),
+				header);
+		assertEquals(graph.mode(), mapped.mode());
+		assertEquals(graph.nodeCount(), mapped.nodeCount());
+		assertEquals(graph.edgeCount(), mapped.edgeCount());
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			assertEquals(graph.nodeId(node), mapped.nodeId(node));
+			assertEquals(graph.lat(node), mapped.lat(node));
+			assertEquals(graph.lon(node), mapped.lon(node));
+			assertEquals(graph.firstEdge(node), mapped.firstEdge(node));
+			assertEquals(graph.endEdge(node), mapped.endEdge(node));
+		}
+		for (int edge = 0; edge < graph.edgeCount(); edge++) {
+			assertEquals(graph.edgeId(edge), mapped.edgeId(edge));
+			assertEquals(graph.edgeTarget(edge), mapped.edgeTarget(edge));
+			assertEquals(graph.edgeLength(edge), mapped.edgeLength(edge));
+			assertEquals(graph.edgeBaseCost(edge), mapped.edgeBaseCost(edge));
+			assertEquals(graph.edgeFlags(edge), mapped.edgeFlags(edge));
+		}
+		assertEquals(graph.indexOfEdge(501L), mapped.indexOfEdge(501L));
+		assertEquals(graph.indexOfNode(30L), mapped.indexOfNode(30L));
+	}
+
+	@Test
+	void testCompactGraphRoundTripKeepsNarrowColumns() throws IOException {
+		RoutingGraph graph = sampleGraph(GraphPrecision.COMPACT_QUANTIZED);
+		Path path = tempDir.resolve(GraphFile.fileName(TravelMode.WALK));
+
+		GraphFile.write(graph, 3L, path);
+		RoutingGraph mapped = GraphFile.map(path);
+
+		assertEquals(GraphPrecision.COMPACT_QUANTIZED, GraphFile.readHeader(path).precision());
+		assertEquals(GraphPrecision.COMPACT_QUANTIZED, mapped.precision());
+		assertEquals(graph.offHeapBytes(), mapped.offHeapBytes());
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			assertEquals(graph.nodeId(node), mapped.nodeId(node));
+			assertEquals(graph.lat(node), mapped.lat(node));
+			assertEquals(node, mapped.indexOfNode(graph.nodeId(node)));
+		}
+		for (int edge = 0; edge < graph.edgeCount(); edge++) {
+			assertEquals(graph.edgeId(edge), mapped.edgeId(edge));
+			assertEquals(graph.edgeLength(edge), mapped.edgeLength(edge));
+			assertEquals(graph.edgeBaseCost(edge), mapped.edgeBaseCost(edge));
+			assertEquals(graph.edgeFlags(edge), mapped.edgeFlags(edge));
+		}
+		assertEquals(-1, mapped.indexOfEdge(500L));
+		assertEquals(-1, mapped.indexOfNode(Long.MIN_VALUE));
+	}
+
+	@Test
+	void testCorruptedFileFailsChecksum() throws IOException {
+		Path path = tempDir.resolve(GraphFile.fileName(TravelMode.WALK));
+		GraphFile.write(sampleGraph(), 1L, path);
+
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.seek(80L);
+			int value = file.read();
+			file.seek(80L);
+			file.write(value ^ 0xFF);
+		}
+
+		assertThrows(IOException.class, () -> GraphFile.map(path));
+	}
+
+	private static RoutingGraph sampleGraph() {
+		return sampleGraph(GraphPrecision.DOUBLE);
+	}
+
+	private static RoutingGraph sampleGraph(GraphPrecision precision) {
+		return new RoutingGraphBuilder(TravelMode.WALK)
+				.precision(precision)
+				.addNode(10L, 0.001, 0.0)
+				.addNode(20L, 0.002, 0.0)
+				.addNode(30L, 0.003, 0.0)
+				.addEdge(502L, 10L, 20L, 111.0, 80.0, EdgeFlags.of("footway", null))
+				.addEdge(501L, 20L, 30L, 112.0, 81.0, EdgeFlags.of("steps", null))
+				.addEdge(503L, 10L, 30L, 222.0, 170.0, EdgeFlags.NONE)
+				.build();
+	}
+}
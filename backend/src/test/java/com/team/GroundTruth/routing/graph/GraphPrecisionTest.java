@@ -0,0 +1,118 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.astar.AStarRouter;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphPrecisionTest {
+
+	private static final int GRID = 24;
+	private static final double SPACING_DEGREES = 0.0009;
+	private static final long NODE_ID_BASE = 9_000_000_000L;
+
+	@Test
+	void testQuantizedLengthsStayWithinRelativeBound() {
+		for (double meters = 0.01; meters < 1_000_000.0; meters *= 1.0137) {
+			double restored = GraphPrecision.dequantizeLength(GraphPrecision.quantizeLength(meters));
+			if (meters < 40.95) {
+				assertEquals(meters, restored, 0.005 + 1e-9);
+			} else {
+				assertTrue(Math.abs(restored - meters) <= meters / 4096.0, "length " + meters + " -> " + restored);
+			}
+		}
+	}
+
+	@Test
+	void testCompactColumnsMatchDoubleColumns() {
+		RoutingGraph exact = randomGrid(GraphPrecision.DOUBLE);
+		RoutingGraph compact = randomGrid(GraphPrecision.COMPACT_QUANTIZED);
+
+		assertEquals(exact.nodeCount(), compact.nodeCount());
+		assertEquals(exact.edgeCount(), compact.edgeCount());
+		assertTrue(compact.layout().narrowNodeIds());
+		assertTrue(compact.layout().narrowEdgeIds());
+		for (int node = 0; node < exact.nodeCount(); node++) {
+			assertEquals(exact.nodeId(node), compact.nodeId(node));
+			assertEquals(node, compact.indexOfNode(exact.nodeId(node)));
+			assertEquals(exact.lat(node), compact.lat(node), GraphPrecision.COORDINATE_UNIT);
+			assertEquals(exact.lon(node), compact.lon(node), GraphPrecision.COORDINATE_UNIT);
+		}
+		for (int edge = 0; edge < exact.edgeCount(); edge++) {
+			assertEquals(exact.edgeId(edge), compact.edgeId(edge));
+			assertEquals(exact.edgeFlags(edge), compact.edgeFlags(edge));
+			assertEquals(exact.edgeLength(edge), compact.edgeLength(edge), exact.edgeLength(edge) / 4096.0);
+			assertEquals(exact.edgeBaseCost(edge), compact.edgeBaseCost(edge), exact.edgeBaseCost(edge) * 1e-7);
+		}
+	}
+
+	@Test
+	void testCompactRoutesMatchDoubleRoutes() {
+		RoutingGraph exact = randomGrid(GraphPrecision.DOUBLE);
+		RoutingGraph compact = randomGrid(GraphPrecision.COMPACT);
+		AStarRouter router = new AStarRouter();
+		Random random = new Random(34L);
+
+		for (int query = 0; query < 200; query++) {
+			long from = NODE_ID_BASE + random.nextInt(GRID * GRID);
+			long to = NODE_ID_BASE + random.nextInt(GRID * GRID);
+			RouteResult expected = router.route(exact, exact.indexOfNode(from), exact.indexOfNode(to),
+					exact.baseCosts(), EdgeFlags.NONE, Double.POSITIVE_INFINITY);
+			RouteResult actual = router.route(compact, compact.indexOfNode(from), compact.indexOfNode(to),
+					compact.baseCosts(), EdgeFlags.NONE, Double.POSITIVE_INFINITY);
+
+			assertEquals(expected.pathEdgeIds(), actual.pathEdgeIds(), "route " + from + " -> " + to);
+			assertEquals(expected.durationSeconds(), actual.durationSeconds(), 1e-5 * expected.durationSeconds() + 1e-9);
+			assertEquals(expected.distanceMeters(), actual.distanceMeters(), 1e-6 * expected.distanceMeters() + 1e-9);
+		}
+	}
+
+	@Test
+	void testCompactPrecisionsShrinkResidentFootprint() {
+		long exact = randomGrid(GraphPrecision.DOUBLE).offHeapBytes();
+		long compact = randomGrid(GraphPrecision.COMPACT).offHeapBytes();
+		long quantized = randomGrid(GraphPrecision.COMPACT_QUANTIZED).offHeapBytes();
+
+		assertTrue(compact <= exact * 0.6, compact + " of " + exact);
+		assertTrue(quantized < compact, quantized + " of " + compact);
+	}
+
+	private static RoutingGraph randomGrid(GraphPrecision precision) {
+		Random random = new Random(7L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK).precision(precision);
+		for (int row = 0; row < GRID; row++) {
+			for (int col = 0; col < GRID; col++) {
+				builder.addNode(NODE_ID_BASE + row * GRID + col,
+						47.6 + row * SPACING_DEGREES + random.nextDouble() * 1e-5,
+						-122.3 + col * SPACING_DEGREES + random.nextDouble() * 1e-5);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < GRID; row++) {
+			for (int col = 0; col < GRID; col++) {
+				long node = NODE_ID_BASE + row * GRID + col;
+				if (col + 1 < GRID) {
+					edgeId = addTwoWay(builder, random, edgeId, node, node + 1);
+				}
+				if (row + 1 < GRID) {
+					edgeId = addTwoWay(builder, random, edgeId, node, node + GRID);
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private static long addTwoWay(RoutingGraphBuilder builder, Random random, long edgeId, long a, long b) {
+		for (long[] direction : new long[][]{{a, b}, {b, a}}) {
+			double length = 60.0 + random.nextDouble() * 60.0;
+			double cost = length / 1.4 * (1.0 + random.nextDouble());
+			long flags = random.nextBoolean() ? EdgeFlags.of("footway", null) : EdgeFlags.of("residential", null);
+			builder.addEdge(edgeId++, direction[0], direction[1], length, cost, flags);
+		}
+		return edgeId;
+	}
+}
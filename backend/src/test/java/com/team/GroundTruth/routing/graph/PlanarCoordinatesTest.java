@@ -0,0 +1,102 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanarCoordinatesTest {
+
+	private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+	@Test
+	void testPlanarDistanceIsTightLowerBoundOfGreatCircleDistance() {
+		Random random = new Random(35L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		int nodes = 400;
+		for (long node = 0; node < nodes; node++) {
+			// Roughly a 40 x 40 km metro area.
+			builder.addNode(node, 47.4 + random.nextDouble() * 0.36, -122.6 + random.nextDouble() * 0.53);
+		}
+		for (long node = 0; node + 1 < nodes; node++) {
+			builder.addEdge(node, node, node + 1, 1.0, 1.0, EdgeFlags.NONE);
+		}
+		RoutingGraph graph = builder.build();
+		PlanarCoordinates planar = graph.planar();
+
+		for (int i = 0; i < 20_000; i++) {
+			int a = random.nextInt(graph.nodeCount());
+			int b = random.nextInt(graph.nodeCount());
+			double exact = haversineMeters(graph.lat(a), graph.lon(a), graph.lat(b), graph.lon(b));
+			double bound = planar.lowerBoundMeters(a, b);
+			assertTrue(bound <= exact, bound + " > " + exact);
+			assertTrue(bound >= exact * 0.999 - 0.05, bound + " << " + exact);
+		}
+	}
+
+	@Test
+	void testProjectedPointsAgreeWithNodeCoordinates() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(1L, 47.60, -122.33)
+				.addNode(2L, 47.62, -122.30)
+				.addEdge(5L, 1L, 2L, 1.0, 1.0, EdgeFlags.NONE)
+				.build();
+		PlanarCoordinates planar = graph.planar();
+		int node = graph.indexOfNode(2L);
+
+		assertEquals(planar.x(node), planar.projectX(47.62, -122.30), 0.01);
+		assertEquals(planar.y(node), planar.projectY(47.62, -122.30), 0.01);
+		assertEquals(0.0, planar.lowerBoundMeters(node, node), 0.0);
+		assertTrue(planar.x(node) > 0.0 && planar.y(node) > 0.0);
+	}
+
+	@Test
+	void testNearestNodesMatchFullScan() {
+		Random random = new Random(36L);
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		int nodes = 3_000;
+		for (long node = 0; node < nodes; node++) {
+			// Dense clusters and empty stretches, as in a real street network.
+			double lat = node % 3 == 0 ? 47.60 + random.nextDouble() * 0.002 : 47.4 + random.nextDouble() * 0.36;
+			builder.addNode(node, lat, -122.6 + random.nextDouble() * 0.53);
+		}
+		for (long node = 0; node + 1 < nodes; node++) {
+			builder.addEdge(node, node, node + 1, 1.0, 1.0, EdgeFlags.NONE);
+		}
+		RoutingGraph graph = builder.build();
+		PlanarCoordinates planar = graph.planar();
+
+		for (int query = 0; query < 500; query++) {
+			// Some queries fall well outside the graph's extent.
+			double lat = 47.3 + random.nextDouble() * 0.56;
+			double lon = -122.7 + random.nextDouble() * 0.73;
+			int limit = 1 + random.nextInt(10);
+			int[] nearest = planar.nearestNodes(lat, lon, limit);
+
+			double x = planar.projectX(lat, lon);
+			double y = planar.projectY(lat, lon);
+			double[] sorted = new double[graph.nodeCount()];
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				sorted[node] = planar.lowerBoundMeters(node, x, y);
+			}
+			Arrays.sort(sorted);
+			assertEquals(limit, nearest.length);
+			for (int i = 0; i < limit; i++) {
+				assertEquals(sorted[i], planar.lowerBoundMeters(nearest[i], x, y), 0.01);
+			}
+		}
+		assertEquals(0, planar.nearestNodes(47.5, -122.5, 0).length);
+	}
+
+	private static double haversineMeters(double latA, double lonA, double latB, double lonB) {
+		double dLat = Math.toRadians(latB - latA);
+		double dLon = Math.toRadians(lonB - lonA);
+		double sinLat = Math.sin(dLat / 2.0);
+		double sinLon = Math.sin(dLon / 2.0);
+		double h = sinLat * sinLat + Math.cos(Math.toRadians(latA)) * Math.cos(Math.toRadians(latB)) * sinLon * sinLon;
+		return 2.0 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(h), Math.sqrt(1.0 - h));
+	}
+}
@@ -0,0 +1,127 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResidentGraphCacheTest {
+
+	private final RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+			.addNode(1L, 0.0, 0.0)
+			.addNode(2L, 0.0, 0.001)
+			.addEdge(1L, 1L, 2L, 100.0, 10.0, EdgeFlags.NONE)
+			.addEdge(2L, 2L, 1L, 100.0, 10.0, EdgeFlags.NONE)
+			.build();
+
+	@Test
+	void testFreshSnapshotIsReused() {
+		ResidentGraphLoader loader = loader();
+		when(loader.loadCosts(eq(graph), any())).thenAnswer(invocation -> snapshot(invocation.getArgument(1)));
+		ResidentGraphCache cache = new ResidentGraphCache(loader, 60L, false);
+
+		EdgeCostSnapshot first = cache.costs(RouteType.FASTEST);
+
+		assertSame(first, cache.costs(RouteType.FASTEST));
+		verify(loader, times(1)).loadCosts(graph, RouteType.FASTEST);
+	}
+
+	@Test
+	void testSnapshotCostsAreReadOnly() {
+		double[] costs = graph.copyBaseCosts();
+		EdgeCostSnapshot snapshot = new EdgeCostSnapshot(graph, RouteType.FASTEST, MemorySegment.ofArray(costs),
+				Instant.now());
+
+		assertTrue(snapshot.costs().isReadOnly());
+		assertThrows(UnsupportedOperationException.class,
+				() -> snapshot.costs().setAtIndex(ValueLayout.JAVA_DOUBLE, 0, 1.0));
+		assertEquals(costs[0], snapshot.costs().getAtIndex(ValueLayout.JAVA_DOUBLE, 0), 1e-12);
+	}
+
+	@Test
+	void testStaleSnapshotIsReplacedWhenCostsChange() {
+		ResidentGraphLoader loader = loader();
+		AtomicInteger loads = new AtomicInteger();
+		when(loader.loadCosts(eq(graph), any())).thenAnswer(invocation -> {
+			double[] costs = graph.copyBaseCosts();
+			costs[0] += loads.getAndIncrement();
+			return new EdgeCostSnapshot(graph, invocation.getArgument(1), MemorySegment.ofArray(costs), Instant.now());
+		});
+		ResidentGraphCache cache = new ResidentGraphCache(loader, 0L, false);
+
+		EdgeCostSnapshot first = cache.costs(RouteType.FASTEST);
+
+		assertNotSame(first, cache.costs(RouteType.FASTEST));
+		verify(loader, times(2)).loadCosts(graph, RouteType.FASTEST);
+	}
+
+	@Test
+	void testReloadWithSameCostsKeepsSnapshot() {
+		ResidentGraphLoader loader = loader();
+		when(loader.loadCosts(eq(graph), any())).thenAnswer(invocation -> snapshot(invocation.getArgument(1)));
+		ResidentGraphCache cache = new ResidentGraphCache(loader, 0L, false);
+
+		EdgeCostSnapshot first = cache.costs(RouteType.FASTEST);
+
+		assertSame(first, cache.costs(RouteType.FASTEST));
+		verify(loader, times(2)).loadCosts(graph, RouteType.FASTEST);
+	}
+
+	@Test
+	void testSlowLoadDoesNotBlockOtherRouteTypes() throws Exception {
+		ResidentGraphLoader loader = loader();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(loader.loadCosts(eq(graph), any())).thenAnswer(invocation -> {
+			RouteType routeType = invocation.getArgument(1);
+			if (routeType == RouteType.FASTEST) {
+				loading.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			return snapshot(routeType);
+		});
+		ResidentGraphCache cache = new ResidentGraphCache(loader, 60L, false);
+
+		CompletableFuture<EdgeCostSnapshot> slow = CompletableFuture.supplyAsync(() -> cache.costs(RouteType.FASTEST));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		for (RouteType routeType : RouteType.values()) {
+			if (routeType != RouteType.FASTEST && routeType.travelMode() == TravelMode.WALK) {
+				CompletableFuture<EdgeCostSnapshot> other = CompletableFuture.supplyAsync(() -> cache.costs(routeType));
+				assertSame(routeType, other.get(2, TimeUnit.SECONDS).routeType());
+			}
+		}
+		assertFalse(slow.isDone());
+
+		release.countDown();
+		assertSame(RouteType.FASTEST, slow.get(5, TimeUnit.SECONDS).routeType());
+	}
+
+	private ResidentGraphLoader loader() {
+		ResidentGraphLoader loader = mock(ResidentGraphLoader.class);
+		when(loader.loadGraph(TravelMode.WALK)).thenReturn(graph);
+		return loader;
+	}
+
+	private EdgeCostSnapshot snapshot(RouteType routeType) {
+		return new EdgeCostSnapshot(graph, routeType, MemorySegment.ofArray(graph.copyBaseCosts()), Instant.now());
+	}
+}
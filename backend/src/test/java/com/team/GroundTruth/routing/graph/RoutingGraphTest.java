@@ -0,0 +1,118 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.ValueLayout;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingGraphTest {
+
+	@Test
+	void testOffHeapColumnsResolveIdsAndAdjacency() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(30L, 0.003, 0.0)
+				.addNode(10L, 0.001, 0.0)
+				.addNode(20L, 0.002, 0.0)
+				.addNode(99L, 1.0, 1.0)
+				.addEdge(502L, 10L, 20L, 111.0, 80.0, EdgeFlags.of("footway", null))
+				.addEdge(501L, 20L, 30L, 112.0, 81.0, EdgeFlags.of("steps", null))
+				.addEdge(503L, 10L, 30L, 222.0, 170.0, EdgeFlags.NONE)
+				.build();
+
+		// Node 99 has no edges and is pruned.
+		assertEquals(3, graph.nodeCount());
+		assertEquals(3, graph.edgeCount());
+		assertEquals(-1, graph.indexOfNode(99L));
+
+		int from = graph.indexOfNode(10L);
+		assertEquals(10L, graph.nodeId(from));
+		assertEquals(0.001, graph.lat(from), 1e-12);
+		assertEquals(2, graph.endEdge(from) - graph.firstEdge(from));
+
+		int steps = graph.indexOfEdge(501L);
+		assertEquals(501L, graph.edgeId(steps));
+		assertEquals(30L, graph.nodeId(graph.edgeTarget(steps)));
+		assertEquals(112.0, graph.edgeLength(steps), 1e-12);
+		assertEquals(81.0, graph.edgeBaseCost(steps), 1e-12);
+		assertEquals(EdgeFlags.of("steps", null), graph.edgeFlags(steps));
+		assertEquals(-1, graph.indexOfEdge(404L));
+
+		assertEquals(81.0, graph.baseCosts().getAtIndex(ValueLayout.JAVA_DOUBLE, steps), 1e-12);
+		assertEquals(81.0, graph.copyBaseCosts()[steps], 1e-12);
+	}
+
+	@Test
+	void testBaseCostsViewIsReadOnly() {
+		RoutingGraph graph = new RoutingGraphBuilder(TravelMode.WALK)
+				.addNode(1L, 0.0, 0.0)
+				.addNode(2L, 0.0, 0.001)
+				.addEdge(7L, 1L, 2L, 111.0, 80.0, EdgeFlags.NONE)
+				.build();
+
+		assertThrows(UnsupportedOperationException.class,
+				() -> graph.baseCosts().setAtIndex(ValueLayout.JAVA_DOUBLE, 0, 1.0));
+		assertEquals(80.0, graph.edgeBaseCost(0), 1e-12);
+	}
+
+	@Test
+	void testHilbertOrderKeepsNeighboursAdjacent() {
+		RoutingGraph graph = grid(NodeOrder.HILBERT);
+
+		for (int node = 0; node + 1 < graph.nodeCount(); node++) {
+			double dLat = Math.abs(graph.lat(node) - graph.lat(node + 1));
+			double dLon = Math.abs(graph.lon(node) - graph.lon(node + 1));
+			assertEquals(0.001, dLat + dLon, 1e-9);
+		}
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			long id = graph.nodeId(node);
+			assertEquals(node, graph.indexOfNode(id));
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				// Edge ids encode their endpoints, so the adjacency must survive renumbering.
+				assertEquals(id, graph.edgeId(edge) / 1000);
+				assertEquals(graph.edgeId(edge) % 1000, graph.nodeId(graph.edgeTarget(edge)));
+			}
+		}
+	}
+
+	@Test
+	void testDatabaseIdOrderNumbersNodesByAscendingId() {
+		RoutingGraph graph = grid(NodeOrder.DATABASE_ID);
+
+		for (int node = 0; node + 1 < graph.nodeCount(); node++) {
+			assertTrue(graph.nodeId(node) < graph.nodeId(node + 1));
+		}
+	}
+
+	private static RoutingGraph grid(NodeOrder order) {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK).nodeOrder(order);
+		// Ids run row by row, so id order jumps across the grid at the end of every row.
+		for (int row = 0; row < 4; row++) {
+			for (int column = 0; column < 4; column++) {
+				builder.addNode(id(row, column), row * 0.001, column * 0.001);
+			}
+		}
+		for (int row = 0; row < 4; row++) {
+			for (int column = 0; column < 4; column++) {
+				if (column + 1 < 4) {
+					addTwoWay(builder, id(row, column), id(row, column + 1));
+				}
+				if (row + 1 < 4) {
+					addTwoWay(builder, id(row, column), id(row + 1, column));
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private static long id(int row, int column) {
+		return 100L + row * 4 + column;
+	}
+
+	private static void addTwoWay(RoutingGraphBuilder builder, long a, long b) {
+		builder.addEdge(a * 1000 + b, a, b, 111.0, 80.0, EdgeFlags.NONE);
+		builder.addEdge(b * 1000 + a, b, a, 111.0, 80.0, EdgeFlags.NONE);
+	}
+}
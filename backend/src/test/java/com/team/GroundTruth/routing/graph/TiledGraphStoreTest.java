@@ -0,0 +1,167 @@
+package com.team.GroundTruth.routing.graph;
+
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledGraphStoreTest {
+
+	private static final TileGrid GRID = new TileGrid(0.005);
+
+	@Test
+	void testTilesPartitionNodesAndStitchEdgesAcrossBorders() {
+		RoutingGraph graph = grid(20);
+		TiledGraphStore store = new TiledGraphStore(mode -> new MappedTileSource(graph, null), GRID,
+				Long.MAX_VALUE, Duration.ofSeconds(30));
+
+		Set<Long> tileCodes = new HashSet<>();
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			tileCodes.add(GRID.tileOf(graph.lat(node), graph.lon(node)));
+		}
+		int nodes = 0;
+		int edges = 0;
+		for (long code : tileCodes) {
+			GraphTile tile = store.tile(TravelMode.WALK, code);
+			nodes += tile.nodeCount();
+			edges += tile.edgeCount();
+			for (int node = 0; node < tile.nodeCount(); node++) {
+				assertEquals(code, GRID.tileOf(tile.lat(node), tile.lon(node)));
+				for (int edge = tile.firstEdge(node); edge < tile.endEdge(node); edge++) {
+					GraphTile target = store.tile(TravelMode.WALK, tile.edgeTargetTile(edge));
+					assertTrue(target.indexOfNode(tile.edgeTargetId(edge)) >= 0);
+				}
+			}
+		}
+
+		assertTrue(tileCodes.size() > 4);
+		assertEquals(graph.nodeCount(), nodes);
+		assertEquals(graph.edgeCount(), edges);
+	}
+
+	@Test
+	void testEvictsLeastRecentlyUsedTilesBeyondBudget() {
+		RoutingGraph graph = grid(20);
+		AtomicInteger loads = new AtomicInteger();
+		GraphTileSource source = new MappedTileSource(graph, null);
+		GraphTileSource counting = (mode, grid, tile) -> {
+			loads.incrementAndGet();
+			return source.loadTile(mode, grid, tile);
+		};
+		long first = GRID.tileOf(graph.lat(graph.indexOfNode(1L)), graph.lon(graph.indexOfNode(1L)));
+		long second = GRID.tile(GRID.row(first), GRID.column(first) + 1);
+		long third = GRID.tile(GRID.row(first) + 1, GRID.column(first));
+		long tileBytes = source.loadTile(TravelMode.WALK, GRID, second).estimatedBytes();
+		TiledGraphStore store = new TiledGraphStore(mode -> counting, GRID, tileBytes * 2 + tileBytes / 2,
+				Duration.ofSeconds(30));
+
+		GraphTile firstTile = store.tile(TravelMode.WALK, first);
+		store.tile(TravelMode.WALK, second);
+		assertSame(firstTile, store.tile(TravelMode.WALK, first));
+		store.tile(TravelMode.WALK, third);
+
+		// The second tile was the least recently used one when the third pushed the store over budget.
+		assertEquals(3, loads.get());
+		assertTrue(store.residentBytes() <= tileBytes * 2 + tileBytes / 2);
+		assertEquals(1L, store.evictions());
+		assertSame(firstTile, store.tile(TravelMode.WALK, first));
+		assertEquals(3, loads.get());
+		store.tile(TravelMode.WALK, second);
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	void testSessionRefusesTilesBeyondBudgetAndSnapsAcrossTiles() {
+		RoutingGraph graph = grid(20);
+		GraphTileSource source = new MappedTileSource(graph, null);
+		long first = GRID.tileOf(graph.lat(graph.indexOfNode(1L)), graph.lon(graph.indexOfNode(1L)));
+		long tileBytes = source.loadTile(TravelMode.WALK, GRID, first).estimatedBytes();
+		TiledGraphStore store = new TiledGraphStore(mode -> source, GRID, tileBytes * 3, Duration.ofSeconds(30));
+
+		TiledGraphStore.Session session = store.session(RouteType.FASTEST);
+		TiledGraphStore.TileNode nearest = session.nearestNode(graph.lat(graph.indexOfNode(1L)) - 0.0001, graph.lon(graph.indexOfNode(1L)) - 0.0001);
+		assertNotNull(nearest);
+		assertEquals(1L, nearest.nodeId());
+
+		TiledGraphStore.Session small = store.session(RouteType.FASTEST);
+		int loaded = 0;
+		for (int column = 0; column < 6; column++) {
+			if (small.tile(GRID.tile(GRID.row(first), GRID.column(first) + column)) != null) {
+				loaded++;
+			}
+		}
+		assertTrue(loaded < 6);
+		assertNull(small.tile(GRID.tile(GRID.row(first), GRID.column(first) + 2)));
+		assertEquals(loaded, small.tileCount());
+	}
+
+	@Test
+	void testCachesCostsPerRouteType() {
+		RoutingGraph graph = grid(5);
+		AtomicInteger costLoads = new AtomicInteger();
+		GraphTileSource costs = new GraphTileSource() {
+			@Override
+			public GraphTile loadTile(TravelMode mode, TileGrid grid, long tile) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public double[] loadCosts(GraphTile tile, RouteType routeType) {
+				costLoads.incrementAndGet();
+				double[] result = tile.copyBaseCosts();
+				for (int edge = 0; edge < result.length; edge++) {
+					result[edge] *= 2.0;
+				}
+				return result;
+			}
+		};
+		TiledGraphStore store = new TiledGraphStore(mode -> new MappedTileSource(graph, costs), GRID,
+				Long.MAX_VALUE, Duration.ofHours(1));
+		GraphTile tile = store.tile(TravelMode.WALK, GRID.tileOf(graph.lat(graph.indexOfNode(1L)), graph.lon(graph.indexOfNode(1L))));
+		long bytesWithoutCosts = store.residentBytes();
+
+		double[] safe = store.costs(tile, RouteType.WALK_SAFE);
+		assertSame(safe, store.costs(tile, RouteType.WALK_SAFE));
+		store.costs(tile, RouteType.FASTEST);
+
+		assertEquals(2, costLoads.get());
+		assertEquals(tile.edgeBaseCost(0) * 2.0, safe[0], 0.0);
+		assertTrue(store.residentBytes() > bytesWithoutCosts);
+	}
+
+	/**
+	 * Builds a two-way grid with 0.001 degree spacing starting off the tile borders.
+	 */
+	private static RoutingGraph grid(int size) {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				builder.addNode(row * size + col + 1, 47.6002 + row * 0.001, -122.3398 + col * 0.001);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				long node = (long) row * size + col + 1;
+				if (col + 1 < size) {
+					builder.addEdge(edgeId++, node, node + 1, 75.0, 60.0 + (edgeId % 7), EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + 1, node, 75.0, 60.0 + (edgeId % 5), EdgeFlags.NONE);
+				}
+				if (row + 1 < size) {
+					builder.addEdge(edgeId++, node, node + size, 111.0, 90.0 + (edgeId % 3), EdgeFlags.NONE);
+					builder.addEdge(edgeId++, node + size, node, 111.0, 90.0 + (edgeId % 11), EdgeFlags.NONE);
+				}
+			}
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,112 @@
+package com.team.GroundTruth.routing.markers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkerClusterIndexTest {
+
+	@Test
+	void testPointTreeMatchesBruteForce() {
+		Random random = new Random(44L);
+		int count = 1000;
+		double[] xs = new double[count];
+		double[] ys = new double[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = random.nextDouble();
+			ys[i] = random.nextInt(4) == 0 ? 0.5 : random.nextDouble();
+		}
+		PointTree tree = new PointTree(xs, ys, count);
+
+		for (int query = 0; query < 50; query++) {
+			double minX = random.nextDouble() * 0.8;
+			double minY = random.nextDouble() * 0.8;
+			double maxX = minX + random.nextDouble() * 0.2;
+			double maxY = minY + random.nextDouble() * 0.2;
+			double radius = random.nextDouble() * 0.1;
+			Set<Integer> inBox = new HashSet<>();
+			Set<Integer> inRadius = new HashSet<>();
+			for (int i = 0; i < count; i++) {
+				if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+					inBox.add(i);
+				}
+				if (Math.hypot(xs[i] - minX, ys[i] - minY) <= radius) {
+					inRadius.add(i);
+				}
+			}
+			Set<Integer> box = new HashSet<>();
+			tree.range(minX, minY, maxX, maxY, box::add);
+			Set<Integer> within = new HashSet<>();
+			tree.within(minX, minY, radius, within::add);
+			assertEquals(inBox, box);
+			assertEquals(inRadius, within);
+		}
+	}
+
+	@Test
+	void testEveryLevelCoversAllPoints() {
+		Random random = new Random(45L);
+		int count = 2000;
+		double[] lats = new double[count];
+		double[] lons = new double[count];
+		double[] severities = new double[count];
+		double maxSeverity = 0.0;
+		for (int i = 0; i < count; i++) {
+			lats[i] = 47.55 + random.nextDouble() * 0.1;
+			lons[i] = -122.40 + random.nextDouble() * 0.1;
+			severities[i] = random.nextDouble() * 100.0;
+			maxSeverity = Math.max(maxSeverity, severities[i]);
+		}
+		MarkerClusterIndex index = new MarkerClusterIndex(lats, lons, severities, 16, 40.0, 512);
+
+		int previous = 0;
+		for (int zoom = 0; zoom <= 17; zoom++) {
+			List<MarkerClusterIndex.Cluster> clusters = index.clusters(-90.0, 90.0, -180.0, 180.0, zoom);
+			assertEquals(index.size(zoom), clusters.size());
+			assertEquals(count, clusters.stream().mapToInt(MarkerClusterIndex.Cluster::count).sum());
+			assertEquals(maxSeverity, clusters.stream().mapToDouble(MarkerClusterIndex.Cluster::maxSeverity).max()
+					.orElseThrow());
+			assertTrue(clusters.size() >= previous);
+			previous = clusters.size();
+		}
+		assertEquals(1, index.size(0));
+
+		List<MarkerClusterIndex.Cluster> points = index.clusters(-90.0, 90.0, -180.0, 180.0, 20);
+		assertEquals(count, points.size());
+		Set<Integer> seen = new HashSet<>();
+		for (MarkerClusterIndex.Cluster point : points) {
+			assertEquals(1, point.count());
+			assertEquals(lats[point.point()], point.lat(), 1e-9);
+			assertEquals(lons[point.point()], point.lon(), 1e-9);
+			assertEquals(severities[point.point()], point.maxSeverity());
+			seen.add(point.point());
+		}
+		assertEquals(count, seen.size());
+	}
+
+	@Test
+	void testNearbyPointsMergeAtLowZoom() {
+		double[] lats = {47.6000, 47.6001, 47.6002, 47.7000};
+		double[] lons = {-122.3000, -122.3001, -122.3002, -122.3000};
+		double[] severities = {10.0, 80.0, 30.0, 50.0};
+		MarkerClusterIndex index = new MarkerClusterIndex(lats, lons, severities, 16, 40.0, 512);
+
+		List<MarkerClusterIndex.Cluster> clusters = new ArrayList<>(index.clusters(47.0, 48.0, -123.0, -122.0, 12));
+		clusters.sort((a, b) -> Integer.compare(b.count(), a.count()));
+		assertEquals(2, clusters.size());
+		assertEquals(3, clusters.get(0).count());
+		assertEquals(-1, clusters.get(0).point());
+		assertEquals(80.0, clusters.get(0).maxSeverity());
+		assertEquals(47.6001, clusters.get(0).lat(), 1e-6);
+		assertEquals(-122.3001, clusters.get(0).lon(), 1e-6);
+		assertEquals(3, clusters.get(1).point());
+
+		assertTrue(index.clusters(47.65, 48.0, -123.0, -122.0, 12).stream().allMatch(cluster -> cluster.point() == 3));
+	}
+}
@@ -0,0 +1,113 @@
+package com.team.GroundTruth.routing.markers;
+
+import com.team.GroundTruth.domain.dto.routing.HazardMarkerDto;
+import com.team.GroundTruth.domain.dto.routing.RouteMarkersDto;
+import com.team.GroundTruth.domain.entity.Hazard.Hazard;
+import com.team.GroundTruth.domain.entity.HazardReport.HazardReport;
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.repository.HazardLocation;
+import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.graph.EdgeGeometryBuilder;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarkerClusterServiceTest {
+
+	@Test
+	void testHazardWritesUpdateClustersWithoutReloading() {
+		HazardReport first = report(47.6000f, -122.3000f, "Cracks", 20.0);
+		HazardReport second = report(47.6001f, -122.3001f, "Pothole", 90.0);
+		HazardLocation stored = location(first);
+		HazardRepository hazardRepository = mock(HazardRepository.class);
+		when(hazardRepository.findHazardsInBounds(anyFloat(), anyFloat(), anyFloat(), anyFloat(), anyDouble()))
+				.thenReturn(List.of(stored));
+		MarkerClusterService service = new MarkerClusterService(hazardRepository, riskIndex(), 16, 40.0);
+
+		RouteMarkersDto single = service.hazards(47.0, 48.0, -123.0, -122.0, 0.0, false, 10);
+		assertEquals(1, single.hazardMarkers().size());
+		assertEquals(0, single.clusters().size());
+
+		service.addHazards(second);
+		RouteMarkersDto merged = service.hazards(47.0, 48.0, -123.0, -122.0, 0.0, false, 10);
+		assertEquals(0, merged.hazardMarkers().size());
+		assertEquals(1, merged.clusters().size());
+		assertEquals(2, merged.clusters().getFirst().count());
+		assertEquals(90.0, merged.clusters().getFirst().maxSeverity());
+
+		RouteMarkersDto accessibility = service.hazards(47.0, 48.0, -123.0, -122.0, 0.0, true, 10);
+		assertEquals(List.of("Cracks"), accessibility.hazardMarkers().stream().map(HazardMarkerDto::type).toList());
+		assertEquals(1, service.hazards(47.0, 48.0, -123.0, -122.0, 50.0, false, 10).hazardMarkers().size());
+		assertEquals(2, service.hazards(47.0, 48.0, -123.0, -122.0, 0.0, false, 20).hazardMarkers().size());
+
+		service.removeHazards(first);
+		RouteMarkersDto removed = service.hazards(47.0, 48.0, -123.0, -122.0, 0.0, false, 10);
+		assertEquals(List.of("Pothole"), removed.hazardMarkers().stream().map(HazardMarkerDto::type).toList());
+		verify(hazardRepository, times(1)).findHazardsInBounds(anyFloat(), anyFloat(), anyFloat(), anyFloat(), anyDouble());
+	}
+
+	@Test
+	void testRiskClustersFollowIndexUpdates() {
+		EdgeGeometryBuilder shapes = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{-122.3000, 47.6000, -122.3001, 47.6000})
+				.addEdge(2L, 3L, 4L, new double[]{-122.3002, 47.6001, -122.3003, 47.6001});
+		WalkSafeModifierEntity dark = new WalkSafeModifierEntity(1L);
+		dark.setStreetlight(0.1);
+		RiskMarkerIndex riskIndex = new RiskMarkerIndex(() -> List.of(dark), shapes::build, new TileGrid(0.005));
+		MarkerClusterService service = new MarkerClusterService(mock(HazardRepository.class), riskIndex, 16, 40.0);
+
+		RouteMarkersDto before = service.risks(47.0, 48.0, -123.0, -122.0, 0.4, 0.5, 0.3, 10);
+		assertEquals(1, before.riskMarkers().size());
+
+		WalkSafeModifierEntity crime = new WalkSafeModifierEntity(2L);
+		crime.setCrimeInArea(0.75);
+		riskIndex.update(List.of(crime));
+		RouteMarkersDto after = service.risks(47.0, 48.0, -123.0, -122.0, 0.4, 0.5, 0.3, 10);
+		assertEquals(0, after.riskMarkers().size());
+		assertEquals(1, after.clusters().size());
+		assertEquals("risks", after.clusters().getFirst().layer());
+		assertEquals(2, after.clusters().getFirst().count());
+		assertEquals(90.0, after.clusters().getFirst().maxSeverity(), 1e-9);
+
+		assertEquals(1, service.risks(47.0, 48.0, -123.0, -122.0, 0.4, 0.8, 0.3, 10).riskMarkers().size());
+	}
+
+	private static RiskMarkerIndex riskIndex() {
+		return new RiskMarkerIndex(List::of, () -> new EdgeGeometryBuilder().build(), new TileGrid(0.005));
+	}
+
+	private static HazardLocation location(HazardReport report) {
+		Hazard hazard = report.getHazards().getFirst();
+		HazardLocation location = mock(HazardLocation.class);
+		when(location.getId()).thenReturn(hazard.getId());
+		when(location.getLabel()).thenReturn(hazard.getLabel());
+		when(location.getConfidence()).thenReturn(hazard.getConfidence());
+		when(location.getLatitude()).thenReturn(report.getLatitude());
+		when(location.getLongitude()).thenReturn(report.getLongitude());
+		return location;
+	}
+
+	private static HazardReport report(float lat, float lon, String label, double confidence) {
+		HazardReport report = new HazardReport();
+		report.setId(UUID.randomUUID());
+		report.setLatitude(lat);
+		report.setLongitude(lon);
+		Hazard hazard = new Hazard();
+		hazard.setId(UUID.randomUUID());
+		hazard.setReport(report);
+		hazard.setLabel(label);
+		hazard.setConfidence(confidence);
+		report.setHazards(new ArrayList<>(List.of(hazard)));
+		return report;
+	}
+}
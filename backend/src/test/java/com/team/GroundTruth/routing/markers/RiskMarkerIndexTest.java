@@ -0,0 +1,103 @@
+package com.team.GroundTruth.routing.markers;
+
+import com.team.GroundTruth.domain.dto.routing.RiskMarkerDto;
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.routing.graph.EdgeGeometry;
+import com.team.GroundTruth.routing.graph.EdgeGeometryBuilder;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiskMarkerIndexTest {
+
+	private static final Comparator<RiskMarkerDto> ORDER = Comparator.comparingDouble(RiskMarkerDto::latitude)
+			.thenComparingDouble(RiskMarkerDto::longitude)
+			.thenComparing(RiskMarkerDto::riskType);
+
+	@Test
+	void testViewportQueryMatchesFullScan() {
+		Random random = new Random(43L);
+		EdgeGeometryBuilder shapes = new EdgeGeometryBuilder();
+		List<WalkSafeModifierEntity> modifiers = new ArrayList<>();
+		for (long edgeId = 1; edgeId <= 400; edgeId++) {
+			double lat = 41.80 + random.nextDouble() * 0.06;
+			double lon = -71.44 + random.nextDouble() * 0.08;
+			shapes.addEdge(edgeId, edgeId, edgeId + 1000, new double[]{lon, lat, lon + 0.0004, lat + 0.0002});
+			WalkSafeModifierEntity modifier = new WalkSafeModifierEntity(edgeId);
+			modifier.setStreetlight(random.nextBoolean() ? random.nextDouble() : null);
+			modifier.setCrimeInArea(random.nextDouble());
+			modifier.setPopDensity(random.nextInt(3) == 0 ? null : random.nextDouble());
+			modifiers.add(modifier);
+		}
+		// Edge 401 has no shape and is left out.
+		modifiers.add(new WalkSafeModifierEntity(401L));
+		EdgeGeometry geometry = shapes.build();
+		AtomicInteger loads = new AtomicInteger();
+		RiskMarkerIndex index = new RiskMarkerIndex(() -> {
+			loads.incrementAndGet();
+			return modifiers;
+		}, () -> geometry, new TileGrid(0.005));
+
+		assertEquals(400, index.size());
+		for (int query = 0; query < 50; query++) {
+			double minLat = 41.79 + random.nextDouble() * 0.06;
+			double minLon = -71.45 + random.nextDouble() * 0.08;
+			double maxLat = minLat + random.nextDouble() * 0.03;
+			double maxLon = minLon + random.nextDouble() * 0.03;
+			List<RiskMarkerDto> expected = new ArrayList<>(index.riskMarkers(-90, 90, -180, 180, 0.4, 0.5, 0.3));
+			expected.removeIf(marker -> marker.latitude() < minLat || marker.latitude() > maxLat
+					|| marker.longitude() < minLon || marker.longitude() > maxLon);
+			List<RiskMarkerDto> actual = new ArrayList<>(index.riskMarkers(minLat, maxLat, minLon, maxLon, 0.4, 0.5, 0.3));
+			expected.sort(ORDER);
+			actual.sort(ORDER);
+			assertEquals(expected, actual);
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void testUpdatesApplyInMemory() {
+		EdgeGeometry geometry = new EdgeGeometryBuilder()
+				.addEdge(1L, 1L, 2L, new double[]{-71.40, 41.82, -71.39, 41.82})
+				.addEdge(2L, 2L, 3L, new double[]{-71.39, 41.82, -71.39, 41.83})
+				.build();
+		WalkSafeModifierEntity first = new WalkSafeModifierEntity(1L);
+		first.setStreetlight(0.9);
+		RiskMarkerIndex index = new RiskMarkerIndex(() -> List.of(first), () -> geometry, new TileGrid(0.005));
+		assertTrue(index.riskMarkers(41, 42, -72, -71, 0.4, 0.5, 0.3).isEmpty());
+
+		WalkSafeModifierEntity darker = new WalkSafeModifierEntity(1L);
+		darker.setStreetlight(0.1);
+		WalkSafeModifierEntity added = new WalkSafeModifierEntity(2L);
+		added.setCrimeInArea(0.8);
+		index.update(List.of(darker, added));
+
+		List<RiskMarkerDto> markers = new ArrayList<>(index.riskMarkers(41, 42, -72, -71, 0.4, 0.5, 0.3));
+		markers.sort(ORDER);
+		assertEquals(2, index.size());
+		assertEquals(2, markers.size());
+		assertEquals(List.of("low_lighting", "high_crime"), markers.stream().map(RiskMarkerDto::riskType).toList());
+		assertEquals(41.82, markers.get(0).latitude(), 1e-9);
+		assertEquals(-71.395, markers.get(0).longitude(), 1e-9);
+		assertEquals(0.1, markers.get(0).value());
+		assertEquals(41.825, markers.get(1).latitude(), 1e-9);
+		assertEquals("crime", markers.get(1).iconType());
+	}
+
+	@Test
+	void testCentroidIsLengthWeighted() {
+		// Segments of length 2 centred at (1, 0) and of length 1 centred at (2, 0.5); the repeat has no length.
+		assertArrayEquals(new double[]{1.0 / 6.0, 4.0 / 3.0},
+				RiskMarkerIndex.centroid(new double[]{0, 0, 2, 0, 2, 1, 2, 1}), 1e-12);
+		assertArrayEquals(new double[]{5.0, 3.0}, RiskMarkerIndex.centroid(new double[]{3, 5}), 0.0);
+		assertEquals(null, RiskMarkerIndex.centroid(new double[0]));
+	}
+}
@@ -0,0 +1,46 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsmGraphImporterTest {
+
+	private static final Pattern CREATE_TABLE = Pattern.compile(
+			"CREATE TABLE(?: IF NOT EXISTS)?\\s+(\\w+)\\s*\\((.*?)\\n\\);", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+	private static final Pattern GRAPH_REFERENCE = Pattern.compile("REFERENCES\\s+(?:nodes|edges)\\s*\\(",
+			Pattern.CASE_INSENSITIVE);
+
+	@Test
+	void testResetCoversEveryTableReferencingTheGraph() throws IOException, URISyntaxException {
+		assertNotNull(getClass().getResource("/db/migration"));
+		Path migrations = Path.of(getClass().getResource("/db/migration").toURI());
+		Set<String> referencing = new TreeSet<>();
+		try (Stream<Path> files = Files.list(migrations)) {
+			for (Path file : files.filter(path -> path.toString().endsWith(".sql")).toList()) {
+				Matcher table = CREATE_TABLE.matcher(Files.readString(file));
+				while (table.find()) {
+					if (GRAPH_REFERENCE.matcher(table.group(2)).find()) {
+						referencing.add(table.group(1).toLowerCase());
+					}
+				}
+			}
+		}
+
+		assertTrue(referencing.contains("walk_safe_modifiers"), referencing::toString);
+		assertTrue(OsmGraphImporter.RESET_TABLES.containsAll(Set.of("nodes", "edges")));
+		for (String table : referencing) {
+			assertTrue(OsmGraphImporter.RESET_TABLES.contains(table), table + " references the graph but is not reset");
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.team.GroundTruth.routing.osm;
+
+import com.team.GroundTruth.routing.graph.GraphPrecision;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsmNetworkExtractorTest {
+
+	/**
+	 * Way 100 runs 1-2-3-4-5 east; way 200 is a one-way road 3-6-7 heading north from node 3;
+	 * way 300 is a building outline and must be ignored.
+	 */
+	private static final OsmNetworkExtractor.OsmSource SOURCE = handler -> {
+		if (handler.wantsNodes()) {
+			handler.node(1L, 0.0, 0.000);
+			handler.node(2L, 0.0, 0.001);
+			handler.node(3L, 0.0, 0.002);
+			handler.node(4L, 0.0, 0.003);
+			handler.node(5L, 0.0, 0.004);
+			handler.node(6L, 0.001, 0.002);
+			handler.node(7L, 0.002, 0.002);
+			handler.node(8L, 0.005, 0.005);
+		}
+		if (handler.wantsWays()) {
+			handler.way(100L, new long[]{1L, 2L, 3L, 4L, 5L}, Map.of("highway", "residential", "lit", "no"));
+			handler.way(200L, new long[]{3L, 6L, 7L}, Map.of("highway", "tertiary", "oneway", "yes"));
+			handler.way(300L, new long[]{1L, 8L, 5L}, Map.of("building", "yes"));
+		}
+	};
+
+	@Test
+	void testKeepsIntersectionsAndCollapsesShapePoints() throws IOException {
+		OsmNetwork network = OsmNetworkExtractor.extract(SOURCE);
+
+		Set<Long> nodes = new HashSet<>();
+		for (int node = 0; node < network.nodeCount(); node++) {
+			nodes.add(network.nodeId(node));
+		}
+		assertEquals(Set.of(1L, 3L, 5L, 7L), nodes);
+		assertEquals(3, network.segmentCount());
+
+		// Walk: both directions of all three segments. Drive: both directions of way 100's two
+		// segments, one direction of way 200.
+		assertEquals(6 + 5, network.edgeCount());
+
+		int walkEdge = findEdge(network, TravelMode.WALK, 1L, 3L);
+		assertEquals(3, network.shapePointCount(walkEdge));
+		assertEquals(0.001, network.shapeLon(walkEdge, 1), 1e-12);
+		assertEquals(222.4, network.edgeLength(walkEdge), 0.5);
+		assertEquals(network.edgeLength(walkEdge) / 1.4, network.edgeCost(walkEdge), 1e-9);
+		assertTrue(network.edgeProfile(walkEdge).tags().contains("unlit"));
+
+		int reverse = findEdge(network, TravelMode.WALK, 3L, 1L);
+		assertEquals(0.002, network.shapeLon(reverse, 0), 1e-12);
+		assertEquals(0.0, network.shapeLon(reverse, 2), 1e-12);
+	}
+
+	@Test
+	void testDriveGraphRespectsOneway() throws IOException {
+		OsmNetwork network = OsmNetworkExtractor.extract(SOURCE);
+
+		assertTrue(findEdge(network, TravelMode.DRIVE, 3L, 7L) >= 0);
+		assertEquals(-1, findEdge(network, TravelMode.DRIVE, 7L, 3L));
+
+		RoutingGraph drive = network.toRoutingGraph(TravelMode.DRIVE, GraphPrecision.DOUBLE);
+		assertEquals(5, drive.edgeCount());
+		int fromSeven = drive.indexOfNode(7L);
+		assertEquals(drive.firstEdge(fromSeven), drive.endEdge(fromSeven));
+	}
+
+	@Test
+	void testDropsSegmentsThroughMissingNodes() throws IOException {
+		OsmNetwork network = OsmNetworkExtractor.extract(handler -> {
+			if (handler.wantsNodes()) {
+				handler.node(1L, 0.0, 0.000);
+				handler.node(2L, 0.0, 0.001);
+				handler.node(4L, 0.0, 0.003);
+				handler.node(5L, 0.0, 0.004);
+			}
+			if (handler.wantsWays()) {
+				handler.way(100L, new long[]{1L, 2L, 3L, 4L, 5L}, Map.of("highway", "footway"));
+			}
+		});
+
+		assertEquals(2, network.segmentCount());
+		assertTrue(findEdge(network, TravelMode.WALK, 1L, 2L) >= 0);
+		assertTrue(findEdge(network, TravelMode.WALK, 4L, 5L) >= 0);
+	}
+
+	private static int findEdge(OsmNetwork network, TravelMode mode, long source, long target) {
+		for (int edge = 0; edge < network.edgeCount(); edge++) {
+			if (network.edgeMode(edge) == mode
+					&& network.nodeId(network.edgeSource(edge)) == source
+					&& network.nodeId(network.edgeTarget(edge)) == target) {
+				return edge;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,180 @@
+package com.team.GroundTruth.routing.osm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PbfReaderTest {
+
+	@Test
+	void testReadsDenseNodesAndWays() throws IOException {
+		byte[] pbf = pbf(true, List.of("OsmSchema-V0.6", "DenseNodes"));
+		List<String> nodes = new ArrayList<>();
+		List<long[]> wayRefs = new ArrayList<>();
+		List<Map<String, String>> wayTags = new ArrayList<>();
+
+		PbfReader.read(new ByteArrayInputStream(pbf), new OsmHandler() {
+			@Override
+			public void node(long id, double lat, double lon) {
+				nodes.add(id + ":" + Math.round(lat * 1e7) + ":" + Math.round(lon * 1e7));
+			}
+
+			@Override
+			public void way(long id, long[] refs, Map<String, String> tags) {
+				wayRefs.add(refs);
+				wayTags.add(tags);
+			}
+		});
+
+		assertEquals(List.of("10:418268000:-714025000", "11:418268001:-714024999"), nodes);
+		assertEquals(1, wayRefs.size());
+		assertArrayEquals(new long[]{10L, 11L}, wayRefs.get(0));
+		assertEquals(Map.of("highway", "footway"), wayTags.get(0));
+	}
+
+	@Test
+	void testSkipsUnwantedEntities() throws IOException {
+		List<Long> seen = new ArrayList<>();
+		PbfReader.read(new ByteArrayInputStream(pbf(false, List.of("OsmSchema-V0.6"))), new OsmHandler() {
+			@Override
+			public boolean wantsNodes() {
+				return false;
+			}
+
+			@Override
+			public void node(long id, double lat, double lon) {
+				seen.add(id);
+			}
+
+			@Override
+			public void way(long id, long[] refs, Map<String, String> tags) {
+				seen.add(-id);
+			}
+		});
+
+		assertEquals(List.of(-500L), seen);
+	}
+
+	@Test
+	void testRejectsUnsupportedRequiredFeature() {
+		byte[] pbf = pbf(true, List.of("OsmSchema-V0.6", "HistoricalInformation"));
+		assertThrows(IOException.class, () -> PbfReader.read(new ByteArrayInputStream(pbf), new OsmHandler() {
+		}));
+	}
+
+	private static byte[] pbf(boolean compressed, List<String> requiredFeatures) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Message header = new Message();
+		requiredFeatures.forEach(feature -> header.string(4, feature));
+		writeBlob(out, "OSMHeader", header.bytes(), compressed);
+
+		Message strings = new Message().string(1, "").string(1, "highway").string(1, "footway");
+		Message dense = new Message()
+				.packedSigned(1, 10L, 1L)
+				.packedSigned(8, 418268000L, 1L)
+				.packedSigned(9, -714025000L, 1L);
+		Message way = new Message()
+				.varint(1, 500L)
+				.packed(2, 1L)
+				.packed(3, 2L)
+				.packedSigned(8, 10L, 1L);
+		Message group = new Message().message(2, dense).message(3, way);
+		Message block = new Message().message(1, strings).message(2, group);
+		writeBlob(out, "OSMData", block.bytes(), compressed);
+		return out.toByteArray();
+	}
+
+	private static void writeBlob(ByteArrayOutputStream out, String type, byte[] payload, boolean compressed) {
+		Message blob = new Message();
+		if (compressed) {
+			Deflater deflater = new Deflater();
+			deflater.setInput(payload);
+			deflater.finish();
+			byte[] buffer = new byte[payload.length + 64];
+			int length = deflater.deflate(buffer);
+			deflater.end();
+			blob.varint(2, payload.length).bytes(3, Arrays.copyOf(buffer, length));
+		} else {
+			blob.bytes(1, payload);
+		}
+		byte[] blobBytes = blob.bytes();
+		byte[] headerBytes = new Message().string(1, type).varint(3, blobBytes.length).bytes();
+		try {
+			DataOutputStream data = new DataOutputStream(out);
+			data.writeInt(headerBytes.length);
+			data.write(headerBytes);
+			data.write(blobBytes);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Tiny protobuf encoder for building test fixtures.
+	 */
+	private static final class Message {
+
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		Message varint(int field, long value) {
+			writeVarint((long) field << 3);
+			writeVarint(value);
+			return this;
+		}
+
+		Message bytes(int field, byte[] value) {
+			writeVarint(((long) field << 3) | 2);
+			writeVarint(value.length);
+			out.writeBytes(value);
+			return this;
+		}
+
+		Message string(int field, String value) {
+			return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Message message(int field, Message value) {
+			return bytes(field, value.bytes());
+		}
+
+		Message packed(int field, long... values) {
+			Message packed = new Message();
+			for (long value : values) {
+				packed.writeVarint(value);
+			}
+			return bytes(field, packed.bytes());
+		}
+
+		Message packedSigned(int field, long... values) {
+			long[] zigZag = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				zigZag[i] = (values[i] << 1) ^ (values[i] >> 63);
+			}
+			return packed(field, zigZag);
+		}
+
+		byte[] bytes() {
+			return out.toByteArray();
+		}
+
+		private void writeVarint(long value) {
+			while ((value & ~0x7FL) != 0) {
+				out.write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			out.write((int) value);
+		}
+	}
+}
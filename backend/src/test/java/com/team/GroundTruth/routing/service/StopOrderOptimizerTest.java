@@ -0,0 +1,49 @@
+package com.team.GroundTruth.routing.service;
+
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StopOrderOptimizerTest {
+
+	private static final double INF = Double.POSITIVE_INFINITY;
+
+	@Test
+	void testTwoStopsKeepOrder() {
+		assertArrayEquals(new int[]{0, 1}, StopOrderOptimizer.solve(new double[][]{
+				{0, 5},
+				{5, 0}
+		}));
+	}
+
+	@Test
+	void testReordersIntermediateStops() {
+		// Stops on a line: 0 at x=0, 1 at x=3, 2 at x=1, 3 at x=2, destination 4 at x=4.
+		double[] x = {0, 3, 1, 2, 4};
+		double[][] costs = new double[x.length][x.length];
+		for (int i = 0; i < x.length; i++) {
+			for (int j = 0; j < x.length; j++) {
+				costs[i][j] = Math.abs(x[i] - x[j]);
+			}
+		}
+
+		assertArrayEquals(new int[]{0, 2, 3, 1, 4}, StopOrderOptimizer.solve(costs));
+	}
+
+	@Test
+	void testRespectsOneWayLegs() {
+		double[][] costs = {
+				{0, 1, INF, INF},
+				{INF, 0, INF, 1},
+				{INF, INF, 0, 1},
+				{INF, INF, INF, 0}
+		};
+
+		assertThrows(NoRouteFoundException.class, () -> StopOrderOptimizer.solve(costs));
+
+		costs[1][2] = 1;
+		assertArrayEquals(new int[]{0, 1, 2, 3}, StopOrderOptimizer.solve(costs));
+	}
+}
@@ -0,0 +1,108 @@
+package com.team.GroundTruth.routing.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalkSafeCostWorkerTest {
+
+	private final List<long[]> recomputed = new ArrayList<>();
+	private final AtomicInteger published = new AtomicInteger();
+	private WalkSafeCostWorker worker;
+
+	@AfterEach
+	void tearDown() {
+		if (worker != null) {
+			worker.shutdown();
+		}
+	}
+
+	@Test
+	void testBurstOfMarksCoalescesIntoOneRecompute() throws Exception {
+		worker = new WalkSafeCostWorker(this::recordRecompute, published::incrementAndGet, 100);
+
+		CompletableFuture<Void> first = worker.markDirty(List.of(1L, 2L));
+		CompletableFuture<Void> second = worker.markDirty(List.of(2L, 3L));
+		CompletableFuture<Void> third = worker.markDirty(List.of(1L));
+		assertEquals(3, worker.pending());
+
+		CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+		synchronized (recomputed) {
+			assertEquals(1, recomputed.size());
+			long[] ids = recomputed.get(0).clone();
+			Arrays.sort(ids);
+			assertArrayEquals(new long[]{1L, 2L, 3L}, ids);
+		}
+		assertEquals(1, published.get());
+		assertEquals(0, worker.pending());
+	}
+
+	@Test
+	void testFlushWaitsForPendingEdges() throws Exception {
+		worker = new WalkSafeCostWorker(this::recordRecompute, published::incrementAndGet, 50);
+
+		assertTrue(worker.flush().isDone());
+		worker.markDirty(List.of(7L));
+		worker.flush().get(5, TimeUnit.SECONDS);
+
+		synchronized (recomputed) {
+			assertEquals(1, recomputed.size());
+		}
+		assertTrue(worker.flush().isDone());
+	}
+
+	@Test
+	void testUnchangedCostsAreNotPublished() throws Exception {
+		worker = new WalkSafeCostWorker(ids -> 0, published::incrementAndGet, 0);
+
+		worker.markDirty(List.of(1L)).get(5, TimeUnit.SECONDS);
+
+		assertEquals(0, published.get());
+	}
+
+	@Test
+	void testEmptyMarkCompletesImmediately() {
+		worker = new WalkSafeCostWorker(this::recordRecompute, published::incrementAndGet, 1_000);
+
+		assertTrue(worker.markDirty(List.of()).isDone());
+		assertEquals(0, worker.pending());
+	}
+
+	@Test
+	void testFailedRecomputeFailsCoveredMarks() {
+		worker = new WalkSafeCostWorker(ids -> {
+			throw new IllegalStateException("database down");
+		}, published::incrementAndGet, 0);
+
+		CompletableFuture<Void> done = worker.markDirty(List.of(1L));
+
+		CompletionException ex = assertThrows(CompletionException.class, done::join);
+		assertTrue(ex.getCause() instanceof IllegalStateException);
+		assertEquals(0, published.get());
+	}
+
+	@Test
+	void testRejectsNegativeDelay() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new WalkSafeCostWorker(ids -> 0, () -> { }, -1));
+	}
+
+	private int recordRecompute(long[] edgeIds) {
+		synchronized (recomputed) {
+			recomputed.add(edgeIds);
+		}
+		return edgeIds.length;
+	}
+}
@@ -0,0 +1,34 @@
+package com.team.GroundTruth.routing.service;
+
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WalkSafeModifierWriterTest {
+
+	@Test
+	void testMergeSetsOnlyGivenValues() {
+		WalkSafeModifierEntity modifier = new WalkSafeModifierEntity(1L);
+		modifier.setStreetlight(0.4);
+
+		WalkSafeModifierWriter.merge(modifier, new WalkSafeModifierUpdate(0.0, 0.0, 50.0, 0.7, null, null));
+
+		assertEquals(0.7, modifier.getPopDensity(), 1e-9);
+		assertEquals(0.4, modifier.getStreetlight(), 1e-9);
+		assertNull(modifier.getCrimeInArea());
+	}
+
+	@Test
+	void testMergeLaterUpdateWins() {
+		WalkSafeModifierEntity modifier = new WalkSafeModifierEntity(1L);
+
+		WalkSafeModifierWriter.merge(modifier, new WalkSafeModifierUpdate(0.0, 0.0, 50.0, null, 0.2, 0.9));
+		WalkSafeModifierWriter.merge(modifier, new WalkSafeModifierUpdate(0.0, 0.0, 50.0, null, null, 0.1));
+
+		assertNull(modifier.getPopDensity());
+		assertEquals(0.2, modifier.getStreetlight(), 1e-9);
+		assertEquals(0.1, modifier.getCrimeInArea(), 1e-9);
+	}
+}
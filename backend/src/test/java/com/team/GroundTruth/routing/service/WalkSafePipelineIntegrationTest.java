@@ -158,6 +158,7 @@ class WalkSafePipelineIntegrationTest {
 
 		// Update crime in the area covering edge 1 (centered on node 1)
 		int updated = walkSafeService.updateCrimeInArea(-73.9857, 40.7580, 50.0, 0.5);
+		walkSafeService.awaitCostUpdates().join();
 
 		assertTrue(updated > 0, "Should update at least one edge");
 
@@ -181,6 +182,7 @@ class WalkSafePipelineIntegrationTest {
 		walkSafeService.updateCrimeInArea(-73.9857, 40.7580, 50.0, 0.5);      // 1.5x
 		walkSafeService.updateStreetlight(-73.9857, 40.7580, 50.0, 0.5);      // 1.5x
 		walkSafeService.updatePopDensity(-73.9857, 40.7580, 50.0, 0.5);       // 1.3x
+		walkSafeService.awaitCostUpdates().join();
 
 		// Total multiplier: 1.5 * 1.5 * 1.3 = 2.925
 		// New cost = 60 * 2.925 = 175.5
@@ -188,6 +190,52 @@ class WalkSafePipelineIntegrationTest {
 		assertEquals(175.5, costs.get(0).getCostSeconds(), 1e-6);
 	}
 
+	@Test
+	void testUpdateModifiersBatch_mergesInOrderAndKeepsStoredValues() {
+		walkSafeService.initializeEdgeCosts();
+		walkSafeService.updateStreetlight(-73.9857, 40.7580, 50.0, 0.5);     // 1.5x, kept by the batch
+
+		int updated = walkSafeService.updateModifiers(List.of(
+				new WalkSafeModifierUpdate(-73.9857, 40.7580, 50.0, null, null, 0.2),
+				new WalkSafeModifierUpdate(-73.9857, 40.7580, 50.0, 0.5, null, 0.5)   // 1.3x, 1.5x
+		));
+		walkSafeService.awaitCostUpdates().join();
+
+		assertTrue(updated > 0, "Should update at least one edge");
+		WalkSafeModifierEntity modifier = modifierRepository.findByEdgeIds(new long[]{1L}).get(0);
+		assertEquals(0.5, modifier.getPopDensity(), 1e-6);
+		assertEquals(0.5, modifier.getStreetlight(), 1e-6);
+		assertEquals(0.5, modifier.getCrimeInArea(), 1e-6);
+
+		// Same as updating the three modifiers one by one: 60 * 2.925 = 175.5
+		List<WalkSafeEdgeCostEntity> costs = costRepository.findByEdgeIds(new long[]{1L});
+		assertEquals(175.5, costs.get(0).getCostSeconds(), 1e-6);
+	}
+
+	@Test
+	void testUpdateEdgeModifiers_writesOnlyNamedWalkEdges() {
+		walkSafeService.initializeEdgeCosts();
+
+		int updated = walkSafeService.updateEdgeModifiers(List.of(
+				new WalkSafeEdgeModifiers(1L, 40.75825, -73.98535, 1.0, 1.0, 1.0),
+				new WalkSafeEdgeModifiers(3L, 40.7585, -73.9851, 1.0, 1.0, 1.0),     // drive edge
+				new WalkSafeEdgeModifiers(99L, 40.7585, -73.9851, 1.0, 1.0, 1.0),    // no such edge
+				new WalkSafeEdgeModifiers(1L, 40.75825, -73.98535, 0.5, 0.5, 0.5)    // 1.3x, 1.5x, 1.5x
+		));
+		walkSafeService.awaitCostUpdates().join();
+
+		assertEquals(1, updated);
+		List<WalkSafeModifierEntity> modifiers = modifierRepository.findByEdgeIds(new long[]{1L, 2L, 3L});
+		assertEquals(1, modifiers.size(), "Only edge 1 should have modifiers, not its neighbours");
+		assertEquals(0.5, modifiers.get(0).getPopDensity(), 1e-6);
+		assertEquals(0.5, modifiers.get(0).getStreetlight(), 1e-6);
+		assertEquals(0.5, modifiers.get(0).getCrimeInArea(), 1e-6);
+
+		// 60 * 1.3 * 1.5 * 1.5 = 175.5; edge 2, 20 m away, keeps its base cost
+		assertEquals(175.5, costRepository.findByEdgeIds(new long[]{1L}).get(0).getCostSeconds(), 1e-6);
+		assertEquals(48.0, costRepository.findByEdgeIds(new long[]{2L}).get(0).getCostSeconds(), 1e-6);
+	}
+
 	@Test
 	void testSafeArea_reducesCost() {
 		walkSafeService.initializeEdgeCosts();
@@ -195,6 +243,7 @@ class WalkSafePipelineIntegrationTest {
 		// Safe area: high density, good lighting, low crime
 		walkSafeService.updatePopDensity(-73.9857, 40.7580, 50.0, 1.0);       // 0.3x
 		walkSafeService.updateStreetlight(-73.9857, 40.7580, 50.0, 1.0);      // 0.5x
+		walkSafeService.awaitCostUpdates().join();
 
 		// Total multiplier: 0.3 * 0.5 = 0.15
 		// New cost = 60 * 0.15 = 9
@@ -210,6 +259,7 @@ class WalkSafePipelineIntegrationTest {
 		walkSafeService.updatePopDensity(-73.9857, 40.7580, 50.0, 0.1);       // 1.5x (capped)
 		walkSafeService.updateStreetlight(-73.9857, 40.7580, 50.0, 0.0);      // 1.5x (capped)
 		walkSafeService.updateCrimeInArea(-73.9857, 40.7580, 50.0, 1.0);      // 2.0x
+		walkSafeService.awaitCostUpdates().join();
 
 		// Total multiplier: 1.5 * 1.5 * 2.0 = 4.5
 		// New cost = 60 * 4.5 = 270
@@ -223,9 +273,29 @@ class WalkSafePipelineIntegrationTest {
 
 		// Update with very small radius that won't include edge 2
 		walkSafeService.updateCrimeInArea(-73.9857, 40.7580, 10.0, 1.0);
+		walkSafeService.awaitCostUpdates().join();
 
 		// Edge 2 should still have base cost
 		List<WalkSafeEdgeCostEntity> costs = costRepository.findByEdgeIds(new long[]{2L});
 		assertEquals(48.0, costs.get(0).getCostSeconds(), 1e-6, "Edge 2 should be unaffected");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testInitializeEdgeCosts_rewritesOnlyChangedCosts() {
+		walkSafeService.initializeEdgeCosts();
+		jdbcTemplate.execute("UPDATE walk_safe_edge_costs SET updated_at = '2000-01-01T00:00:00Z'");
+
+		// Modifier written outside the service; only edge 1 changes on the next pass
+		jdbcTemplate.execute("INSERT INTO walk_safe_modifiers (edge_id, crime_in_area) VALUES (1, 0.5)");
+		int count = walkSafeService.initializeEdgeCosts();
+
+		assertEquals(2, count);
+		List<WalkSafeEdgeCostEntity> costs = costRepository.findByEdgeIds(new long[]{1L, 2L});
+		WalkSafeEdgeCostEntity cost1 = costs.stream().filter(c -> c.getEdgeId() == 1L).findFirst().orElseThrow();
+		WalkSafeEdgeCostEntity cost2 = costs.stream().filter(c -> c.getEdgeId() == 2L).findFirst().orElseThrow();
+		assertEquals(90.0, cost1.getCostSeconds(), 1e-6);
+		assertEquals(48.0, cost2.getCostSeconds(), 1e-6);
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM walk_safe_edge_costs WHERE updated_at > '2000-01-01T00:00:00Z'", Integer.class));
+	}
+}
@@ -3,8 +3,6 @@ package com.team.GroundTruth.routing.service;
 import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Method;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 class WalkSafeServiceTest {
@@ -154,34 +152,21 @@ class WalkSafeServiceTest {
 	}
 
 	/**
-	 * Uses reflection to call the private computeCost method.
+	 * Calls the cost formula shared by the bulk and incremental recompute paths.
 	 */
-	private double invokeComputeCost(double baseCost, WalkSafeModifierEntity modifier) throws Exception {
-		// Create a minimal service instance with null repos (not used by computeCost)
-		WalkSafeServiceImpl service = createServiceWithNullRepos();
-
-		Method method = WalkSafeServiceImpl.class.getDeclaredMethod(
-				"computeCost", double.class, WalkSafeModifierEntity.class);
-		method.setAccessible(true);
-		return (double) method.invoke(service, baseCost, modifier);
+	private double invokeComputeCost(double baseCost, WalkSafeModifierEntity modifier) {
+		if (modifier == null) {
+			return WalkSafeCostMaterializer.computeCost(baseCost, Double.NaN, Double.NaN, Double.NaN);
+		}
+		return WalkSafeCostMaterializer.computeCost(
+				baseCost,
+				valueOf(modifier.getPopDensity()),
+				valueOf(modifier.getStreetlight()),
+				valueOf(modifier.getCrimeInArea())
+		);
 	}
 
-	/**
-	 * Creates a service instance bypassing null checks for testing private methods.
-	 */
-	private WalkSafeServiceImpl createServiceWithNullRepos() throws Exception {
-		java.lang.reflect.Constructor<WalkSafeServiceImpl> constructor =
-				WalkSafeServiceImpl.class.getDeclaredConstructor(
-						com.team.GroundTruth.routing.repo.EdgeRepository.class,
-						com.team.GroundTruth.routing.repo.WalkSafeModifierRepository.class,
-						com.team.GroundTruth.routing.repo.WalkSafeEdgeCostRepository.class
-				);
-
-		// Use mock objects to satisfy non-null checks
-		return new WalkSafeServiceImpl(
-				org.mockito.Mockito.mock(com.team.GroundTruth.routing.repo.EdgeRepository.class),
-				org.mockito.Mockito.mock(com.team.GroundTruth.routing.repo.WalkSafeModifierRepository.class),
-				org.mockito.Mockito.mock(com.team.GroundTruth.routing.repo.WalkSafeEdgeCostRepository.class)
-		);
+	private static double valueOf(Double value) {
+		return value != null ? value : Double.NaN;
 	}
 }
\ No newline at end of file
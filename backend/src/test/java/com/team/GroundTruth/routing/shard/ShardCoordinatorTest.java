@@ -0,0 +1,221 @@
+package com.team.GroundTruth.routing.shard;
+
+import com.team.GroundTruth.routing.astar.AStarRouter;
+import com.team.GroundTruth.routing.exception.NoRouteFoundException;
+import com.team.GroundTruth.routing.graph.EdgeCostSnapshot;
+import com.team.GroundTruth.routing.graph.EdgeFlags;
+import com.team.GroundTruth.routing.graph.RoutingGraph;
+import com.team.GroundTruth.routing.graph.RoutingGraphBuilder;
+import com.team.GroundTruth.routing.graph.TileGrid;
+import com.team.GroundTruth.routing.model.RouteResult;
+import com.team.GroundTruth.routing.model.RouteType;
+import com.team.GroundTruth.routing.model.RoutingProfile;
+import com.team.GroundTruth.routing.model.TravelMode;
+import java.lang.foreign.MemorySegment;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTest {
+
+	private static final int SIZE = 30;
+	// Stripes of 0.004 degrees dealt to three shards, so a route crosses borders and revisits shards.
+	private static final ShardLayout LAYOUT = new ShardLayout(new TileGrid(0.002), 3, 2);
+
+	@Test
+	void testStitchedRoutesMatchWholeGraphSearch() {
+		RoutingGraph graph = grid(new Random(39L));
+		double[] costs = graph.copyBaseCosts();
+		EdgeCostSnapshot snapshot = snapshot(graph, costs);
+		AStarRouter router = new AStarRouter();
+		ShardCoordinator coordinator = new ShardCoordinator(
+				new InProcessShardTransport(LAYOUT, mode -> graph, routeType -> snapshot, router));
+
+		Random random = new Random(7L);
+		int compared = 0;
+		for (int query = 0; query < 80; query++) {
+			int from = random.nextInt(graph.nodeCount());
+			int to = random.nextInt(graph.nodeCount());
+			long blockedMask = query % 2 == 0 ? EdgeFlags.NONE : RoutingProfile.WHEELCHAIR.blockedMask();
+			ShardCoordinator.ShardNode start = coordinator.nearestNode(graph.lat(from), graph.lon(from), TravelMode.WALK);
+			ShardCoordinator.ShardNode goal = coordinator.nearestNode(graph.lat(to), graph.lon(to), TravelMode.WALK);
+			assertNotNull(start);
+			assertEquals(graph.nodeId(from), start.nodeId());
+			assertEquals(LAYOUT.shardOf(graph.lat(from), graph.lon(from)), start.shard());
+
+			double expected = router.oneToMany(graph, from, new int[]{to}, snapshot.costs(), blockedMask).cost(to);
+			if (expected == Double.POSITIVE_INFINITY) {
+				assertThrows(NoRouteFoundException.class,
+						() -> coordinator.route(start, goal, RouteType.FASTEST, blockedMask));
+				continue;
+			}
+			RouteResult route = coordinator.route(start, goal, RouteType.FASTEST, blockedMask);
+			assertEquals(expected, route.durationSeconds(), 1e-6);
+			assertContiguous(graph, costs, blockedMask, route);
+			assertEquals(graph.nodeId(from), route.pathNodeIds().getFirst());
+			assertEquals(graph.nodeId(to), route.pathNodeIds().getLast());
+			compared++;
+		}
+		assertTrue(compared > 40);
+	}
+
+	@Test
+	void testShardsPartitionEdgesAndExitIntoNeighbourEntries() {
+		RoutingGraph graph = grid(new Random(40L));
+		EdgeCostSnapshot snapshot = snapshot(graph, graph.copyBaseCosts());
+		InProcessShardTransport transport = new InProcessShardTransport(LAYOUT, mode -> graph,
+				routeType -> snapshot, new AStarRouter());
+
+		Set<Long> edgeIds = new HashSet<>();
+		int edges = 0;
+		for (int shard = 0; shard < LAYOUT.shardCount(); shard++) {
+			RoutingGraph local = transport.endpoint(TravelMode.WALK, shard).graph();
+			edges += local.edgeCount();
+			for (int edge = 0; edge < local.edgeCount(); edge++) {
+				edgeIds.add(local.edgeId(edge));
+			}
+			BoundaryTable table = transport.endpoint(TravelMode.WALK, shard).boundaryTable(RouteType.FASTEST,
+					EdgeFlags.NONE);
+			assertTrue(table.exitNodeIds().length > 0);
+			for (int exit = 0; exit < table.exitNodeIds().length; exit++) {
+				int neighbour = table.exitShards()[exit];
+				assertTrue(neighbour != shard);
+				long[] entries = transport.endpoint(TravelMode.WALK, neighbour)
+						.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE).entryNodeIds();
+				long exitId = table.exitNodeIds()[exit];
+				assertTrue(Arrays.stream(entries).anyMatch(entry -> entry == exitId));
+			}
+		}
+
+		assertEquals(graph.edgeCount(), edges);
+		assertEquals(graph.edgeCount(), edgeIds.size());
+	}
+
+	@Test
+	void testBoundaryTablesFollowCostSnapshots() {
+		RoutingGraph graph = grid(new Random(41L));
+		double[] costs = graph.copyBaseCosts();
+		AtomicReference<EdgeCostSnapshot> current = new AtomicReference<>(snapshot(graph, costs));
+		GraphShard shard = GraphShard.of(0, graph, LAYOUT, routeType -> current.get(), new AStarRouter());
+
+		BoundaryTable before = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		assertSame(before, shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE));
+		double[] doubled = Arrays.stream(costs).map(cost -> cost * 2.0).toArray();
+		current.set(snapshot(graph, doubled));
+		BoundaryTable after = awaitRebuild(shard, before);
+
+		int finite = 0;
+		for (int i = 0; i < before.costs().length; i++) {
+			if (before.costs()[i] != Double.POSITIVE_INFINITY) {
+				assertEquals(before.costs()[i] * 2.0, after.costs()[i], 1e-6);
+				finite++;
+			}
+		}
+		assertTrue(finite > 0);
+	}
+
+	@Test
+	void testSnapshotWithSameCostsKeepsBoundaryTables() {
+		RoutingGraph graph = grid(new Random(42L));
+		double[] costs = graph.copyBaseCosts();
+		AtomicReference<EdgeCostSnapshot> current = new AtomicReference<>(snapshot(graph, costs));
+		GraphShard shard = GraphShard.of(0, graph, LAYOUT, routeType -> current.get(), new AStarRouter());
+
+		BoundaryTable before = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		current.set(snapshot(graph, costs.clone()));
+
+		assertSame(before, shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE));
+	}
+
+	@Test
+	void testChangedCostsServePreviousTableUntilRebuilt() {
+		RoutingGraph graph = grid(new Random(43L));
+		double[] costs = graph.copyBaseCosts();
+		AtomicReference<EdgeCostSnapshot> current = new AtomicReference<>(snapshot(graph, costs));
+		GraphShard shard = GraphShard.of(0, graph, LAYOUT, routeType -> current.get(), new AStarRouter());
+
+		BoundaryTable before = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		current.set(snapshot(graph, Arrays.stream(costs).map(cost -> cost * 3.0).toArray()));
+		BoundaryTable served = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		BoundaryTable after = awaitRebuild(shard, before);
+
+		assertTrue(served == before || served == after);
+		assertNotSame(before, after);
+		assertSame(after, shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE));
+	}
+
+	/**
+	 * Waits for the background rebuild that replaces a boundary table.
+	 */
+	private static BoundaryTable awaitRebuild(GraphShard shard, BoundaryTable previous) {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		BoundaryTable table = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		while (table == previous && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+			table = shard.boundaryTable(RouteType.FASTEST, EdgeFlags.NONE);
+		}
+		assertNotSame(previous, table);
+		return table;
+	}
+
+	private static void assertContiguous(RoutingGraph graph, double[] costs, long blockedMask, RouteResult route) {
+		List<Long> nodes = route.pathNodeIds();
+		List<Long> edges = route.pathEdgeIds();
+		assertEquals(nodes.size(), edges.size() + 1);
+		double duration = 0.0;
+		for (int i = 0; i < edges.size(); i++) {
+			int edge = graph.indexOfEdge(edges.get(i));
+			int source = graph.indexOfNode(nodes.get(i));
+			assertTrue(edge >= graph.firstEdge(source) && edge < graph.endEdge(source));
+			assertEquals(nodes.get(i + 1), graph.nodeId(graph.edgeTarget(edge)));
+			assertEquals(0L, graph.edgeFlags(edge) & blockedMask);
+			duration += costs[edge];
+		}
+		assertEquals(duration, route.durationSeconds(), 1e-6);
+	}
+
+	private static EdgeCostSnapshot snapshot(RoutingGraph graph, double[] costs) {
+		return new EdgeCostSnapshot(graph, RouteType.FASTEST, MemorySegment.ofArray(costs), Instant.now());
+	}
+
+	/**
+	 * Builds a grid with 0.001 degree spacing, a few missing links and some steps.
+	 */
+	private static RoutingGraph grid(Random random) {
+		RoutingGraphBuilder builder = new RoutingGraphBuilder(TravelMode.WALK);
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				builder.addNode(row * SIZE + col + 1, 47.6002 + row * 0.001, -122.3398 + col * 0.001);
+			}
+		}
+		long edgeId = 1L;
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				long node = (long) row * SIZE + col + 1;
+				long[] neighbours = {col + 1 < SIZE ? node + 1 : -1, row + 1 < SIZE ? node + SIZE : -1};
+				for (long neighbour : neighbours) {
+					if (neighbour < 0 || random.nextInt(6) == 0) {
+						continue;
+					}
+					long flags = random.nextInt(10) == 0 ? EdgeFlags.of("steps", null) : EdgeFlags.of("footway", null);
+					double length = neighbour == node + 1 ? 75.0 : 111.0;
+					builder.addEdge(edgeId++, node, neighbour, length, length * (1.0 + random.nextDouble()), flags);
+					builder.addEdge(edgeId++, neighbour, node, length, length * (1.0 + random.nextDouble()), flags);
+				}
+			}
+		}
+		return builder.build();
+	}
+}
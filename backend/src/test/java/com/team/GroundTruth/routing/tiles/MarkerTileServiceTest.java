@@ -0,0 +1,201 @@
+package com.team.GroundTruth.routing.tiles;
+
+import com.team.GroundTruth.entity.maps.WalkSafeModifierEntity;
+import com.team.GroundTruth.repository.HazardLocation;
+import com.team.GroundTruth.repository.HazardRepository;
+import com.team.GroundTruth.routing.graph.EdgeGeometryStore;
+import com.team.GroundTruth.routing.repo.WalkSafeModifierRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarkerTileServiceTest {
+
+	private static final double LAT = 41.8268;
+	private static final double LON = -71.4025;
+
+	@Test
+	void testTileAddressProjectsPointsIntoTheirTile() {
+		TileAddress tile = TileAddress.containing(15, LAT, LON);
+
+		assertTrue(tile.west() <= LON && LON < tile.east());
+		assertTrue(tile.south() <= LAT && LAT < tile.north());
+		double x = tile.tileX(LON, 4096);
+		double y = tile.tileY(LAT, 4096);
+		assertTrue(x >= 0 && x < 4096 && y >= 0 && y < 4096);
+		assertEquals(0.0, tile.tileX(tile.west(), 4096), 1e-6);
+		assertEquals(4096.0, tile.tileY(tile.south(), 4096), 1e-6);
+		assertThrows(IllegalArgumentException.class, () -> new TileAddress(3, 8, 0));
+		assertThrows(IllegalArgumentException.class, () -> new TileAddress(23, 0, 0));
+	}
+
+	@Test
+	void testEncoderWritesLayersFeaturesAndSharedValues() {
+		TileAddress tile = new TileAddress(0, 0, 0);
+		VectorTileEncoder encoder = new VectorTileEncoder(tile, 4096);
+		encoder.addPoint("hazards", 0.0, 0.0, Map.of("type", "ice"));
+		encoder.addPoint("hazards", 0.0, 90.0, Map.of("type", "ice"));
+		assertTrue(encoder.addLine("risks", new double[]{-180.0, 0.0, 0.0, 0.0, 0.0, 0.0}, Map.of("value", 0.25)));
+		assertFalse(encoder.addLine("risks", new double[]{0.0, 0.0, 1e-6, 0.0}, Map.of()));
+
+		List<Message> layers = Message.parse(encoder.encode()).all(3);
+		assertEquals(2, layers.size());
+		Message hazards = layers.getFirst();
+		assertEquals("hazards", hazards.string(1));
+		assertEquals(2L, hazards.varint(15));
+		assertEquals(4096L, hazards.varint(5));
+		assertEquals(List.of("type"), hazards.strings(3));
+		assertEquals(1, hazards.all(4).size());
+		List<Message> features = hazards.all(2);
+		assertEquals(2, features.size());
+		// MoveTo(1) to the tile centre, then to 3/4 of the width relative to the first point's cursor.
+		assertArrayEquals(new long[]{9, 4096, 4096}, features.get(0).packed(4));
+		assertArrayEquals(new long[]{9, 6144, 4096}, features.get(1).packed(4));
+		assertArrayEquals(new long[]{0, 0}, features.get(1).packed(2));
+
+		Message risk = layers.get(1).all(2).getFirst();
+		assertEquals(2L, risk.varint(3));
+		// MoveTo(1) to the left edge, LineTo(1) to the centre; the repeated point is dropped.
+		assertArrayEquals(new long[]{9, 0, 4096, 10, 4096, 0}, risk.packed(4));
+	}
+
+	@Test
+	void testTilesAreCachedAndInvalidatedAroundChanges() {
+		HazardRepository hazards = mock(HazardRepository.class);
+		WalkSafeModifierRepository modifiers = mock(WalkSafeModifierRepository.class);
+		EdgeGeometryStore shapes = mock(EdgeGeometryStore.class);
+		HazardLocation ice = hazard("ice", LAT, LON);
+		when(hazards.findHazardsInBounds(anyFloat(), anyFloat(), anyFloat(), anyFloat(), anyDouble()))
+				.thenReturn(List.of(ice));
+		WalkSafeModifierEntity dark = new WalkSafeModifierEntity(5L);
+		dark.setStreetlight(0.1);
+		dark.setCrimeInArea(0.9);
+		when(modifiers.findRiskyAreasInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+				anyDouble(), anyDouble())).thenReturn(List.of(dark));
+		when(shapes.shapes(any(long[].class), any(int[].class))).thenAnswer(invocation -> {
+			int[] offsets = invocation.getArgument(1);
+			offsets[0] = 0;
+			offsets[1] = 2;
+			return new double[]{LON, LAT, LON + 0.001, LAT + 0.001};
+		});
+		MarkerTileService service = new MarkerTileService(hazards, modifiers, shapes, 12, 16);
+
+		TileAddress here = TileAddress.containing(16, LAT, LON);
+		TileAddress far = TileAddress.containing(16, LAT + 0.05, LON);
+		byte[] tile = service.tile(here);
+		assertSame(tile, service.tile(here));
+		service.tile(far);
+		assertEquals(0, service.tile(new TileAddress(11, 0, 0)).length);
+		assertEquals(2, service.cachedTiles());
+
+		List<Message> layers = Message.parse(tile).all(3);
+		assertEquals(List.of("hazards", "risks"), layers.stream().map(layer -> layer.string(1)).toList());
+		assertEquals(2, layers.get(1).all(2).size());
+
+		service.invalidate(LAT, LON, 10.0);
+		assertEquals(1, service.cachedTiles());
+		service.tile(far);
+		service.tile(here);
+		verify(hazards, times(3)).findHazardsInBounds(anyFloat(), anyFloat(), anyFloat(), anyFloat(), anyDouble());
+
+		service.invalidateAll();
+		assertEquals(0, service.cachedTiles());
+		verify(modifiers, never()).findRiskyAreas(anyDouble(), anyDouble(), anyDouble());
+	}
+
+	private static HazardLocation hazard(String label, double lat, double lon) {
+		HazardLocation hazard = mock(HazardLocation.class);
+		when(hazard.getId()).thenReturn(UUID.randomUUID());
+		when(hazard.getLabel()).thenReturn(label);
+		when(hazard.getConfidence()).thenReturn(80.0);
+		when(hazard.getLatitude()).thenReturn((float) lat);
+		when(hazard.getLongitude()).thenReturn((float) lon);
+		return hazard;
+	}
+
+	/**
+	 * Minimal protobuf reader for asserting on encoded tiles.
+	 */
+	private record Message(List<int[]> fields, byte[] bytes) {
+
+		static Message parse(byte[] bytes) {
+			List<int[]> fields = new ArrayList<>();
+			int[] position = {0};
+			while (position[0] < bytes.length) {
+				long key = readVarint(bytes, position);
+				int start = position[0];
+				switch ((int) (key & 7)) {
+					case 0 -> readVarint(bytes, position);
+					case 1 -> position[0] += 8;
+					case 2 -> {
+						int length = (int) readVarint(bytes, position);
+						start = position[0];
+						position[0] += length;
+					}
+					default -> throw new IllegalStateException("Unexpected wire type " + (key & 7));
+				}
+				fields.add(new int[]{(int) (key >>> 3), start, position[0]});
+			}
+			return new Message(fields, bytes);
+		}
+
+		List<Message> all(int field) {
+			return fields.stream().filter(f -> f[0] == field)
+					.map(f -> parse(java.util.Arrays.copyOfRange(bytes, f[1], f[2]))).toList();
+		}
+
+		String string(int field) {
+			return strings(field).getFirst();
+		}
+
+		List<String> strings(int field) {
+			return fields.stream().filter(f -> f[0] == field)
+					.map(f -> new String(bytes, f[1], f[2] - f[1], StandardCharsets.UTF_8)).toList();
+		}
+
+		long varint(int field) {
+			int[] f = fields.stream().filter(candidate -> candidate[0] == field).findFirst().orElseThrow();
+			return readVarint(bytes, new int[]{f[1]});
+		}
+
+		long[] packed(int field) {
+			int[] f = fields.stream().filter(candidate -> candidate[0] == field).findFirst().orElseThrow();
+			List<Long> values = new ArrayList<>();
+			int[] position = {f[1]};
+			while (position[0] < f[2]) {
+				values.add(readVarint(bytes, position));
+			}
+			return values.stream().mapToLong(Long::longValue).toArray();
+		}
+
+		private static long readVarint(byte[] bytes, int[] position) {
+			long value = 0;
+			int shift = 0;
+			byte current;
+			do {
+				current = bytes[position[0]++];
+				value |= (long) (current & 0x7f) << shift;
+				shift += 7;
+			} while (current < 0);
+			return value;
+		}
+	}
+}